@@ -2,6 +2,7 @@ plugins {
     alias(libs.plugins.android.application)
     id("com.google.gms.google-services")
     alias(libs.plugins.secrets.gradle.plugin)
+    alias(libs.plugins.androidx.baselineprofile)
 }
 
 android {
@@ -20,12 +21,22 @@ android {
 
     buildTypes {
         release {
-            isMinifyEnabled = false
+            // R8 shrinks and optimises the code startup runs; the Firestore model classes
+            // are kept by proguard-rules.pro
+            isMinifyEnabled = true
+            isShrinkResources = true
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
                 "proguard-rules.pro"
             )
         }
+        // Release code, signed with the debug key, for the :macrobenchmark module to measure
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+        }
     }
 
     buildFeatures {
@@ -54,6 +65,11 @@ android {
     }
 }
 
+baselineProfile {
+    // Regenerate explicitly with :app:generateBaselineProfile, not on every release build
+    automaticGenerationDuringBuild = false
+}
+
 secrets {
     // To add your Maps API key to this project:
     // 1. If the secrets.properties file does not exist, create it in the same folder as the local.properties file.
@@ -75,10 +91,22 @@ dependencies {
     implementation("androidx.fragment:fragment:1.8.5")
     implementation("androidx.core:core:1.13.1")
 
+    // --- Background work ---
+    // Poster uploads that survive the app being closed
+    implementation("androidx.work:work-runtime:2.9.1")
+
     // --- Geolocation ---
     implementation("com.google.android.gms:play-services-location:21.0.1")
     implementation("com.google.android.gms:play-services-maps:18.1.0")
 
+    // --- Startup performance ---
+    // Installs the baseline profile on devices without Play Store cloud profiles
+    implementation("androidx.profileinstaller:profileinstaller:1.4.1")
+    // Trace sections around the startup phases, read by the macrobenchmarks
+    implementation("androidx.tracing:tracing:1.2.0")
+    // Generates src/release/generated/baselineProfiles/baseline-prof.txt
+    baselineProfile(project(":baselineprofile"))
+
     // --- Firebase ---
     implementation(platform("com.google.firebase:firebase-bom:34.4.0"))
     implementation("com.google.firebase:firebase-firestore")
@@ -90,6 +118,12 @@ dependencies {
     implementation("com.google.zxing:core:3.4.1")
     implementation("com.journeyapps:zxing-android-embedded:4.3.0")
     implementation("com.github.bumptech.glide:glide:5.0.5")
+    implementation("com.github.bumptech.glide:recyclerview-integration:5.0.5") {
+        // Uses the app's RecyclerView
+        isTransitive = false
+    }
+    // Generates the Glide setup from PosterGlideModule
+    annotationProcessor("com.github.bumptech.glide:compiler:5.0.5")
     implementation("com.google.android.flexbox:flexbox:3.0.0")
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
     implementation("com.google.auth:google-auth-library-oauth2-http:1.19.0")
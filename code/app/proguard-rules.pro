@@ -18,4 +18,43 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# --- Firestore model classes ---
+# Firestore maps documents to these classes by reflection (toObject/set), matching
+# document fields to their getters, setters and fields by name. Keep the no-argument
+# constructors and every member under its original name, or the fields are silently
+# dropped on read and written under obfuscated names.
+-keep class com.example.eventlottery.events.Event { *; }
+-keep class com.example.eventlottery.events.Waitlist { *; }
+-keep class com.example.eventlottery.events.FinalizedList { *; }
+-keep class com.example.eventlottery.users.User { *; }
+
+# Firestore reads its annotations (@Exclude, @PropertyName, ...) and generic field
+# types (List<User>, Map<String, String>) at runtime
+-keepattributes Signature,RuntimeVisibleAnnotations,AnnotationDefault,InnerClasses,EnclosingMethod
+
+# --- Serializable ---
+# Events and users are passed between activities as Serializable extras, and the event
+# cache writes them to disk with ObjectOutputStream
+-keepclassmembers class * implements java.io.Serializable {
+    static final long serialVersionUID;
+    private static final java.io.ObjectStreamField[] serialPersistentFields;
+    !static !transient <fields>;
+    private void writeObject(java.io.ObjectOutputStream);
+    private void readObject(java.io.ObjectInputStream);
+    java.lang.Object writeReplace();
+    java.lang.Object readResolve();
+}
+
+# --- Libraries ---
+# google-auth-library (FCM sender) references server-side classes that aren't on Android
+-dontwarn com.google.appengine.**
+-dontwarn com.google.errorprone.annotations.**
+-dontwarn javax.annotation.**
+-dontwarn javax.naming.**
+-dontwarn org.ietf.jgss.**
+-dontwarn org.slf4j.**
+
+# Readable stack traces from release builds
+-keepattributes SourceFile,LineNumberTable
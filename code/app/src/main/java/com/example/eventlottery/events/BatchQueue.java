@@ -0,0 +1,103 @@
+package com.example.eventlottery.events;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates Firestore writes and starts a new {@link WriteBatch} whenever the current one
+ * reaches {@link #MAX_BATCH_OPERATIONS}.
+ */
+class BatchQueue {
+    /** Firestore limit on the number of operations in a single batch. */
+    static final int MAX_BATCH_OPERATIONS = 500;
+
+    private final FirebaseFirestore db;
+    private final List<WriteBatch> batches = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private WriteBatch current;
+    private int operations;
+
+    /**
+     * Constructor for BatchQueue.
+     * @param db the Firestore instance the batches are created from
+     */
+    BatchQueue(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Queues a set of a document.
+     * @param ref the document to write
+     * @param data the document data
+     */
+    void set(DocumentReference ref, Map<String, Object> data) {
+        nextBatch().set(ref, data);
+    }
+
+    /**
+     * Queues a merge of fields into a document, leaving its other fields untouched.
+     * @param ref the document to update
+     * @param data the fields to merge
+     */
+    void merge(DocumentReference ref, Map<String, Object> data) {
+        nextBatch().set(ref, data, SetOptions.merge());
+    }
+
+    /**
+     * Queues a delete of a document.
+     * @param ref the document to delete
+     */
+    void delete(DocumentReference ref) {
+        nextBatch().delete(ref);
+    }
+
+    /**
+     * @return the batches queued so far, in order
+     */
+    List<WriteBatch> getBatches() {
+        return batches;
+    }
+
+    /**
+     * @param index the index of a batch in {@link #getBatches()}
+     * @return the number of operations queued in that batch
+     */
+    int getBatchSize(int index) {
+        return index == batches.size() - 1 ? operations : batchSizes.get(index);
+    }
+
+    /**
+     * Commits every queued batch at once.
+     * @return one commit task per batch
+     */
+    List<Task<Void>> commitAll() {
+        List<Task<Void>> commits = new ArrayList<>();
+        for (WriteBatch batch : batches) {
+            commits.add(batch.commit());
+        }
+        return commits;
+    }
+
+    /**
+     * Returns the batch the next operation goes into, starting a new one if the current one is full.
+     */
+    private WriteBatch nextBatch() {
+        if (current == null || operations >= MAX_BATCH_OPERATIONS) {
+            if (current != null) {
+                batchSizes.add(operations);
+            }
+            current = db.batch();
+            batches.add(current);
+            operations = 0;
+        }
+        operations++;
+        return current;
+    }
+}
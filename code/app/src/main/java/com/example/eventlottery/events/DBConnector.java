@@ -6,6 +6,7 @@ import android.provider.Settings;
 import android.util.Log;
 
 import com.example.eventlottery.model.EventDatabase;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.firebase.firestore.CollectionReference;
@@ -18,6 +19,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Connects to FirebaseFirestore database
@@ -138,6 +140,7 @@ public class DBConnector {
             } else {
                 getUserDoc(id)
                         .set(items, SetOptions.merge())
+                        .addOnSuccessListener(unused -> Repositories.userCache().invalidate(id))
                         .addOnCompleteListener(listener)
                         .addOnFailureListener(e -> {
                             Log.e(TAG, "Failed save info" + id, e);
@@ -157,7 +160,23 @@ public class DBConnector {
     }
 
     /**
-     * Loads the personal info of the user
+     * Loads a user through the shared user cache. Concurrent loads of the same user share one read,
+     * and users kept warm by a snapshot listener are returned without one.
+     * @param id: the UUID of the user
+     * @return a future completing on the main thread with the user, or with null if they don't exist
+     */
+    public CompletableFuture<User> loadUser(String id) {
+        return Repositories.users().getUser(id)
+                .whenComplete((user, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Failed to load info" + id, e);
+                    }
+                });
+    }
+
+    /**
+     * Loads the personal info of the user as a raw document, bypassing the user cache.
+     * Prefer {@link #loadUser(String)} unless the document itself is needed.
      * @param id: the UUID of the user
      * @param listener: listener called when loading user
      */
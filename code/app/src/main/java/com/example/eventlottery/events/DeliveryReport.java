@@ -0,0 +1,167 @@
+package com.example.eventlottery.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregate result of sending one notification to a batch of recipients.
+ * <p>
+ * Records the delivery status and latency of every recipient, the tokens FCM reported as
+ * no longer registered, and the total time the batch took. Recording methods are thread-safe,
+ * since responses arrive on the HTTP client's threads.
+ * </p>
+ */
+public class DeliveryReport {
+
+    /** Delivery status of a single recipient. */
+    public enum Status {
+        /** FCM accepted the message. */
+        SENT,
+        /** The recipient has no token or has notifications disabled, nothing was sent. */
+        SKIPPED,
+        /** FCM reported the token as unregistered or invalid. */
+        INVALID_TOKEN,
+        /** The request failed for another reason (network, quota, server error...). */
+        FAILED
+    }
+
+    /** An error status or error code of UNREGISTERED in an FCM error body. */
+    private static final Pattern UNREGISTERED =
+            Pattern.compile("\"(?:status|errorCode)\"\\s*:\\s*\"UNREGISTERED\"");
+    /** An error status or error code of INVALID_ARGUMENT in an FCM error body. */
+    private static final Pattern INVALID_ARGUMENT =
+            Pattern.compile("\"(?:status|errorCode)\"\\s*:\\s*\"INVALID_ARGUMENT\"");
+
+    private final Map<String, Status> statuses = new LinkedHashMap<>();
+    private final Map<String, Long> latenciesMillis = new HashMap<>();
+    private final Map<String, String> invalidTokens = new LinkedHashMap<>();
+    private final long startNanos;
+    private long durationMillis = -1;
+
+    /**
+     * Starts a report; the batch duration is measured from now.
+     */
+    public DeliveryReport() {
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the outcome for a recipient.
+     * @param userId the id of the recipient
+     * @param status the delivery status
+     * @param latencyMillis the time from sending the request to its response, or -1 if nothing was sent
+     */
+    public synchronized void record(String userId, Status status, long latencyMillis) {
+        statuses.put(userId, status);
+        if (latencyMillis >= 0) {
+            latenciesMillis.put(userId, latencyMillis);
+        }
+    }
+
+    /**
+     * Records that FCM rejected a recipient's token as unregistered or invalid.
+     * @param userId the id of the recipient
+     * @param token the rejected token
+     * @param latencyMillis the time from sending the request to its response
+     */
+    public synchronized void recordInvalidToken(String userId, String token, long latencyMillis) {
+        record(userId, Status.INVALID_TOKEN, latencyMillis);
+        invalidTokens.put(userId, token);
+    }
+
+    /**
+     * Marks the batch as finished and fixes its total duration.
+     */
+    public synchronized void finish() {
+        durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /** @return the status of every recipient, keyed by user id, in the order they were recorded */
+    public synchronized Map<String, Status> getStatuses() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(statuses));
+    }
+
+    /**
+     * @param userId the id of a recipient
+     * @return the status of the recipient, or null if they were not part of the batch
+     */
+    public synchronized Status getStatus(String userId) {
+        return statuses.get(userId);
+    }
+
+    /**
+     * @param userId the id of a recipient
+     * @return the request latency in milliseconds, or -1 if nothing was sent to them
+     */
+    public synchronized long getLatencyMillis(String userId) {
+        Long latency = latenciesMillis.get(userId);
+        return latency == null ? -1 : latency;
+    }
+
+    /** @return the rejected tokens, keyed by the id of the user they belonged to */
+    public synchronized Map<String, String> getInvalidTokens() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(invalidTokens));
+    }
+
+    /**
+     * @param status the status to count
+     * @return the number of recipients with that status
+     */
+    public synchronized int count(Status status) {
+        int count = 0;
+        for (Status recorded : statuses.values()) {
+            if (recorded == status) count++;
+        }
+        return count;
+    }
+
+    /** @return the ids of the recipients with the given status */
+    public synchronized List<String> getUserIds(Status status) {
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<String, Status> entry : statuses.entrySet()) {
+            if (entry.getValue() == status) ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    /** @return the number of recipients recorded */
+    public synchronized int size() {
+        return statuses.size();
+    }
+
+    /** @return the total duration of the batch in milliseconds, or -1 if it has not finished */
+    public synchronized long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Determines whether an FCM V1 error response means the token should no longer be used.
+     * FCM answers UNREGISTERED for tokens of uninstalled apps, and INVALID_ARGUMENT naming the
+     * registration token for malformed ones. The status code alone isn't enough: a wrong project
+     * ID or endpoint also answers 404, and must not cost every recipient their token.
+     * @param code the HTTP status code
+     * @param body the response body
+     * @return true if the token is unregistered or invalid
+     */
+    public static boolean isInvalidTokenResponse(int code, String body) {
+        if (body == null) return false;
+        if (UNREGISTERED.matcher(body).find()) return true;
+        return code == 400 && INVALID_ARGUMENT.matcher(body).find()
+                && (body.contains("registration token") || body.contains("message.token"));
+    }
+
+    /** @return a one-line summary of the batch */
+    @Override
+    public synchronized String toString() {
+        return "DeliveryReport{sent=" + count(Status.SENT)
+                + ", skipped=" + count(Status.SKIPPED)
+                + ", invalidTokens=" + count(Status.INVALID_TOKEN)
+                + ", failed=" + count(Status.FAILED)
+                + ", durationMs=" + durationMillis + "}";
+    }
+}
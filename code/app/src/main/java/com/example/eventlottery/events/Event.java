@@ -8,6 +8,7 @@ import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -35,6 +36,10 @@ public class Event implements Serializable {
     private String image;
     /** Storage path of event image */
     private String storagePath = "";
+    /** Download URLs of the image's sizes, by size ("thumbnail", "card", "full"); empty for older images. */
+    private Map<String, String> posterUrls = new HashMap<>();
+    /** Dominant colour of the image (ARGB), shown while it loads; 0 if unknown. */
+    private int posterColor;
     /** Start time of the event. */
     private Date startTime;
     /** End time of the event. */
@@ -251,6 +256,26 @@ public class Event implements Serializable {
         this.storagePath = storagePath;
     }
 
+    /** @return the download URLs of the image's sizes, by size; see {@code PosterVariants} */
+    public Map<String, String> getPosterUrls() {
+        return posterUrls;
+    }
+
+    /** @param posterUrls the download URLs of the image's sizes, by size */
+    public void setPosterUrls(Map<String, String> posterUrls) {
+        this.posterUrls = posterUrls != null ? posterUrls : new HashMap<>();
+    }
+
+    /** @return the dominant colour of the image (ARGB), or 0 if unknown; see {@code PosterColors} */
+    public int getPosterColor() {
+        return posterColor;
+    }
+
+    /** @param posterColor the dominant colour of the image (ARGB), or 0 if unknown */
+    public void setPosterColor(int posterColor) {
+        this.posterColor = posterColor;
+    }
+
     /** @return the event start time */
     public Date getStartTime() {
         return startTime;
@@ -0,0 +1,141 @@
+package com.example.eventlottery.events;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filters events by tag and by date, as selected on the filter screen.
+ * <p>
+ * An event passes the tag filter if it has any of the selected tags, and the date filter if it
+ * occurs on any of the selected days. When both filters are active an event must pass both.
+ * </p>
+ * <p>
+ * Also filters events by ID, for leaving the user's own events out of the main list, and
+ * sorts events by start time.
+ * </p>
+ */
+public final class EventFilter {
+    /** Length of a selected day, in milliseconds. */
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    /** Orders events by start time, events without one last. */
+    public static final Comparator<Event> BY_START_TIME = Comparator.comparing(
+            Event::getStartTime, Comparator.nullsLast(Comparator.<Date>naturalOrder()));
+
+    private EventFilter() {}
+
+    /**
+     * @param tags the selected tags (may be null)
+     * @param datesMidnight the selected days in midnight format (may be null)
+     * @return true if any tag or date is selected
+     */
+    public static boolean hasFilters(Collection<String> tags, Set<Long> datesMidnight) {
+        return (tags != null && !tags.isEmpty()) || (datesMidnight != null && !datesMidnight.isEmpty());
+    }
+
+    /**
+     * Applies the given filters to a list of events.
+     * @param events The events to filter
+     * @param tags The tags to filter by (null or empty to not filter by tag)
+     * @param datesMidnight The dates to filter by in midnight format (null or empty to not filter by date)
+     * @return a new list with the events passing every active filter, in their original order
+     */
+    public static List<Event> apply(List<Event> events, Collection<String> tags, Set<Long> datesMidnight) {
+        boolean hasTagFilter = (tags != null && !tags.isEmpty());
+        boolean hasDateFilter = (datesMidnight != null && !datesMidnight.isEmpty());
+
+        if (!hasTagFilter && !hasDateFilter) {
+            return new ArrayList<>(events);
+        }
+
+        List<Event> filtered = new ArrayList<>();
+
+        for (Event event : events) {
+            boolean passesTags = true;
+            boolean passesDates = true;
+
+            if (hasTagFilter) {
+                List<String> eventTags = event.getFilterTags();
+                passesTags = (eventTags != null) && !Collections.disjoint(eventTags, tags);
+            }
+
+            if (hasDateFilter) {
+                passesDates = occursOnAnySelectedDate(event, datesMidnight);
+            }
+
+            if (passesTags && passesDates) {
+                filtered.add(event);
+            }
+        }
+
+        return filtered;
+    }
+
+    /**
+     * Removes the events with the given IDs, e.g. the user's own events from the main list.
+     * @param events the events to filter
+     * @param excludedIds the IDs to leave out; a hash set, so each event is checked in O(1)
+     * @return a new list without those events, in their original order
+     */
+    public static List<Event> excludeIds(List<Event> events, Set<String> excludedIds) {
+        if (excludedIds == null || excludedIds.isEmpty()) {
+            return new ArrayList<>(events);
+        }
+        List<Event> kept = new ArrayList<>(events.size());
+        for (Event event : events) {
+            if (!excludedIds.contains(event.getId())) {
+                kept.add(event);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Finds where the events with the given IDs are in a list, for removing them one by one.
+     * @param events the events to search
+     * @param ids the IDs to look for
+     * @return the positions of the matching events, last first, so removing them in this
+     *         order doesn't shift the positions still to come
+     */
+    public static List<Integer> positionsOf(List<Event> events, Set<String> ids) {
+        List<Integer> positions = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return positions;
+        }
+        for (int i = events.size() - 1; i >= 0; i--) {
+            if (ids.contains(events.get(i).getId())) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Returns true if the event happens on ANY of the selected days.
+     * Each selected day is a 24-hour window [midnight..11:59:59.999].
+     * @param event The event to check
+     * @param selectedDaysMidnight The selected days in midnight format
+     * @return true if the event overlaps at least one selected day
+     */
+    public static boolean occursOnAnySelectedDate(Event event, Set<Long> selectedDaysMidnight) {
+        Date start = event.getStartTime();
+        Date end = event.getEndTime();
+        if (start == null) return false;
+        if (end == null) end = start;
+
+        long startMs = start.getTime();
+        long endMs = Math.max(end.getTime(), startMs);
+
+        for (Long dayStartMs : selectedDaysMidnight) {
+            long dayEndMs = dayStartMs + DAY_MILLIS - 1L;
+            boolean overlaps = (startMs <= dayEndMs) && (endMs >= dayStartMs);
+            if (overlaps) return true;
+        }
+        return false;
+    }
+}
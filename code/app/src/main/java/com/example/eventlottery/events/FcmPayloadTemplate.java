@@ -0,0 +1,185 @@
+package com.example.eventlottery.events;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A precompiled FCM API V1 message for a batch of recipients.
+ * <p>
+ * The title, body, type and event are the same for every recipient of a batch, so they
+ * are serialized once into UTF-8 byte segments when the template is created. Sending to a
+ * recipient only splices their token and user name between those segments, escaping them
+ * straight into the output stream without building any intermediate JSON objects.
+ * </p>
+ * <p>
+ * The message is data-only, so {@code MyFirebaseMessagingService} draws the notification even
+ * when the app is in the background or not running, and tapping it opens the event. A
+ * {@code notification} block would have the system draw it instead, opening the launcher:
+ * <pre>
+ * {"message":{"token":..,
+ *   "data":{"title":..,"body":..,"type":..,"eventName":..,"eventId":..,"userName":..},
+ *   "android":{"priority":"high"}}}
+ * </pre>
+ * This class has no Android dependencies so it can be benchmarked on the JVM.
+ * </p>
+ */
+public class FcmPayloadTemplate {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Everything before the token. */
+    private final byte[] head;
+    /** Everything between the token and the user name. */
+    private final byte[] middle;
+    /** Everything after the user name. */
+    private final byte[] tail;
+
+    /**
+     * Constructor for FcmPayloadTemplate.
+     * @param title Title of the notification.
+     * @param body Body of the notification.
+     * @param type Type of notification (e.g., selected, waitlist, invitation).
+     * @param eventName Name of the event.
+     * @param eventId ID of the event, or null to leave it out of the data payload.
+     */
+    public FcmPayloadTemplate(String title, String body, String type,
+                              String eventName, String eventId) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"message\":{\"token\":\"");
+        head = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        sb.setLength(0);
+        sb.append("\",\"data\":{\"title\":");
+        appendQuoted(sb, title);
+        sb.append(",\"body\":");
+        appendQuoted(sb, body);
+        sb.append(",\"type\":");
+        appendQuoted(sb, type);
+        sb.append(",\"eventName\":");
+        appendQuoted(sb, eventName);
+        if (eventId != null) {
+            sb.append(",\"eventId\":");
+            appendQuoted(sb, eventId);
+        }
+        sb.append(",\"userName\":\"");
+        middle = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        sb.setLength(0);
+        // High priority wakes the app to show the notification
+        sb.append("\"},\"android\":{\"priority\":\"high\"}}}");
+        tail = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Streams the message for one recipient.
+     * @param out the stream to write the UTF-8 encoded JSON to
+     * @param token the recipient's FCM token
+     * @param userName the recipient's name
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeTo(OutputStream out, String token, String userName) throws IOException {
+        out.write(head);
+        writeEscaped(out, token);
+        out.write(middle);
+        writeEscaped(out, userName);
+        out.write(tail);
+    }
+
+    /**
+     * Renders the message for one recipient as a string.
+     * @param token the recipient's FCM token
+     * @param userName the recipient's name
+     * @return the JSON message
+     */
+    public String render(String token, String userName) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(head.length + middle.length + tail.length + 256);
+        try {
+            writeTo(out, token, userName);
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a JSON string literal (with quotes). A null value is written as an empty string,
+     * FCM only accepts strings in the data payload.
+     */
+    private static void appendQuoted(StringBuilder sb, String value) {
+        sb.append('"');
+        if (value == null) {
+            sb.append('"');
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\b': sb.append("\\b"); break;
+                case '\f': sb.append("\\f"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Writes the escaped contents of a JSON string (without quotes) as UTF-8.
+     * A null value is written as an empty string.
+     */
+    private static void writeEscaped(OutputStream out, String value) throws IOException {
+        if (value == null) return;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write('\\'); out.write('"'); break;
+                case '\\': out.write('\\'); out.write('\\'); break;
+                case '\n': out.write('\\'); out.write('n'); break;
+                case '\r': out.write('\\'); out.write('r'); break;
+                case '\t': out.write('\\'); out.write('t'); break;
+                case '\b': out.write('\\'); out.write('b'); break;
+                case '\f': out.write('\\'); out.write('f'); break;
+                default:
+                    if (c < 0x20) {
+                        out.write('\\');
+                        out.write('u');
+                        out.write('0');
+                        out.write('0');
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xF]);
+                    } else if (c < 0x80) {
+                        out.write(c);
+                    } else if (c < 0x800) {
+                        out.write(0xC0 | (c >> 6));
+                        out.write(0x80 | (c & 0x3F));
+                    } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                            && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                        out.write(0xF0 | (codePoint >> 18));
+                        out.write(0x80 | ((codePoint >> 12) & 0x3F));
+                        out.write(0x80 | ((codePoint >> 6) & 0x3F));
+                        out.write(0x80 | (codePoint & 0x3F));
+                    } else if (Character.isSurrogate(c)) {
+                        // Unpaired surrogate, replaced like String.getBytes does
+                        out.write('?');
+                    } else {
+                        out.write(0xE0 | (c >> 12));
+                        out.write(0x80 | ((c >> 6) & 0x3F));
+                        out.write(0x80 | (c & 0x3F));
+                    }
+            }
+        }
+    }
+}
@@ -1,22 +1,40 @@
 package com.example.eventlottery.events;
 
+import android.annotation.SuppressLint;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
+import android.net.Uri;
+import android.provider.Settings;
 import android.util.Log;
 
 import androidx.core.app.NotificationCompat;
 
 import com.example.eventlottery.R;
+import com.example.eventlottery.view.InfoActivity;
 import com.example.eventlottery.view.MainActivity;
 import com.google.firebase.messaging.FirebaseMessagingService;
 import com.google.firebase.messaging.RemoteMessage;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Service to handle incoming FCM messages.
- * Displays notifications even when the app is in the foreground.
+ * Displays notifications whether the app is in the foreground, the background or not running.
+ * <p>
+ * The app's messages are data-only (see {@link FcmPayloadTemplate}), so they always reach
+ * {@link #onMessageReceived} rather than being drawn by the system, and tapping one opens the event.
+ * </p>
+ * <p>
+ * {@link #onMessageReceived} is called on a background thread, so notifications are rendered
+ * there. The channel is registered once per process, redelivered messages are dropped by
+ * message ID, and notifications of the same event are grouped under a summary notification
+ * that opens {@link InfoActivity} for that event.
+ * </p>
  * @author Jensen Lee
  */
 public class MyFirebaseMessagingService extends FirebaseMessagingService {
@@ -27,6 +45,36 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
     // Notification channel ID
     private static final String CHANNEL_ID = "lottery_winner_notifications";
 
+    /** Group key for notifications that are not about a particular event. */
+    private static final String GENERAL_GROUP = "general";
+
+    /** Number of recent message IDs remembered to drop redelivered messages. */
+    private static final int MAX_SEEN_MESSAGES = 100;
+
+    /** Whether the channel has been registered in this process. */
+    private static volatile boolean channelRegistered = false;
+
+    /** Recently displayed message IDs, least recently seen first. */
+    private static final Map<String, Boolean> seenMessageIds =
+            new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_SEEN_MESSAGES;
+                }
+            };
+
+    /** Fallback notification IDs for messages without a message ID. */
+    private static final AtomicInteger nextNotificationId = new AtomicInteger(1);
+
+    /**
+     * Registers the notification channel when the service is first created.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        createNotificationChannel();
+    }
+
     /**
      * Called when a new FCM message is received.
      * @param remoteMessage The incoming FCM message.
@@ -35,6 +83,12 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
     public void onMessageReceived(RemoteMessage remoteMessage) {
         Log.d(TAG, "✓ Message received from: " + remoteMessage.getFrom());
 
+        String messageId = remoteMessage.getMessageId();
+        if (!markSeen(messageId)) {
+            Log.d(TAG, "Dropping duplicate message: " + messageId);
+            return;
+        }
+
         String title = "";
         String body = "";
 
@@ -45,22 +99,27 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             Log.d(TAG, "Notification - Title: " + title + ", Body: " + body);
         }
 
+        Map<String, String> data = remoteMessage.getData();
+
         // Check if message contains data payload
-        if (remoteMessage.getData().size() > 0) {
-            Log.d(TAG, "Message data payload: " + remoteMessage.getData());
+        if (data.size() > 0) {
+            Log.d(TAG, "Message data payload: " + data);
 
-            // You can also extract title/body from data payload if needed
-            if (remoteMessage.getData().containsKey("title")) {
-                title = remoteMessage.getData().get("title");
+            // The app's own messages carry title/body in the data payload
+            if (data.containsKey("title")) {
+                title = data.get("title");
             }
-            if (remoteMessage.getData().containsKey("body")) {
-                body = remoteMessage.getData().get("body");
+            if (data.containsKey("body")) {
+                body = data.get("body");
             }
         }
 
+        if (title == null) title = "";
+        if (body == null) body = "";
+
         // ALWAYS show the notification, even when app is in foreground
         if (!title.isEmpty() || !body.isEmpty()) {
-            showNotification(title, body);
+            showNotification(messageId, title, body, data.get("eventId"), data.get("eventName"));
         }
     }
 
@@ -75,30 +134,51 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
     }
 
     /**
-     * Displays a notification in the system tray.
+     * Remembers a message ID.
+     * @param messageId The ID of the incoming message (may be null).
+     * @return false if the message was already displayed, true otherwise.
+     */
+    private static boolean markSeen(String messageId) {
+        if (messageId == null) return true;
+        synchronized (seenMessageIds) {
+            return seenMessageIds.put(messageId, Boolean.TRUE) == null;
+        }
+    }
+
+    /**
+     * Displays a notification in the system tray, grouped with the other notifications of its event.
      * This allows notifications to appear even when the app is open.
+     * @param messageId The ID of the message, used as a stable notification ID.
      * @param title The notification title.
      * @param body The notification body.
+     * @param eventId The event the notification is about, or null.
+     * @param eventName The name of the event, or null.
      */
-    private void showNotification(String title, String body) {
+    private void showNotification(String messageId, String title, String body, String eventId, String eventName) {
         Log.d(TAG, "showNotification() - Title: " + title + ", Body: " + body);
 
         try {
-            // Ensure channel exists
-            createNotificationChannel();
+            NotificationManager notificationManager =
+                    (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
 
-            Intent intent = new Intent(this, MainActivity.class);
-            intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+            if (notificationManager == null) {
+                Log.e(TAG, "✗ NotificationManager is NULL!");
+                return;
+            }
 
-            PendingIntent pendingIntent = PendingIntent.getActivity(
-                    this,
-                    0,
-                    intent,
-                    PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_IMMUTABLE
-            );
+            if (!notificationManager.areNotificationsEnabled()) {
+                Log.e(TAG, "✗ Notifications are DISABLED for this app!");
+                return;
+            }
+
+            // Ensure channel exists (normally already done in onCreate)
+            createNotificationChannel();
+
+            String groupKey = eventId != null ? "event_" + eventId : GENERAL_GROUP;
+            PendingIntent pendingIntent = buildContentIntent(eventId);
 
             // Get default notification sound
-            android.net.Uri defaultSoundUri = android.media.RingtoneManager.getDefaultUri(
+            Uri defaultSoundUri = android.media.RingtoneManager.getDefaultUri(
                     android.media.RingtoneManager.TYPE_NOTIFICATION
             );
 
@@ -113,36 +193,71 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
                             .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
                             .setSound(defaultSoundUri)
                             .setVibrate(new long[]{0, 500, 250, 500})
+                            .setGroup(groupKey)
                             .setContentIntent(pendingIntent);
 
-            NotificationManager notificationManager =
-                    (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
-
-            if (notificationManager == null) {
-                Log.e(TAG, "✗ NotificationManager is NULL!");
-                return;
-            }
-
-            if (!notificationManager.areNotificationsEnabled()) {
-                Log.e(TAG, "✗ Notifications are DISABLED for this app!");
-                return;
-            }
-
-            int notificationId = (int) System.currentTimeMillis();
+            // Message IDs are unique per message, unlike the time in milliseconds
+            int notificationId = messageId != null ? messageId.hashCode() : nextNotificationId.getAndIncrement();
             notificationManager.notify(notificationId, notificationBuilder.build());
 
-            Log.d(TAG, "✓✓✓ Notification DISPLAYED with sound! (ID: " + notificationId + ")");
+            // Summary shown when several notifications of the same event are bundled
+            NotificationCompat.Builder summaryBuilder =
+                    new NotificationCompat.Builder(this, CHANNEL_ID)
+                            .setSmallIcon(R.mipmap.ic_launcher)
+                            .setContentTitle(eventName != null ? eventName : getString(R.string.app_name))
+                            .setContentText(body)
+                            .setStyle(new NotificationCompat.InboxStyle()
+                                    .setSummaryText(eventName != null ? eventName : "Event updates"))
+                            .setAutoCancel(true)
+                            .setGroup(groupKey)
+                            .setGroupSummary(true)
+                            .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_CHILDREN)
+                            .setContentIntent(pendingIntent);
+            notificationManager.notify(groupKey.hashCode(), summaryBuilder.build());
+
+            Log.d(TAG, "✓✓✓ Notification DISPLAYED with sound! (ID: " + notificationId + ", group: " + groupKey + ")");
 
         } catch (Exception e) {
             Log.e(TAG, "✗✗✗ Exception in showNotification!", e);
-            e.printStackTrace();
         }
     }
 
     /**
-     * Creates the notification channel (required for Android 8.0+)
+     * Builds the intent opened when a notification is tapped.
+     * Notifications about an event open {@link InfoActivity} for it; the others open {@link MainActivity}.
+     * Each event gets its own request code, so its PendingIntent is reused rather than duplicated.
+     * @param eventId The event the notification is about, or null.
+     * @return the PendingIntent to open
+     */
+    @SuppressLint("HardwareIds")
+    private PendingIntent buildContentIntent(String eventId) {
+        Intent intent;
+        int requestCode;
+        if (eventId != null) {
+            intent = new Intent(this, InfoActivity.class);
+            intent.putExtra("EVENT_ID", eventId);
+            intent.putExtra("USER_ID", Settings.Secure.getString(getContentResolver(), Settings.Secure.ANDROID_ID));
+            requestCode = eventId.hashCode();
+        } else {
+            intent = new Intent(this, MainActivity.class);
+            requestCode = 0;
+        }
+        intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+
+        return PendingIntent.getActivity(
+                this,
+                requestCode,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    /**
+     * Creates the notification channel (required for Android 8.0+), once per process.
      */
     private void createNotificationChannel() {
+        if (channelRegistered) return;
+
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.O) {
             NotificationChannel channel = new NotificationChannel(
                     CHANNEL_ID,
@@ -158,8 +273,11 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             NotificationManager notificationManager = getSystemService(NotificationManager.class);
             if (notificationManager != null) {
                 notificationManager.createNotificationChannel(channel);
+                channelRegistered = true;
                 Log.d(TAG, "✓ Notification channel created/verified");
             }
+        } else {
+            channelRegistered = true;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,226 @@
+package com.example.eventlottery.events;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deletes notification logs page by page.
+ * <p>
+ * Logs are read {@link #PAGE_SIZE} headers at a time and deleted together with their recipient
+ * chunks and the inbox entries of their recipients, in {@link WriteBatch}es of at most
+ * {@link BatchQueue#MAX_BATCH_OPERATIONS} operations. A page's headers are only deleted once its
+ * chunks and inbox entries are, so a failed sweep leaves them for the next one to find.
+ * At most {@link #MAX_IN_FLIGHT_BATCHES} batches are committed concurrently, so memory stays
+ * bounded however large the log is. Progress and completion are reported on the main thread.
+ * </p>
+ * <p>
+ * Expired logs are swept daily by {@link NotificationLogExpiryWorker}.
+ * </p>
+ */
+public class NotificationLogCleaner {
+    private static final String TAG = "NotificationLogCleaner";
+
+    /** Number of log headers read per page. */
+    public static final int PAGE_SIZE = 500;
+    /** Maximum number of batches being committed at the same time. */
+    public static final int MAX_IN_FLIGHT_BATCHES = 4;
+
+    /**
+     * Listener for the progress of a bulk delete.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after each committed batch.
+         * @param deletedDocuments the number of documents deleted so far
+         */
+        void onProgress(int deletedDocuments);
+
+        /**
+         * Called once every batch has been committed.
+         * @param deletedDocuments the total number of documents deleted
+         */
+        void onComplete(int deletedDocuments);
+
+        /**
+         * Called if reading a page or committing a batch failed.
+         * Batches already committed stay deleted.
+         * @param e the first error encountered
+         */
+        void onFailure(Exception e);
+    }
+
+    private final FirebaseFirestore db;
+    private final ExecutorService executorService;
+    private final Handler mainHandler;
+
+    /**
+     * Constructor for NotificationLogCleaner.
+     * @param db the Firestore instance to delete from
+     */
+    public NotificationLogCleaner(FirebaseFirestore db) {
+        this.db = db;
+        this.executorService = Executors.newSingleThreadExecutor();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Deletes every notification log.
+     * @param listener the listener notified of progress
+     */
+    public void deleteAll(ProgressListener listener) {
+        Query query = db.collection(NotificationLogWriter.LOG_COLLECTION)
+                .orderBy("timestamp");
+        deleteMatching(query, listener);
+    }
+
+    /**
+     * Deletes every notification log past its {@code expireAt} time.
+     * This is the client-side counterpart of a Firestore TTL policy on {@code expireAt};
+     * logs written before expiry times were recorded are not matched.
+     * @param listener the listener notified of progress
+     */
+    public void deleteExpired(ProgressListener listener) {
+        Query query = db.collection(NotificationLogWriter.LOG_COLLECTION)
+                .whereLessThan("expireAt", Timestamp.now())
+                .orderBy("expireAt");
+        deleteMatching(query, listener);
+    }
+
+    /**
+     * Stops the background worker. Batches already committing still complete.
+     */
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    /**
+     * Deletes every log header matched by the query, together with its recipient chunks and
+     * inbox entries.
+     * @param query the ordered query matching the logs to delete
+     * @param listener the listener notified of progress
+     */
+    private void deleteMatching(Query query, ProgressListener listener) {
+        executorService.execute(() -> {
+            Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT_BATCHES);
+            AtomicInteger deleted = new AtomicInteger();
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            DocumentSnapshot cursor = null;
+
+            try {
+                while (failure.get() == null) {
+                    Query page = query.limit(PAGE_SIZE);
+                    if (cursor != null) {
+                        page = page.startAfter(cursor);
+                    }
+                    QuerySnapshot snapshot = Tasks.await(page.get());
+                    List<DocumentSnapshot> docs = snapshot.getDocuments();
+                    if (docs.isEmpty()) break;
+
+                    // The chunks list the recipients whose inbox entries to delete
+                    List<Task<QuerySnapshot>> chunkReads = new ArrayList<>();
+                    for (DocumentSnapshot doc : docs) {
+                        chunkReads.add(doc.getReference()
+                                .collection(NotificationLogWriter.RECIPIENTS_SUBCOLLECTION).get());
+                    }
+                    for (int i = 0; i < docs.size() && failure.get() == null; i++) {
+                        String logId = docs.get(i).getId();
+                        BatchQueue queue = new BatchQueue(db);
+                        for (DocumentSnapshot chunk : Tasks.await(chunkReads.get(i)).getDocuments()) {
+                            Object recipients = chunk.get("recipients");
+                            if (recipients instanceof Map) {
+                                for (Object userId : ((Map<?, ?>) recipients).keySet()) {
+                                    queue.delete(db.collection(NotificationLogWriter.USERS_COLLECTION)
+                                            .document(String.valueOf(userId))
+                                            .collection(NotificationLogWriter.INBOX_SUBCOLLECTION)
+                                            .document(logId));
+                                }
+                            }
+                            queue.delete(chunk.getReference());
+                        }
+                        commit(queue, inFlight, deleted, failure, listener);
+                    }
+                    awaitInFlight(inFlight);
+                    if (failure.get() != null) break;
+
+                    // Headers last, once nothing points at them
+                    BatchQueue headers = new BatchQueue(db);
+                    for (DocumentSnapshot doc : docs) {
+                        headers.delete(doc.getReference());
+                    }
+                    commit(headers, inFlight, deleted, failure, listener);
+                    awaitInFlight(inFlight);
+
+                    if (docs.size() < PAGE_SIZE) break;
+                    cursor = docs.get(docs.size() - 1);
+                }
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            }
+
+            // Wait for the last batches to finish before reporting
+            awaitInFlight(inFlight);
+
+            Exception error = failure.get();
+            if (error != null) {
+                Log.e(TAG, "✗ Failed to delete notification logs after " + deleted.get() + " documents", error);
+                mainHandler.post(() -> listener.onFailure(error));
+            } else {
+                Log.d(TAG, "✓ Deleted " + deleted.get() + " notification log documents");
+                mainHandler.post(() -> listener.onComplete(deleted.get()));
+            }
+        });
+    }
+
+    /**
+     * Commits the queued batches, at most {@link #MAX_IN_FLIGHT_BATCHES} at a time.
+     */
+    private void commit(BatchQueue queue, Semaphore inFlight, AtomicInteger deleted,
+                        AtomicReference<Exception> failure, ProgressListener listener)
+            throws InterruptedException {
+        List<WriteBatch> batches = queue.getBatches();
+        for (int i = 0; i < batches.size(); i++) {
+            int size = queue.getBatchSize(i);
+            inFlight.acquire();
+            batches.get(i).commit().addOnCompleteListener(Runnable::run, task -> {
+                if (task.isSuccessful()) {
+                    int total = deleted.addAndGet(size);
+                    mainHandler.post(() -> listener.onProgress(total));
+                } else {
+                    failure.compareAndSet(null, task.getException());
+                }
+                inFlight.release();
+            });
+        }
+    }
+
+    /**
+     * Waits until every batch being committed has finished.
+     */
+    private static void awaitInFlight(Semaphore inFlight) {
+        inFlight.acquireUninterruptibly(MAX_IN_FLIGHT_BATCHES);
+        inFlight.release(MAX_IN_FLIGHT_BATCHES);
+    }
+}
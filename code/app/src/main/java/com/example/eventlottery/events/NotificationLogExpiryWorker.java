@@ -0,0 +1,86 @@
+package com.example.eventlottery.events;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the notification logs past their expiry time once a day, see
+ * {@link NotificationLogCleaner#deleteExpired}.
+ * <p>
+ * This stands in for a Firestore TTL policy on {@code expireAt}. It's scheduled from the admin
+ * screens, so only admins' devices sweep, and runs while online whether or not the app is open.
+ * </p>
+ */
+public class NotificationLogExpiryWorker extends Worker {
+    private static final String TAG = "NotificationLogExpiry";
+
+    /** Name of the unique periodic work. */
+    static final String WORK_NAME = "notification-log-expiry";
+    /** Hours between sweeps. */
+    private static final long INTERVAL_HOURS = 24;
+
+    public NotificationLogExpiryWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the daily sweep, keeping the one already scheduled if there is one.
+     * @param context any context
+     */
+    public static void schedule(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                NotificationLogExpiryWorker.class, INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(new Constraints.Builder().setRequiredNetworkType(NetworkType.CONNECTED).build())
+                .build();
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        NotificationLogCleaner cleaner = new NotificationLogCleaner(FirebaseFirestore.getInstance());
+        cleaner.deleteExpired(new NotificationLogCleaner.ProgressListener() {
+            @Override
+            public void onProgress(int deletedDocuments) {}
+
+            @Override
+            public void onComplete(int deletedDocuments) {
+                done.complete(deletedDocuments);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                done.completeExceptionally(e);
+            }
+        });
+        cleaner.shutdown();
+
+        try {
+            Log.d(TAG, "✓ Expired " + done.get() + " old log documents");
+            return Result.success();
+        } catch (ExecutionException e) {
+            // The cleaner already logged it; the next run picks up what's left
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+    }
+}
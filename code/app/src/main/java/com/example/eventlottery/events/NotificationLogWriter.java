@@ -0,0 +1,185 @@
+package com.example.eventlottery.events;
+
+import android.util.Log;
+
+import com.example.eventlottery.model.WhereIn;
+import com.example.eventlottery.users.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes notification logs in a sharded format so that no single document grows
+ * with the number of recipients.
+ * <p>
+ * A log is stored as:
+ * <ul>
+ *     <li>a header document in {@code notification/<logId>} holding the message, sender,
+ *     type, recipient count and a short preview of recipient names,</li>
+ *     <li>recipient chunks in {@code notification/<logId>/recipients/<chunkIndex>}, each
+ *     holding at most {@link #RECIPIENTS_PER_CHUNK} userId to username entries,</li>
+ *     <li>one inbox entry per recipient in {@code users-p4/<userId>/inbox/<logId>}.</li>
+ * </ul>
+ * All writes are grouped into {@link WriteBatch}es of at most {@link BatchQueue#MAX_BATCH_OPERATIONS}.
+ * Every document carries an {@code expireAt} field so a Firestore TTL policy on it can
+ * expire old logs automatically.
+ * </p>
+ */
+public class NotificationLogWriter {
+    private static final String TAG = "NotificationLogWriter";
+
+    /** Collection holding the notification log headers. */
+    public static final String LOG_COLLECTION = "notification";
+    /** Sub-collection of a log header holding the recipient chunks. */
+    public static final String RECIPIENTS_SUBCOLLECTION = "recipients";
+    /** Collection holding the users. */
+    public static final String USERS_COLLECTION = "users-p4";
+    /** Sub-collection of a user holding their notification inbox. */
+    public static final String INBOX_SUBCOLLECTION = "inbox";
+
+    /** Maximum number of recipients stored in one chunk document. */
+    public static final int RECIPIENTS_PER_CHUNK = 500;
+    /** Number of recipient names kept on the header for list previews. */
+    public static final int RECIPIENT_PREVIEW_SIZE = 3;
+    /** Number of days a log is kept before it expires (see {@link NotificationLogCleaner}). */
+    public static final int LOG_TTL_DAYS = 90;
+
+    private final FirebaseFirestore db;
+
+    /**
+     * Constructor for NotificationLogWriter.
+     * @param db the Firestore instance to write to
+     */
+    public NotificationLogWriter(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Writes a notification log with its recipient chunks and inbox entries.
+     * @param senderId the id of the organizer sending the notification
+     * @param senderName the name of the organizer sending the notification
+     * @param recipients the users receiving the notification
+     * @param message the notification message
+     * @param eventName the name of the event
+     * @param notificationType the type of notification (waitlist, selected, cancelled, accepted, ...)
+     * @return a task completing once every batch has been committed
+     */
+    public Task<Void> write(String senderId, String senderName, List<User> recipients,
+                            String message, String eventName, String notificationType) {
+        DocumentReference headerRef = db.collection(LOG_COLLECTION).document();
+        String logId = headerRef.getId();
+
+        List<List<User>> chunks = partition(recipients, RECIPIENTS_PER_CHUNK);
+        Timestamp expireAt = expiryFromNow();
+
+        // Header
+        Map<String, Object> header = new HashMap<>();
+        header.put("senderUserId", senderId);
+        header.put("senderUserName", senderName);
+        header.put("recipientCount", recipients.size());
+        header.put("recipientChunks", chunks.size());
+        header.put("recipientPreview", toRecipientMap(
+                recipients.subList(0, Math.min(RECIPIENT_PREVIEW_SIZE, recipients.size()))));
+        header.put("message", message);
+        header.put("eventName", eventName);
+        header.put("type", notificationType);
+        header.put("timestamp", FieldValue.serverTimestamp());
+        header.put("expireAt", expireAt);
+
+        BatchQueue queue = new BatchQueue(db);
+        queue.set(headerRef, header);
+
+        // Recipient chunks
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<String, Object> chunk = new HashMap<>();
+            chunk.put("index", i);
+            chunk.put("recipients", toRecipientMap(chunks.get(i)));
+            chunk.put("expireAt", expireAt);
+            queue.set(headerRef.collection(RECIPIENTS_SUBCOLLECTION).document(String.valueOf(i)), chunk);
+        }
+
+        // Per-recipient inbox index
+        for (User recipient : recipients) {
+            if (recipient.getId() == null) continue;
+
+            Map<String, Object> inboxEntry = new HashMap<>();
+            inboxEntry.put("notificationId", logId);
+            inboxEntry.put("senderUserName", senderName);
+            inboxEntry.put("message", message);
+            inboxEntry.put("eventName", eventName);
+            inboxEntry.put("type", notificationType);
+            inboxEntry.put("read", false);
+            inboxEntry.put("timestamp", FieldValue.serverTimestamp());
+            inboxEntry.put("expireAt", expireAt);
+
+            queue.set(db.collection(USERS_COLLECTION)
+                    .document(recipient.getId())
+                    .collection(INBOX_SUBCOLLECTION)
+                    .document(logId), inboxEntry);
+        }
+
+        List<Task<Void>> commits = queue.commitAll();
+        Log.d(TAG, "Writing notification log " + logId + " for " + recipients.size() +
+                " recipients in " + commits.size() + " batches");
+        return Tasks.whenAll(commits);
+    }
+
+    /**
+     * Builds the query for the first page of a user's inbox, newest first.
+     * Further pages can be read with {@code startAfter} on the last snapshot of a page.
+     * @param userId the id of the user whose inbox to read
+     * @param pageSize the maximum number of entries per page
+     * @return the inbox query
+     */
+    public Query inboxPage(String userId, int pageSize) {
+        return db.collection(USERS_COLLECTION)
+                .document(userId)
+                .collection(INBOX_SUBCOLLECTION)
+                .orderBy("timestamp", Query.Direction.DESCENDING)
+                .limit(pageSize);
+    }
+
+    /**
+     * @return the expiry time of a log written now
+     */
+    private static Timestamp expiryFromNow() {
+        long ttlMillis = TimeUnit.DAYS.toMillis(LOG_TTL_DAYS);
+        return new Timestamp(new Date(System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Builds a userId to username map, preserving the recipients' order.
+     * @param recipients the users to include
+     * @return the recipient map
+     */
+    private static Map<String, String> toRecipientMap(List<User> recipients) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (User recipient : recipients) {
+            map.put(recipient.getId(), recipient.getName());
+        }
+        return map;
+    }
+
+    /**
+     * Splits a list into consecutive sub-lists of at most {@code size} elements.
+     * @param items the list to split
+     * @param size the maximum size of each sub-list (must be &gt; 0)
+     * @return the sub-lists, in order; empty if {@code items} is empty
+     * @see WhereIn#partition
+     */
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        return WhereIn.partition(items, size);
+    }
+}
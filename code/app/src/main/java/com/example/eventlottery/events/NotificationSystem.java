@@ -8,31 +8,35 @@ import android.os.Looper;
 import android.util.Log;
 
 import com.example.eventlottery.users.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.BufferedSink;
 
 /**
  * Handles sending user notifications for lottery events using FCM API V1.
@@ -48,6 +52,16 @@ public class NotificationSystem {
     private static final String CHANNEL_NAME = "Lottery Winner Notifications";
     private static final String PROJECT_ID = "cmput-301-stable-21008";
     private static final String FCM_V1_URL = "https://fcm.googleapis.com/v1/projects/" + PROJECT_ID + "/messages:send";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    /** Maximum number of FCM requests in flight at once. */
+    private static final int MAX_CONCURRENT_SENDS = 64;
+
+    /** Notification titles, shared by the batch and single sends */
+    private static final String INVITATION_TITLE = "You're Invited! 🎉";
+    private static final String WAITLIST_TITLE = "Waiting List Update 📢";
+    private static final String SELECTED_TITLE = "You've Been Selected! 🎉";
+    private static final String CANCELLED_TITLE = "Event Update 📌";
+    private static final String ACCEPTED_TITLE = "Event Confirmed ✓";
 
     // Service account JSON file name in assets folder
     private static final String SERVICE_ACCOUNT_FILE = "service-account.json";
@@ -64,6 +78,18 @@ public class NotificationSystem {
     private ExecutorService executorService;
     private Handler mainHandler;
     private FirebaseFirestore db;
+    private NotificationLogWriter logWriter;
+
+    /**
+     * Listener for the result of a batch send.
+     */
+    public interface OnBatchSentListener {
+        /**
+         * Called on the main thread once every recipient of the batch has a result.
+         * @param report the delivery result of the batch
+         */
+        void onBatchSent(DeliveryReport report);
+    }
 
     /**
      * Constructor for NotificationSystem.
@@ -74,12 +100,19 @@ public class NotificationSystem {
     public NotificationSystem(Context context, String organizerId, String organizerName) {
         this.context = context;
         this.db = FirebaseFirestore.getInstance();
+        this.logWriter = new NotificationLogWriter(db);
         this.organizerId = organizerId;
         this.organizerName = organizerName;
         createNotificationChannel();
 
         // Initialize HTTP client
+        // FCM is served over HTTP/2, so batch sends are multiplexed on one connection;
+        // the default limit of 5 requests per host would serialize them instead
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_CONCURRENT_SENDS);
+        dispatcher.setMaxRequestsPerHost(MAX_CONCURRENT_SENDS);
         httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .build();
@@ -169,15 +202,25 @@ public class NotificationSystem {
      * @param message Custom message to send.
      */
     public void notifyInvitedEntrants(List<User> entrants, String eventName, String eventId, String message) {
+        notifyInvitedEntrants(entrants, eventName, eventId, message, null);
+    }
+
+    /**
+     * Sends invitation notification to chosen entrants as one batch.
+     * @param entrants Users to send notifications to.
+     * @param eventName Name of the event.
+     * @param eventId ID of the event.
+     * @param message Custom message to send.
+     * @param listener Receives the {@link DeliveryReport} once every send has completed (may be null).
+     */
+    public void notifyInvitedEntrants(Collection<User> entrants, String eventName, String eventId,
+                                      String message, OnBatchSentListener listener) {
         Log.d(TAG, "Sending invitation notifications to " + entrants.size() + " entrants");
 
         // Log once for all recipients
-        logBatchNotificationToFirebase(entrants, message, eventName, "invitation");
+        logBatchNotificationToFirebase(new ArrayList<>(entrants), message, eventName, "invitation");
 
-        // Send individual FCM notifications
-        for (User entrant : entrants) {
-            notifyInvitedEntrant(entrant, eventName, eventId, message);
-        }
+        sendBatch(entrants, INVITATION_TITLE, message, "invitation", eventName, eventId, listener);
     }
 
     /**
@@ -190,7 +233,7 @@ public class NotificationSystem {
     public void notifyInvitedEntrant(User entrant, String eventName, String eventId, String message) {
         Log.d(TAG, "Sending invitation notification to: " + entrant.getName());
 
-        String title = "You're Invited! 🎉";
+        String title = INVITATION_TITLE;
         String body = message;
 
         sendFCMNotificationWithoutLogging(entrant, title, body, "invitation", eventName, eventId);
@@ -211,28 +254,7 @@ public class NotificationSystem {
         // Log once for all recipients
         logBatchNotificationToFirebase(entrants, message, eventName, "waitlist");
 
-        // Send individual FCM notifications
-        for (User entrant : entrants) {
-            notifyWaitlistedEntrant(entrant, eventName, eventId, message);
-        }
-    }
-
-    /**
-     * Sends an individual notification to a waitlisted entrant.
-     * Works with FCM tokens from users-p4 collection.
-     * @param entrant User to send notification to.
-     * @param eventName Name of the event.
-     * @param eventId ID of the event.
-     * @param message Custom message to send.
-     */
-    private void notifyWaitlistedEntrant(User entrant, String eventName, String eventId, String message) {
-        Log.d(TAG, "Sending waitlist notification to: " + entrant.getName());
-
-        String title = "Waiting List Update 📢";
-        String body = message;
-
-        // Don't log individual notifications anymore
-        sendFCMNotificationWithoutLogging(entrant, title, body, "waitlist", eventName, eventId);
+        sendBatch(entrants, WAITLIST_TITLE, message, "waitlist", eventName, eventId, null);
     }
 
     /**
@@ -248,43 +270,47 @@ public class NotificationSystem {
 
         logBatchNotificationToFirebase(entrants, message, eventName, "selected");
 
-        for (User entrant : entrants) {
-            notifySelectedEntrant(entrant, eventName, eventId, message);
-        }
+        sendBatch(entrants, SELECTED_TITLE, message, "selected", eventName, eventId, null);
     }
 
     /**
-     * Sends an individual notification to a selected entrant.
-     * Works with FCM tokens from users-p4 collection.
-     * @param entrant User to send notification to.
+     * Core method to send FCM push notifications using V1 API without individual logging.
+     * @param user User to send notification to.
+     * @param title Title of the notification.
+     * @param body Body of the notification.
+     * @param type Type of notification (e.g., selected, waitlist, invitation).
      * @param eventName Name of the event.
      * @param eventId ID of the event.
-     * @param message Custom message to send.
      */
-    private void notifySelectedEntrant(User entrant, String eventName, String eventId, String message) {
-        Log.d(TAG, "Sending selected notification to: " + entrant.getName());
-        String title = "You've Been Selected! 🎉";
-        String body = message;
-
-        sendFCMNotificationWithoutLogging(entrant, title, body, "selected", eventName, eventId);
+    private void sendFCMNotificationWithoutLogging(User user, String title, String body,
+                                                   String type, String eventName, String eventId) {
+        sendFCMNotificationWithoutLogging(user, buildPayloadTemplate(title, body, type, eventName, eventId));
     }
 
     /**
-     * Core method to send FCM push notifications using V1 API.
-     * This now runs on a background thread to avoid NetworkOnMainThreadException.
-     * Uses FCM tokens stored by MainActivity in users-p4 collection.
-     * @param user User to send notification to.
+     * Builds the payload template shared by every recipient of a batch.
      * @param title Title of the notification.
      * @param body Body of the notification.
      * @param type Type of notification (e.g., selected, waitlist, invitation).
      * @param eventName Name of the event.
      * @param eventId ID of the event.
+     * @return the precompiled payload
      */
+    private FcmPayloadTemplate buildPayloadTemplate(String title, String body,
+                                                    String type, String eventName, String eventId) {
+        return new FcmPayloadTemplate(title, body, type, eventName, eventId);
+    }
+
     /**
-     * Core method to send FCM push notifications using V1 API without individual logging.
+     * Core method to send FCM push notifications using V1 API.
+     * This runs on a background thread to avoid NetworkOnMainThreadException.
+     * Uses FCM tokens stored by MainActivity in users-p4 collection.
+     * Only the recipient's token and name are serialized here, the rest of the payload
+     * comes precompiled from the template.
+     * @param user User to send notification to.
+     * @param template The payload shared by every recipient of the batch.
      */
-    private void sendFCMNotificationWithoutLogging(User user, String title, String body,
-                                                   String type, String eventName, String eventId) {
+    private void sendFCMNotificationWithoutLogging(User user, FcmPayloadTemplate template) {
         String fcmToken = user.getFcmToken();
 
         if (fcmToken == null || fcmToken.isEmpty()) {
@@ -305,47 +331,7 @@ public class NotificationSystem {
                     return;
                 }
 
-                JSONObject message = new JSONObject();
-                JSONObject messageContent = new JSONObject();
-                JSONObject notification = new JSONObject();
-                JSONObject data = new JSONObject();
-                JSONObject android = new JSONObject();
-                JSONObject androidNotification = new JSONObject();
-
-                notification.put("title", title);
-                notification.put("body", body);
-
-                data.put("type", type);
-                data.put("eventName", eventName);
-                if (eventId != null) {
-                    data.put("eventId", eventId);
-                }
-                data.put("userName", user.getName());
-
-                androidNotification.put("sound", "default");
-                androidNotification.put("channel_id", CHANNEL_ID);
-
-                android.put("priority", "high");
-                android.put("notification", androidNotification);
-
-                messageContent.put("token", fcmToken);
-                messageContent.put("notification", notification);
-                messageContent.put("data", data);
-                messageContent.put("android", android);
-
-                message.put("message", messageContent);
-
-                RequestBody requestBody = RequestBody.create(
-                        message.toString(),
-                        MediaType.parse("application/json")
-                );
-
-                Request request = new Request.Builder()
-                        .url(FCM_V1_URL)
-                        .addHeader("Authorization", "Bearer " + accessToken)
-                        .addHeader("Content-Type", "application/json")
-                        .post(requestBody)
-                        .build();
+                Request request = buildRequest(accessToken, template, fcmToken, user.getName());
 
                 httpClient.newCall(request).enqueue(new Callback() {
                     @Override
@@ -367,14 +353,191 @@ public class NotificationSystem {
                     }
                 });
 
-            } catch (JSONException e) {
-                Log.e(TAG, "✗ Error creating FCM message JSON", e);
             } catch (IOException e) {
                 Log.e(TAG, "✗ Error getting access token", e);
             }
         });
     }
 
+    /**
+     * Builds the FCM V1 request for one recipient.
+     * The payload is streamed straight into the request instead of building JSON objects.
+     * @param accessToken The OAuth2 access token.
+     * @param template The payload shared by every recipient of the batch.
+     * @param fcmToken The recipient's FCM token.
+     * @param userName The recipient's name.
+     * @return the request
+     */
+    private Request buildRequest(String accessToken, FcmPayloadTemplate template,
+                                 String fcmToken, String userName) {
+        RequestBody requestBody = new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                template.writeTo(sink.outputStream(), fcmToken, userName);
+            }
+        };
+
+        return new Request.Builder()
+                .url(FCM_V1_URL)
+                .addHeader("Authorization", "Bearer " + accessToken)
+                .post(requestBody)
+                .build();
+    }
+
+    /**
+     * Sends one notification to a collection of recipients (no logging here).
+     * <p>
+     * The payload is compiled once and the access token fetched once for the whole batch, then
+     * every request is enqueued at once so they are pipelined over FCM's HTTP/2 connection.
+     * Recipients without a token or with notifications disabled are reported as skipped.
+     * Tokens FCM reports as unregistered are removed from users-p4 so later batches skip them.
+     * </p>
+     * @param recipients Users to send the notification to.
+     * @param title Title of the notification.
+     * @param body Body of the notification.
+     * @param type Type of notification (e.g., selected, waitlist, invitation).
+     * @param eventName Name of the event.
+     * @param eventId ID of the event.
+     * @param listener Receives the {@link DeliveryReport} once every send has completed (may be null).
+     */
+    public void sendBatch(Collection<User> recipients, String title, String body, String type,
+                          String eventName, String eventId, OnBatchSentListener listener) {
+        DeliveryReport report = new DeliveryReport();
+        FcmPayloadTemplate template = buildPayloadTemplate(title, body, type, eventName, eventId);
+
+        List<User> sendable = new ArrayList<>();
+        for (User recipient : recipients) {
+            String fcmToken = recipient.getFcmToken();
+            if (fcmToken == null || fcmToken.isEmpty() || !recipient.getNotifications()) {
+                report.record(recipient.getId(), DeliveryReport.Status.SKIPPED, -1);
+            } else {
+                sendable.add(recipient);
+            }
+        }
+
+        if (sendable.isEmpty()) {
+            finishBatch(report, listener);
+            return;
+        }
+
+        executorService.execute(() -> {
+            String accessToken = null;
+            try {
+                accessToken = getAccessToken();
+            } catch (IOException e) {
+                Log.e(TAG, "✗ Error getting access token", e);
+            }
+
+            if (accessToken == null) {
+                Log.e(TAG, "Cannot send batch: no access token");
+                for (User recipient : sendable) {
+                    report.record(recipient.getId(), DeliveryReport.Status.FAILED, -1);
+                }
+                finishBatch(report, listener);
+                return;
+            }
+
+            AtomicInteger remaining = new AtomicInteger(sendable.size());
+            for (User recipient : sendable) {
+                String fcmToken = recipient.getFcmToken();
+                Request request = buildRequest(accessToken, template, fcmToken, recipient.getName());
+                long sentAt = System.nanoTime();
+
+                httpClient.newCall(request).enqueue(new Callback() {
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        Log.e(TAG, "Failed to send FCM notification to " + recipient.getName(), e);
+                        report.record(recipient.getId(), DeliveryReport.Status.FAILED, elapsedMillis(sentAt));
+                        if (remaining.decrementAndGet() == 0) finishBatch(report, listener);
+                    }
+
+                    @Override
+                    public void onResponse(Call call, Response response) throws IOException {
+                        try (Response r = response) {
+                            long latency = elapsedMillis(sentAt);
+                            if (r.isSuccessful()) {
+                                report.record(recipient.getId(), DeliveryReport.Status.SENT, latency);
+                            } else {
+                                String responseBody = r.body() != null ? r.body().string() : "";
+                                if (DeliveryReport.isInvalidTokenResponse(r.code(), responseBody)) {
+                                    report.recordInvalidToken(recipient.getId(), fcmToken, latency);
+                                } else {
+                                    Log.e(TAG, "FCM notification failed for " + recipient.getName()
+                                            + " (" + r.code() + "): " + responseBody);
+                                    report.record(recipient.getId(), DeliveryReport.Status.FAILED, latency);
+                                }
+                            }
+                        } finally {
+                            if (remaining.decrementAndGet() == 0) finishBatch(report, listener);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Completes a batch: fixes its duration, prunes rejected tokens and notifies the listener.
+     * @param report the report of the batch
+     * @param listener the listener to notify on the main thread (may be null)
+     */
+    private void finishBatch(DeliveryReport report, OnBatchSentListener listener) {
+        report.finish();
+        Log.d(TAG, "Batch finished: " + report);
+        pruneInvalidTokens(report.getInvalidTokens());
+        if (listener != null) {
+            mainHandler.post(() -> listener.onBatchSent(report));
+        }
+    }
+
+    /**
+     * Removes tokens FCM no longer accepts from users-p4.
+     * A device that is still installed saves a fresh token the next time MainActivity starts.
+     * Each token is removed in a transaction, and only if the user still has that token: the
+     * device may have saved a fresh one since the send, and a deleted user isn't recreated.
+     * @param invalidTokens the rejected tokens, keyed by user id
+     */
+    private void pruneInvalidTokens(Map<String, String> invalidTokens) {
+        if (invalidTokens.isEmpty()) return;
+
+        List<Task<Boolean>> prunes = new ArrayList<>();
+        for (Map.Entry<String, String> entry : invalidTokens.entrySet()) {
+            DocumentReference userDoc = db.collection(NotificationLogWriter.USERS_COLLECTION).document(entry.getKey());
+            String rejected = entry.getValue();
+            prunes.add(db.runTransaction(transaction -> {
+                DocumentSnapshot snapshot = transaction.get(userDoc);
+                if (!snapshot.exists() || !rejected.equals(snapshot.getString("fcmToken"))) {
+                    return false;
+                }
+                transaction.update(userDoc, "fcmToken", FieldValue.delete());
+                return true;
+            }));
+        }
+        Tasks.whenAllSuccess(prunes)
+                .addOnSuccessListener(results -> {
+                    int pruned = 0;
+                    for (Object result : results) {
+                        if (Boolean.TRUE.equals(result)) pruned++;
+                    }
+                    Log.d(TAG, "Pruned " + pruned + " of " + invalidTokens.size() + " unregistered FCM tokens");
+                })
+                .addOnFailureListener(e ->
+                        Log.e(TAG, "Failed to prune unregistered FCM tokens", e));
+    }
+
+    /**
+     * @param startNanos a {@link System#nanoTime()} reading
+     * @return the milliseconds elapsed since then
+     */
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
     /**
      * Creates notification channel for Android 8.0+
      */
@@ -411,9 +574,7 @@ public class NotificationSystem {
 
         logBatchNotificationToFirebase(entrants, message, eventName, "cancelled");
 
-        for (User entrant : entrants) {
-            notifyCancelledEntrant(entrant, eventName, eventId, message);
-        }
+        sendBatch(entrants, CANCELLED_TITLE, message, "cancelled", eventName, eventId, null);
     }
 
     /**
@@ -428,39 +589,7 @@ public class NotificationSystem {
 
         logBatchNotificationToFirebase(entrants, message, eventName, "accepted");
 
-        for (User entrant : entrants) {
-            notifyAcceptedEntrant(entrant, eventName, eventId, message);
-        }
-    }
-
-    /**
-     * Sends an individual notification to an accepted entrant.
-     * @param entrant the entrant that is accepted
-     * @param eventName the eventName
-     * @param eventId the event id
-     * @param message the message going to be sent to the entrant
-     */
-    private void notifyAcceptedEntrant(User entrant, String eventName, String eventId, String message) {
-        Log.d(TAG, "Sending accepted notification to: " + entrant.getName());
-        String title = "Event Confirmed ✓";
-        String body = message;
-        sendFCMNotificationWithoutLogging(entrant, title, body, "accepted", eventName, eventId);
-    }
-
-
-    /**
-     * Sends an individual notification to a cancelled entrant.
-     * Add this method to your NotificationSystem class.
-     * @param entrant User to send notification to.
-     * @param eventName Name of the event.
-     * @param eventId ID of the event.
-     * @param message Custom message to send.
-     */
-    private void notifyCancelledEntrant(User entrant, String eventName, String eventId, String message) {
-        Log.d(TAG, "Sending cancelled notification to: " + entrant.getName());
-        String title = "Event Update 📌";
-        String body = message;
-        sendFCMNotificationWithoutLogging(entrant, title, body, "cancelled", eventName, eventId);
+        sendBatch(entrants, ACCEPTED_TITLE, message, "accepted", eventName, eventId, null);
     }
 
     /**
@@ -474,6 +603,8 @@ public class NotificationSystem {
 
     /**
      * Logs a single notification to Firebase with multiple recipients.
+     * The log is sharded into a header, recipient chunks and per-recipient inbox entries
+     * by {@link NotificationLogWriter}.
      * @param recipients List of users receiving the notification
      * @param message The notification message sent
      * @param eventName The name of the event
@@ -481,31 +612,9 @@ public class NotificationSystem {
      */
     private void logBatchNotificationToFirebase(List<User> recipients, String message,
                                                 String eventName, String notificationType) {
-        Map<String, Object> notificationData = new HashMap<>();
-
-        // Organizer info (sender)
-        notificationData.put("senderUserId", organizerId);
-        notificationData.put("senderUserName", organizerName);
-
-        // Recipients as a map with userId as key and username as value
-        Map<String, String> recipientsMap = new HashMap<>();
-        for (User recipient : recipients) {
-            recipientsMap.put(recipient.getId(), recipient.getName());
-        }
-        notificationData.put("recipients", recipientsMap);
-        notificationData.put("recipientCount", recipients.size());
-
-        // Notification details
-        notificationData.put("message", message);
-        notificationData.put("eventName", eventName);
-        notificationData.put("type", notificationType);
-        notificationData.put("timestamp", FieldValue.serverTimestamp());
-
-        db.collection("notification")
-                .add(notificationData)
-                .addOnSuccessListener(documentReference -> {
-                    Log.d(TAG, "Batch notification logged with ID: " + documentReference.getId() +
-                            " for " + recipients.size() + " recipients");
+        logWriter.write(organizerId, organizerName, recipients, message, eventName, notificationType)
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "Batch notification logged for " + recipients.size() + " recipients");
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error logging batch notification to Firebase", e);
@@ -519,27 +628,34 @@ public class NotificationSystem {
      * WARNING: This will permanently delete ALL notification records.
      */
     public void clearAllNotifications() {
-        Log.d(TAG, "Clearing all notifications...");
-
-        db.collection("notification")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (querySnapshot.isEmpty()) {
-                        Log.d(TAG, "No notifications to delete");
-                        return;
-                    }
+        clearAllNotifications(new NotificationLogCleaner.ProgressListener() {
+            @Override
+            public void onProgress(int deletedDocuments) {
+                Log.d(TAG, "Deleted " + deletedDocuments + " notification documents");
+            }
 
-                    int totalDocs = querySnapshot.size();
-                    Log.d(TAG, "Deleting " + totalDocs + " notifications");
+            @Override
+            public void onComplete(int deletedDocuments) {
+                Log.d(TAG, "✓ All notifications cleared");
+            }
 
-                    for (com.google.firebase.firestore.DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        doc.getReference().delete();
-                    }
+            @Override
+            public void onFailure(Exception e) {
+                Log.e(TAG, "✗ Failed to clear notifications", e);
+            }
+        });
+    }
 
-                    Log.d(TAG, "✓ All notifications cleared");
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "✗ Failed to clear notifications", e);
-                });
+    /**
+     * Clears all notifications from the Firestore notification collection in paged batches.
+     *
+     * WARNING: This will permanently delete ALL notification records.
+     * @param listener notified of progress, and once every batch has been committed
+     */
+    public void clearAllNotifications(NotificationLogCleaner.ProgressListener listener) {
+        Log.d(TAG, "Clearing all notifications...");
+        NotificationLogCleaner cleaner = new NotificationLogCleaner(db);
+        cleaner.deleteAll(listener);
+        cleaner.shutdown();
     }
-}
\ No newline at end of file
+}
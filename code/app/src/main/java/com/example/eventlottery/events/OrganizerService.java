@@ -3,6 +3,7 @@ package com.example.eventlottery.events;
 import com.example.eventlottery.events.NotificationSystem;
 import com.example.eventlottery.users.User;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +28,20 @@ public class OrganizerService {
      */
     public int sendInvitationsToEntrants(List<User> entrants, String eventName,
                                          String eventId, String customMessage) {
+        return sendInvitationBatch(entrants, eventName, eventId, customMessage, null);
+    }
+
+    /**
+     * Send invitation notifications to a collection of entrants as one batch
+     * @param entrants Users to invite
+     * @param eventName Name of the event
+     * @param eventId ID of the event
+     * @param customMessage Optional custom message from organizer
+     * @param listener Receives the per-recipient {@link DeliveryReport} once the batch completes (may be null)
+     * @return Number of entrants a notification was sent to
+     */
+    public int sendInvitationBatch(Collection<User> entrants, String eventName, String eventId,
+                                   String customMessage, NotificationSystem.OnBatchSentListener listener) {
         if (entrants == null || entrants.isEmpty()) {
             return 0;
         }
@@ -39,9 +54,8 @@ public class OrganizerService {
             }
         }
 
-
         // Send notifications to eligible entrants
-        notificationSystem.notifyInvitedEntrants(eligibleEntrants, eventName, eventId, customMessage);
+        notificationSystem.notifyInvitedEntrants(eligibleEntrants, eventName, eventId, customMessage, listener);
 
         return eligibleEntrants.size();
     }
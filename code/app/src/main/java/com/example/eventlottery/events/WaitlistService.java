@@ -0,0 +1,173 @@
+package com.example.eventlottery.events;
+
+import com.example.eventlottery.users.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performs the Firestore writes for joining and leaving an event's waitlist and for
+ * recording the result of a lottery draw.
+ * <p>
+ * These are the writes made by {@code EventJoinAndLeave} and {@code EditEventDialog}; keeping
+ * them here lets the load tests drive exactly the same code paths against the emulator.
+ * </p>
+ */
+public class WaitlistService {
+    /** Collection holding the events. */
+    public static final String EVENTS_COLLECTION = "event-p4";
+    /** Collection holding the users. */
+    public static final String USERS_COLLECTION = "users-p4";
+
+    private final FirebaseFirestore db;
+
+    /**
+     * Constructor for WaitlistService.
+     * @param db the Firestore instance to write to
+     */
+    public WaitlistService(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Adds a user to an event's waitlist: the event is added to the user's waitlistedEvents
+     * and the user to the event's waitlist, in one batch.
+     * <p>
+     * The batch is applied to the local cache at once and committed as a whole, so joining works
+     * offline and the two documents never disagree. The changes are array unions, so joins made
+     * offline by different users merge instead of overwriting each other.
+     * </p>
+     * @param eventId the id of the event
+     * @param user the user joining
+     * @param userLocation the user's location to store on the event, or null if not collected
+     * @return a task completing once the server has every write
+     */
+    public Task<Void> join(String eventId, User user, Map<String, Object> userLocation) {
+        DocumentReference eventRef = db.collection(EVENTS_COLLECTION).document(eventId);
+        WriteBatch batch = db.batch();
+        batch.update(db.collection(USERS_COLLECTION).document(user.getId()),
+                "waitlistedEvents", FieldValue.arrayUnion(eventId));
+        batch.update(eventRef, "waitlist.waitlistedUsers", FieldValue.arrayUnion(toWaitlistEntry(user)));
+
+        // Only store the location if longitude & latitude were actually added
+        if (userLocation != null && userLocation.containsKey("longitude")
+                && userLocation.containsKey("latitude")) {
+            batch.update(eventRef, "userLocations", FieldValue.arrayUnion(userLocation));
+        }
+        return batch.commit();
+    }
+
+    /**
+     * Removes a user from an event's waitlist: the event is removed from the user's
+     * waitlistedEvents and the user from the event's waitlist, in one batch (see {@link #join}).
+     * @param eventId the id of the event
+     * @param user the user leaving
+     * @param removeLocation true to also remove the user's stored location from the event
+     * @return a task completing once the server has every write
+     */
+    public Task<Void> leave(String eventId, User user, boolean removeLocation) {
+        DocumentReference eventRef = db.collection(EVENTS_COLLECTION).document(eventId);
+        WriteBatch batch = db.batch();
+        batch.update(db.collection(USERS_COLLECTION).document(user.getId()),
+                "waitlistedEvents", FieldValue.arrayRemove(eventId));
+        batch.update(eventRef, "waitlist.waitlistedUsers", FieldValue.arrayRemove(toWaitlistEntry(user)));
+        Task<Void> waitlistWrite = batch.commit();
+        if (!removeLocation) {
+            return waitlistWrite;
+        }
+        return Tasks.whenAll(waitlistWrite, removeLocation(eventRef, user.getId()));
+    }
+
+    /**
+     * Removes a user's location from an event.
+     * An exact match in longitude & latitude is unlikely, so FieldValue.arrayRemove doesn't work;
+     * the locations are read and rewritten without the user's entry.
+     */
+    @SuppressWarnings("unchecked")
+    private Task<Void> removeLocation(DocumentReference eventRef, String userId) {
+        return eventRef.get().onSuccessTask(snapshot -> {
+            List<Map<String, Object>> userLocations = (List<Map<String, Object>>) snapshot.get("userLocations");
+            if (userLocations == null) {
+                return Tasks.forResult(null);
+            }
+
+            // Make a new array that will have every user location but the user leaving
+            List<Map<String, Object>> newUserLocations = new ArrayList<>();
+            for (Map<String, Object> userLocation : userLocations) {
+                if (!userId.equals(userLocation.get("userId"))) {
+                    newUserLocations.add(userLocation);
+                }
+            }
+            return eventRef.update("userLocations", newUserLocations);
+        });
+    }
+
+    /**
+     * Records a lottery draw that was run with {@link Event#drawLotteryWinners(int)}.
+     * The winners are added to the event's selectedIds and removed from its waitlist.
+     * @param event the event the lottery was run for
+     * @param winnerIds the ids of the selected users
+     * @return a task completing once the event has been updated
+     */
+    public Task<Void> recordDraw(Event event, List<String> winnerIds) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("selectedIds", FieldValue.arrayUnion(winnerIds.toArray()));
+        updates.put("lotteryDrawn", true);
+        updates.put("lotteryDrawnAt", System.currentTimeMillis());
+
+        List<Map<String, Object>> newWaitlist = new ArrayList<>();
+        for (User user : event.getWaitlist().getWaitlistedUsers()) {
+            if (!winnerIds.contains(user.getId())) {
+                newWaitlist.add(toWaitlistEntry(user));
+            }
+        }
+        updates.put("waitlist.waitlistedUsers", newWaitlist);
+
+        return db.collection(EVENTS_COLLECTION).document(event.getId()).update(updates);
+    }
+
+    /**
+     * Moves the winners of a draw from waitlistedEvents to registeredEvents with "Notified" status.
+     * @param eventId the id of the event
+     * @param winnerIds the ids of the selected users
+     * @return one update task per winner
+     */
+    public List<Task<Void>> updateWinnerUserDocuments(String eventId, List<String> winnerIds) {
+        List<Task<Void>> writes = new ArrayList<>();
+        for (String userId : winnerIds) {
+            Map<String, Object> userUpdates = new HashMap<>();
+
+            // Add to registeredEvents with "Notified" status
+            userUpdates.put("registeredEvents." + eventId, "Notified");
+
+            // Remove from waitlistedEvents array
+            userUpdates.put("waitlistedEvents", FieldValue.arrayRemove(eventId));
+
+            // Also remove from waitlistedEventIds if it exists
+            userUpdates.put("waitlistedEventIds", FieldValue.arrayRemove(eventId));
+
+            writes.add(db.collection(USERS_COLLECTION).document(userId).update(userUpdates));
+        }
+        return writes;
+    }
+
+    /**
+     * @param user a user on the waitlist
+     * @return the entry stored for the user in waitlist.waitlistedUsers
+     */
+    public static Map<String, Object> toWaitlistEntry(User user) {
+        Map<String, Object> userInfo = new HashMap<>();
+        userInfo.put("id", user.getId());
+        userInfo.put("name", user.getName());
+        userInfo.put("email", user.getEmailAddress());
+        return userInfo;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.eventlottery.model;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.provider.Settings;
+import android.util.Log;
+
+import androidx.tracing.Trace;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.WaitlistService;
+import com.example.eventlottery.users.User;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.messaging.FirebaseMessaging;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs the work the first screen needs as soon as the app launches, all at once, and hands the
+ * results to {@link com.example.eventlottery.view.MainActivity}.
+ * <p>
+ * Once Firebase is initialised, these start together:
+ * <ul>
+ *     <li>user: loads the device's user into the {@link UserCache}, creating them if they are new</li>
+ *     <li>first page: reads the first {@link #FIRST_PAGE_SIZE} events of the main list</li>
+ *     <li>FCM token: fetches the messaging token (optional)</li>
+ *     <li>prewarm: fills the offline caches, see {@link OfflineStore#prewarm} (optional)</li>
+ * </ul>
+ * The splash screen waits for the required tasks only ({@link #whenReady()}), instead of a fixed
+ * delay. A warm start reuses the results of the first launch in the same process.
+ * </p>
+ * <p>
+ * Each task is traced as "AppStartup.&lt;task&gt;" and the whole as "AppStartup.ready".
+ * </p>
+ */
+public final class AppStartup {
+    private static final String TAG = "AppStartup";
+
+    /** The number of events read for the first screen of MainActivity. */
+    public static final int FIRST_PAGE_SIZE = 20;
+
+    /** Prefix of the startup trace sections. */
+    public static final String SECTION_PREFIX = "AppStartup.";
+
+    private static AppStartup current;
+
+    private final StartupTasks tasks = new StartupTasks(SystemClock::elapsedRealtime);
+    private final CompletableFuture<User> user;
+    private final CompletableFuture<List<Event>> firstPage;
+    private final CompletableFuture<String> fcmToken;
+
+    private AppStartup(Context context) {
+        Context app = context.getApplicationContext();
+        Trace.beginAsyncSection(SECTION_PREFIX + "ready", 0);
+        tasks.run("firebase", true, traced("firebase", () -> {
+            FirebaseApp.initializeApp(app);
+            Repositories.init(app);
+            return CompletableFuture.completedFuture(null);
+        }));
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        String deviceId = Settings.Secure.getString(app.getContentResolver(), Settings.Secure.ANDROID_ID);
+        user = tasks.run("user", true, traced("user", () -> bootstrapUser(app, deviceId)));
+        firstPage = tasks.run("firstPage", true, traced("firstPage", () -> {
+            Query firstEvents = db.collection(WaitlistService.EVENTS_COLLECTION)
+                    .orderBy("startTime")
+                    .limit(FIRST_PAGE_SIZE);
+            return TaskFutures.of(firstEvents.get())
+                    .thenApply(snapshot -> FirestoreEventRepository.applySnapshot(snapshot, Repositories.eventCache()));
+        }));
+        fcmToken = tasks.run("fcmToken", false,
+                traced("fcmToken", () -> TaskFutures.of(FirebaseMessaging.getInstance().getToken())));
+        tasks.run("prewarm", false, traced("prewarm", () -> OfflineStore.prewarm(db, Repositories.eventCache())));
+
+        tasks.whenReady().thenRun(() -> {
+            Trace.endAsyncSection(SECTION_PREFIX + "ready", 0);
+            Log.d(TAG, "✓ Ready in " + tasks.summary());
+        });
+    }
+
+    /**
+     * Wraps a startup task in a trace section named after it, e.g. "AppStartup.user", so the
+     * macrobenchmarks can time it. The tasks overlap and finish on other threads, hence async sections.
+     */
+    private static <T> Supplier<CompletableFuture<T>> traced(String name, Supplier<CompletableFuture<T>> task) {
+        return () -> {
+            String section = SECTION_PREFIX + name;
+            int cookie = section.hashCode();
+            Trace.beginAsyncSection(section, cookie);
+            try {
+                return task.get().whenComplete((value, e) -> Trace.endAsyncSection(section, cookie));
+            } catch (RuntimeException e) {
+                Trace.endAsyncSection(section, cookie);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Starts the startup work, unless it already ran in this process.
+     * @param context any context of the app
+     * @return the startup, to wait for
+     */
+    public static synchronized AppStartup start(Context context) {
+        if (current == null) {
+            current = new AppStartup(context);
+        }
+        return current;
+    }
+
+    /** @return the startup of this process, or null if the app was started without the splash screen */
+    public static synchronized AppStartup current() {
+        return current;
+    }
+
+    /**
+     * Loads the device's user, saving a new one if they don't exist yet. Either way they end up
+     * in the user cache, so MainActivity's loadUser is a cache hit.
+     */
+    private static CompletableFuture<User> bootstrapUser(Context app, String deviceId) {
+        UserRepository users = Repositories.users();
+        return users.getUser(deviceId).thenCompose(existing -> {
+            if (existing != null) {
+                return CompletableFuture.completedFuture(existing);
+            }
+            User created = new User(app);
+            Log.d(TAG, "New user, creating " + deviceId);
+            return users.saveUser(created).thenApply(unused -> created);
+        });
+    }
+
+    /** @return a future completing once the first screen has what it needs, even if some of it failed */
+    public CompletableFuture<Void> whenReady() {
+        return tasks.whenReady();
+    }
+
+    /** @return the device's user, or null if they haven't loaded (yet) */
+    public User getUser() {
+        return user.isDone() && !user.isCompletedExceptionally() ? user.join() : null;
+    }
+
+    /** @return the first page of events, in the main list's order; empty if they haven't loaded (yet) */
+    public List<Event> getFirstPage() {
+        return firstPage.isDone() && !firstPage.isCompletedExceptionally()
+                ? firstPage.join() : Collections.emptyList();
+    }
+
+    /** @return the FCM token fetched on launch */
+    public CompletableFuture<String> getFcmToken() {
+        return fcmToken;
+    }
+
+    /** @return the timings of the startup tasks */
+    public StartupTasks getTasks() {
+        return tasks;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.events.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * {@link EventRepository} that serves reads from an {@link EventCache} and only goes to the
+ * wrapped repository on a miss. Writes go through to the wrapped repository and update the cache
+ * once they succeed.
+ * <p>
+ * Memory hits complete immediately on the calling thread. Disk hits complete on the callback
+ * executor (the main thread in the app), so callers can touch views just as with
+ * {@link FirestoreEventRepository}.
+ * </p>
+ */
+public class CachingEventRepository implements EventRepository {
+    private final EventRepository delegate;
+    private final EventCache cache;
+    private final Executor callbackExecutor;
+
+    /**
+     * Constructor for CachingEventRepository.
+     * @param delegate the repository read on a miss and written through
+     * @param cache the cache of events
+     * @param callbackExecutor the executor disk hits are delivered on
+     */
+    public CachingEventRepository(EventRepository delegate, EventCache cache, Executor callbackExecutor) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /** @return the cache in front of the wrapped repository */
+    public EventCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public CompletableFuture<Event> getEvent(String eventId) {
+        Event cached = cache.get(eventId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // Stamped before reading, so a snapshot delta arriving meanwhile wins
+        long version = cache.stamp();
+        Function<Event, CompletionStage<Event>> fetchOnMiss = fromDisk -> {
+            if (fromDisk != null) {
+                return CompletableFuture.completedFuture(fromDisk);
+            }
+            return delegate.getEvent(eventId).thenApply(event -> {
+                if (event != null) {
+                    cache.put(event, version);
+                }
+                return event;
+            });
+        };
+
+        CompletableFuture<Event> fromDisk = cache.loadFromDisk(eventId);
+        return cache.hasDiskTier()
+                ? fromDisk.thenComposeAsync(fetchOnMiss, callbackExecutor)
+                : fromDisk.thenCompose(fetchOnMiss);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Event>> getEvents(Collection<String> eventIds) {
+        Map<String, Event> found = new LinkedHashMap<>();
+        List<String> notInMemory = new ArrayList<>();
+        for (String eventId : eventIds) {
+            Event cached = cache.get(eventId);
+            if (cached != null) {
+                found.put(eventId, cached);
+            } else {
+                notInMemory.add(eventId);
+            }
+        }
+        if (notInMemory.isEmpty()) {
+            return CompletableFuture.completedFuture(found);
+        }
+
+        long version = cache.stamp();
+        List<CompletableFuture<Event>> diskReads = new ArrayList<>();
+        for (String eventId : notInMemory) {
+            diskReads.add(cache.loadFromDisk(eventId));
+        }
+
+        Function<List<Event>, CompletionStage<Map<String, Event>>> fetchMisses = fromDisk -> {
+            List<String> misses = new ArrayList<>();
+            for (int i = 0; i < notInMemory.size(); i++) {
+                Event event = fromDisk.get(i);
+                if (event != null) {
+                    found.put(notInMemory.get(i), event);
+                } else {
+                    misses.add(notInMemory.get(i));
+                }
+            }
+            if (misses.isEmpty()) {
+                return CompletableFuture.completedFuture(found);
+            }
+            // One batched read for everything neither tier had
+            return delegate.getEvents(misses).thenApply(fetched -> {
+                for (Event event : fetched.values()) {
+                    cache.put(event, version);
+                }
+                found.putAll(fetched);
+                return found;
+            });
+        };
+
+        // Not TaskFutures.allOf, so the class stays free of Play services for JVM tests
+        CompletableFuture<List<Event>> allDiskReads = CompletableFuture
+                .allOf(diskReads.toArray(new CompletableFuture[0]))
+                .thenApply(unused -> {
+                    List<Event> results = new ArrayList<>(diskReads.size());
+                    for (CompletableFuture<Event> read : diskReads) {
+                        results.add(read.join());
+                    }
+                    return results;
+                });
+        return cache.hasDiskTier()
+                ? allDiskReads.thenComposeAsync(fetchMisses, callbackExecutor)
+                : allDiskReads.thenCompose(fetchMisses);
+    }
+
+    @Override
+    public CompletableFuture<List<Event>> getAllEvents() {
+        long version = cache.stamp();
+        return delegate.getAllEvents().thenApply(events -> {
+            for (Event event : events) {
+                cache.refresh(event, version);
+            }
+            return events;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveEvent(Event event) {
+        return delegate.saveEvent(event).thenRun(() -> cache.put(event, cache.stamp()));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteEvent(String eventId) {
+        return delegate.deleteEvent(eventId).thenRun(() -> cache.invalidate(eventId));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.users.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link UserRepository} that serves reads from a {@link UserCache}. Concurrent reads of the same
+ * user share one fetch from the wrapped repository. Writes go through to the wrapped repository and
+ * update the cache once they succeed.
+ * <p>
+ * Cache hits complete immediately on the calling thread; fetches complete wherever the wrapped
+ * repository completes them (the main thread for {@link FirestoreUserRepository}).
+ * </p>
+ */
+public class CachingUserRepository implements UserRepository {
+    private final UserRepository delegate;
+    private final UserCache cache;
+
+    /**
+     * Constructor for CachingUserRepository.
+     * @param delegate the repository read on a miss and written through
+     * @param cache the cache of users
+     */
+    public CachingUserRepository(UserRepository delegate, UserCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /** @return the cache in front of the wrapped repository */
+    public UserCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public CompletableFuture<User> getUser(String userId) {
+        return cache.getOrFetch(userId, delegate::getUser);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, User>> getUsers(Collection<String> userIds) {
+        Map<String, User> found = new LinkedHashMap<>();
+        Map<String, CompletableFuture<User>> joined = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String userId : userIds) {
+            User cached = cache.get(userId);
+            CompletableFuture<User> inFlight = cached == null ? cache.getInFlight(userId) : null;
+            if (cached != null) {
+                found.put(userId, cached);
+            } else if (inFlight != null) {
+                joined.put(userId, inFlight);
+            } else {
+                misses.add(userId);
+            }
+        }
+        if (joined.isEmpty() && misses.isEmpty()) {
+            return CompletableFuture.completedFuture(found);
+        }
+
+        // Everyone else in one batched read
+        long version = cache.stamp();
+        CompletableFuture<Map<String, User>> fetched = misses.isEmpty()
+                ? CompletableFuture.completedFuture(new LinkedHashMap<>())
+                : delegate.getUsers(misses);
+
+        List<CompletableFuture<?>> waits = new ArrayList<>(joined.values());
+        waits.add(fetched);
+        return CompletableFuture.allOf(waits.toArray(new CompletableFuture[0])).thenApply(unused -> {
+            for (Map.Entry<String, CompletableFuture<User>> entry : joined.entrySet()) {
+                User user = entry.getValue().join();
+                if (user != null) {
+                    found.put(entry.getKey(), user);
+                }
+            }
+            for (Map.Entry<String, User> entry : fetched.join().entrySet()) {
+                User user = entry.getValue();
+                if (user.getId() != null) {
+                    cache.put(user, version);
+                }
+                found.put(entry.getKey(), user);
+            }
+            // Back in the order the ids were asked for
+            Map<String, User> ordered = new LinkedHashMap<>();
+            for (String userId : userIds) {
+                User user = found.get(userId);
+                if (user != null) {
+                    ordered.put(userId, user);
+                }
+            }
+            return ordered;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<User>> getAllUsers() {
+        long version = cache.stamp();
+        return delegate.getAllUsers().thenApply(users -> {
+            for (User user : users) {
+                if (user.getId() != null) {
+                    cache.put(user, version);
+                }
+            }
+            return users;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveUser(User user) {
+        return delegate.saveUser(user).thenRun(() -> cache.refresh(user));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUser(String userId) {
+        return delegate.deleteUser(userId).thenRun(() -> cache.invalidate(userId));
+    }
+}
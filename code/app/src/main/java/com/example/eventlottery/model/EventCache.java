@@ -0,0 +1,437 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.events.Event;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of events: a size-bounded in-memory LRU in front of an optional directory of
+ * serialized events that survives restarts.
+ * <p>
+ * Every entry carries a version stamp from {@link #stamp()}. A write with an older stamp than the
+ * cached entry is rejected, so a slow read started before a snapshot delta can't overwrite the
+ * newer event it delivered. {@link #invalidate(String)} leaves a stamped tombstone for the same reason.
+ * </p>
+ * <p>
+ * Disk reads and writes run on the disk executor, which must run one task at a time; memory
+ * operations are synchronized and safe from any thread. Cached events are shared, so callers
+ * must not modify them.
+ * </p>
+ */
+public class EventCache {
+    /** Default number of events kept in memory. */
+    public static final int DEFAULT_MAX_ENTRIES = 200;
+    /** Default number of events kept on disk. */
+    public static final int DEFAULT_MAX_DISK_ENTRIES = 500;
+    /** Default age after which an event on disk is no longer served. */
+    public static final long DEFAULT_MAX_DISK_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final String FILE_SUFFIX = ".event";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** A cached event, or a tombstone if the event is null. */
+    private static final class Entry {
+        final Event event;
+        final long version;
+
+        Entry(Event event, long version) {
+            this.event = event;
+            this.version = version;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> memory;
+
+    private final File diskDir;
+    private final int maxDiskEntries;
+    private final long maxDiskAgeMillis;
+    private final Executor diskExecutor;
+    /** Version of every event on disk, oldest write first. Only touched on the disk executor. */
+    private final LinkedHashMap<String, Long> diskVersions = new LinkedHashMap<>();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong staleWrites = new AtomicLong();
+    private final AtomicLong diskFailures = new AtomicLong();
+
+    /**
+     * Creates a memory-only cache.
+     * @param maxEntries the number of events kept in memory
+     */
+    public EventCache(int maxEntries) {
+        this(maxEntries, null, 0, 0, null);
+    }
+
+    /**
+     * Creates a cache with a disk tier. The events already in the directory are indexed in the
+     * background, so they can be served after a restart.
+     * @param maxEntries the number of events kept in memory
+     * @param diskDir the directory events are stored in (created if missing), or null for no disk tier
+     * @param maxDiskEntries the number of events kept on disk
+     * @param maxDiskAgeMillis the age after which an event on disk is dropped instead of served
+     * @param diskExecutor a single-threaded executor for disk I/O
+     */
+    public EventCache(int maxEntries, File diskDir, int maxDiskEntries, long maxDiskAgeMillis,
+                      Executor diskExecutor) {
+        this.memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EventCache.Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.diskDir = diskDir;
+        this.maxDiskEntries = maxDiskEntries;
+        this.maxDiskAgeMillis = maxDiskAgeMillis;
+        this.diskExecutor = diskExecutor;
+
+        if (diskDir != null) {
+            diskExecutor.execute(this::indexDisk);
+        }
+    }
+
+    /** @return true if events are also stored on disk */
+    public boolean hasDiskTier() {
+        return diskDir != null;
+    }
+
+    /**
+     * Returns a new version stamp. Stamps are strictly increasing and follow the wall clock,
+     * so they stay comparable with the stamps of events written to disk before a restart.
+     * Take the stamp before starting the read whose result will be cached.
+     * @return the stamp
+     */
+    public long stamp() {
+        long now = System.currentTimeMillis();
+        return clock.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    /**
+     * Gets an event from memory. A null result isn't counted as a miss;
+     * {@link #loadFromDisk(String)} counts it once the disk tier has been checked too.
+     * @param eventId the id of the event
+     * @return the event, or null if it isn't in memory
+     */
+    public Event get(String eventId) {
+        synchronized (memory) {
+            Entry entry = memory.get(eventId);
+            if (entry == null || entry.event == null) return null;
+            hits.incrementAndGet();
+            return entry.event;
+        }
+    }
+
+    /**
+     * Gets an event from disk and moves it into memory.
+     * @param eventId the id of the event
+     * @return a future completing on the disk executor with the event, or with null on a miss.
+     * Without a disk tier it is already completed with null.
+     */
+    public CompletableFuture<Event> loadFromDisk(String eventId) {
+        if (diskDir == null) {
+            misses.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            Event event = readFromDisk(eventId);
+            if (event == null) {
+                misses.incrementAndGet();
+            } else {
+                diskHits.incrementAndGet();
+            }
+            return event;
+        }, diskExecutor);
+    }
+
+    /**
+     * Caches an event in memory and on disk, unless a newer version is already cached.
+     * @param event the event, with its id set
+     * @param version the stamp taken before the event was read
+     * @return true if the event was cached, false if it was older than the cached entry
+     */
+    public boolean put(Event event, long version) {
+        if (!putInMemory(event.getId(), event, version)) return false;
+        if (diskDir != null) {
+            diskExecutor.execute(() -> writeToDisk(event.getId(), event, version));
+        }
+        return true;
+    }
+
+    /**
+     * Caches an event delivered by a snapshot listener. The event goes into memory, but is only
+     * written to disk if an older version is already there, so a listener on a whole collection
+     * doesn't copy the collection to disk.
+     * @param event the event, with its id set
+     * @param version the stamp of the snapshot
+     * @return true if the event was cached, false if it was older than the cached entry
+     */
+    public boolean refresh(Event event, long version) {
+        if (!putInMemory(event.getId(), event, version)) return false;
+        if (diskDir != null) {
+            diskExecutor.execute(() -> {
+                if (diskVersions.containsKey(event.getId())) {
+                    writeToDisk(event.getId(), event, version);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Drops an event from both tiers, e.g. when it was changed or deleted.
+     * @param eventId the id of the event
+     */
+    public void invalidate(String eventId) {
+        invalidate(eventId, stamp());
+    }
+
+    /**
+     * Drops an event from both tiers. Writes older than the given stamp are rejected afterwards.
+     * @param eventId the id of the event
+     * @param version the stamp of the change
+     */
+    public void invalidate(String eventId, long version) {
+        if (!putInMemory(eventId, null, version)) return;
+        invalidations.incrementAndGet();
+        if (diskDir != null) {
+            diskExecutor.execute(() -> deleteFromDisk(eventId));
+        }
+    }
+
+    /**
+     * Drops every event from both tiers.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        if (diskDir != null) {
+            diskExecutor.execute(() -> {
+                for (String eventId : diskVersions.keySet().toArray(new String[0])) {
+                    deleteFromDisk(eventId);
+                }
+            });
+        }
+    }
+
+    /** @return the number of events and tombstones in memory */
+    public int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /** @return the hit/miss counters so far */
+    public Stats getStats() {
+        return new Stats(hits.get(), diskHits.get(), misses.get(), evictions.get(),
+                invalidations.get(), staleWrites.get(), diskFailures.get());
+    }
+
+    private boolean putInMemory(String eventId, Event event, long version) {
+        synchronized (memory) {
+            Entry current = memory.get(eventId);
+            if (current != null && current.version > version) {
+                staleWrites.incrementAndGet();
+                return false;
+            }
+            memory.put(eventId, new Entry(event, version));
+            return true;
+        }
+    }
+
+    /*
+     * Disk tier. Everything below runs on the disk executor.
+     * Each event is a file named after the hex of its id, holding the id, the version stamp and
+     * the serialized event. The file's modification time is set to the version, so the index
+     * can be rebuilt from a directory listing.
+     */
+
+    private void indexDisk() {
+        if (!diskDir.isDirectory() && !diskDir.mkdirs()) {
+            diskFailures.incrementAndGet();
+            return;
+        }
+        File[] files = diskDir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.endsWith(FILE_SUFFIX)) {
+                // Leftover from an interrupted write
+                file.delete();
+                continue;
+            }
+            String eventId = decodeId(name.substring(0, name.length() - FILE_SUFFIX.length()));
+            if (eventId == null) {
+                file.delete();
+                continue;
+            }
+            diskVersions.put(eventId, file.lastModified());
+        }
+    }
+
+    private Event readFromDisk(String eventId) {
+        Long version = diskVersions.get(eventId);
+        if (version == null) return null;
+        if (System.currentTimeMillis() - version > maxDiskAgeMillis) {
+            deleteFromDisk(eventId);
+            return null;
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(fileFor(eventId))))) {
+            String storedId = in.readUTF();
+            long storedVersion = in.readLong();
+            Event event = (Event) in.readObject();
+            if (!eventId.equals(storedId) || event == null) {
+                throw new IllegalStateException("Corrupt cache file for " + eventId);
+            }
+            // A newer version or tombstone arrived while it was read: the copy on disk is stale
+            return putInMemory(eventId, event, storedVersion) ? event : null;
+        } catch (Exception e) {
+            // Unreadable, or written by an older version of Event: drop it and read from the network
+            diskFailures.incrementAndGet();
+            deleteFromDisk(eventId);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String eventId, Event event, long version) {
+        Long current = diskVersions.get(eventId);
+        if (current != null && current > version) return;
+
+        File file = fileFor(eventId);
+        File temp = new File(diskDir, file.getName() + TEMP_SUFFIX);
+        try {
+            if (!diskDir.isDirectory() && !diskDir.mkdirs()) {
+                throw new IllegalStateException("Can't create " + diskDir);
+            }
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeUTF(eventId);
+                out.writeLong(version);
+                out.writeObject(event);
+            }
+            if (!temp.renameTo(file)) {
+                throw new IllegalStateException("Can't replace " + file);
+            }
+            file.setLastModified(version);
+        } catch (Exception e) {
+            // Not serializable (e.g. modified while being written) or out of space: memory only
+            diskFailures.incrementAndGet();
+            temp.delete();
+            return;
+        }
+
+        // Re-inserted so the map stays in write order
+        diskVersions.remove(eventId);
+        diskVersions.put(eventId, version);
+
+        Iterator<String> oldest = diskVersions.keySet().iterator();
+        while (diskVersions.size() > maxDiskEntries && oldest.hasNext()) {
+            String evicted = oldest.next();
+            oldest.remove();
+            fileFor(evicted).delete();
+        }
+    }
+
+    private void deleteFromDisk(String eventId) {
+        if (diskVersions.remove(eventId) != null) {
+            fileFor(eventId).delete();
+        }
+    }
+
+    private File fileFor(String eventId) {
+        return new File(diskDir, encodeId(eventId) + FILE_SUFFIX);
+    }
+
+    /** Ids may contain characters that aren't allowed in file names, so they're hex encoded. */
+    static String encodeId(String eventId) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : eventId.getBytes(StandardCharsets.UTF_8)) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static String decodeId(String hex) {
+        if (hex.isEmpty() || hex.length() % 2 != 0) return null;
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) return null;
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Counters of an {@link EventCache}.
+     */
+    public static final class Stats {
+        /** Events served from memory. */
+        public final long hits;
+        /** Events served from disk. */
+        public final long diskHits;
+        /** Events found in neither tier. */
+        public final long misses;
+        /** Entries dropped from memory to stay within the size bound. */
+        public final long evictions;
+        /** Events dropped because they changed or were deleted. */
+        public final long invalidations;
+        /** Writes rejected because a newer version was cached. */
+        public final long staleWrites;
+        /** Disk reads or writes that failed. */
+        public final long diskFailures;
+
+        Stats(long hits, long diskHits, long misses, long evictions, long invalidations,
+              long staleWrites, long diskFailures) {
+            this.hits = hits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.staleWrites = staleWrites;
+            this.diskFailures = diskFailures;
+        }
+
+        /** @return the fraction of lookups served from either tier, or 0 if there were none */
+        public double hitRate() {
+            long lookups = hits + diskHits + misses;
+            return lookups == 0 ? 0 : (double) (hits + diskHits) / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "hits=%d diskHits=%d misses=%d hitRate=%.2f evictions=%d invalidations=%d staleWrites=%d diskFailures=%d",
+                    hits, diskHits, misses, hitRate(), evictions, invalidations, staleWrites, diskFailures);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.eventlottery.model;
 
 import android.util.Log;
 
+import androidx.lifecycle.LifecycleOwner;
+
 import com.example.eventlottery.events.DBConnector;
 import com.example.eventlottery.events.Event;
 import com.example.eventlottery.users.User;
@@ -10,8 +12,10 @@ import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.firestore.WriteBatch;
 
@@ -37,6 +41,15 @@ public class EventDatabase {
     private FirebaseFirestore db;
     /** Reference to the "event" collection in Firestore. */
     private CollectionReference eventsRef;
+    /** Key of the organizer query listeners in {@link #subscriptions}, followed by the chunk number. */
+    private static final String ORGANIZER_QUERY_KEY = "organizer-query-";
+    /** Owns the listeners started by {@link #insert} and {@link #organizerGetEvents}. */
+    private final EventSubscriptions subscriptions = new EventSubscriptions();
+    /** Finds events by ID in the list last passed to {@link #insert}. */
+    private EventIndex index;
+    private ArrayList<Event> indexedList;
+    /** The number of organizer query listeners attached by the last {@link #organizerGetEvents}. */
+    private int organizerChunks;
     /**
      * Default constructor initializes the Firestore instance and
      * sets the reference to the "event" collection.
@@ -45,6 +58,14 @@ public class EventDatabase {
         this.db = FirebaseFirestore.getInstance();
         this.eventsRef = db.collection("event-p4");
     }
+    /**
+     * Constructor whose event listeners are removed when the owner is destroyed.
+     * @param owner the screen showing the events
+     */
+    public EventDatabase(LifecycleOwner owner) {
+        this();
+        subscriptions.bindTo(owner);
+    }
     /** @return the FirebaseFirestore instance used by this database */
     public FirebaseFirestore getDb() {
         return db;
@@ -79,47 +100,48 @@ public class EventDatabase {
 
     /**
      * Inserts an event into the database.
-     * Adds a snapshot listener to the given event, so it receives real-time updates.
+     * Listens to the inserted event, so it receives real-time updates. The listener is owned by
+     * this database's {@link EventSubscriptions} and is removed with the screen it is bound to.
+     * @param data the list shown by the adapter; the event is replaced in place, or added
+     * @param adapter the adapter to notify when the event changes
      * @param event The event to insert.
      */
     public void insert(ArrayList<Event> data, EventAdapter adapter, Event event) {
         // Set in firestore
         DocumentReference docRef = eventsRef.document(event.getId());
         docRef.set(event)
-                .addOnSuccessListener(aVoid -> {
-                    // The snapshot for every newly inserted event
-                    docRef.addSnapshotListener((snapshot, error) -> {
-                        // Check if null or snapshot doesn't exist
-                        if (error != null) return;
-                        if (snapshot == null || !snapshot.exists()) return;
-
-                        // Check null case
-                        Event eventWithUpdates = snapshot.toObject(Event.class);
-                        if (eventWithUpdates == null) return;
+                .addOnSuccessListener(aVoid ->
+                        subscriptions.watch(docRef, eventWithUpdates -> {
+                            indexFor(data).upsert(eventWithUpdates);
+                            adapter.notifyDataSetChanged();
+                        }));
+    }
 
-                        // Check if event already exists in local list (replace it if so)
-                        boolean exists = false;
-                        for (int i = 0; i < data.size(); i++) {
-                            if (data.get(i).getId().equals(eventWithUpdates.getId())) {
-                                data.set(i, eventWithUpdates);
-                                exists = true;
-                            }
-                        }
+    /**
+     * @param data a list shown by an adapter
+     * @return the index over that list, created the first time it is asked for
+     */
+    private EventIndex indexFor(ArrayList<Event> data) {
+        if (index == null || indexedList != data) {
+            index = new EventIndex(data);
+            indexedList = data;
+        }
+        return index;
+    }
 
-                        // If it isn't, add it
-                        if (!exists) {
-                            data.add(eventWithUpdates);
-                        }
-                        adapter.notifyDataSetChanged();
-                    });
-                });
+    /** @return the registry owning this database's event listeners */
+    public EventSubscriptions getSubscriptions() {
+        return subscriptions;
     }
 
     /**
      * Retrieves all events associated with a particular organizer.
      * <p>
-     * Each event is added to the provided data list, and the adapter is notified
-     * to refresh the UI.
+     * Only the organizer's own events are queried, by document ID in chunks of
+     * {@link WhereIn#MAX_VALUES}, so the reads scale with the organizer's events
+     * rather than with every event in the collection. Each chunk's results are patched into the provided data list
+     * by ID, and the adapter is notified to refresh the UI. Calling this again replaces the
+     * listeners of the previous call.
      * </p>
      *
      * @param organizer the {@link User} whose events are to be retrieved
@@ -129,33 +151,50 @@ public class EventDatabase {
     public void organizerGetEvents(User organizer, ArrayList<Event> data, EventAdapter adapter) {
         // Get eventIDs. Return prematurely if there are no events
         ArrayList<String> eventIDs = organizer.getCreatedEvents();
-        if (eventIDs.isEmpty()) {
+        if (eventIDs == null || eventIDs.isEmpty()) {
             return;
         }
 
-        eventsRef
-                .addSnapshotListener((query, error) -> {
-                    // Check if there's an error
-                    if (error != null) {
-                        return;
-                    }
-
-                    // Clear array & add events that belong to Organizer
-                    data.clear();
-
-                    for (DocumentSnapshot doc : query) {
-                        Event event = doc.toObject(Event.class);
-                        if (event == null) continue;
+        // Drop the listeners of a previous call
+        for (int i = 0; i < organizerChunks; i++) {
+            subscriptions.unwatch(ORGANIZER_QUERY_KEY + i);
+        }
+        data.clear();
+        adapter.notifyDataSetChanged();
+
+        List<List<String>> chunks = WhereIn.chunks(eventIDs);
+        organizerChunks = chunks.size();
+        for (int i = 0; i < chunks.size(); i++) {
+            List<String> chunk = chunks.get(i);
+            ListenerRegistration registration = eventsRef
+                    .whereIn(FieldPath.documentId(), chunk)
+                    .addSnapshotListener((query, error) -> {
+                        // Check if there's an error
+                        if (error != null) {
+                            Log.e("EventDatabase", "Failed to listen to organizer events", error);
+                            return;
+                        }
+                        if (query == null) return;
+
+                        Map<String, Event> found = new HashMap<>();
+                        for (DocumentSnapshot doc : query) {
+                            Event event = doc.toObject(Event.class);
+                            if (event == null) continue;
+                            if (event.getId() == null) {
+                                event.setId(doc.getId());
+                            }
+                            found.put(doc.getId(), event);
+                        }
 
-                        if (eventIDs.contains(event.getId())) {
-                            data.add(event);
+                        // Patch this chunk's events in place, leaving the others alone
+                        if (indexFor(data).applyResult(chunk, found)) {
+                            adapter.notifyDataSetChanged();
                         }
-                    }
-                    adapter.notifyDataSetChanged();
-                });
+                    });
+            subscriptions.hold(ORGANIZER_QUERY_KEY + i, registration);
+        }
     }
 
-
     /**
      * Updates the event in firestore, according to what an organizer changes.
      * @param event The event to update.
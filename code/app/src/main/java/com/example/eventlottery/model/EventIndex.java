@@ -0,0 +1,118 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.events.Event;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds events in a list by ID without scanning it.
+ * <p>
+ * The list is the one an adapter displays, so other code may still clear, filter or reorder it.
+ * Every position the index hands out is checked against the list first; if the list changed
+ * behind its back, or the event isn't indexed yet, the index is rebuilt. Looking up an event that
+ * is already in the list is O(1) unless the list was rearranged since.
+ * </p>
+ * <p>
+ * Like the adapter it indexes for, it must only be used from the main thread.
+ * </p>
+ */
+public class EventIndex {
+    private final List<Event> events;
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    /**
+     * Constructor for EventIndex.
+     * @param events the list to index; stays owned by the caller
+     */
+    public EventIndex(List<Event> events) {
+        this.events = events;
+        rebuild();
+    }
+
+    /**
+     * @param eventId the event to look for
+     * @return the event's position in the list, or -1 if it isn't in it
+     */
+    public int indexOf(String eventId) {
+        if (eventId == null) return -1;
+        Integer position = positions.get(eventId);
+        if (position != null && isAt(eventId, position)) {
+            return position;
+        }
+        // Not indexed yet, or the list was changed elsewhere
+        rebuild();
+        position = positions.get(eventId);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Replaces the event with the same ID in place, or appends it if the list doesn't have it.
+     * @param event the new version of the event
+     * @return the position of the event in the list
+     */
+    public int upsert(Event event) {
+        int position = indexOf(event.getId());
+        if (position >= 0) {
+            events.set(position, event);
+            return position;
+        }
+        events.add(event);
+        position = events.size() - 1;
+        if (event.getId() != null) {
+            positions.put(event.getId(), position);
+        }
+        return position;
+    }
+
+    /**
+     * Removes the event with this ID from the list.
+     * @param eventId the event to remove
+     * @return true if the event was in the list
+     */
+    public boolean remove(String eventId) {
+        int position = indexOf(eventId);
+        if (position < 0) return false;
+        events.remove(position);
+        // Everything after it moved up one
+        rebuild();
+        return true;
+    }
+
+    /**
+     * Brings the events with the given IDs in line with a query result: the ones found are
+     * replaced or added, the ones missing are removed. Events with other IDs are left alone.
+     * @param eventIds the IDs the query asked for
+     * @param found the events the query returned, by ID
+     * @return true if the list changed
+     */
+    public boolean applyResult(Collection<String> eventIds, Map<String, Event> found) {
+        boolean changed = false;
+        for (String eventId : eventIds) {
+            Event event = found.get(eventId);
+            if (event != null) {
+                upsert(event);
+                changed = true;
+            } else if (remove(eventId)) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean isAt(String eventId, int position) {
+        return position < events.size() && eventId.equals(events.get(position).getId());
+    }
+
+    private void rebuild() {
+        positions.clear();
+        for (int i = 0; i < events.size(); i++) {
+            String eventId = events.get(i).getId();
+            if (eventId != null) {
+                positions.putIfAbsent(eventId, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.events.Event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read and write access to the stored events.
+ * <p>
+ * Screens go through this interface instead of calling Firestore directly, so caching and
+ * batching can be added in one place. {@link FirestoreEventRepository} is the app's
+ * implementation; {@link InMemoryEventRepository} keeps everything in memory for tests and
+ * JVM benchmarks.
+ * </p>
+ * <p>
+ * Futures of the Firestore implementation complete on the main thread.
+ * </p>
+ */
+public interface EventRepository {
+
+    /**
+     * Gets an event.
+     * @param eventId the id of the event
+     * @return a future completing with the event, or with null if it doesn't exist
+     */
+    CompletableFuture<Event> getEvent(String eventId);
+
+    /**
+     * Gets several events at once.
+     * @param eventIds the ids of the events
+     * @return a future completing with the events found, keyed by id; missing events are left out
+     */
+    CompletableFuture<Map<String, Event>> getEvents(Collection<String> eventIds);
+
+    /**
+     * Gets every event, ordered by start time.
+     * @return a future completing with the events
+     */
+    CompletableFuture<List<Event>> getAllEvents();
+
+    /**
+     * Creates or replaces an event.
+     * @param event the event to store, with its id set
+     * @return a future completing once the event is stored
+     */
+    CompletableFuture<Void> saveEvent(Event event);
+
+    /**
+     * Deletes an event.
+     * @param eventId the id of the event
+     * @return a future completing once the event is deleted
+     */
+    CompletableFuture<Void> deleteEvent(String eventId);
+}
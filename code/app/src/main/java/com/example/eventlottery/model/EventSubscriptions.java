@@ -0,0 +1,123 @@
+package com.example.eventlottery.model;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.eventlottery.events.Event;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Owns the per-event snapshot listeners started by {@link EventDatabase}.
+ * <p>
+ * There is at most one listener per event ID: watching an event that is already watched does
+ * nothing. Query listeners can be handed over with {@link #hold}. Every listener is removed when
+ * the owning screen is destroyed (or by {@link #clear()}), so an organizer creating events no
+ * longer leaves a listener behind for each one.
+ * </p>
+ * <p>
+ * Listeners are attached with Firestore's default executor, so updates arrive on the main thread.
+ * </p>
+ */
+public class EventSubscriptions implements DefaultLifecycleObserver {
+    private static final String TAG = "EventSubscriptions";
+
+    private final Map<String, ListenerRegistration> registrations = new HashMap<>();
+    private boolean destroyed;
+
+    /**
+     * Removes every listener once the owner is destroyed.
+     * @param owner the screen the listeners belong to
+     */
+    public void bindTo(LifecycleOwner owner) {
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * Listens to an event's document, unless it is already being listened to.
+     * @param document the event's document
+     * @param onUpdate receives every version of the event, on the main thread
+     * @return true if a new listener was attached
+     */
+    public boolean watch(DocumentReference document, Consumer<Event> onUpdate) {
+        String eventId = document.getId();
+        if (destroyed || registrations.containsKey(eventId)) {
+            return false;
+        }
+
+        ListenerRegistration registration = document.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                Log.e(TAG, "✗ Listener failed for event " + eventId, error);
+                unwatch(eventId);
+                return;
+            }
+            if (snapshot == null || !snapshot.exists()) return;
+
+            Event event = snapshot.toObject(Event.class);
+            if (event == null) return;
+            if (event.getId() == null) {
+                event.setId(eventId);
+            }
+            onUpdate.accept(event);
+        });
+        registrations.put(eventId, registration);
+        Log.d(TAG, "✓ Watching event " + eventId + " (" + registrations.size() + " listeners)");
+        return true;
+    }
+
+    /**
+     * Takes ownership of a listener attached elsewhere, e.g. to a query, removing the one
+     * previously held under the same key.
+     * @param key identifies the listener
+     * @param registration the listener to remove with the others
+     */
+    public void hold(String key, ListenerRegistration registration) {
+        if (destroyed) {
+            registration.remove();
+            return;
+        }
+        ListenerRegistration previous = registrations.put(key, registration);
+        if (previous != null) {
+            previous.remove();
+        }
+    }
+
+    /**
+     * Stops listening to an event, or removes a listener held under this key.
+     * @param eventId the event to stop listening to
+     */
+    public void unwatch(String eventId) {
+        ListenerRegistration registration = registrations.remove(eventId);
+        if (registration != null) {
+            registration.remove();
+        }
+    }
+
+    /** Removes every listener. */
+    public void clear() {
+        for (ListenerRegistration registration : registrations.values()) {
+            registration.remove();
+        }
+        registrations.clear();
+    }
+
+    /** @return the number of events being listened to */
+    public int size() {
+        return registrations.size();
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        destroyed = true;
+        Log.d(TAG, "Removing " + registrations.size() + " event listeners");
+        clear();
+        owner.getLifecycle().removeObserver(this);
+    }
+}
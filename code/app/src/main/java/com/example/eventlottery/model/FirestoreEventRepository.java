@@ -0,0 +1,159 @@
+package com.example.eventlottery.model;
+
+import androidx.tracing.Trace;
+
+import com.example.eventlottery.events.Event;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link EventRepository} backed by the {@code event-p4} collection of an {@link EventDatabase}.
+ */
+public class FirestoreEventRepository implements EventRepository {
+    private final CollectionReference eventsRef;
+
+    /**
+     * Constructor for FirestoreEventRepository.
+     * @param eventDatabase the database whose events collection is used
+     */
+    public FirestoreEventRepository(EventDatabase eventDatabase) {
+        this.eventsRef = eventDatabase.getEventsRef();
+    }
+
+    /**
+     * Converts an event document, filling in the id from the document if it's missing.
+     * @param doc the event document
+     * @return the event, or null if the document doesn't exist
+     */
+    static Event toEvent(DocumentSnapshot doc) {
+        if (!doc.exists()) return null;
+        Event event = doc.toObject(Event.class);
+        if (event != null && (event.getId() == null || event.getId().isEmpty())) {
+            event.setId(doc.getId());
+        }
+        return event;
+    }
+
+    /**
+     * Converts the documents of an events snapshot and passes its changes on to the cache:
+     * added and modified events replace the cached ones, removed events are invalidated.
+     * Each document is converted once, for both the cache and the caller.
+     * @param snapshot a snapshot delivered by a listener on the events collection
+     * @param cache the cache to keep up to date
+     * @return the events of the snapshot, in query order
+     */
+    public static List<Event> applySnapshot(QuerySnapshot snapshot, EventCache cache) {
+        Trace.beginSection("Events.applySnapshot");
+        try {
+            return convertAndCache(snapshot, cache);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Converts an event document delivered by a listener on that one event and passes it on to
+     * the cache, like {@link #applySnapshot} does for a whole collection.
+     * @param snapshot a snapshot delivered by a listener on an event document
+     * @param cache the cache to keep up to date
+     * @return the event, or null if it was deleted
+     */
+    public static Event applyDocument(DocumentSnapshot snapshot, EventCache cache) {
+        Event event = toEvent(snapshot);
+        long version = cache.stamp();
+        if (event == null) {
+            cache.invalidate(snapshot.getId(), version);
+        } else {
+            cache.refresh(event, version);
+        }
+        return event;
+    }
+
+    private static List<Event> convertAndCache(QuerySnapshot snapshot, EventCache cache) {
+        List<DocumentSnapshot> docs = snapshot.getDocuments();
+        Event[] converted = new Event[docs.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = toEvent(docs.get(i));
+        }
+
+        long version = cache.stamp();
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            String eventId = change.getDocument().getId();
+            Event event = change.getType() == DocumentChange.Type.REMOVED ? null : converted[change.getNewIndex()];
+            if (event == null) {
+                cache.invalidate(eventId, version);
+            } else {
+                cache.refresh(event, version);
+            }
+        }
+
+        List<Event> events = new ArrayList<>(converted.length);
+        for (Event event : converted) {
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public CompletableFuture<Event> getEvent(String eventId) {
+        return TaskFutures.of(eventsRef.document(eventId).get())
+                .thenApply(FirestoreEventRepository::toEvent);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Event>> getEvents(Collection<String> eventIds) {
+        // One query per 30 ids instead of one read per id
+        List<CompletableFuture<QuerySnapshot>> queries = new ArrayList<>();
+        for (List<String> chunk : WhereIn.chunks(eventIds)) {
+            queries.add(TaskFutures.of(eventsRef.whereIn(FieldPath.documentId(), chunk).get()));
+        }
+        return TaskFutures.allOf(queries).thenApply(snapshots -> {
+            Map<String, Event> events = new LinkedHashMap<>();
+            for (QuerySnapshot snapshot : snapshots) {
+                for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                    Event event = toEvent(doc);
+                    if (event != null) {
+                        events.put(doc.getId(), event);
+                    }
+                }
+            }
+            return events;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Event>> getAllEvents() {
+        return TaskFutures.of(eventsRef.orderBy("startTime").get()).thenApply(snapshot -> {
+            List<Event> events = new ArrayList<>();
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                Event event = toEvent(doc);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            return events;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveEvent(Event event) {
+        return TaskFutures.of(eventsRef.document(event.getId()).set(event));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteEvent(String eventId) {
+        return TaskFutures.of(eventsRef.document(eventId).delete());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.users.User;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link UserRepository} backed by the {@code users-p4} collection, the one
+ * {@link com.example.eventlottery.events.DBConnector} reads and writes.
+ */
+public class FirestoreUserRepository implements UserRepository {
+    private final CollectionReference usersRef;
+
+    /**
+     * Constructor for FirestoreUserRepository.
+     * @param db the Firestore instance to use
+     */
+    public FirestoreUserRepository(FirebaseFirestore db) {
+        this.usersRef = db.collection("users-p4");
+    }
+
+    /**
+     * Converts a user document. The waitlisted events have no matching setter, so they're copied
+     * over separately, and the id is filled in from the document if it's missing.
+     * @param doc a user document
+     * @return the user, or null if the document doesn't exist
+     */
+    @SuppressWarnings("unchecked")
+    static User toUser(DocumentSnapshot doc) {
+        if (!doc.exists()) return null;
+        User user = doc.toObject(User.class);
+        if (user == null) return null;
+        user.setWaitlistedEventIds((List<String>) doc.get("waitlistedEvents"));
+        if (user.getId() == null || user.getId().isEmpty()) {
+            user.setId(doc.getId());
+        }
+        return user;
+    }
+
+    /**
+     * Converts a user document delivered by a snapshot listener and keeps the cache up to date.
+     * @param doc the user document
+     * @param cache the cache to refresh
+     * @return the user, or null if the document doesn't exist (they're then dropped from the cache)
+     */
+    public static User applySnapshot(DocumentSnapshot doc, UserCache cache) {
+        User user = toUser(doc);
+        if (user == null) {
+            cache.invalidate(doc.getId());
+        } else {
+            cache.refresh(user);
+        }
+        return user;
+    }
+
+    /**
+     * Converts the documents of a users snapshot and passes its changes on to the cache.
+     * Each document is converted once, for both the cache and the caller.
+     * @param snapshot a snapshot delivered by a listener on the users collection
+     * @param cache the cache to keep up to date
+     * @return the users of the snapshot, in query order
+     */
+    public static List<User> applySnapshot(QuerySnapshot snapshot, UserCache cache) {
+        List<DocumentSnapshot> docs = snapshot.getDocuments();
+        User[] converted = new User[docs.size()];
+        for (int i = 0; i < converted.length; i++) {
+            converted[i] = toUser(docs.get(i));
+        }
+
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            User user = change.getType() == DocumentChange.Type.REMOVED ? null : converted[change.getNewIndex()];
+            if (user == null) {
+                cache.invalidate(change.getDocument().getId());
+            } else {
+                cache.refresh(user);
+            }
+        }
+
+        List<User> users = new ArrayList<>(converted.length);
+        for (User user : converted) {
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public CompletableFuture<User> getUser(String userId) {
+        return TaskFutures.of(usersRef.document(userId).get())
+                .thenApply(FirestoreUserRepository::toUser);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, User>> getUsers(Collection<String> userIds) {
+        // One query per 30 ids instead of one read per id
+        List<CompletableFuture<QuerySnapshot>> queries = new ArrayList<>();
+        for (List<String> chunk : WhereIn.chunks(userIds)) {
+            queries.add(TaskFutures.of(usersRef.whereIn(FieldPath.documentId(), chunk).get()));
+        }
+        return TaskFutures.allOf(queries).thenApply(snapshots -> {
+            Map<String, User> users = new LinkedHashMap<>();
+            for (QuerySnapshot snapshot : snapshots) {
+                for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                    User user = toUser(doc);
+                    if (user != null) {
+                        users.put(doc.getId(), user);
+                    }
+                }
+            }
+            return users;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<User>> getAllUsers() {
+        return TaskFutures.of(usersRef.get()).thenApply(snapshot -> {
+            List<User> users = new ArrayList<>();
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                User user = toUser(doc);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+            return users;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> saveUser(User user) {
+        return TaskFutures.of(usersRef.document(user.getId()).set(user));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUser(String userId) {
+        return TaskFutures.of(usersRef.document(userId).delete());
+    }
+}
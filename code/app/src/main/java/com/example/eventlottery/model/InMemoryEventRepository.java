@@ -0,0 +1,60 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.EventFilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link EventRepository} keeping the events in memory.
+ * <p>
+ * Every future is already complete when returned. The stored objects themselves are handed
+ * out, not copies, so callers must not modify them without saving. Used by unit tests and
+ * the JVM benchmarks.
+ * </p>
+ */
+public class InMemoryEventRepository implements EventRepository {
+    private final Map<String, Event> events = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Event> getEvent(String eventId) {
+        return CompletableFuture.completedFuture(events.get(eventId));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Event>> getEvents(Collection<String> eventIds) {
+        Map<String, Event> found = new LinkedHashMap<>();
+        for (String id : eventIds) {
+            Event event = events.get(id);
+            if (event != null) {
+                found.put(id, event);
+            }
+        }
+        return CompletableFuture.completedFuture(found);
+    }
+
+    @Override
+    public CompletableFuture<List<Event>> getAllEvents() {
+        List<Event> all = new ArrayList<>(events.values());
+        all.sort(EventFilter.BY_START_TIME);
+        return CompletableFuture.completedFuture(all);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveEvent(Event event) {
+        events.put(event.getId(), event);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteEvent(String eventId) {
+        events.remove(eventId);
+        return CompletableFuture.completedFuture(null);
+    }
+}
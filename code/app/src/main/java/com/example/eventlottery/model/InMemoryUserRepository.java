@@ -0,0 +1,56 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.users.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UserRepository} keeping the users in memory.
+ * <p>
+ * Every future is already complete when returned. The stored objects themselves are handed
+ * out, not copies. Used by unit tests and the JVM benchmarks.
+ * </p>
+ */
+public class InMemoryUserRepository implements UserRepository {
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<User> getUser(String userId) {
+        return CompletableFuture.completedFuture(users.get(userId));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, User>> getUsers(Collection<String> userIds) {
+        Map<String, User> found = new LinkedHashMap<>();
+        for (String id : userIds) {
+            User user = users.get(id);
+            if (user != null) {
+                found.put(id, user);
+            }
+        }
+        return CompletableFuture.completedFuture(found);
+    }
+
+    @Override
+    public CompletableFuture<List<User>> getAllUsers() {
+        return CompletableFuture.completedFuture(new ArrayList<>(users.values()));
+    }
+
+    @Override
+    public CompletableFuture<Void> saveUser(User user) {
+        users.put(user.getId(), user);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUser(String userId) {
+        users.remove(userId);
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.eventlottery.model;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shares Firestore snapshot listeners between screens.
+ * <p>
+ * Screens listening to the same query or document (e.g. MainActivity and AdminPanel both
+ * listening to every event) get one Firestore listener between them instead of one each, so
+ * every change is read once. The listener is attached by the first subscriber and removed
+ * with the last one.
+ * </p>
+ * <p>
+ * Snapshots are delivered on the hub's background thread, so subscribers can convert documents
+ * without blocking the UI; they must switch to the main thread (e.g. runOnUiThread) before
+ * touching views. Queries and documents are matched with equals, so the same collection,
+ * filters and ordering share a listener.
+ * </p>
+ */
+public final class ListenerHub {
+    private static ListenerHub instance;
+
+    private final ExecutorService deliveryThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ListenerHub");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final SharedListeners<Query, QuerySnapshot> queries = new SharedListeners<>(deliveryThread);
+    private final SharedListeners<DocumentReference, DocumentSnapshot> documents = new SharedListeners<>(deliveryThread);
+
+    private ListenerHub() {}
+
+    /** @return the hub shared by every screen */
+    public static synchronized ListenerHub getInstance() {
+        if (instance == null) {
+            instance = new ListenerHub();
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribes to a query, sharing the Firestore listener with every other subscriber to an equal query.
+     * @param query the query to listen to
+     * @param listener receives the snapshots, on the hub's background thread
+     * @return the registration to remove when the screen no longer needs updates
+     */
+    public ListenerRegistration listen(Query query, EventListener<QuerySnapshot> listener) {
+        SharedListeners.Subscription subscription = queries.subscribe(query,
+                sink -> {
+                    ListenerRegistration registration = query.addSnapshotListener(deliveryThread, sink::onEvent);
+                    return registration::remove;
+                },
+                (snapshot, error) -> listener.onEvent(snapshot, (FirebaseFirestoreException) error));
+        return subscription::remove;
+    }
+
+    /**
+     * Subscribes to a document, sharing the Firestore listener with every other subscriber to it.
+     * @param document the document to listen to
+     * @param listener receives the snapshots, on the hub's background thread
+     * @return the registration to remove when the screen no longer needs updates
+     */
+    public ListenerRegistration listen(DocumentReference document, EventListener<DocumentSnapshot> listener) {
+        SharedListeners.Subscription subscription = documents.subscribe(document,
+                sink -> {
+                    ListenerRegistration registration = document.addSnapshotListener(deliveryThread, sink::onEvent);
+                    return registration::remove;
+                },
+                (snapshot, error) -> listener.onEvent(snapshot, (FirebaseFirestoreException) error));
+        return subscription::remove;
+    }
+
+    /** @return the number of Firestore listeners currently attached */
+    public int getListenerCount() {
+        return queries.size() + documents.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.eventlottery.model;
+
+import android.util.Log;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.WaitlistService;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheIndexManager;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import com.google.firebase.firestore.Query;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sets Firestore up to work offline first.
+ * <p>
+ * Firestore keeps a persistent cache of every document the app has read and every write it has
+ * made. {@link #configure} sizes that cache and lets Firestore index it, so queries answered from
+ * the cache stay fast. {@link #prewarm} reads the upcoming events into it (and into the
+ * {@link EventCache}) on launch, so browsing works in a venue without signal. Writes made through
+ * {@link #track} are applied locally at once and followed in {@link PendingWrites} until the
+ * server has them.
+ * </p>
+ */
+public final class OfflineStore {
+    private static final String TAG = "OfflineStore";
+
+    /** Size of Firestore's persistent cache. */
+    public static final long CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+    /** The most upcoming events read into the cache on launch. */
+    public static final int PREWARM_LIMIT = 100;
+
+    private static final PendingWrites pendingWrites = new PendingWrites();
+
+    private OfflineStore() {}
+
+    /**
+     * Sizes Firestore's persistent cache and turns on automatic indexing of it.
+     * Must run before Firestore is first used; does nothing afterwards.
+     * @param db the Firestore instance to configure
+     */
+    static void configure(FirebaseFirestore db) {
+        try {
+            db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                    .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                            .setSizeBytes(CACHE_SIZE_BYTES)
+                            .build())
+                    .build());
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "Firestore already in use, keeping its cache settings");
+            return;
+        }
+
+        PersistentCacheIndexManager indexManager = db.getPersistentCacheIndexManager();
+        if (indexManager != null) {
+            indexManager.enableIndexAutoCreation();
+        }
+        Log.d(TAG, "✓ Persistent cache of " + (CACHE_SIZE_BYTES / (1024 * 1024)) + " MB");
+    }
+
+    /**
+     * Reads the events starting from today on into Firestore's cache and the event cache.
+     * @param db the Firestore instance to read from
+     * @param cache the event cache to fill
+     * @return a future completing with the number of events read
+     */
+    public static CompletableFuture<Integer> prewarm(FirebaseFirestore db, EventCache cache) {
+        Calendar today = Calendar.getInstance();
+        today.set(Calendar.HOUR_OF_DAY, 0);
+        today.set(Calendar.MINUTE, 0);
+        today.set(Calendar.SECOND, 0);
+        today.set(Calendar.MILLISECOND, 0);
+
+        Query upcoming = db.collection(WaitlistService.EVENTS_COLLECTION)
+                .whereGreaterThanOrEqualTo("startTime", today.getTime())
+                .orderBy("startTime")
+                .limit(PREWARM_LIMIT);
+        return TaskFutures.of(upcoming.get()).handle((snapshot, e) -> {
+            if (e != null) {
+                Log.w(TAG, "Prewarm failed, browsing will use what is cached", e);
+                return 0;
+            }
+            List<Event> events = FirestoreEventRepository.applySnapshot(snapshot, cache);
+            Log.d(TAG, "✓ Prewarmed " + events.size() + " events"
+                    + (snapshot.getMetadata().isFromCache() ? " from cache" : ""));
+            return events.size();
+        });
+    }
+
+    /**
+     * Tracks one of the user's writes until the server has it.
+     * @param key names what the write changes, e.g. "waitlist/&lt;eventId&gt;"
+     * @param write the Firestore write
+     * @return a future completing once the server has the write
+     */
+    public static CompletableFuture<Void> track(String key, Task<Void> write) {
+        return pendingWrites.submit(key, TaskFutures.of(write));
+    }
+
+    /** @return the user's writes that the server may not have yet */
+    public static PendingWrites pendingWrites() {
+        return pendingWrites;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.eventlottery.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tracks the user's writes until the server has them, so screens can show whether a change
+ * is still pending or has been committed.
+ * <p>
+ * Firestore applies a write to its local cache straight away and queues it for the server, so a
+ * write made offline is visible at once and committed once the device is back online. Each write
+ * is tracked under a key naming what it changes (e.g. "waitlist/&lt;eventId&gt;"). When the user
+ * changes the same thing again before the first write is committed, the latest write wins: its
+ * outcome decides the state of the key and the outcome of the older one is ignored, since
+ * Firestore applies writes in order and the latest one lands last.
+ * </p>
+ * <p>
+ * A key is dropped once its latest write is committed, so only pending and failed writes are
+ * kept; a key that isn't tracked counts as committed.
+ * </p>
+ * <p>
+ * Listeners are called on the thread that completes the write (the main thread for Firestore).
+ * </p>
+ */
+public class PendingWrites {
+
+    /** The state of the latest write under a key. */
+    public enum State {
+        /** Applied locally, not yet confirmed by the server. */
+        PENDING,
+        /** Confirmed by the server. */
+        COMMITTED,
+        /** Rejected by the server; the local change was rolled back. */
+        FAILED
+    }
+
+    /**
+     * Receives the state changes of tracked writes.
+     */
+    public interface Listener {
+        /**
+         * @param key the key of the write
+         * @param state the new state of the latest write under the key
+         * @param error why the write failed, or null
+         */
+        void onWriteStateChanged(String key, State state, Throwable error);
+    }
+
+    /** The latest write under a key. */
+    private static final class Entry {
+        final long sequence;
+        State state = State.PENDING;
+
+        Entry(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private long nextSequence;
+    private int superseded;
+
+    /**
+     * Tracks a write, replacing any earlier write under the same key.
+     * @param key names what the write changes
+     * @param write completes once the server has the write, or fails if it was rejected
+     * @return the write, for callers that want to wait for it
+     */
+    public CompletableFuture<Void> submit(String key, CompletableFuture<Void> write) {
+        Entry entry;
+        synchronized (this) {
+            Entry previous = entries.get(key);
+            if (previous != null && previous.state == State.PENDING) {
+                superseded++;
+            }
+            entry = new Entry(nextSequence++);
+            entries.put(key, entry);
+        }
+        notifyListeners(key, State.PENDING, null);
+
+        write.whenComplete((unused, error) -> {
+            State state = error == null ? State.COMMITTED : State.FAILED;
+            synchronized (this) {
+                if (entries.get(key) != entry) return; // a newer write decides the key
+                entry.state = state;
+            }
+            notifyListeners(key, state, error);
+
+            if (state == State.COMMITTED) {
+                synchronized (this) {
+                    // Only if no newer write was submitted while the listeners ran
+                    entries.remove(key, entry);
+                }
+            }
+        });
+        return write;
+    }
+
+    /**
+     * @param key names what a write changes
+     * @return the state of the latest write under the key; COMMITTED if none is tracked
+     */
+    public synchronized State getState(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? State.COMMITTED : entry.state;
+    }
+
+    /** @return the keys whose latest write is still pending */
+    public synchronized List<String> getPendingKeys() {
+        List<String> pending = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().state == State.PENDING) {
+                pending.add(entry.getKey());
+            }
+        }
+        return pending;
+    }
+
+    /** @return the number of keys still tracked, i.e. whose latest write is pending or failed */
+    public synchronized int getTrackedCount() {
+        return entries.size();
+    }
+
+    /** @return the number of writes replaced by a newer write before they were committed */
+    public synchronized int getSupersededCount() {
+        return superseded;
+    }
+
+    /** @param listener called whenever the state of a key changes */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /** @param listener a listener added with {@link #addListener} */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners(String key, State state, Throwable error) {
+        for (Listener listener : listeners) {
+            listener.onWriteStateChanged(key, state, error);
+        }
+    }
+}
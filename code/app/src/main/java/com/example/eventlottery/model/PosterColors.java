@@ -0,0 +1,66 @@
+package com.example.eventlottery.model;
+
+/**
+ * Works out a poster's dominant colour, shown in its place while the poster loads.
+ * <p>
+ * The colour is saved on the event ({@code Event.getPosterColor()}) when the poster is uploaded,
+ * so a list row can paint it straight away without downloading anything. Pixels are grouped by
+ * coarse colour and the average of the largest group is taken, so a poster that's mostly blue
+ * with some red reads as blue rather than as the muddy mix of both.
+ * </p>
+ * <p>
+ * Android-free, so it can be tested on the JVM; pixels are ARGB ints as {@code Bitmap.getPixels}
+ * returns them.
+ * </p>
+ */
+public final class PosterColors {
+    /** The colour of an event without one, e.g. with a poster uploaded before colours were saved. */
+    public static final int NONE = 0;
+
+    /** Bits kept of each channel when grouping pixels. */
+    private static final int BUCKET_BITS = 3;
+    /** Pixels less opaque than this are left out. */
+    private static final int MIN_ALPHA = 128;
+
+    private PosterColors() {}
+
+    /**
+     * @param pixels a poster's pixels, typically of a small scaled-down copy
+     * @return its dominant colour, opaque, or {@link #NONE} if it has no opaque pixels
+     */
+    public static int dominant(int[] pixels) {
+        int buckets = 1 << (3 * BUCKET_BITS);
+        int[] counts = new int[buckets];
+        long[] red = new long[buckets];
+        long[] green = new long[buckets];
+        long[] blue = new long[buckets];
+
+        int shift = 8 - BUCKET_BITS;
+        for (int pixel : pixels) {
+            if ((pixel >>> 24) < MIN_ALPHA) continue;
+            int r = (pixel >> 16) & 0xFF;
+            int g = (pixel >> 8) & 0xFF;
+            int b = pixel & 0xFF;
+            int bucket = ((r >> shift) << (2 * BUCKET_BITS)) | ((g >> shift) << BUCKET_BITS) | (b >> shift);
+            counts[bucket]++;
+            red[bucket] += r;
+            green[bucket] += g;
+            blue[bucket] += b;
+        }
+
+        int best = -1;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (counts[bucket] > 0 && (best < 0 || counts[bucket] > counts[best])) {
+                best = bucket;
+            }
+        }
+        if (best < 0) {
+            return NONE;
+        }
+        int count = counts[best];
+        return 0xFF000000
+                | (int) (red[best] / count) << 16
+                | (int) (green[best] / count) << 8
+                | (int) (blue[best] / count);
+    }
+}
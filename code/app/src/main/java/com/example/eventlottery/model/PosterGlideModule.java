@@ -0,0 +1,40 @@
+package com.example.eventlottery.model;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * Configures Glide for the app, which mostly loads event posters (see {@link Posters}).
+ * <p>
+ * Posters are cached on disk twice: the downloaded file, so it isn't downloaded again, and the
+ * poster decoded at the size it was shown, so scrolling back up a list doesn't decode it again.
+ * </p>
+ */
+@GlideModule
+public final class PosterGlideModule extends AppGlideModule {
+    /** Size of Glide's disk cache. */
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    private static final String DISK_CACHE_DIR = "posters";
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions().diskCacheStrategy(DiskCacheStrategy.ALL));
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    /** Every module is registered here, so Glide needn't scan the manifest for old-style ones. */
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.eventlottery.model;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+
+/**
+ * Works out the key event posters are cached under.
+ * <p>
+ * A poster's download URL carries an access token, which changes when the token is revoked or the
+ * file is re-uploaded under the same path, so caching by URL would download the same image again.
+ * Posters are cached by their path in Firebase Storage instead: the event's storage path if it
+ * has one, otherwise the path inside the download URL.
+ * </p>
+ * <p>
+ * Android-free, so it can be tested on the JVM; {@link Posters} uses it for Glide's caches.
+ * </p>
+ */
+public final class PosterKeys {
+    private static final String STORAGE_HOST = "firebasestorage.googleapis.com";
+    private static final String OBJECT_SEGMENT = "/o/";
+
+    private PosterKeys() {}
+
+    /**
+     * @param url the poster's download URL
+     * @param storagePath the poster's path in Firebase Storage, or null/empty if unknown
+     * @return the key to cache the poster under, or null if there is no poster
+     */
+    public static String cacheKey(String url, String storagePath) {
+        if (storagePath != null && !storagePath.isEmpty()) {
+            return storagePath;
+        }
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        String path = storagePathOf(url);
+        return path != null ? path : url;
+    }
+
+    /**
+     * Reads the storage path out of a Firebase Storage download URL, which looks like
+     * {@code https://firebasestorage.googleapis.com/v0/b/<bucket>/o/<encoded path>?alt=media&token=<token>}.
+     * @param url a download URL
+     * @return the path, e.g. "images/1234", or null if it isn't a Firebase Storage URL
+     */
+    public static String storagePathOf(String url) {
+        try {
+            URI uri = new URI(url);
+            String rawPath = uri.getRawPath();
+            if (!STORAGE_HOST.equals(uri.getHost()) || rawPath == null) {
+                return null;
+            }
+            int object = rawPath.indexOf(OBJECT_SEGMENT);
+            if (object < 0 || object + OBJECT_SEGMENT.length() == rawPath.length()) {
+                return null;
+            }
+            return URLDecoder.decode(rawPath.substring(object + OBJECT_SEGMENT.length()), "UTF-8");
+        } catch (URISyntaxException | UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
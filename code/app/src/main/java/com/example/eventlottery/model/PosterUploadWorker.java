@@ -0,0 +1,201 @@
+package com.example.eventlottery.model;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Uploads a poster queued by {@link PosterUploader#enqueue}, then sets it on the event.
+ * <p>
+ * WorkManager runs it once the device is online and again after it fails or the app is killed.
+ * The sizes upload in parallel, each with a resumable Firebase Storage session that sends the
+ * file in chunks. Its session URI is saved in the {@link UploadSession} as soon as the upload has
+ * one, so a retry continues from the bytes the server already has rather than from zero. Sizes
+ * uploaded before are skipped.
+ * </p>
+ */
+public class PosterUploadWorker extends Worker {
+    private static final String TAG = "PosterUploadWorker";
+
+    /** Input: the event the poster is for. */
+    static final String KEY_EVENT_ID = "eventId";
+    /** Progress: the percentage of bytes uploaded. */
+    public static final String KEY_PROGRESS = "progress";
+
+    /** Retries before the poster is given up on. */
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final List<UploadTask> running = new CopyOnWriteArrayList<>();
+
+    public PosterUploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String eventId = getInputData().getString(KEY_EVENT_ID);
+        File dir = PosterUploader.uploadDir(getApplicationContext(), eventId);
+        UploadSession session = UploadSession.load(new File(dir, PosterUploader.SESSION_FILE));
+        if (session == null) {
+            Log.e(TAG, "✗ No queued poster for " + eventId);
+            return Result.failure();
+        }
+
+        try {
+            if (session.getBasePath() == null) {
+                session.setBasePath("images/" + UUID.randomUUID());
+                session.save();
+            }
+            // Every size uploads at once
+            Map<PosterVariants.Variant, UploadTask> uploads = new EnumMap<>(PosterVariants.Variant.class);
+            Set<PosterVariants.Variant> resumed = EnumSet.noneOf(PosterVariants.Variant.class);
+            for (PosterVariants.Variant variant : PosterVariants.Variant.values()) {
+                if (session.getUrl(variant.key()) != null) continue;
+                String sessionUri = session.getSessionUri(variant.key());
+                if (sessionUri != null) {
+                    resumed.add(variant);
+                }
+                uploads.put(variant, start(session, variant, dir, sessionUri));
+            }
+            for (Map.Entry<PosterVariants.Variant, UploadTask> upload : uploads.entrySet()) {
+                finish(session, upload.getKey(), dir, upload.getValue(), resumed.contains(upload.getKey()));
+            }
+            if (isStopped()) return Result.retry();
+
+            PosterVariants.Variant full = PosterVariants.Variant.FULL;
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("image", session.getUrl(full.key()));
+            updates.put("storagePath", PosterVariants.pathFor(session.getBasePath(), full));
+            updates.put("posterUrls", session.getUrls());
+            updates.put("posterColor", session.getColor());
+            Tasks.await(FirebaseFirestore.getInstance().collection("event-p4").document(eventId).update(updates));
+        } catch (ExecutionException | IOException e) {
+            if (e.getCause() instanceof FirebaseFirestoreException
+                    && ((FirebaseFirestoreException) e.getCause()).getCode() == FirebaseFirestoreException.Code.NOT_FOUND) {
+                // The event was deleted while its poster uploaded
+                Log.d(TAG, "Event " + eventId + " is gone, dropping its poster");
+                if (session.getBasePath() != null) {
+                    PosterUploader.delete(FirebaseStorage.getInstance(),
+                            PosterVariants.pathFor(session.getBasePath(), PosterVariants.Variant.FULL));
+                }
+                PosterUploader.deleteDir(dir);
+                return Result.failure();
+            }
+            Log.e(TAG, "✗ Poster upload for " + eventId + " failed, attempt " + getRunAttemptCount(), e);
+            if (isStopped() || getRunAttemptCount() + 1 < MAX_ATTEMPTS) {
+                return Result.retry();
+            }
+            PosterUploader.deleteDir(dir);
+            return Result.failure();
+        } catch (CancellationException e) {
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+
+        PosterUploader.deleteDir(dir);
+        Log.d(TAG, "✓ Uploaded poster for " + eventId);
+        return Result.success();
+    }
+
+    @Override
+    public void onStopped() {
+        // The saved session URIs stay, the next run tries to resume them
+        for (UploadTask task : running) {
+            task.cancel();
+        }
+    }
+
+    /** Waits for one size's upload and saves its download URL, starting it over if it can't resume. */
+    private void finish(UploadSession session, PosterVariants.Variant variant, File dir, UploadTask task,
+                        boolean resumed) throws ExecutionException, InterruptedException, IOException {
+        String key = variant.key();
+        try {
+            Tasks.await(task);
+        } catch (ExecutionException e) {
+            if (!resumed || isStopped() || !(e.getCause() instanceof StorageException)) throw e;
+            // The session expired or the server dropped it: start this size over
+            Log.d(TAG, "Session for " + key + " can't be resumed, starting over");
+            synchronized (session) {
+                session.setSessionUri(key, null);
+                session.save();
+            }
+            task = start(session, variant, dir, null);
+            Tasks.await(task);
+        }
+
+        String url = Tasks.await(task.getSnapshot().getStorage().getDownloadUrl()).toString();
+        synchronized (session) {
+            session.setUrl(key, url);
+            session.save();
+        }
+    }
+
+    /** Starts or resumes one size's upload, saving its session URI and progress as it goes. */
+    private UploadTask start(UploadSession session, PosterVariants.Variant variant, File dir, String sessionUri)
+            throws IOException {
+        String key = variant.key();
+        File file = new File(dir, key + PosterUploader.FILE_SUFFIX);
+        if (!file.isFile()) {
+            throw new IOException("Missing " + file);
+        }
+        StorageReference reference = FirebaseStorage.getInstance().getReference()
+                .child(PosterVariants.pathFor(session.getBasePath(), variant));
+        Uri source = Uri.fromFile(file);
+        UploadTask task = sessionUri != null
+                ? reference.putFile(source, PosterUploader.metadata(), Uri.parse(sessionUri))
+                : reference.putFile(source, PosterUploader.metadata());
+        running.add(task);
+        if (isStopped()) {
+            task.cancel();
+        }
+
+        // Runs on the thread delivering the progress, this worker is blocked waiting
+        task.addOnProgressListener(Runnable::run, snapshot -> {
+            int percent;
+            synchronized (session) {
+                Uri uri = snapshot.getUploadSessionUri();
+                if (uri != null) {
+                    session.setSessionUri(key, uri.toString());
+                }
+                session.setProgress(key, snapshot.getBytesTransferred(), snapshot.getTotalByteCount());
+                try {
+                    session.save();
+                } catch (IOException e) {
+                    Log.e(TAG, "✗ Can't save upload session", e);
+                }
+                percent = session.getProgressPercent();
+            }
+            setProgressAsync(new Data.Builder().putInt(KEY_PROGRESS, percent).build());
+        });
+        return task;
+    }
+}
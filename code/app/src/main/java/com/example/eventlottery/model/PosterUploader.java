@@ -0,0 +1,279 @@
+package com.example.eventlottery.model;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.WorkRequest;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageMetadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads event posters in the sizes of {@link PosterVariants}, instead of the picked photo as is.
+ * <p>
+ * The photo is decoded subsampled to about the largest size, turned upright according to its
+ * EXIF orientation, and encoded as WebP at each width. Re-encoding drops the photo's metadata, so
+ * EXIF data such as the camera's GPS position isn't uploaded.
+ * </p>
+ * <p>
+ * The sizes are uploaded in the background, so the upload survives the screen closing, the
+ * connection dropping or the app being killed: they're written to app storage and uploaded by
+ * {@link PosterUploadWorker}, which sets them on the event once they're all up.
+ * </p>
+ */
+public final class PosterUploader {
+    private static final String TAG = "PosterUploader";
+
+    private static final int WEBP_QUALITY = 80;
+    private static final String CONTENT_TYPE = "image/webp";
+    /** Width of the copy the dominant colour is taken from. */
+    private static final int COLOR_SAMPLE_WIDTH = 32;
+    /** Files never change once uploaded, a new poster gets a new path. */
+    private static final String CACHE_CONTROL = "public, max-age=31536000";
+
+    /** Where queued posters wait, one directory per event. */
+    private static final String UPLOAD_DIR = "poster-uploads";
+    static final String SESSION_FILE = "session.properties";
+    static final String FILE_SUFFIX = ".webp";
+
+    private static final ExecutorService encoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PosterUploader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PosterUploader() {}
+
+    /**
+     * Resizes a picked photo and queues it to be uploaded in the background and set as the
+     * event's poster, once the device is online.
+     * <p>
+     * The photo is read straight away, while the app still has permission to, and the sizes are
+     * kept in app storage until they're uploaded. Queueing a poster for an event replaces one
+     * still uploading for it.
+     * </p>
+     * @param context any context
+     * @param eventId the event, which should already be saved
+     * @param source the picked photo
+     * @return a future completing once the poster is queued
+     */
+    public static CompletableFuture<Void> enqueue(Context context, String eventId, Uri source) {
+        Context app = context.getApplicationContext();
+        ContentResolver resolver = app.getContentResolver();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                // A newer poster replaces one still uploading for the same event
+                WorkManager workManager = WorkManager.getInstance(app);
+                workManager.cancelUniqueWork(workName(eventId)).getResult().get();
+
+                Encoded encoded = encode(resolver, source);
+                File dir = uploadDir(app, eventId);
+                deleteDir(dir);
+                if (!dir.mkdirs()) {
+                    throw new IOException("Can't create " + dir);
+                }
+                for (Map.Entry<PosterVariants.Variant, byte[]> entry : encoded.sizes.entrySet()) {
+                    try (OutputStream out = new FileOutputStream(new File(dir, entry.getKey().key() + FILE_SUFFIX))) {
+                        out.write(entry.getValue());
+                    }
+                }
+                UploadSession session = UploadSession.create(new File(dir, SESSION_FILE), eventId);
+                session.setColor(encoded.color);
+                session.save();
+
+                OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(PosterUploadWorker.class)
+                        .setInputData(new Data.Builder().putString(PosterUploadWorker.KEY_EVENT_ID, eventId).build())
+                        .setConstraints(new Constraints.Builder().setRequiredNetworkType(NetworkType.CONNECTED).build())
+                        .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, WorkRequest.MIN_BACKOFF_MILLIS, TimeUnit.MILLISECONDS)
+                        .build();
+                workManager.enqueueUniqueWork(workName(eventId), ExistingWorkPolicy.REPLACE, request);
+                Log.d(TAG, "✓ Queued poster for " + eventId);
+            } catch (IOException | ExecutionException e) {
+                Log.e(TAG, "✗ Failed to queue poster for " + eventId, e);
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, encoder);
+    }
+
+    /**
+     * @param eventId the event
+     * @return the unique work name of the event's queued poster, to follow its
+     *         {@link PosterUploadWorker#KEY_PROGRESS} through {@link WorkManager}
+     */
+    public static String workName(String eventId) {
+        return "poster-upload-" + eventId;
+    }
+
+    /**
+     * Deletes every size of a poster.
+     * @param storage the storage the poster is in
+     * @param storagePath the storage path saved on the event
+     * @return a task completing once every file is deleted
+     */
+    public static Task<Void> delete(FirebaseStorage storage, String storagePath) {
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (String path : PosterVariants.allPaths(storagePath)) {
+            deletes.add(storage.getReference(path).delete());
+        }
+        return Tasks.whenAll(deletes);
+    }
+
+    /** @return the directory a queued poster waits in */
+    static File uploadDir(Context context, String eventId) {
+        return new File(new File(context.getFilesDir(), UPLOAD_DIR), eventId);
+    }
+
+    /** Deletes a queued poster's directory. */
+    static void deleteDir(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /** @return the metadata every size is uploaded with */
+    static StorageMetadata metadata() {
+        return new StorageMetadata.Builder()
+                .setContentType(CONTENT_TYPE)
+                .setCacheControl(CACHE_CONTROL)
+                .build();
+    }
+
+    /** A photo encoded in every size. */
+    private static final class Encoded {
+        final Map<PosterVariants.Variant, byte[]> sizes = new EnumMap<>(PosterVariants.Variant.class);
+        int color;
+    }
+
+    /** Runs on the encoder thread: decodes the photo once and encodes each size. */
+    private static Encoded encode(ContentResolver resolver, Uri source) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = resolver.openInputStream(source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not an image: " + source);
+        }
+
+        int orientation;
+        try (InputStream in = resolver.openInputStream(source)) {
+            orientation = in == null ? ExifInterface.ORIENTATION_NORMAL
+                    : new ExifInterface(in).getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        }
+        boolean sideways = orientation == ExifInterface.ORIENTATION_ROTATE_90
+                || orientation == ExifInterface.ORIENTATION_ROTATE_270
+                || orientation == ExifInterface.ORIENTATION_TRANSPOSE
+                || orientation == ExifInterface.ORIENTATION_TRANSVERSE;
+        int uprightWidth = sideways ? bounds.outHeight : bounds.outWidth;
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = PosterVariants.sampleSize(uprightWidth, PosterVariants.Variant.FULL.getWidth());
+        Bitmap decoded;
+        try (InputStream in = resolver.openInputStream(source)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Can't decode " + source);
+        }
+        Bitmap upright = rotate(decoded, orientation);
+
+        Encoded encoded = new Encoded();
+        encoded.color = dominantColor(upright);
+        for (PosterVariants.Variant variant : PosterVariants.Variant.values()) {
+            int width = Math.min(variant.getWidth(), upright.getWidth());
+            int height = Math.max(1, Math.round((float) upright.getHeight() * width / upright.getWidth()));
+            Bitmap scaled = width == upright.getWidth() ? upright : Bitmap.createScaledBitmap(upright, width, height, true);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            scaled.compress(webp(), WEBP_QUALITY, out);
+            encoded.sizes.put(variant, out.toByteArray());
+            if (scaled != upright) {
+                scaled.recycle();
+            }
+        }
+        upright.recycle();
+        Log.d(TAG, "✓ Encoded poster " + bounds.outWidth + "x" + bounds.outHeight + " (sample size "
+                + options.inSampleSize + ") as " + encoded.sizes.size() + " sizes");
+        return encoded;
+    }
+
+    /** @return the dominant colour of a small copy of the photo */
+    private static int dominantColor(Bitmap bitmap) {
+        int width = Math.min(COLOR_SAMPLE_WIDTH, bitmap.getWidth());
+        int height = Math.max(1, Math.round((float) bitmap.getHeight() * width / bitmap.getWidth()));
+        Bitmap small = Bitmap.createScaledBitmap(bitmap, width, height, true);
+        int[] pixels = new int[width * height];
+        small.getPixels(pixels, 0, width, 0, 0, width, height);
+        if (small != bitmap) {
+            small.recycle();
+        }
+        return PosterColors.dominant(pixels);
+    }
+
+    /** Turns a decoded photo upright, the way its EXIF orientation says the camera held it. */
+    private static Bitmap rotate(Bitmap bitmap, int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90: matrix.postRotate(90); break;
+            case ExifInterface.ORIENTATION_ROTATE_180: matrix.postRotate(180); break;
+            case ExifInterface.ORIENTATION_ROTATE_270: matrix.postRotate(270); break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL: matrix.postScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL: matrix.postScale(1, -1); break;
+            case ExifInterface.ORIENTATION_TRANSPOSE: matrix.postRotate(90); matrix.postScale(-1, 1); break;
+            case ExifInterface.ORIENTATION_TRANSVERSE: matrix.postRotate(-90); matrix.postScale(-1, 1); break;
+            default: return bitmap;
+        }
+        Bitmap rotated = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        if (rotated != bitmap) {
+            bitmap.recycle();
+        }
+        return rotated;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webp() {
+        // Before API 30 WEBP is lossy for qualities under 100
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.WEBP;
+    }
+
+}
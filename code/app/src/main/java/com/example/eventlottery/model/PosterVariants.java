@@ -0,0 +1,124 @@
+package com.example.eventlottery.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The sizes event posters are uploaded in, and which one to download for a view.
+ * <p>
+ * Each poster is re-encoded as WebP at a few fixed widths ({@link Variant}) and stored next to
+ * each other in Firebase Storage, as {@code <base>_<width>.webp}. The event keeps the URL of each
+ * one ({@code Event.getPosterUrls()}), so a list row downloads a card-sized poster instead of the
+ * original photo.
+ * </p>
+ * <p>
+ * Android-free, so it can be tested on the JVM; {@link PosterUploader} makes the variants.
+ * </p>
+ */
+public final class PosterVariants {
+    private static final String EXTENSION = ".webp";
+
+    /**
+     * The widths a poster is uploaded in, smallest first. A poster narrower than a variant is
+     * uploaded at its own width rather than scaled up.
+     */
+    public enum Variant {
+        /** Small previews. */
+        THUMBNAIL(320),
+        /** A row of the event lists. */
+        CARD(720),
+        /** The event's own screen. */
+        FULL(1280);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        /** @return the width, in pixels */
+        public int getWidth() {
+            return width;
+        }
+
+        /** @return the key of the variant's URL in {@code Event.getPosterUrls()}, e.g. "card" */
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private PosterVariants() {}
+
+    /**
+     * Works out how much to subsample an image while decoding it, the largest power of two that
+     * still leaves it at least as wide as needed.
+     * @param sourceWidth the width of the image
+     * @param targetWidth the width needed
+     * @return the sample size for {@code BitmapFactory.Options.inSampleSize}
+     */
+    public static int sampleSize(int sourceWidth, int targetWidth) {
+        int sampleSize = 1;
+        while (targetWidth > 0 && sourceWidth / (sampleSize * 2) >= targetWidth) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * @param basePath the poster's path without a size, e.g. "images/1234"
+     * @param variant the size
+     * @return where that size is stored, e.g. "images/1234_720.webp"
+     */
+    public static String pathFor(String basePath, Variant variant) {
+        return basePath + "_" + variant.getWidth() + EXTENSION;
+    }
+
+    /**
+     * Lists every file of a poster, e.g. to delete them all.
+     * @param storagePath the path of any one size, or of a poster uploaded before there were sizes
+     * @return the paths of all its sizes, or just the path itself for an older poster
+     */
+    public static List<String> allPaths(String storagePath) {
+        if (storagePath == null || storagePath.isEmpty()) {
+            return Collections.emptyList();
+        }
+        for (Variant variant : Variant.values()) {
+            String suffix = "_" + variant.getWidth() + EXTENSION;
+            if (storagePath.endsWith(suffix)) {
+                String basePath = storagePath.substring(0, storagePath.length() - suffix.length());
+                List<String> paths = new ArrayList<>();
+                for (Variant each : Variant.values()) {
+                    paths.add(pathFor(basePath, each));
+                }
+                return paths;
+            }
+        }
+        return Collections.singletonList(storagePath);
+    }
+
+    /**
+     * Picks the smallest size at least as wide as the view; the largest there is if none is.
+     * @param posterUrls the URL of each size, by {@link Variant#key()}; may be null or incomplete
+     * @param fallbackUrl the URL to use if there are no sizes, e.g. of a poster uploaded before
+     * @param targetWidthPx the width of the view, in pixels
+     * @return the URL to download
+     */
+    public static String pick(Map<String, String> posterUrls, String fallbackUrl, int targetWidthPx) {
+        if (posterUrls == null || posterUrls.isEmpty()) {
+            return fallbackUrl;
+        }
+        String largest = null;
+        for (Variant variant : Variant.values()) {
+            String url = posterUrls.get(variant.key());
+            if (url == null || url.isEmpty()) continue;
+            if (variant.getWidth() >= targetWidthPx) {
+                return url;
+            }
+            largest = url;
+        }
+        return largest != null ? largest : fallbackUrl;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.eventlottery.model;
+
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.example.eventlottery.R;
+import com.example.eventlottery.events.Event;
+
+/**
+ * Loads event posters with Glide, the one way every screen shows a poster.
+ * <p>
+ * Pass the {@link RequestManager} of the screen ({@code Glide.with(activity/fragment/view)}), so
+ * the load is cancelled when the screen goes away. Glide decodes the poster at the size of the
+ * target view rather than at full resolution, and caches it in memory and on disk (see
+ * {@link PosterGlideModule}) under its storage path, see {@link PosterKeys}. Until it's loaded the
+ * view shows the event's poster colour ({@link PosterColors}), or the placeholder drawable.
+ * </p>
+ */
+public final class Posters {
+
+    private Posters() {}
+
+    /**
+     * @param glide the request manager of the screen showing the poster
+     * @param event the event
+     * @return a request for the event's poster, or the placeholder if it has none
+     */
+    public static RequestBuilder<Drawable> load(RequestManager glide, Event event) {
+        return withColor(load(glide, event.getImage(), event.getStoragePath()), event);
+    }
+
+    /**
+     * Loads the smallest size of the event's poster that's at least as wide as the view, see
+     * {@link PosterVariants}.
+     * @param glide the request manager of the screen showing the poster
+     * @param event the event
+     * @param targetWidthPx the width of the view, in pixels
+     * @return a request for the event's poster, or the placeholder if it has none
+     */
+    public static RequestBuilder<Drawable> load(RequestManager glide, Event event, int targetWidthPx) {
+        String url = PosterVariants.pick(event.getPosterUrls(), event.getImage(), targetWidthPx);
+        // The storage path is the full size's; a smaller size is keyed by its own URL's path
+        String storagePath = url != null && url.equals(event.getImage()) ? event.getStoragePath() : null;
+        return withColor(load(glide, url, storagePath), event);
+    }
+
+    /** Shows the poster's dominant colour while it loads, if the event has one. */
+    private static RequestBuilder<Drawable> withColor(RequestBuilder<Drawable> request, Event event) {
+        int color = event.getPosterColor();
+        return color != PosterColors.NONE ? request.placeholder(new ColorDrawable(color)) : request;
+    }
+
+    /**
+     * @param glide the request manager of the screen showing the poster
+     * @param url the poster's download URL
+     * @param storagePath the poster's path in Firebase Storage, or null if unknown
+     * @return a request for the poster, or the placeholder if there is none
+     */
+    public static RequestBuilder<Drawable> load(RequestManager glide, String url, String storagePath) {
+        String key = PosterKeys.cacheKey(url, storagePath);
+        if (key == null) {
+            return glide.load(R.drawable.placeholder);
+        }
+        return glide.load(new PosterUrl(url, key))
+                .placeholder(R.drawable.placeholder)
+                .error(R.drawable.placeholder);
+    }
+
+    /**
+     * A download URL cached under its storage path. Glide compares models and builds its cache
+     * keys with {@link #getCacheKey()}, so a new token for the same file is still a cache hit.
+     */
+    private static final class PosterUrl extends GlideUrl {
+        private final String cacheKey;
+
+        PosterUrl(String url, String cacheKey) {
+            super(url);
+            this.cacheKey = cacheKey;
+        }
+
+        @NonNull
+        @Override
+        public String getCacheKey() {
+            return cacheKey;
+        }
+    }
+}
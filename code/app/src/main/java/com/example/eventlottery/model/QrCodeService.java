@@ -0,0 +1,310 @@
+package com.example.eventlottery.model;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates the QR codes of events off the UI thread and caches them, so an event's code is only
+ * encoded once.
+ * <p>
+ * Codes are looked up in three places, fastest first:
+ * <ul>
+ *     <li>memory: an LRU of bitmaps, by event ID and size</li>
+ *     <li>disk: a PNG per event and size in the app's cache directory, which survives restarts</li>
+ *     <li>the encoder, which draws the code at exactly the requested size</li>
+ * </ul>
+ * Encoding and disk access run on a small shared pool, and requests for a code that is already
+ * being generated share the same future.
+ * </p>
+ * <p>
+ * A code only depends on the event ID, so cached codes never go stale.
+ * </p>
+ */
+public final class QrCodeService {
+    private static final String TAG = "QrCodeService";
+
+    /** Size of the PNG organizers download, in pixels. */
+    public static final int EXPORT_SIZE_PX = 500;
+
+    /** Memory kept for bitmaps; a 500 px code in RGB_565 is about 500 KB. */
+    private static final int MEMORY_CACHE_BYTES = 4 * 1024 * 1024;
+    private static final int POOL_THREADS = 2;
+    private static final String FILE_SUFFIX = ".png";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static QrCodeService instance;
+
+    private final File diskDir;
+    private final ExecutorService pool = Executors.newFixedThreadPool(POOL_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "QrCodeService");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LruCache<String, Bitmap> memory = new LruCache<String, Bitmap>(MEMORY_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, Bitmap bitmap) {
+            return bitmap.getByteCount();
+        }
+    };
+    /** Codes being generated, so concurrent requests for one share the work. */
+    private final Map<String, CompletableFuture<Bitmap>> inFlight = new HashMap<>();
+
+    private QrCodeService(File diskDir) {
+        this.diskDir = diskDir;
+    }
+
+    /**
+     * @param context any context of the app
+     * @return the service shared by every screen
+     */
+    public static synchronized QrCodeService getInstance(Context context) {
+        if (instance == null) {
+            instance = new QrCodeService(new File(context.getApplicationContext().getCacheDir(), "qr"));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns an event's code if it is in memory, without waiting.
+     * @param eventId the event the code opens
+     * @param sizePx the width and height of the code, in pixels
+     * @return the code, or null if it isn't in memory
+     */
+    public Bitmap peek(String eventId, int sizePx) {
+        return memory.get(key(eventId, sizePx));
+    }
+
+    /**
+     * Gets an event's code from memory, disk or the encoder, in that order.
+     * @param eventId the event the code opens
+     * @param sizePx the width and height of the code, in pixels; pass the size of the view
+     *               showing it, so it doesn't need scaling
+     * @return a future completing with the code, on the pool unless it was in memory
+     */
+    public CompletableFuture<Bitmap> load(String eventId, int sizePx) {
+        String key = key(eventId, sizePx);
+        Bitmap cached = memory.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        synchronized (inFlight) {
+            CompletableFuture<Bitmap> pending = inFlight.get(key);
+            if (pending != null) {
+                return pending;
+            }
+            CompletableFuture<Bitmap> generated = CompletableFuture.supplyAsync(() -> readOrEncode(eventId, sizePx), pool);
+            inFlight.put(key, generated);
+            generated.whenComplete((bitmap, e) -> {
+                synchronized (inFlight) {
+                    inFlight.remove(key);
+                }
+            });
+            return generated;
+        }
+    }
+
+    /**
+     * Starts generating an event's code so it's ready when it's needed, e.g. when the event is selected.
+     * @param eventId the event the code opens
+     * @param sizePx the width and height of the code, in pixels
+     */
+    public void prefetch(String eventId, int sizePx) {
+        load(eventId, sizePx).exceptionally(e -> {
+            Log.e(TAG, "✗ Failed to prefetch the QR code of " + eventId, e);
+            return null;
+        });
+    }
+
+    /**
+     * Writes an event's code as a PNG, copying the cached file rather than compressing it again.
+     * The stream is closed afterwards, also if it fails.
+     * @param eventId the event the code opens
+     * @param sizePx the width and height of the code, in pixels
+     * @param out where to write the PNG
+     * @return a future completing on the pool once the PNG is written
+     */
+    public CompletableFuture<Void> writePng(String eventId, int sizePx, OutputStream out) {
+        CompletableFuture<Bitmap> code = load(eventId, sizePx);
+        code.exceptionally(e -> {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Already failed
+            }
+            return null;
+        });
+        return code.thenAcceptAsync(bitmap -> {
+            File file = fileFor(eventId, sizePx);
+            try (OutputStream target = new BufferedOutputStream(out)) {
+                if (file.isFile()) {
+                    copy(file, target);
+                } else {
+                    bitmap.compress(Bitmap.CompressFormat.PNG, 100, target);
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, pool);
+    }
+
+    /**
+     * Exports an event's code in any format and size, see {@link QrExporter}. Unlike
+     * {@link #writePng}, nothing is cached: the file is streamed straight to the output, which is
+     * closed afterwards.
+     * @param eventId the event the code opens
+     * @param format the file format
+     * @param sizePx the width and height of a PNG, in pixels, e.g. {@link QrExporter#printSizePx}
+     * @param out where to write the file
+     * @return a future completing on the pool once the file is written, failing if it couldn't be
+     */
+    public CompletableFuture<Void> export(String eventId, QrExporter.Format format, int sizePx, OutputStream out) {
+        return stream(out, target -> QrExporter.write(QrExporter.encode(eventId), format, sizePx, target),
+                "the QR code of " + eventId);
+    }
+
+    /**
+     * Exports the codes of many events into one ZIP, streamed straight to the output, which is
+     * closed afterwards.
+     * @param namesById the events' names by their ID, in the order to add them
+     * @param format the file format of the codes
+     * @param sizePx the width and height of PNG codes, in pixels
+     * @param out where to write the ZIP
+     * @return a future completing on the pool once the ZIP is written, failing if it couldn't be
+     */
+    public CompletableFuture<Void> exportAll(Map<String, String> namesById, QrExporter.Format format, int sizePx,
+                                             OutputStream out) {
+        return stream(out, target -> QrExporter.writeZip(namesById, format, sizePx, target),
+                namesById.size() + " QR codes");
+    }
+
+    /** Writes an export on the pool, closing the output whether or not it worked. */
+    private CompletableFuture<Void> stream(OutputStream out, Export export, String what) {
+        return CompletableFuture.runAsync(() -> {
+            try (OutputStream target = new BufferedOutputStream(out)) {
+                export.writeTo(target);
+                Log.d(TAG, "✓ Exported " + what);
+            } catch (IOException | WriterException e) {
+                Log.e(TAG, "✗ Failed to export " + what, e);
+                throw new CompletionException(e);
+            }
+        }, pool);
+    }
+
+    /** Writes an export to a stream. */
+    private interface Export {
+        void writeTo(OutputStream out) throws IOException, WriterException;
+    }
+
+    /** Runs on the pool: reads the PNG from disk, or encodes the code and saves it. */
+    private Bitmap readOrEncode(String eventId, int sizePx) {
+        File file = fileFor(eventId, sizePx);
+        Bitmap bitmap = null;
+        if (file.isFile()) {
+            bitmap = BitmapFactory.decodeFile(file.getPath());
+            if (bitmap == null) {
+                // Unreadable, e.g. cut short by a crash
+                file.delete();
+            }
+        }
+
+        if (bitmap == null) {
+            try {
+                bitmap = encode(eventId, sizePx);
+            } catch (WriterException e) {
+                Log.e(TAG, "✗ Failed to generate the QR code of " + eventId, e);
+                throw new CompletionException(e);
+            }
+            writeToDisk(file, bitmap);
+            Log.d(TAG, "✓ Generated the QR code of " + eventId + " at " + sizePx + " px");
+        }
+
+        memory.put(key(eventId, sizePx), bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Draws the code at the requested size. zxing scales the modules by a whole number and centres
+     * them, so the code stays sharp.
+     */
+    private static Bitmap encode(String contents, int sizePx) throws WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.MARGIN, QrExporter.QUIET_ZONE_MODULES);
+        BitMatrix matrix = new QRCodeWriter().encode(contents, BarcodeFormat.QR_CODE, sizePx, sizePx, hints);
+
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                pixels[row + x] = matrix.get(x, y) ? Color.BLACK : Color.WHITE;
+            }
+        }
+        // Black and white only, so the 16-bit config loses nothing and halves the memory
+        return Bitmap.createBitmap(pixels, width, height, Bitmap.Config.RGB_565);
+    }
+
+    /** Writes to a temporary file first, so a crash can't leave half a PNG under the real name. */
+    private void writeToDisk(File file, Bitmap bitmap) {
+        File temp = new File(diskDir, file.getName() + TEMP_SUFFIX);
+        try {
+            if (!diskDir.isDirectory() && !diskDir.mkdirs()) {
+                throw new IOException("Can't create " + diskDir);
+            }
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+                bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+            }
+            if (!temp.renameTo(file)) {
+                throw new IOException("Can't rename " + temp);
+            }
+        } catch (IOException e) {
+            // The code is still in memory, it'll be encoded again next launch
+            Log.e(TAG, "✗ Failed to save QR code " + file.getName(), e);
+            temp.delete();
+        }
+    }
+
+    private static void copy(File file, OutputStream out) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private File fileFor(String eventId, int sizePx) {
+        return new File(diskDir, EventCache.encodeId(eventId) + "_" + sizePx + FILE_SUFFIX);
+    }
+
+    private static String key(String eventId, int sizePx) {
+        return eventId + "@" + sizePx;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.eventlottery.model;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes event QR codes to files organizers can print: a PNG at any resolution, an SVG, or a ZIP
+ * with the codes of many events.
+ * <p>
+ * Everything is streamed to the output. A code is encoded once at one pixel per module and each
+ * format is drawn from those modules row by row, so a 3000 px print PNG never exists as a bitmap:
+ * it is written as a 1-bit grayscale PNG, one scaled row at a time.
+ * </p>
+ * <p>
+ * Android-free, so it can be tested on the JVM; {@link QrCodeService} runs it off the UI thread.
+ * </p>
+ */
+public final class QrExporter {
+    /** Resolution of the print exports, in dots per inch. */
+    public static final int PRINT_DPI = 300;
+    /** Width of a printed code, in inches. */
+    public static final double PRINT_SIZE_INCHES = 3;
+
+    /**
+     * Quiet zone around every code, in modules, for the exports and {@link QrCodeService}'s codes.
+     * The QR spec requires 4, which is zxing's default.
+     */
+    public static final int QUIET_ZONE_MODULES = 4;
+    /** Size of the IDAT chunks of a PNG. */
+    private static final int CHUNK_BYTES = 32 * 1024;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The file formats codes can be exported in.
+     */
+    public enum Format {
+        PNG("image/png", ".png"),
+        SVG("image/svg+xml", ".svg");
+
+        private final String mimeType;
+        private final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        /** @return the MIME type, for the file picker */
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        /** @return the file extension, with the dot */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private QrExporter() {}
+
+    /**
+     * @param inches the printed width
+     * @param dpi the printer's resolution
+     * @return the width in pixels a code needs to print sharply at that size
+     */
+    public static int printSizePx(double inches, int dpi) {
+        return (int) Math.ceil(inches * dpi);
+    }
+
+    /**
+     * Encodes a code at one pixel per module, quiet zone included.
+     * @param contents what the code holds, an event ID
+     * @return the modules; set bits are dark
+     * @throws WriterException if the contents don't fit in a QR code
+     */
+    public static BitMatrix encode(String contents) throws WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.MARGIN, QUIET_ZONE_MODULES);
+        // A size of 0 gets the smallest size, one pixel per module
+        return new QRCodeWriter().encode(contents, BarcodeFormat.QR_CODE, 0, 0, hints);
+    }
+
+    /**
+     * Writes a code in the given format. The output is flushed but not closed.
+     * @param modules the code, from {@link #encode(String)}
+     * @param format the file format
+     * @param sizePx the width and height of a PNG, in pixels; ignored for an SVG, which scales freely
+     * @param out where to write the file
+     * @throws IOException if the output fails
+     */
+    public static void write(BitMatrix modules, Format format, int sizePx, OutputStream out) throws IOException {
+        if (format == Format.SVG) {
+            writeSvg(modules, out);
+        } else {
+            writePng(modules, sizePx, out);
+        }
+    }
+
+    /**
+     * Writes a code as an SVG, one path of black runs. The output is flushed but not closed.
+     * @param modules the code, from {@link #encode(String)}
+     * @param out where to write the SVG
+     * @throws IOException if the output fails
+     */
+    public static void writeSvg(BitMatrix modules, OutputStream out) throws IOException {
+        int width = modules.getWidth();
+        int height = modules.getHeight();
+        Writer svg = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        svg.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        svg.write("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + width + " " + height
+                + "\" shape-rendering=\"crispEdges\">\n");
+        svg.write("<rect width=\"" + width + "\" height=\"" + height + "\" fill=\"#ffffff\"/>\n");
+        svg.write("<path fill=\"#000000\" d=\"");
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && modules.get(x, y)) {
+                    x++;
+                }
+                svg.write("M" + start + " " + y + "h" + (x - start) + "v1h-" + (x - start) + "z");
+            }
+        }
+        svg.write("\"/>\n</svg>\n");
+        svg.flush();
+    }
+
+    /**
+     * Writes a code as a 1-bit grayscale PNG. Modules are scaled by a whole number and centred,
+     * like zxing does, so they stay sharp. The output is flushed but not closed.
+     * @param modules the code, from {@link #encode(String)}
+     * @param sizePx the width and height of the PNG, in pixels; at least one pixel per module is used
+     * @param out where to write the PNG
+     * @throws IOException if the output fails
+     */
+    public static void writePng(BitMatrix modules, int sizePx, OutputStream out) throws IOException {
+        int codeSize = modules.getWidth();
+        int size = Math.max(sizePx, codeSize);
+        int scale = size / codeSize;
+        int offset = (size - codeSize * scale) / 2;
+        int rowBytes = (size + 7) / 8;
+
+        out.write(PNG_SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream ihdr = new DataOutputStream(header);
+        ihdr.writeInt(size);
+        ihdr.writeInt(size);
+        ihdr.writeByte(1); // bit depth
+        ihdr.writeByte(0); // grayscale
+        ihdr.writeByte(0); // deflate
+        ihdr.writeByte(0); // adaptive filtering
+        ihdr.writeByte(0); // not interlaced
+        writeChunk(out, "IHDR", header.toByteArray(), header.size());
+
+        // Each row is a filter byte (0, none) and the pixels, 1 bit each, 1 white and 0 black
+        byte[] blankRow = new byte[1 + rowBytes];
+        Arrays.fill(blankRow, 1, blankRow.length, (byte) 0xFF);
+        byte[] row = new byte[1 + rowBytes];
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream idat = new DeflaterOutputStream(new ChunkStream(out, "IDAT"), deflater, CHUNK_BYTES)) {
+            for (int y = 0; y < size; y++) {
+                int moduleY = (y - offset) / scale;
+                if (y < offset || moduleY >= codeSize) {
+                    idat.write(blankRow);
+                    continue;
+                }
+                // Rows from the same module row are identical, draw it once
+                if ((y - offset) % scale == 0) {
+                    drawRow(modules, moduleY, scale, offset, row);
+                }
+                idat.write(row);
+            }
+        } finally {
+            deflater.end();
+        }
+        writeChunk(out, "IEND", new byte[0], 0);
+        out.flush();
+    }
+
+    /**
+     * Writes the codes of many events into a ZIP, one file per event named after it. The output is
+     * finished but not closed.
+     * @param namesById the events' names by their ID, in the order to add them
+     * @param format the file format of the codes
+     * @param sizePx the width and height of PNG codes, in pixels
+     * @param out where to write the ZIP
+     * @throws IOException if the output fails
+     * @throws WriterException if an event ID doesn't fit in a QR code
+     */
+    public static void writeZip(Map<String, String> namesById, Format format, int sizePx, OutputStream out)
+            throws IOException, WriterException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Set<String> used = new HashSet<>();
+        for (Map.Entry<String, String> event : namesById.entrySet()) {
+            zip.putNextEntry(new ZipEntry(entryName(event.getValue(), format, used)));
+            write(encode(event.getKey()), format, sizePx, zip);
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    /**
+     * Names a file in the ZIP after its event, e.g. "Swim Lessons QR Code.png". Characters not
+     * allowed in file names are replaced and repeated names numbered, so no file overwrites another.
+     */
+    static String entryName(String eventName, Format format, Set<String> used) {
+        String base = eventName == null || eventName.trim().isEmpty()
+                ? "Event" : eventName.trim().replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_");
+        String name = base + " QR Code";
+        String candidate = name + format.getExtension();
+        for (int i = 2; !used.add(candidate.toLowerCase(Locale.ROOT)); i++) {
+            candidate = name + " (" + i + ")" + format.getExtension();
+        }
+        return candidate;
+    }
+
+    /** Draws one module row into a PNG row: dark modules as 0 bits over a white background. */
+    private static void drawRow(BitMatrix modules, int moduleY, int scale, int offset, byte[] row) {
+        Arrays.fill(row, 1, row.length, (byte) 0xFF);
+        row[0] = 0;
+        int codeSize = modules.getWidth();
+        for (int moduleX = 0; moduleX < codeSize; moduleX++) {
+            if (!modules.get(moduleX, moduleY)) continue;
+            int start = offset + moduleX * scale;
+            for (int x = start; x < start + scale; x++) {
+                row[1 + (x >> 3)] &= (byte) ~(0x80 >> (x & 7));
+            }
+        }
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        DataOutputStream chunk = new DataOutputStream(out);
+        chunk.writeInt(length);
+        chunk.write(typeBytes);
+        chunk.write(data, 0, length);
+        chunk.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Wraps what is written to it in PNG chunks of a type, at most {@link #CHUNK_BYTES} each.
+     * Closing writes the last chunk but leaves the underlying stream open.
+     */
+    private static final class ChunkStream extends FilterOutputStream {
+        private final String type;
+        private final byte[] buffer = new byte[CHUNK_BYTES];
+        private int count;
+
+        ChunkStream(OutputStream out, String type) {
+            super(out);
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) flushChunk();
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) flushChunk();
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(bytes, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Only whole chunks are written, an early flush would just split them
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (count > 0) flushChunk();
+        }
+
+        private void flushChunk() throws IOException {
+            writeChunk(out, type, buffer, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.eventlottery.model;
+
+import android.content.Context;
+
+import androidx.core.content.ContextCompat;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the repositories shared by every screen.
+ * <p>
+ * The Firestore implementations are created on first use. Tests can install other
+ * implementations (e.g. the in-memory ones) with the setters.
+ * </p>
+ * <p>
+ * Users are read through a {@link UserCache} and events through an {@link EventCache}.
+ * The event cache is memory-only until {@link #init(Context)} adds its disk tier,
+ * which the splash screen does on launch.
+ * </p>
+ */
+public final class Repositories {
+    private static EventRepository events;
+    private static UserRepository users;
+    private static EventCache eventCache;
+    private static UserCache userCache;
+
+    private Repositories() {}
+
+    /**
+     * Sets up Firestore's persistent cache (see {@link OfflineStore}) and gives the event cache a
+     * disk tier in the app's cache directory. Does nothing if the event cache already has one.
+     * @param context any context of the app
+     */
+    public static synchronized void init(Context context) {
+        if (eventCache != null && eventCache.hasDiskTier()) return;
+
+        OfflineStore.configure(FirebaseFirestore.getInstance());
+        Context app = context.getApplicationContext();
+        eventCache = new EventCache(EventCache.DEFAULT_MAX_ENTRIES, new File(app.getCacheDir(), "events"),
+                EventCache.DEFAULT_MAX_DISK_ENTRIES, EventCache.DEFAULT_MAX_DISK_AGE_MILLIS,
+                Executors.newSingleThreadExecutor());
+        events = new CachingEventRepository(new FirestoreEventRepository(new EventDatabase()), eventCache,
+                ContextCompat.getMainExecutor(app));
+    }
+
+    /** @return the shared event repository */
+    public static synchronized EventRepository events() {
+        if (events == null) {
+            // Memory-only, so no hits complete off the main thread
+            events = new CachingEventRepository(new FirestoreEventRepository(new EventDatabase()),
+                    eventCache(), Runnable::run);
+        }
+        return events;
+    }
+
+    /** @return the cache of events, kept up to date by the events snapshot listeners */
+    public static synchronized EventCache eventCache() {
+        if (eventCache == null) {
+            eventCache = new EventCache(EventCache.DEFAULT_MAX_ENTRIES);
+        }
+        return eventCache;
+    }
+
+    /** @return the shared user repository */
+    public static synchronized UserRepository users() {
+        if (users == null) {
+            users = new CachingUserRepository(new FirestoreUserRepository(FirebaseFirestore.getInstance()),
+                    userCache());
+        }
+        return users;
+    }
+
+    /** @return the cache of user profiles, kept warm by the user snapshot listeners */
+    public static synchronized UserCache userCache() {
+        if (userCache == null) {
+            userCache = new UserCache();
+        }
+        return userCache;
+    }
+
+    /** @param repository the event repository to use from now on */
+    public static synchronized void setEvents(EventRepository repository) {
+        events = repository;
+    }
+
+    /** @param repository the user repository to use from now on */
+    public static synchronized void setUsers(UserRepository repository) {
+        users = repository;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.eventlottery.model;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.bumptech.glide.Glide;
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.WaitlistService;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolves the event behind a scanned QR code as soon as it is decoded, while the camera is still closing.
+ * <p>
+ * The event is looked up in the {@link EventCache} (memory, then disk) and fetched from Firestore
+ * at the same time, see {@link ScannedEvent}. Once it is found its poster is preloaded into
+ * Glide's cache, so the join screen doesn't wait for the download. The fetched event also
+ * carries the waitlist size, which the join screen picks up through {@link #take(String)}.
+ * </p>
+ */
+public final class ScanResolver {
+    private static final String TAG = "ScanResolver";
+
+    private static ScannedEvent latest;
+
+    private ScanResolver() {}
+
+    /**
+     * Starts resolving a scanned code, unless it is already being resolved.
+     * @param context any context of the app
+     * @param eventId the contents of the code
+     * @return the lookup of the event
+     */
+    public static synchronized ScannedEvent resolve(Context context, String eventId) {
+        if (latest != null && latest.getEventId().equals(eventId) && !latest.getEvent().isCompletedExceptionally()) {
+            return latest;
+        }
+
+        EventCache cache = Repositories.eventCache();
+        Event inMemory = cache.get(eventId);
+        CompletableFuture<Event> fromCache = inMemory != null
+                ? CompletableFuture.completedFuture(inMemory) : cache.loadFromDisk(eventId);
+        latest = new ScannedEvent(eventId, fromCache, fetch(eventId, cache));
+
+        Context app = context.getApplicationContext();
+        latest.getEvent().thenAccept(event -> {
+            if (event != null && event.getImage() != null && !event.getImage().isEmpty()) {
+                Posters.load(Glide.with(app), event).preload();
+            }
+        });
+        return latest;
+    }
+
+    /**
+     * Hands the lookup of the last scan to the screen showing its event, once: a later visit to the
+     * event reads it afresh rather than reusing an old waitlist size.
+     * @param eventId the ID of an event
+     * @return the lookup started for that event by the last scan, or null if the last scan was another code
+     */
+    public static synchronized ScannedEvent take(String eventId) {
+        if (latest == null || !latest.getEventId().equals(eventId)) return null;
+        ScannedEvent scanned = latest;
+        latest = null;
+        return scanned;
+    }
+
+    /** Reads the event from Firestore and caches it. */
+    private static CompletableFuture<Event> fetch(String eventId, EventCache cache) {
+        // Stamped before reading, so a snapshot delta arriving meanwhile wins
+        long version = cache.stamp();
+        try {
+            return TaskFutures.of(FirebaseFirestore.getInstance()
+                            .collection(WaitlistService.EVENTS_COLLECTION).document(eventId).get())
+                    .thenApply(doc -> {
+                        Event event = FirestoreEventRepository.toEvent(doc);
+                        if (event != null) {
+                            cache.put(event, version);
+                        }
+                        return event;
+                    });
+        } catch (IllegalArgumentException e) {
+            // Not a valid document ID (empty, or contains a '/'), so not one of our codes
+            Log.d(TAG, "Scanned code isn't an event ID: " + eventId);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.events.Event;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The event behind a scanned QR code, looked up in the event cache and on the network at the same time.
+ * <p>
+ * {@link #getEvent()} completes as soon as either lookup finds the event, so a cached event opens
+ * its screen without waiting for the network. The network result is still read, for the live
+ * waitlist size ({@link #getWaitlistSize()}) and to refresh the cache.
+ * </p>
+ * <p>
+ * This is the Android-free core of {@link ScanResolver}, so it can be tested on the JVM.
+ * </p>
+ */
+public class ScannedEvent {
+    private final String eventId;
+    private final CompletableFuture<Event> fromNetwork;
+    private final CompletableFuture<Event> event = new CompletableFuture<>();
+
+    /**
+     * Constructor for ScannedEvent.
+     * @param eventId the ID the code holds
+     * @param fromCache the cache lookup, completing with null on a miss
+     * @param fromNetwork the network lookup, completing with null if there is no such event
+     */
+    public ScannedEvent(String eventId, CompletableFuture<Event> fromCache, CompletableFuture<Event> fromNetwork) {
+        this.eventId = eventId;
+        this.fromNetwork = fromNetwork;
+
+        CompletableFuture<Event> cached = fromCache.exceptionally(error -> null);
+        CompletableFuture<Throwable> networkError = fromNetwork.handle((fresh, error) -> error);
+        cached.thenAccept(this::found);
+        fromNetwork.thenAccept(this::found);
+        // Both done: dependents run in no set order, so check both results again here
+        cached.thenAcceptBoth(networkError, (cachedEvent, error) -> {
+            found(cachedEvent);
+            if (error == null) {
+                found(fromNetwork.join());
+                // Neither has it: the code isn't an event
+                event.complete(null);
+            } else {
+                // The network failed with nothing cached
+                event.completeExceptionally(error);
+            }
+        });
+    }
+
+    private void found(Event found) {
+        if (found != null) {
+            event.complete(found);
+        }
+    }
+
+    /** @return the ID the code holds */
+    public String getEventId() {
+        return eventId;
+    }
+
+    /**
+     * @return a future completing with the event from whichever lookup finds it first; with null
+     *         if neither does, or failing if the network failed and it isn't cached
+     */
+    public CompletableFuture<Event> getEvent() {
+        return event;
+    }
+
+    /** @return the event as read from the network */
+    public CompletableFuture<Event> getFresh() {
+        return fromNetwork;
+    }
+
+    /** @return a future completing with the number of entrants on the waitlist, read from the network; -1 if unknown */
+    public CompletableFuture<Integer> getWaitlistSize() {
+        return fromNetwork.thenApply(fresh -> fresh == null || fresh.getWaitlist() == null
+                || fresh.getWaitlist().getWaitlistedUsers() == null
+                ? -1 : fresh.getWaitlist().getWaitlistedUsers().size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.eventlottery.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Shares one underlying listener per key among any number of subscribers, counting references.
+ * <p>
+ * The first subscriber to a key attaches the underlying listener and the last one to leave
+ * detaches it. A subscriber joining a listener that is already attached gets the latest value
+ * straight away. Values and errors are fanned out to every subscriber on the delivery executor,
+ * which is also the executor the underlying listeners must deliver on. An error ends the
+ * underlying listener, so the next subscriber to the key attaches a new one.
+ * </p>
+ * <p>
+ * This is the Firestore-free core of {@link ListenerHub}, so it can be tested on the JVM.
+ * </p>
+ * @param <K> the key of a listener, e.g. a query; must implement equals and hashCode
+ * @param <T> the values delivered, e.g. query snapshots
+ */
+public class SharedListeners<K, T> {
+
+    /**
+     * Receives the values of a shared listener.
+     * @param <T> the values delivered
+     */
+    public interface Listener<T> {
+        /**
+         * @param value the new value, or null on error
+         * @param error the error that ended the listener, or null
+         */
+        void onEvent(T value, Exception error);
+    }
+
+    /**
+     * Attaches an underlying listener.
+     * @param <T> the values delivered
+     */
+    public interface Source<T> {
+        /**
+         * @param sink receives every value and error, on the delivery executor
+         * @return detaches the underlying listener
+         */
+        Runnable attach(Listener<T> sink);
+    }
+
+    /**
+     * A subscription to a shared listener.
+     */
+    public interface Subscription {
+        /** Leaves the shared listener. Does nothing if already removed. */
+        void remove();
+    }
+
+    /** One underlying listener and its subscribers. */
+    private final class Shared implements Listener<T> {
+        final K key;
+        final List<Listener<T>> subscribers = new ArrayList<>();
+        Runnable detach;
+        T latest;
+
+        Shared(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public void onEvent(T value, Exception error) {
+            List<Listener<T>> targets;
+            synchronized (SharedListeners.this) {
+                if (shared.get(key) != this) return; // detached meanwhile
+                if (error == null) {
+                    latest = value;
+                } else {
+                    shared.remove(key);
+                }
+                targets = new ArrayList<>(subscribers);
+            }
+            for (Listener<T> subscriber : targets) {
+                subscriber.onEvent(value, error);
+            }
+        }
+    }
+
+    private final Map<K, Shared> shared = new HashMap<>();
+    private final Executor deliveryExecutor;
+
+    /**
+     * Constructor for SharedListeners.
+     * @param deliveryExecutor the executor values are delivered on; should run one task at a time
+     *                         so every subscriber sees the values in order
+     */
+    public SharedListeners(Executor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Subscribes to the listener for a key, attaching it if this is the first subscriber.
+     * @param key the key of the listener
+     * @param source attaches the underlying listener, if there isn't one for the key yet
+     * @param listener receives the values, on the delivery executor
+     * @return the subscription, to remove when the listener is no longer needed
+     */
+    public Subscription subscribe(K key, Source<T> source, Listener<T> listener) {
+        Shared entry;
+        boolean attach = false;
+        synchronized (this) {
+            entry = shared.get(key);
+            if (entry == null) {
+                entry = new Shared(key);
+                shared.put(key, entry);
+                attach = true;
+            }
+            entry.subscribers.add(listener);
+        }
+
+        if (attach) {
+            Runnable detach = source.attach(entry);
+            boolean alreadyGone;
+            synchronized (this) {
+                entry.detach = detach;
+                alreadyGone = shared.get(key) != entry && entry.subscribers.isEmpty();
+            }
+            // Everyone left before the listener was attached
+            if (alreadyGone) detach.run();
+        } else {
+            Shared joined = entry;
+            deliveryExecutor.execute(() -> {
+                T latest;
+                synchronized (this) {
+                    if (!joined.subscribers.contains(listener)) return;
+                    latest = joined.latest;
+                }
+                if (latest != null) {
+                    listener.onEvent(latest, null);
+                }
+            });
+        }
+
+        Shared subscribed = entry;
+        return new Subscription() {
+            private boolean removed;
+
+            @Override
+            public void remove() {
+                Runnable detach = null;
+                synchronized (SharedListeners.this) {
+                    if (removed) return;
+                    removed = true;
+                    subscribed.subscribers.remove(listener);
+                    if (subscribed.subscribers.isEmpty() && shared.get(key) == subscribed) {
+                        shared.remove(key);
+                        detach = subscribed.detach;
+                    }
+                }
+                if (detach != null) detach.run();
+            }
+        };
+    }
+
+    /** @return the number of underlying listeners attached */
+    public synchronized int size() {
+        return shared.size();
+    }
+
+    /**
+     * @param key the key of a listener
+     * @return the number of subscribers to the listener, 0 if it isn't attached
+     */
+    public synchronized int subscriberCount(K key) {
+        Shared entry = shared.get(key);
+        return entry == null ? 0 : entry.subscribers.size();
+    }
+}
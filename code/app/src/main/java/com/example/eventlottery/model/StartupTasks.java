@@ -0,0 +1,111 @@
+package com.example.eventlottery.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the app's startup work as named tasks in parallel and times each one.
+ * <p>
+ * Required tasks decide when the app is ready (see {@link #whenReady()}); optional tasks run
+ * alongside without holding up the first screen. A failed task still counts as done, so one
+ * failure (e.g. no network) can't keep the app on the splash screen.
+ * </p>
+ * <p>
+ * This is the Android-free core of {@link AppStartup}, so it can be tested on the JVM.
+ * </p>
+ */
+public class StartupTasks {
+    private final LongSupplier clock;
+    private final long startedAt;
+    private final List<CompletableFuture<?>> required = new ArrayList<>();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private final Map<String, Throwable> failures = new LinkedHashMap<>();
+
+    /**
+     * Constructor for StartupTasks.
+     * @param clock returns the current time in milliseconds
+     */
+    public StartupTasks(LongSupplier clock) {
+        this.clock = clock;
+        this.startedAt = clock.getAsLong();
+    }
+
+    /**
+     * Starts a task.
+     * @param name the name the task is timed under
+     * @param isRequired true if the app isn't ready until the task is done
+     * @param task starts the work, returning a future completing when it is done
+     * @return the task's result, failing if the task failed
+     */
+    public <T> CompletableFuture<T> run(String name, boolean isRequired, Supplier<CompletableFuture<T>> task) {
+        long start = clock.getAsLong();
+        CompletableFuture<T> result;
+        try {
+            result = task.get();
+        } catch (RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+
+        CompletableFuture<T> timed = result.whenComplete((value, error) -> {
+            synchronized (this) {
+                durations.put(name, clock.getAsLong() - start);
+                if (error != null) {
+                    failures.put(name, error);
+                }
+            }
+        });
+        if (isRequired) {
+            synchronized (this) {
+                required.add(timed);
+            }
+        }
+        return timed;
+    }
+
+    /**
+     * @return a future completing once every required task started so far is done,
+     *         whether or not it succeeded
+     */
+    public synchronized CompletableFuture<Void> whenReady() {
+        List<CompletableFuture<?>> done = new ArrayList<>();
+        for (CompletableFuture<?> task : required) {
+            done.add(task.handle((value, error) -> null));
+        }
+        return CompletableFuture.allOf(done.toArray(new CompletableFuture[0]));
+    }
+
+    /** @return how long each finished task took, in milliseconds, in the order they finished */
+    public synchronized Map<String, Long> getDurations() {
+        return new LinkedHashMap<>(durations);
+    }
+
+    /** @return the tasks that failed, with their errors */
+    public synchronized Map<String, Throwable> getFailures() {
+        return new LinkedHashMap<>(failures);
+    }
+
+    /** @return milliseconds since the tasks were created */
+    public long elapsed() {
+        return clock.getAsLong() - startedAt;
+    }
+
+    /** @return a one-line summary of the task durations, for the log */
+    public synchronized String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(elapsed()).append(" ms (");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            if (!first) summary.append(", ");
+            first = false;
+            summary.append(entry.getKey()).append(' ').append(entry.getValue()).append(" ms");
+            if (failures.containsKey(entry.getKey())) summary.append(" failed");
+        }
+        return summary.append(')').toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.eventlottery.model;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapts Firestore {@link Task}s to {@link CompletableFuture}s for the repositories.
+ */
+final class TaskFutures {
+    private TaskFutures() {}
+
+    /**
+     * @param task a Firestore task
+     * @return a future completing with the task's result or exception, on the thread the
+     *         task's listeners run on (the main thread)
+     */
+    static <T> CompletableFuture<T> of(Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        task.addOnSuccessListener(future::complete)
+                .addOnFailureListener(future::completeExceptionally)
+                .addOnCanceledListener(() -> future.cancel(false));
+        return future;
+    }
+
+    /**
+     * @param futures futures to wait for
+     * @return a future completing with every result in order, or failing with the first failure
+     */
+    static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(unused -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.eventlottery.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * What's been done of a queued poster upload, saved to a file so it survives the app being killed.
+ * <p>
+ * A poster is uploaded as a few files, one per {@link PosterVariants.Variant}. For each one the
+ * session keeps the Firebase Storage session URI the upload can resume from, how many bytes the
+ * server has, and the download URL once it's done. The storage path the files go to is picked
+ * once and kept, so a retried upload continues into the same files instead of starting new ones.
+ * </p>
+ * <p>
+ * Android-free, so it can be tested on the JVM; {@link PosterUploadWorker} runs the upload.
+ * Not thread-safe.
+ * </p>
+ */
+public class UploadSession {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String EVENT_ID = "eventId";
+    private static final String BASE_PATH = "basePath";
+    private static final String COLOR = "color";
+    private static final String SESSION_URI = "sessionUri.";
+    private static final String SENT = "sent.";
+    private static final String TOTAL = "total.";
+    private static final String URL = "url.";
+
+    private final File file;
+    private final Properties values;
+
+    private UploadSession(File file, Properties values) {
+        this.file = file;
+        this.values = values;
+    }
+
+    /**
+     * Starts a new session, replacing any saved in the file.
+     * @param file where the session is saved
+     * @param eventId the event the poster is for
+     * @return the session, not saved yet
+     */
+    public static UploadSession create(File file, String eventId) {
+        UploadSession session = new UploadSession(file, new Properties());
+        session.values.setProperty(EVENT_ID, eventId);
+        return session;
+    }
+
+    /**
+     * @param file where the session was saved
+     * @return the saved session, or null if there's none or it can't be read
+     */
+    public static UploadSession load(File file) {
+        Properties values = new Properties();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            values.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        return values.getProperty(EVENT_ID) != null ? new UploadSession(file, values) : null;
+    }
+
+    /**
+     * Saves the session, replacing the file in one step so a crash mid-write keeps the last one.
+     * @throws IOException if the file can't be written
+     */
+    public void save() throws IOException {
+        File temp = new File(file.getPath() + TEMP_SUFFIX);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+            values.store(out, null);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Can't replace " + file);
+        }
+    }
+
+    /** @return the event the poster is for */
+    public String getEventId() {
+        return values.getProperty(EVENT_ID);
+    }
+
+    /** @return the storage path without a size the files go to, or null until picked */
+    public String getBasePath() {
+        return values.getProperty(BASE_PATH);
+    }
+
+    /** @param basePath the storage path without a size, e.g. "images/1234" */
+    public void setBasePath(String basePath) {
+        values.setProperty(BASE_PATH, basePath);
+    }
+
+    /** @return the poster's dominant colour, see {@link PosterColors} */
+    public int getColor() {
+        return (int) parse(values.getProperty(COLOR));
+    }
+
+    /** @param color the poster's dominant colour, see {@link PosterColors} */
+    public void setColor(int color) {
+        values.setProperty(COLOR, Integer.toString(color));
+    }
+
+    /**
+     * @param key the size's {@link PosterVariants.Variant#key()}
+     * @return the session URI to resume the size's upload from, or null to start it over
+     */
+    public String getSessionUri(String key) {
+        return values.getProperty(SESSION_URI + key);
+    }
+
+    /**
+     * @param key the size's {@link PosterVariants.Variant#key()}
+     * @param sessionUri the session URI to resume from, or null if the session can't be resumed
+     */
+    public void setSessionUri(String key, String sessionUri) {
+        if (sessionUri == null) {
+            values.remove(SESSION_URI + key);
+            values.remove(SENT + key);
+        } else {
+            values.setProperty(SESSION_URI + key, sessionUri);
+        }
+    }
+
+    /**
+     * @param key the size's {@link PosterVariants.Variant#key()}
+     * @param sent how many bytes of it the server has
+     * @param total its size in bytes
+     */
+    public void setProgress(String key, long sent, long total) {
+        values.setProperty(SENT + key, Long.toString(sent));
+        values.setProperty(TOTAL + key, Long.toString(total));
+    }
+
+    /**
+     * @param key the size's {@link PosterVariants.Variant#key()}
+     * @return its download URL, or null until it's uploaded
+     */
+    public String getUrl(String key) {
+        return values.getProperty(URL + key);
+    }
+
+    /**
+     * Marks a size as uploaded; its session is no longer needed.
+     * @param key the size's {@link PosterVariants.Variant#key()}
+     * @param url its download URL
+     */
+    public void setUrl(String key, String url) {
+        values.setProperty(URL + key, url);
+        values.remove(SESSION_URI + key);
+        String total = values.getProperty(TOTAL + key);
+        if (total != null) {
+            values.setProperty(SENT + key, total);
+        }
+    }
+
+    /** @return the download URL of each uploaded size, by key */
+    public Map<String, String> getUrls() {
+        Map<String, String> urls = new HashMap<>();
+        for (String name : values.stringPropertyNames()) {
+            if (name.startsWith(URL)) {
+                urls.put(name.substring(URL.length()), values.getProperty(name));
+            }
+        }
+        return urls;
+    }
+
+    /** @return the percentage of bytes the server has, over every size with a known size */
+    public int getProgressPercent() {
+        long sent = 0;
+        long total = 0;
+        for (String name : values.stringPropertyNames()) {
+            if (name.startsWith(TOTAL)) {
+                String key = name.substring(TOTAL.length());
+                total += parse(values.getProperty(name));
+                sent += parse(values.getProperty(SENT + key));
+            }
+        }
+        return total > 0 ? (int) (100 * sent / total) : 0;
+    }
+
+    private static long parse(String value) {
+        try {
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
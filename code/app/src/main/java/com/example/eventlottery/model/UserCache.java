@@ -0,0 +1,242 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.users.User;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache of user profiles, bounded by size (least recently used first) and by age.
+ * <p>
+ * Concurrent requests for a user who isn't cached share one in-flight fetch, so several screens
+ * and notification loops asking for the same profile cost one read. Entries are kept warm by the
+ * user snapshot listeners through {@link #refresh(User)}; a listener's version always wins
+ * over a fetch that was started before it.
+ * </p>
+ * <p>
+ * Safe to use from any thread. Cached users are shared, so callers must write changes to
+ * Firestore rather than rely on modifying them.
+ * </p>
+ */
+public class UserCache {
+    /** Default number of users kept. */
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+    /** Default time a user is served without being fetched or refreshed again. */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /** A cached user, or a tombstone if the user is null. */
+    private static final class Entry {
+        final User user;
+        final long version;
+        final long storedAt;
+
+        Entry(User user, long version, long storedAt) {
+            this.user = user;
+            this.version = version;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, CompletableFuture<User>> inFlight = new HashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache with the default size and time to live.
+     */
+    public UserCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor for UserCache.
+     * @param maxEntries the number of users kept
+     * @param ttlMillis the time a user is served before it has to be fetched again
+     * @param clock the time source for the time to live, in milliseconds
+     */
+    public UserCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserCache.Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a new version stamp. Take it before starting the read whose result will be cached.
+     * @return the stamp
+     */
+    public long stamp() {
+        return versions.incrementAndGet();
+    }
+
+    /**
+     * Gets a user if they are cached and not expired. A null result isn't counted as a miss;
+     * {@link #getOrFetch(String, Function)} counts it when it has to fetch.
+     * @param userId the id of the user
+     * @return the user, or null
+     */
+    public User get(String userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null || entry.user == null) return null;
+            if (clock.getAsLong() - entry.storedAt > ttlMillis) {
+                // Kept as a tombstone, so the version still rejects older fetches
+                entries.put(userId, new Entry(null, entry.version, entry.storedAt));
+                expirations.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.user;
+        }
+    }
+
+    /**
+     * Gets a user from the cache, or fetches them. A fetch already in flight for the same user
+     * is shared instead of starting another one.
+     * @param userId the id of the user
+     * @param fetcher starts the read of a user, completing with null if they don't exist
+     * @return a future completing with the user, or with null if they don't exist
+     */
+    public CompletableFuture<User> getOrFetch(String userId, Function<String, CompletableFuture<User>> fetcher) {
+        User cached = get(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<User> pending;
+        synchronized (inFlight) {
+            pending = inFlight.get(userId);
+            if (pending != null) {
+                coalesced.incrementAndGet();
+                return pending;
+            }
+            pending = new CompletableFuture<>();
+            inFlight.put(userId, pending);
+        }
+        misses.incrementAndGet();
+
+        long version = stamp();
+        CompletableFuture<User> result = pending;
+        CompletableFuture<User> fetch;
+        try {
+            fetch = fetcher.apply(userId);
+        } catch (RuntimeException e) {
+            fetch = new CompletableFuture<>();
+            fetch.completeExceptionally(e);
+        }
+        fetch.whenComplete((user, e) -> {
+            synchronized (inFlight) {
+                inFlight.remove(userId);
+            }
+            if (e != null) {
+                result.completeExceptionally(e);
+                return;
+            }
+            if (user != null && user.getId() != null && !put(user, version)) {
+                // A snapshot delivered a newer version while this was being read
+                User newer = peek(userId);
+                if (newer != null) user = newer;
+            }
+            result.complete(user);
+        });
+        return result;
+    }
+
+    /**
+     * @param userId the id of the user
+     * @return the fetch in flight for the user, or null if there is none
+     */
+    public CompletableFuture<User> getInFlight(String userId) {
+        synchronized (inFlight) {
+            return inFlight.get(userId);
+        }
+    }
+
+    /**
+     * Caches a user, unless a newer version is already cached.
+     * @param user the user, with their id set
+     * @param version the stamp taken before the user was read
+     * @return true if the user was cached
+     */
+    public boolean put(User user, long version) {
+        synchronized (entries) {
+            Entry current = entries.get(user.getId());
+            if (current != null && current.version > version) return false;
+            entries.put(user.getId(), new Entry(user, version, clock.getAsLong()));
+            return true;
+        }
+    }
+
+    /**
+     * Caches a user delivered by a snapshot listener, which is always the newest version.
+     * @param user the user, with their id set
+     */
+    public void refresh(User user) {
+        put(user, stamp());
+    }
+
+    /**
+     * Drops a user, e.g. after a write that isn't seen by a snapshot listener.
+     * Fetches started before this are not cached.
+     * @param userId the id of the user
+     */
+    public void invalidate(String userId) {
+        long version = stamp();
+        synchronized (entries) {
+            entries.put(userId, new Entry(null, version, clock.getAsLong()));
+        }
+    }
+
+    /** @return a one-line summary of the hit/miss counters so far, for logging */
+    public String getStatsSummary() {
+        long lookups = hits.get() + misses.get() + coalesced.get();
+        double hitRate = lookups == 0 ? 0 : (double) (hits.get() + coalesced.get()) / lookups;
+        return String.format(Locale.US, "hits=%d misses=%d coalesced=%d hitRate=%.2f expirations=%d evictions=%d",
+                hits.get(), misses.get(), coalesced.get(), hitRate, expirations.get(), evictions.get());
+    }
+
+    /** @return the number of fetches shared with a request already in flight */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /** @return the number of fetches started */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** @return the number of requests served from the cache */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    private User peek(String userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            return entry == null ? null : entry.user;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.eventlottery.model;
+
+import com.example.eventlottery.users.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read and write access to the stored users.
+ * <p>
+ * {@link FirestoreUserRepository} is the app's implementation; {@link InMemoryUserRepository}
+ * keeps everything in memory for tests and JVM benchmarks.
+ * Futures of the Firestore implementation complete on the main thread.
+ * </p>
+ */
+public interface UserRepository {
+
+    /**
+     * Gets a user.
+     * @param userId the id of the user
+     * @return a future completing with the user, or with null if they don't exist
+     */
+    CompletableFuture<User> getUser(String userId);
+
+    /**
+     * Gets several users at once, e.g. every winner of a draw.
+     * @param userIds the ids of the users
+     * @return a future completing with the users found, keyed by id; missing users are left out
+     */
+    CompletableFuture<Map<String, User>> getUsers(Collection<String> userIds);
+
+    /**
+     * Gets every user.
+     * @return a future completing with the users
+     */
+    CompletableFuture<List<User>> getAllUsers();
+
+    /**
+     * Creates or replaces a user.
+     * @param user the user to store, with their id set
+     * @return a future completing once the user is stored
+     */
+    CompletableFuture<Void> saveUser(User user);
+
+    /**
+     * Deletes a user.
+     * @param userId the id of the user
+     * @return a future completing once the user is deleted
+     */
+    CompletableFuture<Void> deleteUser(String userId);
+}
@@ -0,0 +1,45 @@
+package com.example.eventlottery.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Splits IDs for Firestore {@code whereIn} queries, which take at most {@link #MAX_VALUES}
+ * values each, so a lookup of many documents runs as one query per chunk.
+ * <p>
+ * Android-free, so it can be tested on the JVM.
+ * </p>
+ */
+public final class WhereIn {
+    /** Firestore limit on the number of values in a whereIn filter. */
+    public static final int MAX_VALUES = 30;
+
+    private WhereIn() {}
+
+    /**
+     * @param ids the IDs to query; duplicates are queried once
+     * @return the IDs in chunks of at most {@link #MAX_VALUES}, in their original order
+     */
+    public static List<List<String>> chunks(Collection<String> ids) {
+        return partition(new ArrayList<>(new LinkedHashSet<>(ids)), MAX_VALUES);
+    }
+
+    /**
+     * Splits a list into consecutive sub-lists of at most {@code size} elements.
+     * @param items the list to split
+     * @param size the maximum size of each sub-list (must be &gt; 0)
+     * @return the sub-lists, in order; empty if {@code items} is empty
+     */
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + size);
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += size) {
+            chunks.add(new ArrayList<>(items.subList(start, Math.min(start + size, items.size()))));
+        }
+        return chunks;
+    }
+}
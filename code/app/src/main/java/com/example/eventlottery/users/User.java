@@ -109,6 +109,27 @@ public class User implements Serializable {
         this.createdEvents = new ArrayList<>();
     }
 
+    /**
+     * Copies a user, including their event lists, so the copy can be changed without affecting
+     * the original, e.g. a user shared through the {@code UserCache}.
+     *
+     * @param other The user to copy.
+     */
+    public User(User other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.emailAddress = other.emailAddress;
+        this.phoneNumber = other.phoneNumber;
+        this.waitlistedEvents = other.waitlistedEvents == null ? null : new ArrayList<>(other.waitlistedEvents);
+        this.createdEvents = other.createdEvents == null ? null : new ArrayList<>(other.createdEvents);
+        this.registeredEvents = other.registeredEvents == null ? null : new HashMap<>(other.registeredEvents);
+        this.joinedEventIds = other.joinedEventIds == null ? null : new ArrayList<>(other.joinedEventIds);
+        this.fcmToken = other.fcmToken;
+        this.creationBan = other.creationBan;
+        this.isAdmin = other.isAdmin;
+        this.notifications = other.notifications;
+    }
+
     /**
      * Returns the user type as a string.
      * Subclasses (e.g., Organizer, Admin) may override this.
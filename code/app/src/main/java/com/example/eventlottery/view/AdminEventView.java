@@ -19,6 +19,8 @@ import androidx.core.view.WindowInsetsCompat;
 import com.bumptech.glide.Glide;
 import com.example.eventlottery.R;
 import com.example.eventlottery.model.EventDatabase;
+import com.example.eventlottery.model.PosterUploader;
+import com.example.eventlottery.model.Posters;
 import com.google.firebase.Firebase;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -95,7 +97,7 @@ public class AdminEventView extends AppCompatActivity {
         // Shows the waitlist size of the event
         getWaitListSize(eventId, showWaitlistSize);
 
-        Glide.with(this).load(imageURL).placeholder(R.drawable.placeholder).into(image);
+        Posters.load(Glide.with(this), imageURL, eventStoragePath).into(image);
     }
 
     /**
@@ -129,14 +131,12 @@ public class AdminEventView extends AppCompatActivity {
                 return;
             }
 
-            FirebaseStorage.getInstance()
-                    .getReference(eventStoragePath)
-                    .delete()
+            PosterUploader.delete(FirebaseStorage.getInstance(), eventStoragePath)
                     .addOnSuccessListener(unused -> {
                         FirebaseFirestore.getInstance()
                                 .collection("event-p4")
                                 .document(eventId)
-                                .update("image", null, "storagePath", null)
+                                .update("image", null, "storagePath", null, "posterUrls", null, "posterColor", 0)
                                 .addOnSuccessListener(unused2 -> {
                                     imageURL = null;
                                     eventStoragePath = null;
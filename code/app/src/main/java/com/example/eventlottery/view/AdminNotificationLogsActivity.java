@@ -1,37 +1,78 @@
 package com.example.eventlottery.view;
 
+import android.app.DatePickerDialog;
 import android.os.Bundle;
 import android.util.Log;
-import android.view.LayoutInflater;
 import android.view.View;
+import android.widget.ArrayAdapter;
 import android.widget.Button;
-import android.widget.LinearLayout;
+import android.widget.EditText;
+import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.eventlottery.R;
-import com.google.firebase.Timestamp;
+import com.example.eventlottery.events.NotificationLogWriter;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * Activity for administrators to review all notification logs.
  * Displays notifications sent by organizers to entrants.
+ * <p>
+ * Logs are loaded one page at a time with {@code limit} + {@code startAfter} into a RecyclerView,
+ * and can be filtered server-side by type, event name and date range.
+ * Combining filters with the timestamp ordering requires the matching composite indexes in Firestore.
+ * </p>
  */
 public class AdminNotificationLogsActivity extends AppCompatActivity {
     private static final String TAG = "AdminNotificationLogs";
 
-    private LinearLayout logsContainer;
+    /** Number of logs fetched per page. */
+    private static final int PAGE_SIZE = 25;
+    /** Load the next page when this many rows are left below the last visible one. */
+    private static final int PREFETCH_DISTANCE = 5;
+    /** Notification types selectable in the type filter ("All" disables the filter). */
+    private static final String[] TYPES = {
+            "All", "invitation", "waitlist", "selected", "cancelled", "accepted", "winner", "loser"
+    };
+
     private FirebaseFirestore db;
     private TextView emptyStateText;
+    private RecyclerView logsRecyclerView;
+    private NotificationLogAdapter adapter;
+
+    private Spinner typeFilter;
+    private EditText eventFilter;
+    private Button fromDateButton;
+    private Button toDateButton;
+
+    // Active filters
+    private String selectedType;
+    private String selectedEvent;
+    private Date fromDate;
+    private Date toDate;
+
+    // Paging state
+    private DocumentSnapshot lastVisible;
+    private boolean isLoading = false;
+    private boolean hasMore = true;
+    /** Incremented on every reload so results of a stale query are ignored. */
+    private int queryGeneration = 0;
+
+    private final SimpleDateFormat buttonDateFormat = new SimpleDateFormat("MMM d, yyyy", Locale.getDefault());
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -39,136 +80,184 @@ public class AdminNotificationLogsActivity extends AppCompatActivity {
         setContentView(R.layout.activity_admin_notification_logs);
 
         // Initialize views
-        logsContainer = findViewById(R.id.logsContainer);
         emptyStateText = findViewById(R.id.emptyStateText);
+        logsRecyclerView = findViewById(R.id.logsRecyclerView);
+        typeFilter = findViewById(R.id.typeFilter);
+        eventFilter = findViewById(R.id.eventFilter);
+        fromDateButton = findViewById(R.id.fromDateButton);
+        toDateButton = findViewById(R.id.toDateButton);
+        Button applyFiltersButton = findViewById(R.id.applyFiltersButton);
         Button backButton = findViewById(R.id.backButton);
 
         // Initialize Firebase
         db = FirebaseFirestore.getInstance();
 
+        // Initialize RecyclerView
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        logsRecyclerView.setLayoutManager(layoutManager);
+        adapter = new NotificationLogAdapter();
+        logsRecyclerView.setAdapter(adapter);
+        logsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                int lastVisiblePosition = layoutManager.findLastVisibleItemPosition();
+                if (lastVisiblePosition >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
+
+        // Initialize filters
+        ArrayAdapter<String> typeAdapter = new ArrayAdapter<>(this,
+                android.R.layout.simple_spinner_item, TYPES);
+        typeAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        typeFilter.setAdapter(typeAdapter);
+
+        fromDateButton.setOnClickListener(v -> pickDate(true));
+        toDateButton.setOnClickListener(v -> pickDate(false));
+        applyFiltersButton.setOnClickListener(v -> applyFilters());
         backButton.setOnClickListener(v -> finish());
 
         loadNotificationLogs();
     }
 
     /**
-     * Loads all notification logs from Firestore ordered by timestamp descending
+     * Reads the filter inputs and reloads the logs from the first page.
      */
-    private void loadNotificationLogs() {
-        db.collection("notification")
-                // Sort by timestamp in descending order
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    if (queryDocumentSnapshots.isEmpty()) {
-                        emptyStateText.setVisibility(View.VISIBLE);
-                        logsContainer.setVisibility(View.GONE);
-                        return;
-                    }
-
-                    // Clear existing logs and display new ones (disables empty state text if there are logs)
-                    emptyStateText.setVisibility(View.GONE);
-                    logsContainer.setVisibility(View.VISIBLE);
-                    logsContainer.removeAllViews();
+    private void applyFilters() {
+        String type = (String) typeFilter.getSelectedItem();
+        selectedType = (type == null || type.equals(TYPES[0])) ? null : type;
 
-                    for (DocumentSnapshot doc : queryDocumentSnapshots.getDocuments()) {
-                        displayLogEntry(doc);
-                    }
-                })
+        String event = eventFilter.getText().toString().trim();
+        selectedEvent = event.isEmpty() ? null : event;
 
-                // Handle failure to load logs
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load notification logs", e);
-                    Toast.makeText(this, "Failed to load logs: " + e.getMessage(),
-                            Toast.LENGTH_LONG).show();
-                });
+        loadNotificationLogs();
     }
 
     /**
-     * Displays a single log entry
+     * Shows a date picker for one end of the date range.
+     * Picking the same bound again clears it.
+     * @param isFrom true to set the start of the range, false to set the end
      */
-    private void displayLogEntry(DocumentSnapshot doc) {
-        LayoutInflater inflater = LayoutInflater.from(this);
-        View logItem = inflater.inflate(R.layout.item_notification_log, logsContainer, false);
-
-        // Initialize views to be displayed
-        TextView timestampText = logItem.findViewById(R.id.timestampText);
-        TextView organizerText = logItem.findViewById(R.id.organizerText);
-        TextView eventNameText = logItem.findViewById(R.id.eventNameText);
-        TextView typeText = logItem.findViewById(R.id.typeText);
-        TextView recipientCountText = logItem.findViewById(R.id.recipientCountText);
-        TextView messageText = logItem.findViewById(R.id.messageText);
-        TextView recipientsText = logItem.findViewById(R.id.recipientsText);
-
-        // Get data from document (firestore)
-        Timestamp timestamp = doc.getTimestamp("timestamp");
-        String senderName = doc.getString("senderUserName");
-        String senderId = doc.getString("senderUserId");
-        String eventName = doc.getString("eventName");
-        String type = doc.getString("type");
-        Long recipientCount = doc.getLong("recipientCount");
-        String message = doc.getString("message");
-        Map<String, Object> recipients = (Map<String, Object>) doc.get("recipients");
-
-        // Format and display timestamp
-        if (timestamp != null) {
-            Date date = timestamp.toDate();
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy 'at' h:mm a", Locale.getDefault());
-            timestampText.setText(dateFormat.format(date));
-        } else {
-            timestampText.setText("Unknown time");
+    private void pickDate(boolean isFrom) {
+        Date current = isFrom ? fromDate : toDate;
+        if (current != null) {
+            setDateBound(isFrom, null);
+            return;
         }
 
-        // Display organizer info (just in case
-        organizerText.setText("Organizer: " + senderName);
-
-        // Display event name
-        eventNameText.setText("Event: " + (eventName != null ? eventName : "Unknown"));
-
-        // Display notification type
-        typeText.setText("Type: " + capitalizeFirst(type != null ? type : "unknown"));
+        Calendar today = Calendar.getInstance();
+        new DatePickerDialog(this, (view, year, month, dayOfMonth) -> {
+            Calendar c = Calendar.getInstance();
+            c.clear();
+            c.set(year, month, dayOfMonth);
+            // The end of the range is exclusive, so it is moved to the next midnight
+            if (!isFrom) {
+                c.add(Calendar.DAY_OF_MONTH, 1);
+            }
+            setDateBound(isFrom, c.getTime());
+        }, today.get(Calendar.YEAR), today.get(Calendar.MONTH), today.get(Calendar.DAY_OF_MONTH)).show();
+    }
 
-        // Display recipient count
-        if (recipientCount != null) {
-            recipientCountText.setText("Recipients: " + recipientCount);
+    /**
+     * Sets one end of the date range and updates its button label.
+     * @param isFrom true for the start of the range, false for the end
+     * @param date the new bound, or null to clear it
+     */
+    private void setDateBound(boolean isFrom, Date date) {
+        if (isFrom) {
+            fromDate = date;
+            fromDateButton.setText(date == null ? "From" : buttonDateFormat.format(date));
         } else {
-            recipientCountText.setText("Recipients: Unknown");
+            toDate = date;
+            if (date == null) {
+                toDateButton.setText("To");
+            } else {
+                // Show the inclusive last day, not the exclusive bound
+                Calendar c = Calendar.getInstance();
+                c.setTime(date);
+                c.add(Calendar.DAY_OF_MONTH, -1);
+                toDateButton.setText(buttonDateFormat.format(c.getTime()));
+            }
         }
+    }
 
-        // Display message
-        messageText.setText("Message: " + (message != null ? message : "No message"));
-
-        // Display recipients (first 3 only so log is not overwhelmed with data
-        // checks if someone received the notification
-        if (recipients != null && !recipients.isEmpty()) {
-            StringBuilder recipientsList = new StringBuilder("Recipients: ");
-            int count = 0;
-            for (Map.Entry<String, Object> entry : recipients.entrySet()) {
-                if (count >= 3) {
-                    recipientsList.append("...");
-                    break;
-                }
-                if (count > 0) {
-                    recipientsList.append(", ");
-                }
-                recipientsList.append(entry.getValue());
-                count++;
-            }
-            recipientsText.setText(recipientsList.toString());
-        } else {
-            recipientsText.setText("Recipients: None");
+    /**
+     * Builds the log query for the active filters, ordered by timestamp descending.
+     * The type and event filters need the composite indexes in {@code firestore.indexes.json}.
+     * @return the filtered query, without paging applied
+     */
+    private Query buildQuery() {
+        Query query = db.collection(NotificationLogWriter.LOG_COLLECTION);
+        if (selectedType != null) {
+            query = query.whereEqualTo("type", selectedType);
         }
+        if (selectedEvent != null) {
+            query = query.whereEqualTo("eventName", selectedEvent);
+        }
+        if (fromDate != null) {
+            query = query.whereGreaterThanOrEqualTo("timestamp", fromDate);
+        }
+        if (toDate != null) {
+            query = query.whereLessThan("timestamp", toDate);
+        }
+        // Sort by timestamp in descending order
+        return query.orderBy("timestamp", Query.Direction.DESCENDING);
+    }
 
-        logsContainer.addView(logItem);
+    /**
+     * Clears the list and loads the first page of notification logs
+     */
+    private void loadNotificationLogs() {
+        queryGeneration++;
+        lastVisible = null;
+        hasMore = true;
+        isLoading = false;
+        adapter.clear();
+        loadNextPage();
     }
 
     /**
-     * Capitalizes the first letter of a string (it helps match the format of the rest of the logs)
+     * Loads the page of logs after the last one loaded, if there is one
      */
-    private String capitalizeFirst(String str) {
-        if (str == null || str.isEmpty()) {
-            return str;
+    private void loadNextPage() {
+        if (isLoading || !hasMore) return;
+        isLoading = true;
+
+        int generation = queryGeneration;
+        Query query = buildQuery();
+        if (lastVisible != null) {
+            query = query.startAfter(lastVisible);
         }
-        return str.substring(0, 1).toUpperCase() + str.substring(1);
+
+        query.limit(PAGE_SIZE)
+                .get()
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    // Ignore pages of a query that was replaced while loading
+                    if (generation != queryGeneration) return;
+                    isLoading = false;
+
+                    List<DocumentSnapshot> page = queryDocumentSnapshots.getDocuments();
+                    hasMore = page.size() == PAGE_SIZE;
+                    if (!page.isEmpty()) {
+                        lastVisible = page.get(page.size() - 1);
+                        adapter.addPage(page);
+                    }
+
+                    // Disables empty state text if there are logs
+                    boolean isEmpty = adapter.getItemCount() == 0;
+                    emptyStateText.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
+                    logsRecyclerView.setVisibility(isEmpty ? View.GONE : View.VISIBLE);
+                })
+
+                // Handle failure to load logs
+                .addOnFailureListener(e -> {
+                    if (generation != queryGeneration) return;
+                    isLoading = false;
+                    Log.e(TAG, "Failed to load notification logs", e);
+                    Toast.makeText(this, "Failed to load logs: " + e.getMessage(),
+                            Toast.LENGTH_LONG).show();
+                });
     }
 }
@@ -26,16 +26,23 @@ import androidx.appcompat.widget.SearchView;
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.DBConnector;
 import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.EventFilter;
+import com.example.eventlottery.events.NotificationLogExpiryWorker;
 import com.example.eventlottery.model.EventDatabase;
+import com.example.eventlottery.model.FirestoreEventRepository;
+import com.example.eventlottery.model.FirestoreUserRepository;
+import com.example.eventlottery.model.ListenerHub;
+import com.example.eventlottery.model.PosterUploader;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.Firebase;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageKt;
-import com.google.firebase.storage.StorageReference;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -80,6 +87,8 @@ public class AdminPanel extends AppCompatActivity implements PopupMenu.OnMenuIte
     private ArrayList<User> allUsers;
     /** Firestore database connector for performing user operations. */
     private EventDatabase eventDatabase;
+    private ListenerRegistration eventsListener;
+    private ListenerRegistration usersListener;
 
 
 
@@ -121,6 +130,9 @@ public class AdminPanel extends AppCompatActivity implements PopupMenu.OnMenuIte
 
         loadProfilesFromFirestore();
 
+        // Expired notification logs are swept in the background from admins' devices
+        NotificationLogExpiryWorker.schedule(this);
+
         // Set up AdminEventViewLauncher for deleting an event
         ActivityResultLauncher<Intent> EventViewResultLauncher = registerForActivityResult(
                 new ActivityResultContracts.StartActivityForResult(),
@@ -209,11 +221,10 @@ public class AdminPanel extends AppCompatActivity implements PopupMenu.OnMenuIte
      * Loads in the admin's details from firebase.
      */
     private void loadAdmin() {
-        userDatabase.loadUserInfo(deviceId, task -> {
-            if (task.isSuccessful()) {
-                DocumentSnapshot document = task.getResult();
-                if (document.exists()) {
-                    admin = document.toObject(User.class);
+        userDatabase.loadUser(deviceId).whenComplete((user, e) -> {
+            if (e == null) {
+                if (user != null) {
+                    admin = user;
                     Log.d("AdminPanel", "Admin loaded");
 
                     // Create adapter & load all events from firestore
@@ -224,43 +235,46 @@ public class AdminPanel extends AppCompatActivity implements PopupMenu.OnMenuIte
                     Log.d("OrganizerPanel", "No organizer found");
                 }
             } else {
-                Log.e("OrganizerPanel", "Error loading organizer info", task.getException());
+                Log.e("OrganizerPanel", "Error loading organizer info", e);
             }
         });
     }
 
     /**
-     * Adds every event from firestore into eventListData. Loads again if any event was changed
+     * Adds every event from firestore into eventListData. Loads again if any event was changed.
+     * The query is unordered so events without a start time are listed too, an admin must be
+     * able to find and remove them; they're sorted by start time here instead, those without
+     * one last. It therefore doesn't share MainActivity's listener in {@link ListenerHub}.
      */
     private void loadEventsFromFirestore() {
-        db.collection("event-p4")
-                .orderBy("startTime")
-                .addSnapshotListener((query, error) -> {
-                    if (error != null || query == null) {
-                        return;
-                    }
-
-                    // Clear both the master list and the displayed list
-                    allEvents.clear();
-                    eventListData.clear();
+        if (eventsListener != null) {
+            eventsListener.remove();
+        }
+        Query everyEvent = db.collection("event-p4");
+        eventsListener = ListenerHub.getInstance().listen(everyEvent, (query, error) -> {
+            if (error != null || query == null) {
+                return;
+            }
 
-                    for (DocumentSnapshot doc : query) {
-                        Event event = doc.toObject(Event.class);
-                        if (event == null) continue;
+            // Also keeps the shared event cache up to date; converted and sorted off the UI thread
+            List<Event> events = FirestoreEventRepository.applySnapshot(query, Repositories.eventCache());
+            events.sort(EventFilter.BY_START_TIME);
 
-                        if (event.getId() == null || event.getId().isEmpty()) {
-                            event.setId(doc.getId());
-                        }
+            runOnUiThread(() -> {
+                if (isDestroyed()) return;
 
-                        allEvents.add(event);
-                        eventListData.add(event);
-                    }
+                // Clear both the master list and the displayed list
+                allEvents.clear();
+                eventListData.clear();
+                allEvents.addAll(events);
+                eventListData.addAll(events);
 
-                    if (eventAdapter != null) {
-                        // Show all events by default
-                        eventAdapter.setFilteredList(new ArrayList<>(allEvents));
-                    }
-                });
+                if (eventAdapter != null) {
+                    // Show all events by default
+                    eventAdapter.setFilteredList(new ArrayList<>(allEvents));
+                }
+            });
+        });
     }
 
 
@@ -268,30 +282,46 @@ public class AdminPanel extends AppCompatActivity implements PopupMenu.OnMenuIte
      * Adds every profile into userList.
      */
     private void loadProfilesFromFirestore() {
-        db.collection("users-p4")
-                .addSnapshotListener((query, error) -> {
-                    if (error != null || query == null) {
-                        return;
-                    }
+        if (usersListener != null) {
+            usersListener.remove();
+        }
+        usersListener = ListenerHub.getInstance().listen(db.collection("users-p4"), (query, error) -> {
+            if (error != null || query == null) {
+                return;
+            }
 
-                    allUsers.clear();
-                    userList.clear();
+            // Also keeps the shared user cache warm; converted off the UI thread
+            List<User> users = FirestoreUserRepository.applySnapshot(query, Repositories.userCache());
 
-                    for (DocumentSnapshot doc : query) {
-                        User user = doc.toObject(User.class);
-                        if (user == null) continue;
+            runOnUiThread(() -> {
+                if (isDestroyed()) return;
 
-                        List<String> waitlistedEvents = (List<String>) doc.get("waitlistedEvents");
-                        user.setWaitlistedEventIds(waitlistedEvents);
+                allUsers.clear();
+                userList.clear();
+                allUsers.addAll(users);
+                userList.addAll(users);
 
-                        allUsers.add(user);
-                        userList.add(user);
-                    }
+                if (userAdapter != null) {
+                    userAdapter.setFilteredList(new ArrayList<>(allUsers));
+                }
+            });
+        });
+    }
 
-                    if (userAdapter != null) {
-                        userAdapter.setFilteredList(new ArrayList<>(allUsers));
-                    }
-                });
+    /**
+     * Leaves the shared listeners when the activity is destroyed
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (eventsListener != null) {
+            eventsListener.remove();
+            eventsListener = null;
+        }
+        if (usersListener != null) {
+            usersListener.remove();
+            usersListener = null;
+        }
     }
 
 
@@ -334,16 +364,13 @@ public class AdminPanel extends AppCompatActivity implements PopupMenu.OnMenuIte
         // Get storage path & set up storage reference
         String storagePath = selectedEvent.getStoragePath();
         FirebaseStorage storage = StorageKt.getStorage(Firebase.INSTANCE);
-        StorageReference storageReference = storage.getReference();
-
 
         if (storagePath != null && !storagePath.isEmpty()) {
-            StorageReference imageReference = storageReference.child(storagePath);
-            imageReference.delete();
+            PosterUploader.delete(storage, storagePath);  // every size of the poster
         }
 
-        // 3. Delete event from "event-p4" in firebase
-        db.collection("event-p4").document(eventId).delete();
+        // 3. Delete event from "event-p4" in firebase, and from the shared cache
+        Repositories.events().deleteEvent(eventId);
     }
 
     /**
@@ -2,6 +2,7 @@ package com.example.eventlottery.view;
 
 import android.app.DatePickerDialog;
 import android.app.Dialog;
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
@@ -13,7 +14,6 @@ import android.widget.Button;
 import android.widget.DatePicker;
 import android.widget.EditText;
 import android.widget.ImageView;
-import android.widget.ProgressBar;
 import android.widget.Switch;
 import android.widget.Toast;
 
@@ -25,12 +25,10 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.DialogFragment;
 
+import com.bumptech.glide.Glide;
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.Event;
-import com.google.firebase.Firebase;
-import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageKt;
-import com.google.firebase.storage.StorageReference;
+import com.example.eventlottery.model.PosterUploader;
 
 import org.checkerframework.checker.units.qual.A;
 
@@ -40,7 +38,6 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
 
 /**
  * A dialog fragment that allows organizers to create new {@link Event} objects.
@@ -57,11 +54,6 @@ public class CreateEventDialog extends DialogFragment {
     private String organizerName;
     private ActivityResultLauncher<Intent> imageResultLauncher;
     private Uri filePath;
-    private StorageReference storageReference;
-    private ProgressBar progressBar;
-    private String eventImg;
-    // Empty string by default
-    private String eventStoragePath = "";
     /**
      * Listener interface for receiving event creation callbacks.
      * Implementations of this interface are notified when a new {@link Event}
@@ -117,9 +109,7 @@ public class CreateEventDialog extends DialogFragment {
         EditText filterTag = dialogView.findViewById(R.id.filterTagInput);
         Switch geolocationSwitch = dialogView.findViewById(R.id.geolocationSwitch);
         Button selectImgBtn = dialogView.findViewById(R.id.select_image_btn);
-        Button uploadImgBtn = dialogView.findViewById(R.id.upload_image_btn);
         ImageView imgPreview = dialogView.findViewById(R.id.preview_select_img_view);
-        progressBar = dialogView.findViewById(R.id.upload_img_progress);
 
         // Hide lottery and edit poster sections (only show initial upload for CREATE mode)
         View lotteryInputLayout = dialogView.findViewById(R.id.lotteryInputLayout);
@@ -149,14 +139,9 @@ public class CreateEventDialog extends DialogFragment {
         startDate.setOnClickListener(v -> openDatePicker(startDate));
         endDate.setOnClickListener(v -> openDatePicker(endDate));
 
-        // Firebase Storage
-        FirebaseStorage storage = StorageKt.getStorage(Firebase.INSTANCE);
-        storageReference = storage.getReference();
-
-        // Image selection and upload
+        // Image selection, it's uploaded once the event is created
         pickImageLauncher(imgPreview);
         selectImgBtn.setOnClickListener(v -> pickImage());
-        uploadImgBtn.setOnClickListener(v -> uploadImage());
 
         // Build & show AlertDialog
         AlertDialog.Builder builder = new AlertDialog.Builder(requireContext());
@@ -305,26 +290,38 @@ public class CreateEventDialog extends DialogFragment {
                 } else { geolocation = false; }
 
                 /****************************
-                 * 8. Select and upload image
+                 * 8. Select image
                  ****************************/
-                if (eventImg == null || eventImg.isEmpty()) {
-                    Toast.makeText(requireContext(), "Please select and upload an image", Toast.LENGTH_SHORT).show();
+                if (filePath == null) {
+                    Toast.makeText(requireContext(), "Please select an image", Toast.LENGTH_SHORT).show();
                     return;
                 }
 
                 /*************************************
                  * 9. Create event, given the inputs *
                  *************************************/
-                Event newEvent = new Event(titleText, descriptionText, locationText, organizerName, eventImg, start, end, filterTags, geolocation);
-                // Set waitlistmax & storage path
+                // The poster is set on the event once it's uploaded, see PosterUploadWorker
+                Event newEvent = new Event(titleText, descriptionText, locationText, organizerName, "", start, end, filterTags, geolocation);
+                // Set waitlistmax
                 newEvent.setWaitlistMax(maxSize);
-                newEvent.setStoragePath(eventStoragePath);
 
                 // Run organizer panel's listener if something was created
                 if (listener != null) {
                     listener.onEventCreated(newEvent);
                 }
 
+                // Uploads in the background, so the dialog closes now and a lost connection
+                // or closed app only pauses the upload
+                // The dialog is gone by the time the image is read, so failures toast from the app
+                Context app = requireContext().getApplicationContext();
+                PosterUploader.enqueue(app, newEvent.getId(), filePath)
+                        .exceptionally(e -> {
+                            ContextCompat.getMainExecutor(app).execute(() ->
+                                    Toast.makeText(app, "Couldn't read the event image, please edit the event to add it again",
+                                            Toast.LENGTH_LONG).show());
+                            return null;
+                        });
+
                 // We only dismiss on the save button if all inputs were valid
                 dialog.dismiss();
             });
@@ -365,7 +362,8 @@ public class CreateEventDialog extends DialogFragment {
                         if (activityResult.getData() != null) {
                             Uri imageUri = activityResult.getData().getData();
                             filePath = imageUri;
-                            imageView.setImageURI(imageUri);
+                            // Decoded at the size of the preview, not at the photo's full resolution
+                            Glide.with(this).load(imageUri).into(imageView);
                         }
                     } catch (Exception e) {
                         Toast.makeText(requireContext(), "Failed to load Image", Toast.LENGTH_SHORT).show();
@@ -384,43 +382,4 @@ public class CreateEventDialog extends DialogFragment {
         imageResultLauncher.launch(intent);
     }
 
-    /**
-     * reference: https://www.geeksforgeeks.org/android/android-how-to-upload-an-image-on-firebase-storage/
-     * Uploads the selected image from pickImage() to Firestore Storage and saves the image
-     * to the new created event document.
-     */
-    private void uploadImage() {
-        if (filePath != null) {
-            progressBar.setVisibility(View.VISIBLE);
-            progressBar.setProgress(0);
-
-            // Create unique storage path for image
-            String storagePath = "images/" + UUID.randomUUID().toString();
-            StorageReference reference = storageReference.child(storagePath);
-            reference.putFile(filePath)
-                    .addOnSuccessListener(task -> {
-                        reference.getDownloadUrl().addOnSuccessListener(uri -> {
-                                    eventImg = uri.toString();
-                                    eventStoragePath = storagePath;  // for deleting later
-                                    progressBar.setVisibility(View.GONE);
-                                    Toast.makeText(requireContext(), "Image Uploaded", Toast.LENGTH_SHORT).show();
-                                })
-                                .addOnFailureListener(e -> {
-                                    progressBar.setVisibility(View.GONE);
-                                    Toast.makeText(requireContext(), "Uploaded Failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                                });
-                    })
-                    .addOnFailureListener(e -> {
-                        progressBar.setVisibility(View.GONE);
-                        Toast.makeText(requireContext(), "Uploaded Failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    })
-                    .addOnProgressListener(snapshot -> {
-                        int progress = (int) (100.0 * snapshot.getBytesTransferred() / snapshot.getTotalByteCount());
-                        progressBar.setProgress(progress);
-                    });
-        } else {
-            Toast.makeText(requireContext(), "No Image Selected", Toast.LENGTH_SHORT).show();
-        }
-    }
-
 }
\ No newline at end of file
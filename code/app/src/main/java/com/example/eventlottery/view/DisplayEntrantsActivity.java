@@ -12,11 +12,10 @@ import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.eventlottery.R;
-import com.example.eventlottery.events.DBConnector;
 import com.example.eventlottery.events.Event;
 import com.example.eventlottery.events.NotificationSystem;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import java.util.ArrayList;
@@ -34,18 +33,12 @@ public class DisplayEntrantsActivity extends AppCompatActivity {
     // Container that holds the entrants
     private LinearLayout entrantsContainer;
 
-    // Helper to load users from Firestore
-    private DBConnector userDatabase;
-
     // Firestore reference
     private FirebaseFirestore db;
 
     // In memory list of User objects currently displayed
     private final ArrayList<User> users = new ArrayList<>();
 
-    // Counts the number of users loaded from Firestore
-    private int usersLoadedCount = 0;
-
     /**
      * Initializes the UI, reads the intent, and fetches the list of entrants.
      * Called when the activity is first created.
@@ -89,7 +82,6 @@ public class DisplayEntrantsActivity extends AppCompatActivity {
             title.setText("Entrants - " + eventName);
         }
 
-        userDatabase = new DBConnector(this);
         db = FirebaseFirestore.getInstance();
 
         fetchUserIdsForEvent(eventId, type);
@@ -101,11 +93,14 @@ public class DisplayEntrantsActivity extends AppCompatActivity {
      * @param type The type of entrants (chosen or cancelled)
      */
     private void fetchUserIdsForEvent(String eventId, String type) {
-        db.collection("event-p4")
-            .document(eventId)
-            .get()
-            .addOnSuccessListener(doc -> {
-                if (!doc.exists()) {
+        Repositories.events().getEvent(eventId)
+            .whenComplete((event, e) -> {
+                if (e != null) {
+                    Log.e(TAG, "Failed to fetch event document", e);
+                    Toast.makeText(this, "Failed to load entrants.", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                if (event == null) {
                     Toast.makeText(this, "Event not found", Toast.LENGTH_SHORT).show();
                     return;
                 }
@@ -114,10 +109,10 @@ public class DisplayEntrantsActivity extends AppCompatActivity {
 
                 if ("chosen".equals(type)) {
                     // selectedIds: list of user IDs for selected entrants
-                    userIds = (List<String>) doc.get("selectedIds");
+                    userIds = event.getSelectedIds();
                 } else if ("cancelled".equals(type)) {
                     // cancelledEntrants: list of user IDs for cancelled entrants
-                    userIds = (List<String>) doc.get("cancelledEntrants");
+                    userIds = event.getCancelledEntrants();
                 } else {
                     Toast.makeText(this, "Unknown entrant type", Toast.LENGTH_SHORT).show();
                     return;
@@ -129,50 +124,32 @@ public class DisplayEntrantsActivity extends AppCompatActivity {
                 }
                 // Load full User objects for all user IDs
                 fetchUsersFromIds(new ArrayList<>(userIds));
-            })
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Failed to fetch event document", e);
-                Toast.makeText(this, "Failed to load entrants.", Toast.LENGTH_SHORT).show();
             });
     }
 
     /**
-     * Loads each user in the given list of user
-     * IDs from Firestore and adds them to {@link #users}.
+     * Loads the users in the given list of user IDs and adds them to {@link #users}.
+     * Cached users are used as is; the rest are read in one batch.
      * When all users are loaded, the entrants list on the screen is refreshed.
      * @param userIds List of user document IDs to load.
      */
     private void fetchUsersFromIds(ArrayList<String> userIds) {
-        int total = userIds.size();
-        usersLoadedCount = 0; // reset counter
         users.clear();        // clear old users if needed
 
-        for (String userId : userIds) {
-            userDatabase.loadUserInfo(userId, task -> {
-                if (task.isSuccessful()) {
-                    DocumentSnapshot doc = task.getResult();
-                    if (doc != null && doc.exists()) {
-                        User user = doc.toObject(User.class);
-                        if (user != null) {
-                            users.add(user);
-                        }
-                    }
+        Repositories.users().getUsers(userIds)
+            .whenComplete((found, e) -> {
+                if (e != null) {
+                    Log.e(TAG, "Failed to load users", e);
                 } else {
-                    Log.e(TAG, "Failed to load user " + userId, task.getException());
+                    users.addAll(found.values());
                 }
 
-                usersLoadedCount++;
-
-                // Check if all users have been processed
-                if (usersLoadedCount == total) {
-                    if (users.isEmpty()) {
-                        Toast.makeText(this, "No users found for this event", Toast.LENGTH_SHORT).show();
-                    } else {
-                        displayEntrants(users);
-                    }
+                if (users.isEmpty()) {
+                    Toast.makeText(this, "No users found for this event", Toast.LENGTH_SHORT).show();
+                } else {
+                    displayEntrants(users);
                 }
             });
-        }
     }
 
     /**
@@ -3,12 +3,11 @@ package com.example.eventlottery.view;
 import android.app.DatePickerDialog;
 import android.app.Dialog;
 import android.app.ProgressDialog;
+import android.content.Context;
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.net.Uri;
 import android.os.Bundle;
-import android.provider.MediaStore;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -21,23 +20,25 @@ import android.widget.Switch;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import java.io.IOException;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.DialogFragment;
 
+import com.bumptech.glide.Glide;
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.Event;
 import com.example.eventlottery.events.NotificationSystem;
+import com.example.eventlottery.events.WaitlistService;
+import com.example.eventlottery.model.PosterUploader;
+import com.example.eventlottery.model.Posters;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageReference;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -520,27 +521,7 @@ public class EditEventDialog extends DialogFragment {
         Log.d(TAG, "Winners: " + winnerIds.size() + ", Losers: " + loserIds.size());
 
         // Now proceed with Firestore updates
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("selectedIds", FieldValue.arrayUnion(winnerIds.toArray()));
-        updates.put("lotteryDrawn", true);
-        updates.put("lotteryDrawnAt", System.currentTimeMillis());
-
-        List<Map<String, Object>> newWaitlist = new ArrayList<>();
-
-        for (User user : event.getWaitlist().getWaitlistedUsers()) {
-            if (!winnerIds.contains(user.getId())) {
-                Map<String, Object> userData = new HashMap<>();
-                userData.put("id", user.getId());
-                userData.put("name", user.getName());
-                userData.put("email", user.getEmailAddress());
-                newWaitlist.add(userData);
-            }
-        }
-        updates.put("waitlist.waitlistedUsers", newWaitlist);
-
-        db.collection("event-p4")
-                .document(event.getId())
-                .update(updates)
+        new WaitlistService(db).recordDraw(event, winnerIds)
                 .addOnSuccessListener(aVoid -> {
                     updateWinnerUserDocuments(winnerIds);
                     notifyWinners(winnerIds);
@@ -565,21 +546,10 @@ public class EditEventDialog extends DialogFragment {
      * @param winnerIds List of user IDs who won the lottery
      */
     private void updateWinnerUserDocuments(List<String> winnerIds) {
-        for (String userId : winnerIds) {
-            Map<String, Object> userUpdates = new HashMap<>();
-
-            // Add to registeredEvents with "Notified" status
-            userUpdates.put("registeredEvents." + event.getId(), "Notified");
-
-            // Remove from waitlistedEvents array
-            userUpdates.put("waitlistedEvents", FieldValue.arrayRemove(event.getId()));
-
-            // Also remove from waitlistedEventIds if it exists
-            userUpdates.put("waitlistedEventIds", FieldValue.arrayRemove(event.getId()));
-
-            db.collection("users-p4")
-                    .document(userId)
-                    .update(userUpdates)
+        List<Task<Void>> writes = new WaitlistService(db).updateWinnerUserDocuments(event.getId(), winnerIds);
+        for (int i = 0; i < writes.size(); i++) {
+            String userId = winnerIds.get(i);
+            writes.get(i)
                     .addOnSuccessListener(aVoid -> {
                         Log.d(TAG, "Updated user document for winner: " + userId);
                     })
@@ -595,21 +565,17 @@ public class EditEventDialog extends DialogFragment {
 
         NotificationSystem notificationSystem = new NotificationSystem(requireContext(), organizerId, organizerName);
 
-        // notifies winners in batches so it does not notify too many users at once
-        for (String winnerId : winnerIds) {
-            db.collection("users-p4")
-                    .document(winnerId)
-                    .get()
-                    .addOnSuccessListener(userDoc -> {
-                        User user = userDoc.toObject(User.class);
-                        if (user != null) {
-                            notificationSystem.notifyLotteryWinner(user, event.getName());
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Failed to fetch user: " + winnerId, e);
-                    });
-        }
+        // Fetches the winners with one query per 30 users instead of one read each
+        Repositories.users().getUsers(winnerIds)
+                .whenComplete((users, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Failed to fetch winners", e);
+                        return;
+                    }
+                    for (User user : users.values()) {
+                        notificationSystem.notifyLotteryWinner(user, event.getName());
+                    }
+                });
     }
 
     private void notifyLosers(List<String> loserIds) {
@@ -617,21 +583,17 @@ public class EditEventDialog extends DialogFragment {
 
         NotificationSystem notificationSystem = new NotificationSystem(requireContext(), organizerId, organizerName);
 
-        // Notify losers in batches
-        for (String loserId : loserIds) {
-            db.collection("users-p4")
-                    .document(loserId)
-                    .get()
-                    .addOnSuccessListener(userDoc -> {
-                        User user = userDoc.toObject(User.class);
-                        if (user != null) {
-                            notificationSystem.notifyLotteryLoser(user, event.getName());
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Failed to fetch user: " + loserId, e);
-                    });
-        }
+        // Fetches the losers with one query per 30 users instead of one read each
+        Repositories.users().getUsers(loserIds)
+                .whenComplete((users, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Failed to fetch losers", e);
+                        return;
+                    }
+                    for (User user : users.values()) {
+                        notificationSystem.notifyLotteryLoser(user, event.getName());
+                    }
+                });
     }
 
     /**
@@ -640,64 +602,30 @@ public class EditEventDialog extends DialogFragment {
     private void loadCurrentPoster() {
         if (event == null || event.getId() == null || eventPosterPreview == null) return;
 
-        db.collection("event-p4")
-                .document(event.getId())
-                .get()
-                .addOnSuccessListener(doc -> {
-                    if (doc.exists() && doc.contains("image")) {
-                        // gets the firebase url that contains the current poster
-                        String imageUrl = doc.getString("image");
-                        if (imageUrl != null && !imageUrl.isEmpty()) {
-                            loadImageFromUrl(imageUrl);
-                        }
+        Repositories.events().getEvent(event.getId())
+                .whenComplete((current, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Failed to load poster", e);
+                        return;
+                    }
+                    if (current != null && getActivity() != null) {
+                        getActivity().runOnUiThread(() -> showPoster(current));
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to load poster", e);
                 });
     }
 
     /**
-     * Loads image from URL into ImageView
-     * * Source: <a href="https://stackoverflow.com/questions/6407324/how-to-display-image-from-url-on-android">...</a>
-     * * Source: <a href="https://developer.android.com/reference/android/os/NetworkOnMainThreadException">...</a>
+     * Shows the event's current poster, decoded at the size of the preview. The load is tied to
+     * this dialog, so it's cancelled if the dialog closes first.
      */
-    private void loadImageFromUrl(String url) {
-        if (url == null || url.isEmpty() || eventPosterPreview == null) {
+    private void showPoster(Event current) {
+        if (eventPosterPreview == null || !isAdded()) {
             return;
         }
-
-        // Needed because android does not allow network on main thread
-        new Thread(() -> {
-            try {
-                java.net.URL imageUrl = new java.net.URL(url);
-                java.net.HttpURLConnection connection = (java.net.HttpURLConnection) imageUrl.openConnection();
-                connection.setDoInput(true);
-                connection.connect();
-                java.io.InputStream input = connection.getInputStream();
-                Bitmap bitmap = android.graphics.BitmapFactory.decodeStream(input);
-                input.close();
-
-                if (bitmap != null && getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        if (eventPosterPreview != null && isAdded()) {
-                            eventPosterPreview.setImageBitmap(bitmap);
-                        }
-                    });
-                }
-            }
-            // Makes sure program does not crash if url does not work
-            catch (Exception e) {
-                Log.e(TAG, "Error loading image from URL: " + e.getMessage(), e);
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        if (eventPosterPreview != null && isAdded()) {
-                            eventPosterPreview.setImageResource(android.R.color.darker_gray);
-                        }
-                    });
-                }
-            }
-        }).start();
+        String imageUrl = current.getImage();
+        if (imageUrl != null && !imageUrl.isEmpty()) {
+            Posters.load(Glide.with(this), current).into(eventPosterPreview);
+        }
     }
 
     /**
@@ -720,19 +648,14 @@ public class EditEventDialog extends DialogFragment {
                 && data != null && data.getData() != null) {
             newPosterUri = data.getData();
 
-            try {
-                Bitmap bitmap = MediaStore.Images.Media.getBitmap(
-                        requireActivity().getContentResolver(), newPosterUri);
+            // Decoded at the size of the preview, not at the photo's full resolution
+            Glide.with(this)
+                    .load(newPosterUri)
+                    .error(R.drawable.placeholder)
+                    .into(eventPosterPreview);
 
-                eventPosterPreview.setImageBitmap(bitmap);
-
-                Toast.makeText(requireContext(), "Poster updated (will save when you click Save)",
-                        Toast.LENGTH_SHORT).show();
-
-            } catch (IOException e) {
-                Toast.makeText(requireContext(), "Failed to load image",
-                        Toast.LENGTH_SHORT).show();
-            }
+            Toast.makeText(requireContext(), "Poster updated (will save when you click Save)",
+                    Toast.LENGTH_SHORT).show();
         }
     }
 
@@ -754,8 +677,7 @@ public class EditEventDialog extends DialogFragment {
                                 String storagePath = doc.getString("storagePath");
 
                                 if (storagePath != null && !storagePath.isEmpty()) {
-                                    storage.getReference(storagePath)
-                                            .delete()
+                                    PosterUploader.delete(storage, storagePath)
                                             .addOnSuccessListener(aVoid -> updateFirestoreAfterPosterRemoval())
                                             .addOnFailureListener(e -> updateFirestoreAfterPosterRemoval());
                                 } else {
@@ -779,6 +701,8 @@ public class EditEventDialog extends DialogFragment {
         Map<String, Object> updates = new HashMap<>();
         updates.put("image", "");
         updates.put("storagePath", "");
+        updates.put("posterUrls", new HashMap<String, String>());
+        updates.put("posterColor", 0);
 
         db.collection("event-p4")
                 .document(event.getId())
@@ -797,55 +721,24 @@ public class EditEventDialog extends DialogFragment {
 
 
     /**
-     * Uploads poster to Firebase Storage and updates Firestore
+     * Queues the poster to be uploaded to Firebase Storage, which then updates Firestore
      */
     private void uploadPosterToStorage(Uri imageUri) {
         if (event == null || event.getId() == null || !isAdded()) return;
 
-        String storagePath = "images/" + java.util.UUID.randomUUID().toString();
-        StorageReference storageRef = storage.getReference(storagePath);
-
-        storageRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot ->
-                        storageRef.getDownloadUrl().addOnSuccessListener(downloadUri -> {
-
-                            Map<String, Object> updates = new HashMap<>();
-                            updates.put("image", downloadUri.toString());
-                            updates.put("storagePath", storagePath);
-
-                            db.collection("event-p4")
-                                    .document(event.getId())
-                                    .update(updates)
-                                    .addOnSuccessListener(aVoid -> {
-                                        if (isAdded() && getContext() != null) {
-                                            Toast.makeText(getContext(),
-                                                    "Poster updated successfully!",
-                                                    Toast.LENGTH_SHORT).show();
-                                        }
-                                        Log.d(TAG, "Poster uploaded: " + downloadUri.toString());
-                                    })
-                                    .addOnFailureListener(e -> {
-                                        Log.e(TAG, "Failed to update Firestore", e);
-                                        if (isAdded() && getContext() != null) {
-                                            Toast.makeText(getContext(),
-                                                    "Failed to save poster info",
-                                                    Toast.LENGTH_SHORT).show();
-                                        }
-                                    });
-                        })
-                )
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to upload to storage", e);
-                    if (isAdded() && getContext() != null) {
-                        Toast.makeText(getContext(),
-                                "Failed to upload poster: " + e.getMessage(),
-                                Toast.LENGTH_SHORT).show();
-                    }
+        // Uploads in the background, the dialog is dismissed right after this
+        Context app = requireContext().getApplicationContext();
+        PosterUploader.enqueue(app, event.getId(), imageUri)
+                .exceptionally(e -> {
+                    ContextCompat.getMainExecutor(app).execute(() ->
+                            Toast.makeText(app, "Couldn't read the new poster, it wasn't updated",
+                                    Toast.LENGTH_LONG).show());
+                    return null;
                 });
+        Toast.makeText(requireContext(), "Poster will update once it's uploaded", Toast.LENGTH_SHORT).show();
     }
 
 
-
     /**
      * Opens the built-in DatePickerDialog from Android Studio, given a target text field.
      * References: https://www.youtube.com/watch?v=TCUfcNzS6Xk
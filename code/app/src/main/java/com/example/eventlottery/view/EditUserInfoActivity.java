@@ -194,11 +194,10 @@ public class EditUserInfoActivity extends AppCompatActivity {
      * Gets the current User into a User object
      */
     private void getUserObject() {
-        db.loadUserInfo(id, task -> {
-            if (task.isSuccessful()) {
-                DocumentSnapshot snapshot = task.getResult();
-                if (snapshot.exists()) {
-                    currentUser = snapshot.toObject(User.class);
+        db.loadUser(id).whenComplete((user, e) -> {
+            if (e == null) {
+                if (user != null) {
+                    currentUser = user;
                 } else {
                     Log.d(TAG, "Snapshot DNE:" + id);
                 }
@@ -23,7 +23,13 @@ import androidx.core.content.ContextCompat;
 
 import com.bumptech.glide.Glide;
 import com.example.eventlottery.R;
+import com.example.eventlottery.events.WaitlistService;
 import com.example.eventlottery.model.EventDatabase;
+import com.example.eventlottery.model.OfflineStore;
+import com.example.eventlottery.model.PendingWrites;
+import com.example.eventlottery.model.Posters;
+import com.example.eventlottery.model.ScanResolver;
+import com.example.eventlottery.model.ScannedEvent;
 import com.example.eventlottery.users.User;
 import com.google.android.gms.location.LocationRequest;
 import com.google.android.gms.location.FusedLocationProviderClient;
@@ -34,11 +40,9 @@ import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -56,6 +60,7 @@ public class EventJoinAndLeave extends AppCompatActivity {
     private Button joinButton;
     private String eventId;
     private FirebaseFirestore db;
+    private WaitlistService waitlistService;
     private DocumentReference userDoc;
     private ListenerRegistration userListener;
     private Date registrationEnd;
@@ -76,6 +81,9 @@ public class EventJoinAndLeave extends AppCompatActivity {
 
 
     private boolean isJoined = false;
+    /** The join state last confirmed by the server, restored if a change is rejected. */
+    private boolean committedJoined = false;
+    private TextView showWaitlistSize;
 
     /**
      * Initializes the activity, sets up the UI, retrieves event details from intent extras,
@@ -93,7 +101,7 @@ public class EventJoinAndLeave extends AppCompatActivity {
         TextView subtitle = findViewById(R.id.eventSubtitle);
         TextView desc = findViewById(R.id.eventDescription);
         TextView details = findViewById(R.id.eventDetails);
-        TextView showWaitlistSize = findViewById(R.id.showWaitlistSize);
+        showWaitlistSize = findViewById(R.id.showWaitlistSize);
         joinButton = findViewById(R.id.joinButton);
         Button homeButton = findViewById(R.id.homeButton);
         mFusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
@@ -135,16 +143,31 @@ public class EventJoinAndLeave extends AppCompatActivity {
 
         details.setText(when + "\n\n📍 Location: " + location + "\n\n🎟️ Organizer: " + organizer);
 
-        // Shows the waitlist size of the event
-        getWaitListSize(eventId, showWaitlistSize);
+        // Shows the waitlist size of the event; a scanned event has it on the way already
+        ScannedEvent scanned = ScanResolver.take(eventId);
+        if (scanned != null) {
+            scanned.getWaitlistSize().whenComplete((scannedSize, e) -> runOnUiThread(() -> {
+                if (isDestroyed()) return;
+                if (e == null && scannedSize >= 0) {
+                    size = scannedSize;
+                    showWaitlistSize.setText("\n🧍 Waitlist: " + size);
+                } else {
+                    getWaitListSize(eventId, showWaitlistSize);
+                }
+            }));
+        } else {
+            getWaitListSize(eventId, showWaitlistSize);
+        }
 
-        Glide.with(this).load(imageURL).placeholder(R.drawable.placeholder).into(image);
+        Posters.load(Glide.with(this), imageURL, getIntent().getStringExtra("storagePath")).into(image);
 
         homeButton.setOnClickListener(v -> startActivity(new Intent(this, MainActivity.class)));
+        OfflineStore.pendingWrites().addListener(onWriteStateChanged);
 
         user = new User(this);
         userLocation.put("userId", user.getId());
         db = FirebaseFirestore.getInstance(); // get firestore instance
+        waitlistService = new WaitlistService(db);
         userDoc = db.collection("users-p4").document(user.getId()); // get user
 
         // Check if user has already joined any events before loading
@@ -155,6 +178,7 @@ public class EventJoinAndLeave extends AppCompatActivity {
                 currentUser = documentSnapshot.toObject(User.class);
 
                 isJoined = user.isWaitlisted(eventId); // Check if user is joined in current event
+                committedJoined = isJoined;
                 updateJoinButton(isJoined);
             } else {
                 user.setWaitlistedEventIds(null); // If user doesn't exist, set joinedEventIds to null
@@ -180,6 +204,12 @@ public class EventJoinAndLeave extends AppCompatActivity {
      * Updates Firestore accordingly and refreshes the button state.
      */
     private void toggleJoin(String eventId, User user, TextView showWaitListSize) {
+        // The profile loads asynchronously, and never arrives if the device has no user document
+        if (user == null) {
+            Toast.makeText(this, "Your profile hasn't loaded yet, please try again", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
         // Check if registration is open. If it isn't, cancel joining waitlist.
         Date now = new Date();
 
@@ -204,109 +234,62 @@ public class EventJoinAndLeave extends AppCompatActivity {
         boolean newState = !isJoined;
         updateJoinButton(newState); // Update the button to reflect the new state
 
+        // Firestore applies the write locally straight away, so the change shows even offline;
+        // the button stays marked as syncing until the server has it (see onWriteStateChanged)
+        Task<Void> write;
         if (newState) { // If joined
-            userDoc.update("waitlistedEvents", FieldValue.arrayUnion(eventId)) // Add to Firestore
-                    .addOnSuccessListener(v -> {
-                        user.AddJoinedWaitlist(eventId);
-                        updateJoinEventWaitlist(eventId, user);
-                        isJoined = true;
-                        getWaitListSize(eventId, showWaitListSize);
-                    })
-                    .addOnFailureListener(e -> {
-                        updateJoinButton(isJoined);
-                        Toast.makeText(this, "Failed to join. Try again.", Toast.LENGTH_SHORT).show();
-                    });
+            // Adds to Firestore: user's waitlistedEvents, event's waitlist and location if collected
+            write = waitlistService.join(eventId, user, geolocation ? userLocation : null);
+            user.AddJoinedWaitlist(eventId);
+            size++;
         } else { // If left
-            userDoc.update("waitlistedEvents", FieldValue.arrayRemove(eventId)) // Remove from Firestore
-                    .addOnSuccessListener(v -> {
-                        user.RemoveLeftWaitlist(eventId);
-                        updateLeaveEventWaitlist(eventId, user);
-                        isJoined = false;
-                        getWaitListSize(eventId, showWaitListSize);
-                    })
-                    .addOnFailureListener(e -> {
-                        updateJoinButton(isJoined);
-                        Toast.makeText(this, "Failed to leave. Try again.", Toast.LENGTH_SHORT).show();
-                    });
+            // Removes from Firestore: user's waitlistedEvents, event's waitlist and location if stored
+            write = waitlistService.leave(eventId, user, geolocation);
+            user.RemoveLeftWaitlist(eventId);
+            size--;
         }
+        showWaitListSize.setText("\n🧍 Waitlist: " + size);
+        OfflineStore.track(writeKey(), write);
     }
 
-    /**
-     * Updates waitlistedUsers in DB when a user joins an event
-     * @param eventId the eventID
-     * @param user the current User
-     */
-    private void updateJoinEventWaitlist(String eventId, User user) {
-        db = FirebaseFirestore.getInstance();
-        DocumentReference documentReference = db.collection("event-p4").document(eventId);
-        Map<String, Object> userInfo = new HashMap<>();
-        userInfo.put("id", user.getId());
-        userInfo.put("name", user.getName());
-        userInfo.put("email", user.getEmailAddress());
-
-        documentReference.update("waitlist.waitlistedUsers", FieldValue.arrayUnion(userInfo))
-                .addOnSuccessListener(unused -> {
-                    Log.d(TAG, "user joined waitlist in event " + eventId);
-                        }
-                ).addOnFailureListener(e -> {
-                    Log.e(TAG, "user failed to joined waitlist in event " + eventId, e);
-                });
-
-        // If geolocation is on, store that data
-        if (geolocation) {
-            // Only store if longitude & latitude were actually added
-            if (userLocation.containsKey("longitude") && userLocation.containsKey("latitude")) {
-                documentReference.update("userLocations", FieldValue.arrayUnion(userLocation));
-            }
-        }
+    /** @return the key this event's join/leave writes are tracked under */
+    private String writeKey() {
+        return "waitlist/" + eventId;
     }
 
     /**
-     * Updates waitlistedUsers in DB when a user leaves an event
-     * @param eventId the eventID
-     * @param user the the current User
+     * Shows whether the latest join/leave has reached the server. A rejected write is
+     * rolled back to the last state the server confirmed.
      */
-    private void updateLeaveEventWaitlist(String eventId, User user) {
-        db = FirebaseFirestore.getInstance();
-        Map<String, Object> userInfo = new HashMap<>();
-        userInfo.put("id", user.getId());
-        userInfo.put("name", user.getName());
-        userInfo.put("email", user.getEmailAddress());
-        DocumentReference documentReference = db.collection("event-p4").document(eventId);
-        documentReference.update("waitlist.waitlistedUsers", FieldValue.arrayRemove(userInfo))
-                .addOnSuccessListener(unused -> {
-                            Log.d(TAG, "user left waitlist in event " + eventId);
-                        }
-                ).addOnFailureListener(e -> {
-                    Log.e(TAG, "user failed to leave waitlist in event " + eventId, e);
-                });
-
-        // If geolocation is on, remove that data
-        if (geolocation) {
-            if (userLocation != null) {
-                // Load in userLocations from firebase & check if user is in it
-                // Note: Done this way because an exact match in longitude & latitude is unlikely (so FieldValue.arrayRemove doesn't work)
-                documentReference.get().addOnSuccessListener(snapshot -> {
-                    // Get all userLocations from event & return if null
-                    ArrayList<Map<String, Object>> userLocations = (ArrayList<Map<String, Object>>) snapshot.get("userLocations");
-                    if (userLocations == null)
-                        return;
-
-                    // Make a new array that will have every user location but the user leaving
-                    ArrayList<Map<String, Object>> newUserLocations = new ArrayList<>();
-                    for (Map<String, Object> userLocation : userLocations) {
-                        if (!currentUser.getId().equals(userLocation.get("userId"))) {
-                            newUserLocations.add(userLocation);
-                        }
+    private final PendingWrites.Listener onWriteStateChanged = (key, state, error) -> {
+        if (!key.equals(writeKey()) || isDestroyed()) return;
+
+        switch (state) {
+            case PENDING:
+                updateJoinButton(isJoined, true);
+                break;
+            case COMMITTED:
+                Log.d(TAG, "✓ Waitlist change committed for event " + eventId + " (joined: " + isJoined + ")");
+                committedJoined = isJoined;
+                updateJoinButton(isJoined, false);
+                getWaitListSize(eventId, showWaitlistSize);
+                break;
+            case FAILED:
+                Log.e(TAG, "✗ Waitlist change rejected for event " + eventId, error);
+                if (currentUser != null) {
+                    if (committedJoined) {
+                        currentUser.AddJoinedWaitlist(eventId);
+                    } else {
+                        currentUser.RemoveLeftWaitlist(eventId);
                     }
-
-                    // Update in firestore
-                    documentReference.update("userLocations", newUserLocations);
-                });
-            }
+                }
+                updateJoinButton(committedJoined, false);
+                getWaitListSize(eventId, showWaitlistSize);
+                Toast.makeText(this, committedJoined ? "Failed to leave. Try again." : "Failed to join. Try again.",
+                        Toast.LENGTH_SHORT).show();
+                break;
         }
-
-    }
+    };
 
     /**
      * Updates the "Join"/"Leave" button text and color
@@ -315,13 +298,24 @@ public class EventJoinAndLeave extends AppCompatActivity {
      * @param joined true if the user is currently joined; false otherwise
      */
     private void updateJoinButton(boolean joined) {
+        updateJoinButton(joined, OfflineStore.pendingWrites().getState(writeKey()) == PendingWrites.State.PENDING);
+    }
+
+    /**
+     * Updates the "Join"/"Leave" button, marking it while the change hasn't reached the server.
+     *
+     * @param joined true if the user is currently joined; false otherwise
+     * @param pending true if the latest join/leave is still waiting for the server
+     */
+    private void updateJoinButton(boolean joined, boolean pending) {
+        String label = joined ? "Leave Waitlist" : "Join Waitlist";
         if (joined) {
-            joinButton.setText("Leave Waitlist");
             joinButton.setBackgroundColor(ContextCompat.getColor(this, R.color.Red));
         } else {
-            joinButton.setText("Join Waitlist");
             joinButton.setBackgroundColor(ContextCompat.getColor(this, R.color.Green));
         }
+        joinButton.setText(pending ? label + " (syncing…)" : label);
+        joinButton.setAlpha(pending ? 0.7f : 1.0f);
 
         this.isJoined = joined;
     }
@@ -337,6 +331,7 @@ public class EventJoinAndLeave extends AppCompatActivity {
             userListener.remove();
             userListener = null;
         }
+        OfflineStore.pendingWrites().removeListener(onWriteStateChanged);
     }
 
     /**
@@ -1,7 +1,10 @@
 package com.example.eventlottery.view;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.widget.Button;
 import android.widget.ImageButton;
@@ -14,7 +17,11 @@ import androidx.core.content.ContextCompat;
 
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.Event;
+import com.example.eventlottery.model.OfflineStore;
+import com.example.eventlottery.model.PendingWrites;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -26,6 +33,10 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /** USER STORY - 01.02.03
  * <p>
@@ -38,6 +49,16 @@ public class InfoActivity extends AppCompatActivity {
     /** Tag for logging debug information. */
     private static final String TAG = "InfoActivity";
 
+    /** How long to wait for the server before treating a write as queued offline. */
+    private static final long OFFLINE_GRACE_MILLIS = 2000;
+
+    /** Shown when a response was saved on the device but hasn't reached the server yet. */
+    private static final String SAVED_OFFLINE_MESSAGE = "Saved. It will sync when you're back online.";
+
+    /** Shown when a response saved offline was later rejected by the server. */
+    private static final String REJECTED_LATER_MESSAGE =
+            "Your response to an invitation couldn't be saved. Please open it and try again.";
+
     /** Header TextView displaying the name of the event. */
     private TextView eventNameHeader;
 
@@ -77,6 +98,9 @@ public class InfoActivity extends AppCompatActivity {
 
     /** Firestore instance used for database operations. */
     private FirebaseFirestore db;
+
+    /** Handler for the offline grace period of writes. */
+    private final Handler handler = new Handler(Looper.getMainLooper());
   
     /**
      * Called when the activity is created.
@@ -114,17 +138,16 @@ public class InfoActivity extends AppCompatActivity {
         }
 
         // Retrieve user from Firestore FIRST
-        db.collection("users-p4").document(userId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        currentUser = documentSnapshot.toObject(User.class);
-
-                        if (currentUser == null) {
-                            Toast.makeText(this, "Failed to parse user data", Toast.LENGTH_SHORT).show();
-                            finish();
-                            return;
-                        }
+        Repositories.users().getUser(userId)
+                .whenComplete((user, e) -> {
+                    if (e != null) {
+                        Toast.makeText(this, "Failed to retrieve user data: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                        finish();
+                        return;
+                    }
+                    if (user != null) {
+                        // The cached user is shared with other screens, this one changes a copy
+                        currentUser = new User(user);
 
                         // Defensive: make sure registeredEvents and waitlistedEvents are non-null
                         if (currentUser.getRegisteredEvents() == null) {
@@ -142,10 +165,6 @@ public class InfoActivity extends AppCompatActivity {
                         Toast.makeText(this, "User not found", Toast.LENGTH_SHORT).show();
                         finish();
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to retrieve user data: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    finish();
                 });
 
         // Back button
@@ -216,11 +235,12 @@ public class InfoActivity extends AppCompatActivity {
         Map<String, Object> updates = new HashMap<>();
         updates.put("registeredEvents." + eventId, "Accepted");
 
-        db.collection("users-p4").document(currentUser.getId())
-                .update(updates)
-                .addOnSuccessListener(aVoid -> {
-                    // Update local model safely
+        whenSavedOrQueued("invitation/" + eventId,
+                db.collection("users-p4").document(currentUser.getId()).update(updates),
+                queued -> {
+                    // Update local model safely; the shared cached user reloads from Firestore
                     currentUser.getRegisteredEvents().put(eventId, "Accepted");
+                    Repositories.userCache().invalidate(currentUser.getId());
                     currentStatus = "Accepted";
                     updateStatusDisplay();
 
@@ -230,7 +250,8 @@ public class InfoActivity extends AppCompatActivity {
                     // Remove user from selectedIds in event document
                     removeFromSelectedIds(eventId);
 
-                    Toast.makeText(this, "You accepted the invitation!", Toast.LENGTH_SHORT).show();
+                    Toast.makeText(this, queued ? SAVED_OFFLINE_MESSAGE : "You accepted the invitation!",
+                            Toast.LENGTH_SHORT).show();
 
                     // Tell the caller something changed and finish
                     Intent out = new Intent(this, UserPanel.class);
@@ -240,8 +261,8 @@ public class InfoActivity extends AppCompatActivity {
                     setResult(RESULT_OK, out);
                     startActivity(out);
                     finish();
-                })
-                .addOnFailureListener(e -> {
+                },
+                e -> {
                     // Re-enable buttons on failure
                     acceptButton.setEnabled(true);
                     declineButton.setEnabled(true);
@@ -252,6 +273,71 @@ public class InfoActivity extends AppCompatActivity {
                 });
     }
 
+    /**
+     * Waits for a write to reach the server, but not for long: Firestore has already applied it
+     * locally, so if the server doesn't answer within {@link #OFFLINE_GRACE_MILLIS} the device is
+     * taken to be offline and the write is left queued, to be committed once it is back online.
+     * Exactly one of the callbacks runs, on the main thread. A write left queued is still
+     * watched after that, see {@link #reportLateRejection}.
+     * @param key names what the write changes, see {@link OfflineStore#track}
+     * @param task the write
+     * @param onSaved runs once the write is committed (false) or queued offline (true)
+     * @param onFailed runs if the server rejected the write in time
+     */
+    private void whenSavedOrQueued(String key, Task<Void> task, Consumer<Boolean> onSaved,
+                                   Consumer<Throwable> onFailed) {
+        CompletableFuture<Void> write = OfflineStore.track(key, task);
+        AtomicBoolean handled = new AtomicBoolean();
+        handler.postDelayed(() -> {
+            if (!write.isDone() && !isDestroyed() && handled.compareAndSet(false, true)) {
+                Log.d(TAG, "Write still pending, continuing offline");
+                reportLateRejection(getApplicationContext(), key);
+                onSaved.accept(true);
+            }
+        }, OFFLINE_GRACE_MILLIS);
+
+        write.whenComplete((unused, e) -> runOnUiThread(() -> {
+            if (isDestroyed() || !handled.compareAndSet(false, true)) return;
+            if (e == null) {
+                onSaved.accept(false);
+            } else {
+                onFailed.accept(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        }));
+    }
+
+    /**
+     * Tells the user if a write the screen stopped waiting for is rejected later, when this
+     * activity has usually finished. Listens on {@link OfflineStore#pendingWrites()} until the
+     * latest write under the key is settled; holds the application context only.
+     * @param app the application context, used for the toast
+     * @param key names what the write changes
+     */
+    private static void reportLateRejection(Context app, String key) {
+        PendingWrites writes = OfflineStore.pendingWrites();
+        AtomicBoolean settled = new AtomicBoolean();
+        PendingWrites.Listener listener = new PendingWrites.Listener() {
+            @Override
+            public void onWriteStateChanged(String changed, PendingWrites.State state, Throwable error) {
+                if (!changed.equals(key) || state == PendingWrites.State.PENDING
+                        || !settled.compareAndSet(false, true)) return;
+                writes.removeListener(this);
+                if (state == PendingWrites.State.FAILED) {
+                    Log.e(TAG, "✗ Queued write " + key + " was rejected", error);
+                    ContextCompat.getMainExecutor(app).execute(() ->
+                            Toast.makeText(app, REJECTED_LATER_MESSAGE, Toast.LENGTH_LONG).show());
+                }
+            }
+        };
+        writes.addListener(listener);
+
+        // The write may have settled before the listener was added
+        PendingWrites.State state = writes.getState(key);
+        if (state != PendingWrites.State.PENDING) {
+            listener.onWriteStateChanged(key, state, null);
+        }
+    }
+
     /**
      * Removes the current user's ID from the selectedIds array in the event document
      * @param eventId The ID of the event to update
@@ -303,11 +389,12 @@ public class InfoActivity extends AppCompatActivity {
         Map<String, Object> userUpdates = new HashMap<>();
         userUpdates.put("registeredEvents." + eventId, "Declined");
 
-        db.collection("users-p4").document(currentUser.getId())
-                .update(userUpdates)
-                .addOnSuccessListener(aVoid -> {
-                    // Local update
+        whenSavedOrQueued("invitation/" + eventId,
+                db.collection("users-p4").document(currentUser.getId()).update(userUpdates),
+                queued -> {
+                    // Local update; the shared cached user reloads from Firestore
                     currentUser.getRegisteredEvents().put(eventId, "Declined");
+                    Repositories.userCache().invalidate(currentUser.getId());
                     currentStatus = "Declined";
                     updateStatusDisplay();
 
@@ -336,10 +423,11 @@ public class InfoActivity extends AppCompatActivity {
                                 });
                     }
 
-                    Toast.makeText(this, "You declined the invitation.", Toast.LENGTH_SHORT).show();
+                    Toast.makeText(this, queued ? SAVED_OFFLINE_MESSAGE : "You declined the invitation.",
+                            Toast.LENGTH_SHORT).show();
                     finishActivityWithResult(eventId, "Declined");
-                })
-                .addOnFailureListener(e -> {
+                },
+                e -> {
                     android.util.Log.e("InfoActivity", "Failed to save decline: " + e.getMessage());
                     Toast.makeText(this, "Failed to save: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     reEnableButtons();
@@ -431,12 +519,17 @@ public class InfoActivity extends AppCompatActivity {
     }
 
     /**
-     * Loads event data from intent and populates the UI
+     * Loads event data from intent and populates the UI.
+     * Intents from a notification only carry the event ID, in which case the event is fetched.
      * @param intent Intent containing event data
      */
     private void loadEventData(Intent intent) {
         String eventId = intent.getStringExtra("EVENT_ID");
         String eventName = intent.getStringExtra("EVENT_NAME");
+        if (eventName == null && eventId != null) {
+            fetchEvent(eventId);
+            return;
+        }
         String eventDescription = intent.getStringExtra("EVENT_DESCRIPTION");
         String eventLocation = intent.getStringExtra("EVENT_LOCATION");
         String eventOrganizer = intent.getStringExtra("EVENT_ORGANIZER");
@@ -456,12 +549,45 @@ public class InfoActivity extends AppCompatActivity {
             currentUser.getRegisteredEvents().put(eventId, currentStatus);
         }
 
-        // Populate UI
-        eventNameHeader.setText(eventName);
-        eventDescriptionText.setText(eventDescription);
-        eventLocationText.setText(eventLocation);
-        eventOrganizerText.setText(eventOrganizer);
-        eventDateTimeText.setText(formatEventDateTime(startTime));
+        displayEvent();
+    }
+
+    /**
+     * Fetches an event by ID when the activity is opened from a notification, then populates the UI
+     * @param eventId the ID of the event to show
+     */
+    private void fetchEvent(String eventId) {
+        Repositories.events().getEvent(eventId)
+                .whenComplete((event, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Error loading event " + eventId, e);
+                        Toast.makeText(this, "Error loading event", Toast.LENGTH_SHORT).show();
+                        finish();
+                        return;
+                    }
+                    if (event == null) {
+                        Toast.makeText(this, "Event no longer exists", Toast.LENGTH_SHORT).show();
+                        finish();
+                        return;
+                    }
+                    Log.d(TAG, "Event cache: " + Repositories.eventCache().getStats());
+                    currentEvent = event;
+                    currentStatus = currentUser.getStatusForEvent(eventId);
+                    displayEvent();
+                });
+    }
+
+    /**
+     * Populates the UI from the current event
+     */
+    private void displayEvent() {
+        eventNameHeader.setText(currentEvent.getName());
+        eventDescriptionText.setText(currentEvent.getDescription());
+        eventLocationText.setText(currentEvent.getLocation());
+        eventOrganizerText.setText(currentEvent.getOrganizer());
+        if (currentEvent.getStartTime() != null) {
+            eventDateTimeText.setText(formatEventDateTime(currentEvent.getStartTime()));
+        }
 
         // Update status display
         updateStatusDisplay();
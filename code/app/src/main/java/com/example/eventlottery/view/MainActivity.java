@@ -23,24 +23,29 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
 
+import com.bumptech.glide.Glide;
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.DBConnector;
 import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.EventFilter;
 import com.example.eventlottery.events.NotificationSystem;
+import com.example.eventlottery.model.AppStartup;
+import com.example.eventlottery.model.FirestoreEventRepository;
+import com.example.eventlottery.model.ListenerHub;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.firestore.CollectionReference;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.messaging.FirebaseMessaging;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Date;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -74,6 +79,10 @@ public class MainActivity extends AppCompatActivity {
     // --- Data and Models ---
     private final ArrayList<Event> data = new ArrayList<>();
     private User currentUser;
+    /** IDs of the events the user created, left out of the list; empty until the user loads. */
+    private volatile Set<String> createdEventIds = Collections.emptySet();
+    /** True once the first events were listed and reportFullyDrawn was called. */
+    private boolean reportedFullyDrawn;
 
     // --- Filters ---
     public static ArrayList<String> selectedTags = new ArrayList<>();
@@ -110,7 +119,18 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        Trace.beginSection("MainActivity.onCreate");
+        try {
+            createScreen();
+        } finally {
+            Trace.endSection();
+        }
+    }
 
+    /**
+     * Sets up the screen; the body of onCreate, traced as "MainActivity.onCreate".
+     */
+    private void createScreen() {
         instance = this;
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_main);
@@ -136,22 +156,24 @@ public class MainActivity extends AppCompatActivity {
         DEVICE_ID = Settings.System.getString(this.getContentResolver(), Settings.Secure.ANDROID_ID);
         db = FirebaseFirestore.getInstance();
         connector = new DBConnector(this);
-        connector.loadUserInfo(DEVICE_ID, task -> {
-            if (task.isSuccessful()) {
-                DocumentSnapshot document = task.getResult();
-                if (document.exists()) {
-                    currentUser = document.toObject(User.class);
-                    loadEventsFromFirestore();
+        // The events don't wait for the user: they load right away (below), and the user's own
+        // events are taken out once the user arrives
+        connector.loadUser(DEVICE_ID).whenComplete((user, e) -> {
+            if (e == null) {
+                if (user != null) {
+                    onUserLoaded(user);
                 }
             }
             else {
                 // User does not exist - create a new user
                 Log.d("MainActivity", "User doesn't exist, creating new user");
-                CollectionReference usersRef = db.collection("users-p4");
-                DocumentReference userDoc = usersRef.document(DEVICE_ID);
-                currentUser = new User(this);
-                userDoc.set(currentUser);
-                loadEventsFromFirestore();
+                User created = new User(this);
+                Repositories.users().saveUser(created).whenComplete((saved, error) -> {
+                    if (error != null) {
+                        Log.e("MainActivity", "Failed to create user", error);
+                    }
+                });
+                onUserLoaded(created);
             }
         });
 
@@ -172,6 +194,7 @@ public class MainActivity extends AppCompatActivity {
             intent.putExtra("location", item.getLocation());
             intent.putExtra("organizer", item.getOrganizer());
             intent.putExtra("image", item.getImage());
+            intent.putExtra("storagePath", item.getStoragePath());
             intent.putExtra("registrationEnd", item.getEndTime());      // Unformatted end date.
             intent.putExtra("registrationStart", item.getStartTime());  // Unformatted start date.
             intent.putExtra("geolocation", item.getGeolocation());
@@ -180,6 +203,9 @@ public class MainActivity extends AppCompatActivity {
         });
 
         recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(adapter.posterPreloader(Glide.with(this)));
+        showWarmedEvents();
+        loadEventsFromFirestore();
 
         // Configure SearchView filtering
         searchView = findViewById(R.id.searchView);
@@ -288,115 +314,109 @@ public class MainActivity extends AppCompatActivity {
 
     /**
      * Adds valid events to data. A valid event is:
-     * 1. An event not created by the user
+     * 1. An event not created by the user (once the user has loaded, see {@link #onUserLoaded})
+     * The listener on every event is shared with the other screens through {@link ListenerHub};
+     * documents are converted on its background thread and only the list swap runs on the UI thread.
      */
     private void loadEventsFromFirestore() {
-        db.collection("event-p4")
-                .orderBy("startTime")
-                .addSnapshotListener((query, error) -> {
-                    // Return if there is an error
-                    if (error != null) {
-                        return;
-                    }
-
-                    // Return if no query found
-                    if (query == null) return;
-
-                    data.clear();
-
-                    for (DocumentSnapshot doc : query) {
-                        Event event = doc.toObject(Event.class);
-                        if (event == null) continue;
+        if (eventsListener != null) {
+            eventsListener.remove();
+        }
+        Query everyEvent = db.collection("event-p4").orderBy("startTime");
+        eventsListener = ListenerHub.getInstance().listen(everyEvent, (query, error) -> {
+            // Return if there is an error
+            if (error != null) {
+                return;
+            }
 
-                        if (event.getId() == null || event.getId().isEmpty()) {
-                            event.setId(doc.getId());
-                        }
+            // Return if no query found
+            if (query == null) return;
 
-                        // Add null check for currentUser
-                        String eventId = event.getId();
-                        boolean shouldAddEvent = true;
+            // Also keeps the shared event cache up to date
+            List<Event> events = FirestoreEventRepository.applySnapshot(query, Repositories.eventCache());
 
-                        // Only filter out created events if currentUser exists
-                        if (currentUser != null && currentUser.getCreatedEvents() != null) {
-                            ArrayList<String> createdEvents = currentUser.getCreatedEvents();
+            runOnUiThread(() -> {
+                if (isDestroyed()) return;
+                // Filtered here, so a user who loaded meanwhile has their events left out
+                showEvents(visibleEvents(events));
+            });
+        });
+    }
 
-                            // Don't add events created by this user
-                            if (createdEvents.contains(eventId)) {
-                                shouldAddEvent = false;
-                            }
-                        }
+    /**
+     * Shows the first page of events read during startup ({@link AppStartup}), so the list isn't
+     * empty while the events listener attaches. The listener's first snapshot replaces it.
+     */
+    private void showWarmedEvents() {
+        AppStartup startup = AppStartup.current();
+        if (startup == null || !data.isEmpty()) return;
+
+        List<Event> firstPage = startup.getFirstPage();
+        if (!firstPage.isEmpty()) {
+            Log.d("MainActivity", "Showing " + firstPage.size() + " events read during startup");
+            showEvents(visibleEvents(firstPage));
+        }
+    }
 
-                        if (shouldAddEvent) {
-                            data.add(event);
-                        }
-                    }
+    /**
+     * Keeps the events to list: every event except the ones created by the user.
+     * Runs on the UI thread, like {@link #onUserLoaded}, so it sees the IDs it last set.
+     * @param events the events read
+     * @return the events to show
+     */
+    private ArrayList<Event> visibleEvents(List<Event> events) {
+        return new ArrayList<>(EventFilter.excludeIds(events, createdEventIds));
+    }
 
-                    if (!selectedTags.isEmpty() || !selectedDatesMidnight.isEmpty()) {
-                        applyFilters(selectedTags, selectedDatesMidnight);
-                    } else {
-                        adapter.setFilteredList(new ArrayList<>(data));
-                    }
-                });
+    /**
+     * Sets the user once their profile loads and takes their own events out of the list.
+     * Only the removed rows animate; the rest of the list stays where it is. If the user arrives
+     * before the list is set up (a user cache hit), nothing is shown yet and nothing needs removing.
+     * @param user the user of this device
+     */
+    private void onUserLoaded(User user) {
+        runOnUiThread(() -> {
+            currentUser = user;
+            Set<String> created = user.getCreatedEvents() == null
+                    ? Collections.<String>emptySet() : new HashSet<>(user.getCreatedEvents());
+            createdEventIds = created;
+            if (adapter == null || isDestroyed() || created.isEmpty()) return;
+
+            data.removeIf(event -> created.contains(event.getId()));
+            int removed = adapter.removeEvents(created);
+            Log.d("MainActivity", "✓ User loaded, removed " + removed + " of their own events");
+        });
     }
 
     /**
-     * Applies the given filters to the data.
-     * @param tags The tags to filter by
-     * @param datesMidnight The dates to filter by in midnight format
+     * Replaces the listed events and reapplies the filters. Must run on the UI thread.
+     * @param visible the events to list
      */
-    private void applyFilters(List<String> tags, Set<Long> datesMidnight) {
-        boolean hasTagFilter = (tags != null && !tags.isEmpty());
-        boolean hasDateFilter = (datesMidnight != null && !datesMidnight.isEmpty());
+    private void showEvents(List<Event> visible) {
+        data.clear();
+        data.addAll(visible);
 
-        if (!hasTagFilter && !hasDateFilter) {
+        if (!selectedTags.isEmpty() || !selectedDatesMidnight.isEmpty()) {
+            applyFilters(selectedTags, selectedDatesMidnight);
+        } else {
             adapter.setFilteredList(new ArrayList<>(data));
-            return;
         }
 
-        List<Event> filtered = new ArrayList<>();
-
-        for (Event event : data) {
-            boolean passesTags = true;
-            boolean passesDates = true;
-
-            if (hasTagFilter) {
-                List<String> eventTags = event.getFilterTags();
-                passesTags = (eventTags != null) && !java.util.Collections.disjoint(eventTags, tags);
-            }
-
-            if (hasDateFilter) {
-                passesDates = occursOnAnySelectedDate(event, datesMidnight);
-            }
-
-            if (passesTags && passesDates) {
-                filtered.add(event);
-            }
+        // The first page is bound, from startup or the first snapshot: this marks the end of
+        // startup for StartupTimingMetric (time to full display)
+        if (!reportedFullyDrawn) {
+            reportedFullyDrawn = true;
+            reportFullyDrawn();
         }
-
-        adapter.setFilteredList(filtered);
     }
 
     /**
-     * Returns true if the event happens on ANY of the selected days.
-     * Each selected day is a 24-hour window [midnight..11:59:59.999].
-     * @param event The event to check
-     * @param selectedDaysMidnight The selected days in midnight format
+     * Applies the given filters to the data.
+     * @param tags The tags to filter by
+     * @param datesMidnight The dates to filter by in midnight format
      */
-    private boolean occursOnAnySelectedDate(Event event, Set<Long> selectedDaysMidnight) {
-        Date start = event.getStartTime();
-        Date end = event.getEndTime();
-        if (start == null) return false;
-        if (end == null) end = start;
-
-        long startMs = start.getTime();
-        long endMs = Math.max(end.getTime(), startMs);
-
-        for (Long dayStartMs : selectedDaysMidnight) {
-            long dayEndMs = dayStartMs + (24L * 60 * 60 * 1000) - 1L;
-            boolean overlaps = (startMs <= dayEndMs) && (endMs >= dayStartMs);
-            if (overlaps) return true;
-        }
-        return false;
+    private void applyFilters(List<String> tags, Set<Long> datesMidnight) {
+        adapter.setFilteredList(EventFilter.apply(data, tags, datesMidnight));
     }
 
     /**
@@ -491,6 +511,25 @@ public class MainActivity extends AppCompatActivity {
      * Source: https://www.youtube.com/watch?v=r5DeECeorAo
      * */
     public void getDeviceToken() {
+        // Reuse the token fetched during startup, if it was
+        AppStartup startup = AppStartup.current();
+        if (startup != null) {
+            startup.getFcmToken().whenComplete((token, e) -> {
+                if (e == null && token != null) {
+                    saveFCMTokenToFirestore(token);
+                } else {
+                    fetchDeviceToken();
+                }
+            });
+            return;
+        }
+        fetchDeviceToken();
+    }
+
+    /**
+     * Fetches the token from Firebase and saves it to Firestore.
+     * */
+    private void fetchDeviceToken() {
         FirebaseMessaging.getInstance().getToken().addOnCompleteListener(new OnCompleteListener<String>() {
             @Override
             public void onComplete(@NonNull Task<String> task) {
@@ -1,19 +1,32 @@
 package com.example.eventlottery.view;
 
 import android.annotation.SuppressLint;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
+import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.AnimationUtils;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.ViewPreloadSizeProvider;
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.EventFilter;
+import com.example.eventlottery.model.Posters;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 
 /**
@@ -21,7 +34,8 @@ import java.util.List;
  * <p>
  * This adapter binds event data (such as name, description, date, and image) to views defined
  * in the {@code event_list_data_view.xml} layout. It supports click listeners and basic
- * animations when new items appear.
+ * animations when new items appear. Posters of rows about to scroll into view are preloaded
+ * through {@link #posterPreloader(RequestManager)}.
  * </p>
  *
  * <p>
@@ -46,7 +60,10 @@ import java.util.List;
  * https://www.youtube.com/watch?v=TAEbP_ccjsk&t=246s
  * https://www.youtube.com/watch?v=de3kFn4DzGg
  */
-public class MyAdapter extends RecyclerView.Adapter<MyViewHolder> {
+public class MyAdapter extends RecyclerView.Adapter<MyViewHolder>
+        implements ListPreloader.PreloadModelProvider<Event> {
+    /** Rows ahead of the scroll whose posters are preloaded. */
+    private static final int MAX_PRELOAD = 4;
 
     /**
      * Listener interface for handling item click events in the RecyclerView.
@@ -64,6 +81,9 @@ public class MyAdapter extends RecyclerView.Adapter<MyViewHolder> {
     private List<Event> items;
     private final OnItemClickListener listener;
     private int lastAnimatedPosition = -1;
+    private final ViewPreloadSizeProvider<Event> posterSizes = new ViewPreloadSizeProvider<>();
+    private RequestManager preloadGlide;
+    private int posterWidthPx;
 
     /**
      * Constructs a {@link MyAdapter} with the given data and item click listener.
@@ -101,6 +121,23 @@ public class MyAdapter extends RecyclerView.Adapter<MyViewHolder> {
         lastAnimatedPosition = -1;
     }
 
+    /**
+     * Removes the events with the given IDs one row at a time, so only those rows animate out
+     * and the rest of the list stays in place.
+     *
+     * @param eventIds the IDs of the events to remove
+     * @return the number of rows removed
+     */
+    public int removeEvents(Set<String> eventIds) {
+        List<Integer> positions = EventFilter.positionsOf(items, eventIds);
+        for (int position : positions) {
+            items.remove(position);
+            notifyItemRemoved(position);
+        }
+        lastAnimatedPosition = Math.min(lastAnimatedPosition, items.size() - 1);
+        return positions.size();
+    }
+
     /**
      * Inflates the layout for each individual list item.
      *
@@ -111,10 +148,57 @@ public class MyAdapter extends RecyclerView.Adapter<MyViewHolder> {
     @NonNull
     @Override
     public MyViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        return new MyViewHolder(
+        MyViewHolder holder = new MyViewHolder(
                 LayoutInflater.from(parent.getContext())
                         .inflate(R.layout.event_list_data_view, parent, false)
         );
+        if (posterWidthPx == 0) {
+            posterWidthPx = posterWidthPx(holder.imageView);
+        }
+        // Preloads are decoded at the size of the first row's poster
+        posterSizes.setView(holder.imageView);
+        return holder;
+    }
+
+    /**
+     * Creates a scroll listener that loads the posters of the rows about to scroll into view, so
+     * they're in memory by the time the rows bind.
+     *
+     * @param glide the request manager of the screen showing the list
+     * @return a listener to add to the {@link RecyclerView} showing this adapter
+     */
+    public RecyclerView.OnScrollListener posterPreloader(RequestManager glide) {
+        preloadGlide = glide;
+        return new RecyclerViewPreloader<>(glide, this, posterSizes, MAX_PRELOAD);
+    }
+
+    @NonNull
+    @Override
+    public List<Event> getPreloadItems(int position) {
+        if (position < 0 || position >= items.size()) return Collections.emptyList();
+        Event item = items.get(position);
+        return item.getImage() == null || item.getImage().isEmpty()
+                ? Collections.emptyList() : Collections.singletonList(item);
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull Event item) {
+        return preloadGlide != null ? posterRequest(preloadGlide, item) : null;
+    }
+
+    /**
+     * The request for a row's poster. Preloading and binding must build the same request, or the
+     * preloaded poster is cached under a different key and the row loads it again.
+     */
+    private RequestBuilder<Drawable> posterRequest(RequestManager glide, Event item) {
+        return Posters.load(glide, item, posterWidthPx).centerCrop();
+    }
+
+    /** The width of a row's poster, to pick which size of it to download. */
+    private static int posterWidthPx(View imageView) {
+        int width = imageView.getLayoutParams() != null ? imageView.getLayoutParams().width : 0;
+        return width > 0 ? width : imageView.getResources().getDisplayMetrics().widthPixels;
     }
 
     /**
@@ -124,6 +208,15 @@ public class MyAdapter extends RecyclerView.Adapter<MyViewHolder> {
      */
     @Override
     public void onBindViewHolder(@NonNull MyViewHolder holder, @SuppressLint("RecyclerView") int position) {
+        Trace.beginSection("MyAdapter.bind");
+        try {
+            bind(holder, position);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private void bind(MyViewHolder holder, int position) {
         Event item = items.get(position);
 
         holder.eventName.setText(item.getName());
@@ -133,10 +226,7 @@ public class MyAdapter extends RecyclerView.Adapter<MyViewHolder> {
         holder.eventLocation.setText(item.getLocation());
         holder.eventOrganizer.setText(item.getOrganizer());
 
-        Glide.with(holder.imageView)
-                .load(item.getImage())
-                .placeholder(R.drawable.placeholder)
-                .into(holder.imageView);
+        posterRequest(Glide.with(holder.imageView), item).into(holder.imageView);
 
         holder.itemView.setOnClickListener(v -> {
             int pos = holder.getAdapterPosition();
@@ -10,6 +10,7 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.DBConnector;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
 import com.google.firebase.firestore.FirebaseFirestore;
 
@@ -78,29 +79,23 @@ public class NotificationActivity extends AppCompatActivity {
             return;
         }
 
-        db.collection("users-p4").document(userId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        currentUser = documentSnapshot.toObject(User.class);
-                        if (currentUser != null) {
-                            // Set switch to user's preference, default to true if not set
-                            boolean notificationsEnabled = currentUser.getNotifications();
-                            notificationSwitch.setChecked(notificationsEnabled);
-                        }
-                        else {
-                            // Deafult to on
-                            notificationSwitch.setChecked(true);
-                        }
+        Repositories.users().getUser(userId)
+                .whenComplete((user, e) -> {
+                    if (e != null) {
+                        Toast.makeText(this, "failed to load notification", Toast.LENGTH_SHORT).show();
+                        notificationSwitch.setChecked(true);
+                        return;
+                    }
+                    currentUser = user;
+                    if (currentUser != null) {
+                        // Set switch to user's preference, default to true if not set
+                        boolean notificationsEnabled = currentUser.getNotifications();
+                        notificationSwitch.setChecked(notificationsEnabled);
                     }
                     else {
                         // Deafult to on if user doesn't exist
                         notificationSwitch.setChecked(true);
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(this, "failed to load notification", Toast.LENGTH_SHORT).show();
-                    notificationSwitch.setChecked(true);
                 });
     }
 
@@ -116,6 +111,7 @@ public class NotificationActivity extends AppCompatActivity {
         db.collection("users-p4").document(userId)
                 .update("notifications", isEnabled)
                 .addOnSuccessListener(aVoid -> {
+                    Repositories.userCache().invalidate(userId);
                     //String message = isEnabled ? "Notifications enabled" : "Notifications disabled";
                     //Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
                 })
@@ -0,0 +1,179 @@
+package com.example.eventlottery.view;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.eventlottery.R;
+import com.example.eventlottery.events.NotificationLogWriter;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A {@link RecyclerView.Adapter} displaying notification log headers in {@code item_notification_log.xml}.
+ * <p>
+ * Pages of logs are appended with {@link #addPage(List)} so only the visible rows are inflated.
+ * </p>
+ *
+ * @see AdminNotificationLogsActivity
+ */
+public class NotificationLogAdapter extends RecyclerView.Adapter<NotificationLogAdapter.LogViewHolder> {
+
+    private final List<DocumentSnapshot> logs = new ArrayList<>();
+    private final SimpleDateFormat dateFormat =
+            new SimpleDateFormat("MMM dd, yyyy 'at' h:mm a", Locale.getDefault());
+
+    /**
+     * Appends a page of log documents to the end of the list.
+     * @param page the log documents to append
+     */
+    public void addPage(List<DocumentSnapshot> page) {
+        int start = logs.size();
+        logs.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
+    /**
+     * Removes every log from the list (e.g. when the filters change).
+     */
+    public void clear() {
+        int size = logs.size();
+        logs.clear();
+        notifyItemRangeRemoved(0, size);
+    }
+
+    /**
+     * Inflates the layout for a single log entry.
+     * @param parent The parent {@link ViewGroup} into which the new view will be added.
+     * @param viewType The view type of the new view (there is only one type).
+     * @return A new {@link LogViewHolder} holding the inflated view.
+     */
+    @NonNull
+    @Override
+    public LogViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return new LogViewHolder(
+                LayoutInflater.from(parent.getContext())
+                        .inflate(R.layout.item_notification_log, parent, false)
+        );
+    }
+
+    /**
+     * Binds a log document to a recycled row.
+     * @param holder The {@link LogViewHolder} to update.
+     * @param position The position of the log in the list.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull LogViewHolder holder, int position) {
+        DocumentSnapshot doc = logs.get(position);
+
+        // Get data from document (firestore)
+        Timestamp timestamp = doc.getTimestamp("timestamp");
+        String senderName = doc.getString("senderUserName");
+        String eventName = doc.getString("eventName");
+        String type = doc.getString("type");
+        Long recipientCount = doc.getLong("recipientCount");
+        String message = doc.getString("message");
+
+        // Sharded logs only keep a preview on the header; older logs embed the full map
+        Map<String, Object> recipients = (Map<String, Object>) doc.get("recipientPreview");
+        if (recipients == null) {
+            recipients = (Map<String, Object>) doc.get("recipients");
+        }
+
+        // Format and display timestamp
+        if (timestamp != null) {
+            Date date = timestamp.toDate();
+            holder.timestampText.setText(dateFormat.format(date));
+        } else {
+            holder.timestampText.setText("Unknown time");
+        }
+
+        holder.organizerText.setText("Organizer: " + senderName);
+        holder.eventNameText.setText("Event: " + (eventName != null ? eventName : "Unknown"));
+        holder.typeText.setText("Type: " + capitalizeFirst(type != null ? type : "unknown"));
+
+        if (recipientCount != null) {
+            holder.recipientCountText.setText("Recipients: " + recipientCount);
+        } else {
+            holder.recipientCountText.setText("Recipients: Unknown");
+        }
+
+        holder.messageText.setText("Message: " + (message != null ? message : "No message"));
+
+        // Display recipients (first 3 only so log is not overwhelmed with data)
+        if (recipients != null && !recipients.isEmpty()) {
+            StringBuilder recipientsList = new StringBuilder("Recipients: ");
+            int count = 0;
+            for (Map.Entry<String, Object> entry : recipients.entrySet()) {
+                if (count >= NotificationLogWriter.RECIPIENT_PREVIEW_SIZE) {
+                    recipientsList.append("...");
+                    break;
+                }
+                if (count > 0) {
+                    recipientsList.append(", ");
+                }
+                recipientsList.append(entry.getValue());
+                count++;
+            }
+            if (count == recipients.size() && recipientCount != null && recipientCount > count) {
+                recipientsList.append(", ...");
+            }
+            holder.recipientsText.setText(recipientsList.toString());
+        } else {
+            holder.recipientsText.setText("Recipients: None");
+        }
+    }
+
+    /**
+     * @return The number of logs loaded so far.
+     */
+    @Override
+    public int getItemCount() {
+        return logs.size();
+    }
+
+    /**
+     * Capitalizes the first letter of a string (it helps match the format of the rest of the logs)
+     */
+    private String capitalizeFirst(String str) {
+        if (str == null || str.isEmpty()) {
+            return str;
+        }
+        return str.substring(0, 1).toUpperCase() + str.substring(1);
+    }
+
+    /**
+     * Holds the views of a single notification log row.
+     */
+    static class LogViewHolder extends RecyclerView.ViewHolder {
+        TextView timestampText;
+        TextView organizerText;
+        TextView eventNameText;
+        TextView typeText;
+        TextView recipientCountText;
+        TextView messageText;
+        TextView recipientsText;
+
+        LogViewHolder(@NonNull View itemView) {
+            super(itemView);
+            timestampText = itemView.findViewById(R.id.timestampText);
+            organizerText = itemView.findViewById(R.id.organizerText);
+            eventNameText = itemView.findViewById(R.id.eventNameText);
+            typeText = itemView.findViewById(R.id.typeText);
+            recipientCountText = itemView.findViewById(R.id.recipientCountText);
+            messageText = itemView.findViewById(R.id.messageText);
+            recipientsText = itemView.findViewById(R.id.recipientsText);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.eventlottery.R;
+import com.example.eventlottery.events.DeliveryReport;
 import com.example.eventlottery.events.Event;
 import com.example.eventlottery.events.NotificationSystem;
 import com.example.eventlottery.events.OrganizerService;
@@ -78,11 +79,12 @@ public class OrganizerEventActivity extends AppCompatActivity {
         }
 
         // Use OrganizerService to send invitations to chosen entrants
-        int sentCount = organizerService.sendInvitationsToEntrants(
+        int sentCount = organizerService.sendInvitationBatch(
                 chosenEntrants,
                 currentEvent.getName(),
                 currentEvent.getId(),
-                customMessage
+                customMessage,
+                this::showDeliveryReport
         );
 
         // Let the organizer see the result of their action so they can verify their input
@@ -92,4 +94,19 @@ public class OrganizerEventActivity extends AppCompatActivity {
             Toast.makeText(this, "No invitations sent. All entrants have notifications disabled.", Toast.LENGTH_SHORT).show();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Tells the organizer how many invitations were delivered once the batch completes.
+     * @param report the delivery result of the batch
+     */
+    private void showDeliveryReport(DeliveryReport report) {
+        if (isFinishing()) return;
+
+        int failed = report.count(DeliveryReport.Status.FAILED)
+                + report.count(DeliveryReport.Status.INVALID_TOKEN);
+        if (failed > 0) {
+            Toast.makeText(this, report.count(DeliveryReport.Status.SENT) + " invitation(s) delivered, "
+                    + failed + " could not be delivered.", Toast.LENGTH_SHORT).show();
+        }
+    }
+}
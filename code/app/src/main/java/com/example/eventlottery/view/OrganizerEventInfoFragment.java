@@ -22,12 +22,14 @@ import androidx.fragment.app.Fragment;
 
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.NotificationSystem;
+import com.example.eventlottery.model.EventDatabase;
+import com.example.eventlottery.model.FirestoreEventRepository;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.ArrayList;
@@ -80,7 +82,6 @@ public class OrganizerEventInfoFragment extends Fragment {
     private String organizerName;
 
     // Firebase
-    private FirebaseFirestore db;
     private ListenerRegistration eventListener;
 
     /**
@@ -121,9 +122,6 @@ public class OrganizerEventInfoFragment extends Fragment {
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        // Initialize Firestore
-        db = FirebaseFirestore.getInstance();
-
         // Retrieve arguments passed to the fragment
         if (getArguments() != null) {
             eventId = getArguments().getString(ARG_EVENT_ID);
@@ -206,12 +204,14 @@ public class OrganizerEventInfoFragment extends Fragment {
     }
 
     /**
-     * Sets up a real-time listener for event data changes
+     * Sets up a real-time listener for event data changes.
+     * It also keeps the event cache current, so the notification buttons read the latest lists
+     * through {@link Repositories#events()}.
      */
     private void setupRealtimeListener() {
         if (eventId == null) return;
 
-        eventListener = db.collection("event-p4")
+        eventListener = new EventDatabase().getEventsRef()
                 .document(eventId)
                 .addSnapshotListener((documentSnapshot, error) -> {
                     if (error != null) {
@@ -219,8 +219,11 @@ public class OrganizerEventInfoFragment extends Fragment {
                         return;
                     }
 
-                    if (documentSnapshot != null && documentSnapshot.exists()) {
-                        updateCountsFromSnapshot(documentSnapshot);
+                    if (documentSnapshot != null) {
+                        FirestoreEventRepository.applyDocument(documentSnapshot, Repositories.eventCache());
+                        if (documentSnapshot.exists()) {
+                            updateCountsFromSnapshot(documentSnapshot);
+                        }
                     }
                 });
     }
@@ -563,254 +566,200 @@ public class OrganizerEventInfoFragment extends Fragment {
     private void sendWaitlistNotifications(String message) {
         Toast.makeText(requireContext(), "Sending notifications...", Toast.LENGTH_SHORT).show();
 
-        // Fetch the event document from Firestore
-        db.collection("event-p4")
-                .document(eventId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        Map<String, Object> waitlist = (Map<String, Object>) documentSnapshot.get("waitlist");
-
-                        if (waitlist != null) {
-                            List<Map<String, Object>> waitlistedUsersData =
-                                    (List<Map<String, Object>>) waitlist.get("waitlistedUsers");
+        Repositories.events().getEvent(eventId)
+                .whenComplete((event, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Error fetching waitlist data", e);
+                        Toast.makeText(requireContext(),
+                                "Failed to send notifications",
+                                Toast.LENGTH_LONG).show();
+                        return;
+                    }
+                    if (event == null) {
+                        Toast.makeText(requireContext(),
+                                "Event not found",
+                                Toast.LENGTH_SHORT).show();
+                        return;
+                    }
 
-                            if (waitlistedUsersData != null && !waitlistedUsersData.isEmpty()) {
-                                fetchUsersAndSendNotifications(waitlistedUsersData, message, "waitlist");
-                            } else {
-                                Toast.makeText(requireContext(),
-                                        "No entrants on waiting list",
-                                        Toast.LENGTH_SHORT).show();
-                            }
-                        } else {
-                            Toast.makeText(requireContext(),
-                                    "Waitlist data not found",
-                                    Toast.LENGTH_SHORT).show();
-                        }
+                    List<String> userIds = event.getWaitlist() != null
+                            ? idsOf(event.getWaitlist().getWaitlistedUsers())
+                            : new ArrayList<>();
+                    if (!userIds.isEmpty()) {
+                        fetchUsersAndSendNotifications(userIds, message, "waitlist");
                     } else {
                         Toast.makeText(requireContext(),
-                                "Event not found",
+                                "No entrants on waiting list",
                                 Toast.LENGTH_SHORT).show();
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error fetching waitlist data", e);
-                    Toast.makeText(requireContext(),
-                            "Failed to send notifications: " + e.getMessage(),
-                            Toast.LENGTH_LONG).show();
                 });
     }
 
     /**
      * Fetches selected entrants from Firebase and sends notifications to them.
      * Retrieves FCM tokens from the users-p4 collection.
-     * Handles selectedIds as an array of user ID strings.
      *
      * @param message The custom message to send to selected entrants
      */
     private void sendSelectedNotifications(String message) {
         Toast.makeText(requireContext(), "Sending notifications...", Toast.LENGTH_SHORT).show();
 
-        // Fetch the event document from Firestore
-        db.collection("event-p4")
-                .document(eventId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        // Get selected user IDs from the selectedIds array
-                        List<String> selectedUserIds = (List<String>) documentSnapshot.get("selectedIds");
-
-                        if (selectedUserIds != null && !selectedUserIds.isEmpty()) {
-                            // Convert List<String> to List<Map<String, Object>> format
-                            List<Map<String, Object>> selectedUsersData = new ArrayList<>();
-                            for (String userId : selectedUserIds) {
-                                Map<String, Object> userData = new HashMap<>();
-                                userData.put("id", userId);
-                                selectedUsersData.add(userData);
-                            }
+        Repositories.events().getEvent(eventId)
+                .whenComplete((event, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Error fetching selected users data", e);
+                        Toast.makeText(requireContext(),
+                                "Failed to send notifications",
+                                Toast.LENGTH_LONG).show();
+                        return;
+                    }
+                    if (event == null) {
+                        Toast.makeText(requireContext(),
+                                "Event not found",
+                                Toast.LENGTH_SHORT).show();
+                        return;
+                    }
 
-                            fetchUsersAndSendNotifications(selectedUsersData, message, "selected");
-                        } else {
-                            Toast.makeText(requireContext(),
-                                    "No selected entrants found",
-                                    Toast.LENGTH_SHORT).show();
-                        }
+                    List<String> userIds = event.getSelectedIds();
+                    if (!userIds.isEmpty()) {
+                        fetchUsersAndSendNotifications(userIds, message, "selected");
                     } else {
                         Toast.makeText(requireContext(),
-                                "Event not found",
+                                "No selected entrants found",
                                 Toast.LENGTH_SHORT).show();
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error fetching selected users data", e);
-                    Toast.makeText(requireContext(),
-                            "Failed to send notifications: " + e.getMessage(),
-                            Toast.LENGTH_LONG).show();
                 });
     }
 
     /**
      * Fetches cancelled entrants from Firebase and sends notifications to them.
      * Retrieves FCM tokens from the users-p4 collection.
-     * Handles cancelledEntrants as an array of user ID strings.
      *
      * @param message The custom message to send to cancelled entrants
      */
     private void sendCancelledNotifications(String message) {
         Toast.makeText(requireContext(), "Sending notifications...", Toast.LENGTH_SHORT).show();
 
-        // Fetch the event document from Firestore
-        db.collection("event-p4")
-                .document(eventId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        // Get cancelled user IDs from the cancelledIds array
-                        List<String> cancelledUserIds = (List<String>) documentSnapshot.get("cancelledEntrants");
-
-                        if (cancelledUserIds != null && !cancelledUserIds.isEmpty()) {
-                            // Convert List<String> to List<Map<String, Object>> format
-                            List<Map<String, Object>> cancelledUsersData = new ArrayList<>();
-                            for (String userId : cancelledUserIds) {
-                                Map<String, Object> userData = new HashMap<>();
-                                userData.put("id", userId);
-                                cancelledUsersData.add(userData);
-                            }
+        Repositories.events().getEvent(eventId)
+                .whenComplete((event, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Error fetching cancelled users data", e);
+                        Toast.makeText(requireContext(),
+                                "Failed to send notifications",
+                                Toast.LENGTH_LONG).show();
+                        return;
+                    }
+                    if (event == null) {
+                        Toast.makeText(requireContext(),
+                                "Event not found",
+                                Toast.LENGTH_SHORT).show();
+                        return;
+                    }
 
-                            fetchUsersAndSendNotifications(cancelledUsersData, message, "cancelled");
-                        } else {
-                            Toast.makeText(requireContext(),
-                                    "No cancelled entrants found",
-                                    Toast.LENGTH_SHORT).show();
-                        }
+                    List<String> userIds = event.getCancelledEntrants();
+                    if (!userIds.isEmpty()) {
+                        fetchUsersAndSendNotifications(userIds, message, "cancelled");
                     } else {
                         Toast.makeText(requireContext(),
-                                "Event not found",
+                                "No cancelled entrants found",
                                 Toast.LENGTH_SHORT).show();
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error fetching cancelled users data", e);
-                    Toast.makeText(requireContext(),
-                            "Failed to send notifications: " + e.getMessage(),
-                            Toast.LENGTH_LONG).show();
                 });
     }
 
     /**
      * Fetches accepted entrants from Firebase and sends notifications to them.
+     *
+     * @param message The custom message to send to accepted entrants
      */
     private void sendAcceptedNotifications(String message) {
         Toast.makeText(requireContext(), "Sending notifications...", Toast.LENGTH_SHORT).show();
 
-        db.collection("event-p4")
-                .document(eventId)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        Map<String, Object> finalizedList =
-                                (Map<String, Object>) documentSnapshot.get("finalizedList");
-
-                        if (finalizedList != null) {
-                            List<Map<String, Object>> finalizedUsers =
-                                    (List<Map<String, Object>>) finalizedList.get("finalizedUsers");
-
-                            if (finalizedUsers != null && !finalizedUsers.isEmpty()) {
-                                fetchUsersAndSendNotifications(finalizedUsers, message, "accepted");
-                            } else {
-                                Toast.makeText(requireContext(),
-                                        "No accepted entrants found",
-                                        Toast.LENGTH_SHORT).show();
-                            }
-                        } else {
-                            Toast.makeText(requireContext(),
-                                    "No accepted entrants found",
-                                    Toast.LENGTH_SHORT).show();
-                        }
-                    } else {
+        Repositories.events().getEvent(eventId)
+                .whenComplete((event, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Error fetching accepted users data", e);
+                        Toast.makeText(requireContext(),
+                                "Failed to send notifications",
+                                Toast.LENGTH_LONG).show();
+                        return;
+                    }
+                    if (event == null) {
                         Toast.makeText(requireContext(),
                                 "Event not found",
                                 Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+
+                    List<String> userIds = event.getFinalizedList() != null
+                            ? idsOf(event.getFinalizedList().getFinalizedUsers())
+                            : new ArrayList<>();
+                    if (!userIds.isEmpty()) {
+                        fetchUsersAndSendNotifications(userIds, message, "accepted");
+                    } else {
+                        Toast.makeText(requireContext(),
+                                "No accepted entrants found",
+                                Toast.LENGTH_SHORT).show();
                     }
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error fetching accepted users data", e);
-                    Toast.makeText(requireContext(),
-                            "Failed to send notifications: " + e.getMessage(),
-                            Toast.LENGTH_LONG).show();
                 });
     }
 
+    /**
+     * @param users the users of a list stored on the event (may be null)
+     * @return their IDs, leaving out users without one
+     */
+    private static List<String> idsOf(List<User> users) {
+        List<String> ids = new ArrayList<>();
+        if (users != null) {
+            for (User user : users) {
+                if (user != null && user.getId() != null) {
+                    ids.add(user.getId());
+                }
+            }
+        }
+        return ids;
+    }
+
     /**
      * Common method to fetch user documents and send notifications.
      * Works with users-p4 collection and checks for FCM tokens.
      *
-     * @param usersData List of user data maps containing user IDs
+     * @param userIds the IDs of the users to notify
      * @param message The notification message to send
-     * @param type The type of notification ("waitlist", "selected", or "cancelled")
+     * @param type The type of notification ("waitlist", "selected", "accepted" or "cancelled")
      */
-    private void fetchUsersAndSendNotifications(List<Map<String, Object>> usersData, String message, String type) {
-        List<User> usersWithTokens = new ArrayList<>();
-        int totalUsers = usersData.size();
-        int[] fetchedCount = {0};
-
-        // Fetch each user's full data including FCM token from users-p4
-        for (Map<String, Object> userData : usersData) {
-            String userId = (String) userData.get("id");
-
-            Log.d(TAG, "Attempting to fetch user document: users-p4/" + userId);
-
-            if (userId != null) {
-                // Fetch full user document from users-p4 collection
-                db.collection("users-p4")
-                        .document(userId)
-                        .get()
-                        .addOnSuccessListener(userDoc -> {
-                            fetchedCount[0]++;
-
-                            if (userDoc.exists()) {
-                                User user = userDoc.toObject(User.class);
-                                if (user != null && user.getFcmToken() != null && !user.getFcmToken().isEmpty()) {
-                                    usersWithTokens.add(user);
-                                    Log.d(TAG, "Added user with FCM token: " + user.getName());
-                                } else {
-                                    Log.d(TAG, "User has no FCM token: " + userId);
-                                }
+    private void fetchUsersAndSendNotifications(List<String> userIds, String message, String type) {
+        Log.d(TAG, "Fetching " + userIds.size() + " user documents from users-p4");
+
+        // Cached users are used as is, the rest are read in batches instead of one read per user
+        Repositories.users().getUsers(userIds)
+                .whenComplete((users, e) -> {
+                    List<User> usersWithTokens = new ArrayList<>();
+                    if (e != null) {
+                        // Continue with no users, so the organizer still gets feedback
+                        Log.e(TAG, "Failed to fetch users", e);
+                    } else {
+                        for (User user : users.values()) {
+                            if (user.getFcmToken() != null && !user.getFcmToken().isEmpty()) {
+                                usersWithTokens.add(user);
+                                Log.d(TAG, "Added user with FCM token: " + user.getName());
+                            } else {
+                                Log.d(TAG, "User has no FCM token: " + user.getId());
                             }
+                        }
+                    }
 
-                            // When all users are fetched, send notifications
-                            if (fetchedCount[0] == totalUsers) {
-                                if (type.equals("waitlist")) {
-                                    sendNotificationsToWaitlistedUsers(usersWithTokens, message);
-                                } else if (type.equals("selected")) {
-                                    sendNotificationsToSelectedUsers(usersWithTokens, message);
-                                } else if (type.equals("accepted")) {
-                                    sendNotificationsToAcceptedUsers(usersWithTokens, message);
-                                }
-                                else { // cancelled
-                                    sendNotificationsToCancelledUsers(usersWithTokens, message);
-                                }
-                            }
-                        })
-                        .addOnFailureListener(e -> {
-                            fetchedCount[0]++;
-                            Log.e(TAG, "Failed to fetch user: " + userId, e);
-
-                            // Continue even if one user fetch fails
-                            if (fetchedCount[0] == totalUsers) {
-                                if (type.equals("waitlist")) {
-                                    sendNotificationsToWaitlistedUsers(usersWithTokens, message);
-                                } else if (type.equals("selected")) {
-                                    sendNotificationsToSelectedUsers(usersWithTokens, message);
-                                } else { // cancelled
-                                    sendNotificationsToCancelledUsers(usersWithTokens, message);
-                                }
-                            }
-                        });
-            } else {
-                fetchedCount[0]++;
-            }
-        }
+                    if (type.equals("waitlist")) {
+                        sendNotificationsToWaitlistedUsers(usersWithTokens, message);
+                    } else if (type.equals("selected")) {
+                        sendNotificationsToSelectedUsers(usersWithTokens, message);
+                    } else if (type.equals("accepted")) {
+                        sendNotificationsToAcceptedUsers(usersWithTokens, message);
+                    }
+                    else { // cancelled
+                        sendNotificationsToCancelledUsers(usersWithTokens, message);
+                    }
+                });
     }
 
     /**
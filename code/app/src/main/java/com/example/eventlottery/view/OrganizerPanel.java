@@ -3,7 +3,6 @@ package com.example.eventlottery.view;
 import android.annotation.SuppressLint;
 import android.app.Activity;
 import android.content.Intent;
-import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.Settings;
@@ -17,6 +16,7 @@ import androidx.activity.EdgeToEdge;
 import androidx.activity.OnBackPressedCallback;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
@@ -28,16 +28,15 @@ import com.example.eventlottery.events.Event;
 import com.example.eventlottery.events.FinalizedList;
 import com.example.eventlottery.events.NotificationSystem;
 import com.example.eventlottery.model.EventDatabase;
-import com.example.eventlottery.model.QRCode;
+import com.example.eventlottery.model.QrCodeService;
+import com.example.eventlottery.model.QrExporter;
 import com.example.eventlottery.users.User;
-import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code OrganizerPanel} class represents the main interface for organizers.
@@ -86,7 +85,20 @@ public class OrganizerPanel extends AppCompatActivity {
     /** The {@link Event} currently selected by the organizer. */
     private Event selectedEvent;
 
-    private QRCode selectedEventQR;
+    /** The ways the QR codes can be downloaded, as listed when the QR Code button is pressed. */
+    private static final String[] QR_DOWNLOAD_OPTIONS = {
+            "PNG", "PNG for print (300 dpi)", "SVG (vector)", "All my events (ZIP)"
+    };
+    private static final int QR_PNG = 0;
+    private static final int QR_PRINT_PNG = 1;
+    private static final int QR_SVG = 2;
+    private static final int QR_ALL_EVENTS = 3;
+
+    /** The event whose QR code is being downloaded, kept while the file picker is open. */
+    private String qrEventId;
+
+    /** The chosen entry of {@link #QR_DOWNLOAD_OPTIONS}, kept while the file picker is open. */
+    private int qrDownloadOption;
 
     /** The adapter used to bind event data to the {@link ListView}. */
     private EventAdapter adapter;
@@ -162,7 +174,7 @@ public class OrganizerPanel extends AppCompatActivity {
                 getContentResolver(),
                 Settings.Secure.ANDROID_ID
         );
-        organizerEventDatabase = new EventDatabase();
+        organizerEventDatabase = new EventDatabase(this);
         userDatabase = new DBConnector(this);
         getOrganizerInfo();
 
@@ -197,11 +209,10 @@ public class OrganizerPanel extends AppCompatActivity {
      * <a href="https://firebase.google.com/docs/firestore/query-data/get-data#java">Firestore: Get a Document (Java)</a></p>
      */
     public void getOrganizerInfo() {
-        userDatabase.loadUserInfo(userID, task -> {
-            if (task.isSuccessful()) {
-                DocumentSnapshot document = task.getResult();
-                if (document.exists()) {
-                    organizer = document.toObject(User.class);
+        userDatabase.loadUser(userID).whenComplete((user, e) -> {
+            if (e == null) {
+                if (user != null) {
+                    organizer = user;
                     Log.d(TAG, "Organizer loaded");
 
                     // Load events after organizer data is retrieved
@@ -212,7 +223,7 @@ public class OrganizerPanel extends AppCompatActivity {
                     Log.d(TAG, "No organizer found");
                 }
             } else {
-                Log.e(TAG, "Error loading organizer info", task.getException());
+                Log.e(TAG, "Error loading organizer info", e);
             }
         });
     }
@@ -243,6 +254,8 @@ public class OrganizerPanel extends AppCompatActivity {
             chosenEntrantsBtn.setVisibility(View.VISIBLE);
             cancelledEntrantsBtn.setVisibility(View.VISIBLE);
             downloadQRCode.setVisibility(View.VISIBLE);
+            // Ready by the time the QR Code button is pressed; from the cache on repeat visits
+            QrCodeService.getInstance(this).prefetch(selectedEvent.getId(), QrCodeService.EXPORT_SIZE_PX);
             map.setVisibility(View.VISIBLE);
             redrawButton.setVisibility(View.VISIBLE);
             viewWaitlist.setVisibility(View.VISIBLE);
@@ -413,32 +426,10 @@ public class OrganizerPanel extends AppCompatActivity {
         downloadQRCode.setOnClickListener(v -> {
             if (selectedEventIndex != -1) {
                 selectedEvent = data.get(selectedEventIndex);
-                String eventId = selectedEvent.getId();
-                String eventName = selectedEvent.getName();
-                boolean success = false;
-
-                if (selectedEventQR == null) {
-                    selectedEventQR = new QRCode(eventId);
-                    selectedEventQR.generateQRCode();
-                }
-
-                if (!Objects.equals(selectedEventQR.getEventId(), eventId)) {
-                    selectedEventQR = new QRCode(eventId);
-                    success = selectedEventQR.generateQRCode();
-                } else {
-                    success = true;
-                }
-
-                // Reference: https://developer.android.com/training/data-storage/shared/documents-files#create-file
-                if (success) {
-                    Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
-                    intent.addCategory(Intent.CATEGORY_OPENABLE);
-                    intent.setType("image/png");
-                    intent.putExtra(Intent.EXTRA_TITLE, eventName.concat(" QR Code.png"));
-                    downloadLauncher.launch(intent);
-                } else {
-                    Toast.makeText(this, "Failed to download the event QR Code. Please try again.", Toast.LENGTH_SHORT).show();
-                }
+                new AlertDialog.Builder(this)
+                        .setTitle("Download QR Code")
+                        .setItems(QR_DOWNLOAD_OPTIONS, (dialog, which) -> pickQRCodeFile(which))
+                        .show();
             }
         });
 
@@ -546,31 +537,81 @@ public class OrganizerPanel extends AppCompatActivity {
         }
     });
 
+    /**
+     * Asks the organizer where to save the QR code(s), in the format they chose.
+     * The codes are generated in the background while the file picker is open.
+     * @param option the chosen entry of {@link #QR_DOWNLOAD_OPTIONS}
+     */
+    private void pickQRCodeFile(int option) {
+        qrDownloadOption = option;
+        qrEventId = selectedEvent.getId();
+        String eventName = selectedEvent.getName();
+
+        // Reference: https://developer.android.com/training/data-storage/shared/documents-files#create-file
+        Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
+        if (option == QR_ALL_EVENTS) {
+            intent.setType("application/zip");
+            intent.putExtra(Intent.EXTRA_TITLE, "Event QR Codes.zip");
+        } else {
+            QrExporter.Format format = option == QR_SVG ? QrExporter.Format.SVG : QrExporter.Format.PNG;
+            intent.setType(format.getMimeType());
+            intent.putExtra(Intent.EXTRA_TITLE, eventName.concat(" QR Code").concat(format.getExtension()));
+        }
+        downloadLauncher.launch(intent);
+    }
+
     /* Reference: https://stackoverflow.com/a/3013625 */
     /**
-     * Downloads the QR code for the selected event.
+     * Downloads the QR code for the selected event, or the codes of all the organizer's events,
+     * streaming them straight into the chosen file.
      * @param uri The URI of the file to be downloaded
      * */
     private void downloadQRCode(Uri uri) {
-        Bitmap qrCode = selectedEventQR.getQrCode();
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+        if (qrEventId == null) return;
 
-        executor.execute(() -> {
-            try {
-                OutputStream outputStream = getContentResolver().openOutputStream(uri);
+        OutputStream outputStream;
+        try {
+            outputStream = getContentResolver().openOutputStream(uri);
+        } catch (Exception e) {
+            outputStream = null;
+        }
+        if (outputStream == null) {
+            Log.e(TAG, "Failed to download QR Code.");
+            Toast.makeText(this, "Failed to download the event QR Code. Please try again.", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-                if (outputStream != null) {
-                    qrCode.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
-                    outputStream.close();
+        QrCodeService qrCodes = QrCodeService.getInstance(this);
+        int printSizePx = QrExporter.printSizePx(QrExporter.PRINT_SIZE_INCHES, QrExporter.PRINT_DPI);
+        CompletableFuture<Void> download;
+        switch (qrDownloadOption) {
+            case QR_PRINT_PNG:
+                download = qrCodes.export(qrEventId, QrExporter.Format.PNG, printSizePx, outputStream);
+                break;
+            case QR_SVG:
+                download = qrCodes.export(qrEventId, QrExporter.Format.SVG, 0, outputStream);
+                break;
+            case QR_ALL_EVENTS:
+                Map<String, String> namesById = new LinkedHashMap<>();
+                for (Event event : data) {
+                    namesById.put(event.getId(), event.getName());
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to download QR Code.");
+                download = qrCodes.exportAll(namesById, QrExporter.Format.PNG, printSizePx, outputStream);
+                break;
+            case QR_PNG:
+            default:
+                // The cached copy, prefetched when the event was selected
+                download = qrCodes.writePng(qrEventId, QrCodeService.EXPORT_SIZE_PX, outputStream);
+                break;
+        }
 
-                runOnUiThread(() -> {
-                    Toast.makeText(this, "Failed to download the event QR Code. Please try again.", Toast.LENGTH_SHORT).show();
-                });
-            }
+        download.exceptionally(e -> {
+            Log.e(TAG, "Failed to download QR Code.", e);
+            runOnUiThread(() -> {
+                Toast.makeText(this, "Failed to download the event QR Code. Please try again.", Toast.LENGTH_SHORT).show();
+            });
+            return null;
         });
-        executor.close();
     }
 }
\ No newline at end of file
@@ -10,14 +10,20 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import com.example.eventlottery.model.ScanResolver;
+import com.google.zxing.client.android.Intents;
 import com.google.zxing.client.android.R;
+import com.journeyapps.barcodescanner.BarcodeResult;
 import com.journeyapps.barcodescanner.CaptureManager;
 import com.journeyapps.barcodescanner.DecoratedBarcodeView;
+import com.journeyapps.barcodescanner.ScanOptions;
 
 /**
  * Activity that manages scanning of QR codes using the {@link com.journeyapps.barcodescanner.CaptureManager}
  * and a {@link DecoratedBarcodeView}. This class enables a full-screen scanning interface
  * <p>This class is a modified implementation of the default CaptureActivity from the ZXing embedded library.</p>
+ * <p>It decodes QR codes only, and starts looking up the scanned event ({@link ScanResolver})
+ * as soon as a code is decoded.</p>
  * @see CaptureManager
  * @see DecoratedBarcodeView
  */
@@ -59,7 +65,21 @@ public class QRScanActivity extends AppCompatActivity {
             return insets;
         });
 
-        capture = new CaptureManager(this, barcodeScannerView);
+        // Only look for QR codes, so each frame isn't tried against every barcode format
+        if (getIntent().getStringExtra(Intents.Scan.FORMATS) == null) {
+            getIntent().putExtra(Intents.Scan.FORMATS, ScanOptions.QR_CODE);
+        }
+
+        capture = new CaptureManager(this, barcodeScannerView) {
+            @Override
+            protected void returnResult(BarcodeResult rawResult) {
+                // Start resolving the event while the camera closes and the result is delivered
+                if (rawResult.getText() != null) {
+                    ScanResolver.resolve(QRScanActivity.this, rawResult.getText().strip());
+                }
+                super.returnResult(rawResult);
+            }
+        };
         capture.initializeFromIntent(getIntent(), savedInstanceState);
         capture.decode();
     }
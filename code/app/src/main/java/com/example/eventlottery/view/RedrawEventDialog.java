@@ -18,6 +18,7 @@ import androidx.fragment.app.DialogFragment;
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.Event;
 import com.example.eventlottery.events.NotificationSystem;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -155,7 +156,8 @@ public class RedrawEventDialog extends DialogFragment {
         confirmButton.setEnabled(false);
         confirmButton.setAlpha(0.5f);
 
-        // Fetch event and perform redraw
+        // Fetch event and perform redraw. Read from Firestore rather than the event cache:
+        // the waitlist entries are rewritten as read, and an Event doesn't round-trip them
         db.collection("event-p4").document(eventId)
                 .get()
                 .addOnSuccessListener(eventDoc -> {
@@ -200,6 +202,8 @@ public class RedrawEventDialog extends DialogFragment {
                             .update(eventUpdates)
                             .addOnSuccessListener(aVoid -> {
                                 Log.d(TAG, "Waitlist updated successfully");
+                                // Don't let other screens show the old waitlist
+                                Repositories.eventCache().invalidate(eventId);
 
                                 // Update each drawn user
                                 updateDrawnUsers(drawnUsers, actualDrawn);
@@ -238,17 +242,14 @@ public class RedrawEventDialog extends DialogFragment {
             }
 
             // Fetch the full user object to get FCM token and notification preferences
-            db.collection("users-p4").document(userId)
-                    .get()
-                    .addOnSuccessListener(userDoc -> {
-                        if (!userDoc.exists()) {
-                            Log.w(TAG, "User document not found for userId: " + userId);
+            Repositories.users().getUser(userId)
+                    .whenComplete((user, error) -> {
+                        if (error != null) {
+                            Log.e(TAG, "Failed to fetch user document: " + error.getMessage());
                             return;
                         }
-
-                        User user = userDoc.toObject(User.class);
                         if (user == null) {
-                            Log.w(TAG, "Failed to parse user object for userId: " + userId);
+                            Log.w(TAG, "User document not found for userId: " + userId);
                             return;
                         }
 
@@ -294,9 +295,6 @@ public class RedrawEventDialog extends DialogFragment {
                                 .addOnFailureListener(e -> {
                                     Log.e(TAG, "Failed to notify user: " + e.getMessage());
                                 });
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Failed to fetch user document: " + e.getMessage());
                     });
         }
     }
@@ -3,7 +3,7 @@ package com.example.eventlottery.view;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
-import android.provider.Settings;
+import android.os.Looper;
 
 import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
@@ -12,29 +12,29 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
 import com.example.eventlottery.R;
-import com.example.eventlottery.events.DBConnector;
-import com.google.firebase.FirebaseApp;
+import com.example.eventlottery.model.AppStartup;
 
 /**
  * SplashScreen activity that is displayed when the app launches.
- * Provides a short delay before navigating to the MainActivity.
- * Handles edge-to-edge display and initializes the database connection for new users.
+ * Starts the app's startup work ({@link AppStartup}) and navigates to the MainActivity once it
+ * is ready, or after at most {@link #MAX_SPLASH_MILLIS}.
+ * Handles edge-to-edge display.
  */
 public class SplashScreen extends AppCompatActivity {
 
-    /** Handler to manage delayed transition to MainActivity. */
-    Handler handler = new Handler();
+    /** The longest the splash screen waits for startup before opening MainActivity anyway. */
+    private static final long MAX_SPLASH_MILLIS = 3000;
 
-    /** Device-specific user ID used for tracking or database purposes. */
-    String userID;
+    /** Handler to manage the transition to MainActivity. */
+    Handler handler = new Handler(Looper.getMainLooper());
 
-    /** Database connector instance for adding or managing users. */
-    DBConnector dbConnector;
+    /** True once MainActivity has been opened. */
+    private boolean opened;
 
     /**
      * Called when the activity is first created.
-     * Sets up edge-to-edge layout, schedules a delayed transition to MainActivity,
-     * and initializes the database for a new user.
+     * Sets up edge-to-edge layout, starts the startup work (which also saves a new user)
+     * and opens MainActivity once it is ready.
      *
      * @param savedInstanceState Bundle containing activity's previously saved state, if any.
      */
@@ -50,29 +50,41 @@ public class SplashScreen extends AppCompatActivity {
             return insets;
         });
 
-        FirebaseApp.initializeApp(this);
+        // Firebase init, the user, the first page of events and the FCM token all load at once;
+        // MainActivity opens as soon as it has what it needs instead of after a fixed delay
+        AppStartup startup = AppStartup.start(this);
+        startup.whenReady().thenRun(() -> handler.post(this::openMainActivity));
+
+        // Don't hold the user on the splash screen if the network is slow; MainActivity
+        // fills in whatever hasn't loaded yet
+        handler.postDelayed(this::openMainActivity, MAX_SPLASH_MILLIS);
 
         // TESTING: Comment out if you do not want these events here:
-        // Add a small delay to make sure Firebase finishes initialization
         // TESTING: create sample events
         // generator = new EventGenerator();
         // generator.createTestEvents();
+    }
 
+    /**
+     * Opens MainActivity and closes the splash screen. Only the first call does anything.
+     */
+    private void openMainActivity() {
+        if (opened || isFinishing() || isDestroyed()) return;
+        opened = true;
+        handler.removeCallbacksAndMessages(null);
+
+        Intent intent = new Intent(SplashScreen.this, MainActivity.class);
+        startActivity(intent);
+        finish();
+    }
 
-        handler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                Intent intent = new Intent(SplashScreen.this, MainActivity.class);
-                startActivity(intent);
-                finish(); // optional, to close the splash screen
-            }
-        }, 3000);
-
-        // Initialize database connector and add new user
-        dbConnector = new DBConnector(this);
-        dbConnector.saveNewUser(this);
-
-
-
+    /**
+     * Drops the pending timeout, so a splash screen that was rotated or closed isn't kept alive
+     * until it fires.
+     */
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacksAndMessages(null);
+        super.onDestroy();
     }
 }
@@ -1,5 +1,6 @@
 package com.example.eventlottery.view;
 
+import android.app.Activity;
 import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
@@ -16,10 +17,11 @@ import androidx.fragment.app.Fragment;
 
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.DBConnector;
-import com.example.eventlottery.events.Event;
-import com.example.eventlottery.model.EventDatabase;
+import com.example.eventlottery.model.FirestoreUserRepository;
+import com.example.eventlottery.model.ListenerHub;
+import com.example.eventlottery.model.Repositories;
+import com.example.eventlottery.model.ScanResolver;
 import com.example.eventlottery.users.User;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.journeyapps.barcodescanner.ScanContract;
 import com.journeyapps.barcodescanner.ScanOptions;
@@ -55,22 +57,32 @@ public class TaskbarFragment extends Fragment {
     private void loadUser() {
         final String userId = db.getUserId();
 
-        listener = db.getUserDoc(userId).addSnapshotListener((snapshot, error) -> {
+        // Every screen's taskbar listens to the same document, so they share one listener
+        listener = ListenerHub.getInstance().listen(db.getUserDoc(userId), (snapshot, error) -> {
             if (error != null) return;
 
-            if (snapshot != null && snapshot.exists()) {
-                user = snapshot.toObject(User.class);
-            }
+            // Also keeps the shared user cache warm for the other screens
+            User snapshotUser = (snapshot != null && snapshot.exists())
+                    ? FirestoreUserRepository.applySnapshot(snapshot, Repositories.userCache())
+                    : null;
 
-            if (user != null) {
-                if (user.isCreationBan() && (getActivity() instanceof OrganizerPanel) && isResumed()) {
-                    Intent intent = new Intent(getActivity(), MainActivity.class);
-                    intent.addFlags(Intent.FLAG_ACTIVITY_REORDER_TO_FRONT);
-                    startActivity(intent);
-                    Toast.makeText(getContext(), "Your organizer permissions have been revoked due to violation of app policy.", Toast.LENGTH_LONG).show();
+            Activity activity = getActivity();
+            if (activity == null) return;
+            activity.runOnUiThread(() -> {
+                if (snapshotUser != null) {
+                    user = snapshotUser;
                 }
-                updateTaskbar();
-            }
+
+                if (user != null && isAdded()) {
+                    if (user.isCreationBan() && (getActivity() instanceof OrganizerPanel) && isResumed()) {
+                        Intent intent = new Intent(getActivity(), MainActivity.class);
+                        intent.addFlags(Intent.FLAG_ACTIVITY_REORDER_TO_FRONT);
+                        startActivity(intent);
+                        Toast.makeText(getContext(), "Your organizer permissions have been revoked due to violation of app policy.", Toast.LENGTH_LONG).show();
+                    }
+                    updateTaskbar();
+                }
+            });
         });
     }
 
@@ -115,8 +127,6 @@ public class TaskbarFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        EventDatabase eventDatabase = new EventDatabase();
-
         /**
          * Sets event listener for starting OrganizerPanel
          */
@@ -187,35 +197,34 @@ public class TaskbarFragment extends Fragment {
         ActivityResultLauncher<ScanOptions> qrLauncher = registerForActivityResult(new ScanContract(), result -> {
             if (result.getContents() != null) {
                 String content = result.getContents().strip();
-                eventDatabase.get(content, task -> {
-                    if (task.isSuccessful()) {
-                        DocumentSnapshot doc = task.getResult();
-                        if (doc.exists()) {
-                            Event eventToDisplay = doc.toObject(Event.class);
-                            if (eventToDisplay != null) {
-                                Intent intent = new Intent(getActivity(), EventJoinAndLeave.class);
-                                intent.putExtra("id", eventToDisplay.getId());
-                                intent.putExtra("name", eventToDisplay.getName());
-                                intent.putExtra("description", eventToDisplay.getDescription());
-                                intent.putExtra("dateStart", eventToDisplay.getFormattedStartDate());
-                                intent.putExtra("timeStart", eventToDisplay.getFormattedStartTime());
-                                intent.putExtra("dateEnd", eventToDisplay.getFormattedEndDate());
-                                intent.putExtra("timeEnd", eventToDisplay.getFormattedEndTime());
-                                intent.putExtra("registrationEnd", eventToDisplay.getEndTime());      // Unformatted end date.
-                                intent.putExtra("registrationStart", eventToDisplay.getStartTime());  // Unformatted start date.
-                                intent.putExtra("geolocation", eventToDisplay.getGeolocation());
-                                intent.putExtra("waitlistMax", eventToDisplay.getWaitlistMax());
-                                intent.putExtra("location", eventToDisplay.getLocation());
-                                intent.putExtra("organizer", eventToDisplay.getOrganizer());
-                                intent.putExtra("image", eventToDisplay.getImage());
-                                startActivity(intent);
-                            }
+                // Usually already started by QRScanActivity when the code was decoded
+                ScanResolver.resolve(requireContext(), content).getEvent().whenComplete((eventToDisplay, e) -> {
+                    Activity activity = getActivity();
+                    if (activity == null) return;
+                    activity.runOnUiThread(() -> {
+                        if (!isAdded()) return;
+                        if (e == null && eventToDisplay != null) {
+                            Intent intent = new Intent(getActivity(), EventJoinAndLeave.class);
+                            intent.putExtra("id", eventToDisplay.getId());
+                            intent.putExtra("name", eventToDisplay.getName());
+                            intent.putExtra("description", eventToDisplay.getDescription());
+                            intent.putExtra("dateStart", eventToDisplay.getFormattedStartDate());
+                            intent.putExtra("timeStart", eventToDisplay.getFormattedStartTime());
+                            intent.putExtra("dateEnd", eventToDisplay.getFormattedEndDate());
+                            intent.putExtra("timeEnd", eventToDisplay.getFormattedEndTime());
+                            intent.putExtra("registrationEnd", eventToDisplay.getEndTime());      // Unformatted end date.
+                            intent.putExtra("registrationStart", eventToDisplay.getStartTime());  // Unformatted start date.
+                            intent.putExtra("geolocation", eventToDisplay.getGeolocation());
+                            intent.putExtra("waitlistMax", eventToDisplay.getWaitlistMax());
+                            intent.putExtra("location", eventToDisplay.getLocation());
+                            intent.putExtra("organizer", eventToDisplay.getOrganizer());
+                            intent.putExtra("image", eventToDisplay.getImage());
+                            intent.putExtra("storagePath", eventToDisplay.getStoragePath());
+                            startActivity(intent);
                         } else {
                             Toast.makeText(getContext(), "The QR Code that you scanned is invalid.", Toast.LENGTH_SHORT).show();
                         }
-                    } else {
-                        Toast.makeText(getContext(), "The QR Code that you scanned is invalid.", Toast.LENGTH_SHORT).show();
-                    }
+                    });
                 });
                 Log.d("TaskbarFragment - QRLauncher", content);
             }
@@ -229,6 +238,7 @@ public class TaskbarFragment extends Fragment {
             ScanOptions scanOptions = new ScanOptions();
             scanOptions.setOrientationLocked(true);
             scanOptions.setBeepEnabled(false);
+            scanOptions.setDesiredBarcodeFormats(ScanOptions.QR_CODE);
             scanOptions.setCaptureActivity(QRScanActivity.class);
             qrLauncher.launch(scanOptions);
         });
@@ -11,10 +11,8 @@ import android.util.Log;
 import android.view.ViewGroup;
 import android.widget.LinearLayout;
 import android.widget.TextView;
-import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
 import androidx.core.graphics.Insets;
@@ -24,18 +22,17 @@ import androidx.core.view.WindowInsetsCompat;
 import com.example.eventlottery.R;
 import com.example.eventlottery.events.DBConnector;
 import com.example.eventlottery.events.Event;
+import com.example.eventlottery.model.FirestoreUserRepository;
+import com.example.eventlottery.model.ListenerHub;
+import com.example.eventlottery.model.Repositories;
 import com.example.eventlottery.users.User;
-import com.google.android.gms.tasks.OnCompleteListener;
-import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -104,14 +101,13 @@ public class UserPanel extends AppCompatActivity {
 
         // Load user from database
         DBConnector connector = new DBConnector(this);
-        connector.loadUserInfo(userIdToLoad, task -> {
+        connector.loadUser(userIdToLoad).whenComplete((user, e) -> {
             eventListContainer.removeAllViews(); // Remove Loading text
 
-            if (task.isSuccessful()) {
-                DocumentSnapshot document = task.getResult();
-                if (document.exists()) {
+            if (e == null) {
+                if (user != null) {
                     // User exists - load their data
-                    currentUser = document.toObject(User.class);
+                    currentUser = user;
                 } else {
                     // First time user - create new user with default name
                     currentUser = new User(this);
@@ -131,38 +127,9 @@ public class UserPanel extends AppCompatActivity {
                 allEvents = new ArrayList<>();
             }
 
-            // Update username in the UI
-            // Reference: https://firebase.google.com/docs/firestore/query-data/get-data#java
+            // Update username in the UI; the realtime listener keeps it up to date
             TextView userNameView = findViewById(R.id.user_name);
-            DocumentReference userDoc = db.collection("users-p4").document(currentUser.getId());;
-
-            // Asynchronously fetch the user document from Firestore
-            userDoc.get().addOnCompleteListener(new OnCompleteListener<DocumentSnapshot>() {
-                @Override
-                public void onComplete(@NonNull Task<DocumentSnapshot> task) {
-                    // Check if the document was successfully retrieved
-                    if (task.isSuccessful()) {
-                        // Get the document snapshot from the completed task
-                        DocumentSnapshot document = task.getResult();
-
-                        // Verify that the document actually exists in the database
-                        if (document.exists()) {
-                            // Extract the "name" field from the document
-                            String name = document.getString("name");
-                            // Update the TextView with the user's name
-                            userNameView.setText(name);
-                        }
-                        else {
-                            // Document reference exists but no data found
-                            Log.d("Firestore", "No such document");
-                        }
-                    }
-                    else {
-                        // Handle any errors that occurred during the fetch
-                        Log.d("Firestore", "get failed with ", task.getException());
-                    }
-                }
-            });
+            userNameView.setText(currentUser.getName());
 
             setupRealtimeListener();
 
@@ -189,24 +156,32 @@ public class UserPanel extends AppCompatActivity {
             userListener.remove();
         }
 
-        // Set up real-time listener
-        userListener = userDoc.addSnapshotListener((documentSnapshot, error) -> {
+        // Set up real-time listener, shared with the taskbar's listener on the same document
+        userListener = ListenerHub.getInstance().listen(userDoc, (documentSnapshot, error) -> {
             if (error != null) {
                 Log.e("RealtimeListener", "Listen failed: " + error.getMessage());
                 return;
             }
 
             if (documentSnapshot != null && documentSnapshot.exists()) {
-                // Update username in real-time
-                String name = documentSnapshot.getString("name");
-                TextView userNameView = findViewById(R.id.user_name);
-                if (name != null && userNameView != null) {
-                    userNameView.setText(name);
-                    currentUser.setName(name);
-                }
+                // Also keeps the shared user cache warm for the other screens
+                User snapshotUser = FirestoreUserRepository.applySnapshot(documentSnapshot, Repositories.userCache());
+                if (snapshotUser == null) return;
+
+                runOnUiThread(() -> {
+                    if (isDestroyed()) return;
+
+                    // Update username in real-time
+                    String name = snapshotUser.getName();
+                    TextView userNameView = findViewById(R.id.user_name);
+                    if (name != null && userNameView != null) {
+                        userNameView.setText(name);
+                        currentUser.setName(name);
+                    }
 
-                // Update events in real-time
-                displayEvents();
+                    // Update events in real-time, from the snapshot instead of fetching the document again
+                    displayEvents(snapshotUser);
+                });
             }
         });
     }
@@ -257,75 +232,47 @@ public class UserPanel extends AppCompatActivity {
 
     /**
      * Displays all events (waitlisted and registered) in the UI
+     * @param snapshotUser the user as last delivered by the realtime listener
      */
-    private void displayEvents() {
+    private void displayEvents(User snapshotUser) {
         // Clear existing events before displaying
         clearEvents();
 
-        // Get user document from Firestore
-        DocumentReference userDoc = db.collection("users-p4").document(currentUser.getId());
-
-        userDoc.get().addOnSuccessListener(documentSnapshot -> {
-            if (documentSnapshot.exists()) {
-                List<String> waitlistedEvents = (List<String>) documentSnapshot.get("waitlistedEvents");
-                Map<String, Object> registeredEventsMap = (Map<String, Object>) documentSnapshot.get("registeredEvents");
-
-                // FIXED: Always update the lists, even if empty (to clear them)
-                if (waitlistedEvents != null) {
-                    currentUser.setWaitlistedEventIds(waitlistedEvents);
-                } else {
-                    currentUser.setWaitlistedEventIds(new ArrayList<>());
-                }
-
-                // Convert Map<String, Object> to HashMap<String, String> for registeredEvents
-                if (registeredEventsMap != null) {
-                    HashMap<String, String> registeredEvents = new HashMap<>();
-                    for (Map.Entry<String, Object> entry : registeredEventsMap.entrySet()) {
-                        registeredEvents.put(entry.getKey(), entry.getValue().toString());
-                    }
-                    currentUser.setRegisteredEvents(registeredEvents);
-                } else {
-                    currentUser.setRegisteredEvents(new HashMap<>());
-                }
+        // FIXED: Always update the lists, even if empty (to clear them)
+        currentUser.setWaitlistedEventIds(snapshotUser.getWaitlistedEventIds());
+        if (snapshotUser.getRegisteredEvents() != null) {
+            currentUser.setRegisteredEvents(new HashMap<>(snapshotUser.getRegisteredEvents()));
+        } else {
+            currentUser.setRegisteredEvents(new HashMap<>());
+        }
 
-                // Check if user has any events
-                if (currentUser.getRegisteredEvents().isEmpty() && currentUser.getWaitlistedEvents().isEmpty()) {
-                    showEmptyState();
-                    return;
-                }
+        // Check if user has any events
+        if (currentUser.getRegisteredEvents().isEmpty() && currentUser.getWaitlistedEvents().isEmpty()) {
+            showEmptyState();
+            return;
+        }
 
-                // Display registered events
-                for (Map.Entry<String, String> entry : currentUser.getRegisteredEvents().entrySet()) {
-                    String eventId = entry.getKey();
-                    String status = entry.getValue();
-                    Event event = findEventById(eventId);
+        // Display registered events
+        for (Map.Entry<String, String> entry : currentUser.getRegisteredEvents().entrySet()) {
+            String eventId = entry.getKey();
+            String status = entry.getValue();
+            Event event = findEventById(eventId);
 
-                    if (event != null) {
-                        addEventCard(event, status);
-                    }
-                }
+            if (event != null) {
+                addEventCard(event, status);
+            }
+        }
 
-                // FIXED: Display waitlisted events ONLY if they're not already in registeredEvents
-                for (String eventId : currentUser.getWaitlistedEvents()) {
-                    // Skip if this event is already shown as a registered event
-                    if (!currentUser.getRegisteredEvents().containsKey(eventId)) {
-                        Event event = findEventById(eventId);
-                        if (event != null) {
-                            addEventCard(event, "Waitlisted");
-                        }
-                    }
+        // FIXED: Display waitlisted events ONLY if they're not already in registeredEvents
+        for (String eventId : currentUser.getWaitlistedEvents()) {
+            // Skip if this event is already shown as a registered event
+            if (!currentUser.getRegisteredEvents().containsKey(eventId)) {
+                Event event = findEventById(eventId);
+                if (event != null) {
+                    addEventCard(event, "Waitlisted");
                 }
             }
-            else {
-                // User document doesn't exist yet - show empty state without modifying user object
-                showEmptyState();
-            }
-        }).addOnFailureListener(e -> {
-            // Handle error
-            Log.e("DisplayEvents", "Error fetching user data", e);
-            Toast.makeText(this, "Error loading events", Toast.LENGTH_SHORT).show();
-            showEmptyState();
-        });
+        }
     }
 
     /**
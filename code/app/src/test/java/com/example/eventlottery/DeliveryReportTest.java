@@ -0,0 +1,96 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.events.DeliveryReport;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for DeliveryReport
+ */
+public class DeliveryReportTest {
+
+    private DeliveryReport report;
+
+    @Before
+    public void setUp() {
+        report = new DeliveryReport();
+    }
+
+    /**
+     * Tests that statuses are counted per type and looked up per recipient
+     */
+    @Test
+    public void testRecord_CountsPerStatus() {
+        report.record("user1", DeliveryReport.Status.SENT, 12);
+        report.record("user2", DeliveryReport.Status.SENT, 15);
+        report.record("user3", DeliveryReport.Status.SKIPPED, -1);
+        report.record("user4", DeliveryReport.Status.FAILED, 30);
+
+        assertEquals(4, report.size());
+        assertEquals(2, report.count(DeliveryReport.Status.SENT));
+        assertEquals(1, report.count(DeliveryReport.Status.SKIPPED));
+        assertEquals(1, report.count(DeliveryReport.Status.FAILED));
+        assertEquals(DeliveryReport.Status.SENT, report.getStatus("user1"));
+        assertNull(report.getStatus("unknown"));
+    }
+
+    /**
+     * Tests that latencies are kept for sent requests only
+     */
+    @Test
+    public void testRecord_Latency() {
+        report.record("user1", DeliveryReport.Status.SENT, 12);
+        report.record("user2", DeliveryReport.Status.SKIPPED, -1);
+
+        assertEquals(12, report.getLatencyMillis("user1"));
+        assertEquals(-1, report.getLatencyMillis("user2"));
+    }
+
+    /**
+     * Tests that rejected tokens are collected with the user they belong to
+     */
+    @Test
+    public void testRecordInvalidToken() {
+        report.recordInvalidToken("user1", "staleToken", 20);
+
+        assertEquals(DeliveryReport.Status.INVALID_TOKEN, report.getStatus("user1"));
+        assertEquals("staleToken", report.getInvalidTokens().get("user1"));
+        assertEquals(1, report.getUserIds(DeliveryReport.Status.INVALID_TOKEN).size());
+    }
+
+    /**
+     * Tests that the duration is only set once the batch has finished
+     */
+    @Test
+    public void testFinish_Duration() {
+        assertEquals(-1, report.getDurationMillis());
+        report.finish();
+        assertTrue(report.getDurationMillis() >= 0);
+    }
+
+    /**
+     * Tests which FCM error responses are treated as dead tokens
+     */
+    @Test
+    public void testIsInvalidTokenResponse() {
+        assertTrue(DeliveryReport.isInvalidTokenResponse(404,
+                "{\"error\":{\"status\":\"NOT_FOUND\",\"details\":[{\"errorCode\":\"UNREGISTERED\"}]}}"));
+        assertTrue(DeliveryReport.isInvalidTokenResponse(400,
+                "{\"error\":{\"status\":\"INVALID_ARGUMENT\","
+                        + "\"message\":\"The registration token is not a valid FCM registration token\"}}"));
+        assertFalse(DeliveryReport.isInvalidTokenResponse(400,
+                "{\"error\":{\"message\":\"Invalid JSON payload received\"}}"));
+        assertFalse(DeliveryReport.isInvalidTokenResponse(503, "Service Unavailable"));
+        // A wrong project or endpoint, not a dead token
+        assertFalse(DeliveryReport.isInvalidTokenResponse(404, "<html>Not Found</html>"));
+        assertFalse(DeliveryReport.isInvalidTokenResponse(404, "{\"error\":{\"status\":\"NOT_FOUND\"}}"));
+        assertFalse(DeliveryReport.isInvalidTokenResponse(404, null));
+        assertFalse(DeliveryReport.isInvalidTokenResponse(429, "{\"error\":{\"status\":\"RESOURCE_EXHAUSTED\"}}"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.model.CachingEventRepository;
+import com.example.eventlottery.model.EventCache;
+import com.example.eventlottery.model.InMemoryEventRepository;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Unit tests for {@link EventCache} and {@link CachingEventRepository}.
+ * Disk I/O runs on the calling thread, so every result is available immediately.
+ */
+public class EventCacheTest {
+    private static final Executor DIRECT = Runnable::run;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Event event(String id, String name) {
+        return new Event(id, name, "", "", "organizer", "", new Date(0), new Date(1000));
+    }
+
+    private EventCache diskCache(File dir, int maxEntries) {
+        return new EventCache(maxEntries, dir, EventCache.DEFAULT_MAX_DISK_ENTRIES,
+                EventCache.DEFAULT_MAX_DISK_AGE_MILLIS, DIRECT);
+    }
+
+    /**
+     * Tests that the least recently used event is evicted from memory and counted.
+     */
+    @Test
+    public void lruEvictionTest() {
+        EventCache cache = new EventCache(2);
+        cache.put(event("a", "A"), cache.stamp());
+        cache.put(event("b", "B"), cache.stamp());
+        assertNotNull(cache.get("a")); // "b" is now the least recently used
+        cache.put(event("c", "C"), cache.stamp());
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getStats().evictions);
+        assertEquals(3, cache.getStats().hits);
+    }
+
+    /**
+     * Tests that a read stamped before a newer write or invalidation can't overwrite it.
+     */
+    @Test
+    public void staleWriteRejectedTest() {
+        EventCache cache = new EventCache(10);
+        long slowRead = cache.stamp();
+        assertTrue(cache.refresh(event("a", "From snapshot"), cache.stamp()));
+        assertFalse(cache.put(event("a", "From slow read"), slowRead));
+        assertEquals("From snapshot", cache.get("a").getName());
+
+        long beforeDelete = cache.stamp();
+        cache.invalidate("a");
+        assertFalse(cache.put(event("a", "Deleted"), beforeDelete));
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.getStats().staleWrites);
+        assertEquals(1, cache.getStats().invalidations);
+    }
+
+    /**
+     * Tests that events put in the cache are served from disk by a new cache on the same directory,
+     * as after a restart, and that invalidated events are removed from disk.
+     */
+    @Test
+    public void diskTierSurvivesRestartTest() throws Exception {
+        File dir = folder.newFolder("events");
+        EventCache cache = diskCache(dir, 10);
+        cache.put(event("a", "A"), cache.stamp());
+        cache.put(event("weird/id", "B"), cache.stamp());
+        cache.put(event("c", "C"), cache.stamp());
+        cache.invalidate("c");
+
+        EventCache restarted = diskCache(dir, 10);
+        assertNull(restarted.get("a"));
+        assertEquals("A", restarted.loadFromDisk("a").get().getName());
+        assertEquals("B", restarted.loadFromDisk("weird/id").get().getName());
+        assertNull(restarted.loadFromDisk("c").get());
+        // Moved into memory by the disk read
+        assertNotNull(restarted.get("a"));
+
+        EventCache.Stats stats = restarted.getStats();
+        assertEquals(2, stats.diskHits);
+        assertEquals(1, stats.misses);
+        assertEquals(1, stats.hits);
+    }
+
+    /**
+     * Tests that snapshot refreshes only rewrite events that are already on disk.
+     */
+    @Test
+    public void refreshOnlyRewritesDiskCopiesTest() throws Exception {
+        File dir = folder.newFolder("events");
+        EventCache cache = diskCache(dir, 10);
+        cache.put(event("a", "A"), cache.stamp());
+        cache.refresh(event("a", "A2"), cache.stamp());
+        cache.refresh(event("b", "B"), cache.stamp());
+
+        EventCache restarted = diskCache(dir, 10);
+        assertEquals("A2", restarted.loadFromDisk("a").get().getName());
+        assertNull(restarted.loadFromDisk("b").get());
+    }
+
+    /**
+     * Tests that the caching repository only reads the wrapped repository on a miss,
+     * and that batched reads only ask it for the events neither tier has.
+     */
+    @Test
+    public void cachingRepositoryTest() throws Exception {
+        InMemoryEventRepository store = new InMemoryEventRepository();
+        store.saveEvent(event("a", "A")).get();
+        store.saveEvent(event("b", "B")).get();
+        EventCache cache = diskCache(folder.newFolder("events"), 10);
+        CachingEventRepository repository = new CachingEventRepository(store, cache, DIRECT);
+
+        Event first = repository.getEvent("a").get();
+        store.deleteEvent("a").get(); // only a cache hit can still find it
+        assertSame(first, repository.getEvent("a").get());
+
+        Map<String, Event> both = repository.getEvents(Arrays.asList("a", "b", "missing")).get();
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(both.keySet().toArray()));
+
+        repository.deleteEvent("b").get();
+        assertNull(repository.getEvent("b").get());
+
+        EventCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits);
+        assertEquals(4, stats.misses);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.EventFilter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link EventFilter}.
+ */
+public class EventFilterTest {
+    private static final long HOUR = 60L * 60 * 1000;
+
+    private static long midnight(int year, int month, int day) {
+        Calendar c = Calendar.getInstance();
+        c.clear();
+        c.set(year, month, day);
+        return c.getTimeInMillis();
+    }
+
+    private static Event event(String id, long startMs, long endMs, String... tags) {
+        Event event = new Event(id, id, "", "", "", "", new Date(startMs), new Date(endMs));
+        for (String tag : tags) {
+            event.addFilterTag(tag);
+        }
+        return event;
+    }
+
+    /**
+     * Tests that an event overlapping a selected day passes, including one spanning midnight.
+     */
+    @Test
+    public void occursOnSelectedDayTest() {
+        long day = midnight(2025, Calendar.NOVEMBER, 10);
+        Set<Long> selected = Collections.singleton(day);
+
+        assertTrue(EventFilter.occursOnAnySelectedDate(event("a", day + 10 * HOUR, day + 12 * HOUR), selected));
+        assertTrue(EventFilter.occursOnAnySelectedDate(event("b", day - 2 * HOUR, day + HOUR), selected));
+        assertFalse(EventFilter.occursOnAnySelectedDate(event("c", day + 24 * HOUR, day + 26 * HOUR), selected));
+    }
+
+    /**
+     * Tests that tag and date filters are combined and the original order is kept.
+     */
+    @Test
+    public void applyFiltersTest() {
+        long day = midnight(2025, Calendar.NOVEMBER, 10);
+        Event musicOnDay = event("music-on-day", day + HOUR, day + 2 * HOUR, "Music");
+        Event sportsOnDay = event("sports-on-day", day + HOUR, day + 2 * HOUR, "Sports");
+        Event musicLater = event("music-later", day + 48 * HOUR, day + 49 * HOUR, "Music");
+        List<Event> events = Arrays.asList(musicOnDay, sportsOnDay, musicLater);
+
+        Set<Long> dates = new HashSet<>(Collections.singleton(day));
+        List<String> tags = Collections.singletonList("Music");
+
+        assertEquals(Arrays.asList(musicOnDay, musicLater), EventFilter.apply(events, tags, null));
+        assertEquals(Arrays.asList(musicOnDay, sportsOnDay), EventFilter.apply(events, null, dates));
+        assertEquals(Collections.singletonList(musicOnDay), EventFilter.apply(events, tags, dates));
+        assertEquals(events, EventFilter.apply(events, null, null));
+        assertFalse(EventFilter.hasFilters(Collections.emptyList(), Collections.emptySet()));
+    }
+
+    /**
+     * Tests that the user's own events are left out and the positions to remove come last first.
+     */
+    @Test
+    public void excludeIdsTest() {
+        long day = midnight(2025, Calendar.MARCH, 10);
+        List<Event> events = Arrays.asList(
+                event("a", day, day + HOUR),
+                event("mine1", day, day + HOUR),
+                event("b", day, day + HOUR),
+                event("mine2", day, day + HOUR));
+        Set<String> mine = new HashSet<>(Arrays.asList("mine1", "mine2", "gone"));
+
+        List<Event> kept = EventFilter.excludeIds(events, mine);
+        assertEquals(2, kept.size());
+        assertEquals("a", kept.get(0).getId());
+        assertEquals("b", kept.get(1).getId());
+        assertEquals(Arrays.asList(3, 1), EventFilter.positionsOf(events, mine));
+
+        assertEquals(4, EventFilter.excludeIds(events, Collections.emptySet()).size());
+        assertTrue(EventFilter.positionsOf(events, Collections.emptySet()).isEmpty());
+    }
+
+    /**
+     * Tests that events sort by start time with the ones missing it last.
+     */
+    @Test
+    public void byStartTimeTest() {
+        long day = midnight(2025, Calendar.MARCH, 10);
+        Event later = event("later", day + 5 * HOUR, day + 6 * HOUR);
+        Event earlier = event("earlier", day + HOUR, day + 2 * HOUR);
+        Event undated = event("undated", day, day);
+        undated.setStartTime(null);
+
+        List<Event> events = Arrays.asList(undated, later, earlier);
+        events.sort(EventFilter.BY_START_TIME);
+        assertEquals(Arrays.asList(earlier, later, undated), events);
+    }
+}
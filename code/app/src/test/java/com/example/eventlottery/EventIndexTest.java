@@ -0,0 +1,107 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.model.EventIndex;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link EventIndex}, which patches the organizer's event list by ID.
+ */
+public class EventIndexTest {
+
+    private static Event event(String id, String name) {
+        return new Event(id, name, "", "", "organizer", "", new Date(0), new Date(1000));
+    }
+
+    /**
+     * Tests that an update replaces the event in place and a new event is appended once.
+     */
+    @Test
+    public void upsertReplacesInPlaceTest() {
+        List<Event> events = new ArrayList<>();
+        events.add(event("a", "A"));
+        events.add(event("b", "B"));
+        EventIndex index = new EventIndex(events);
+
+        assertEquals(1, index.upsert(event("b", "B renamed")));
+        assertEquals(2, index.upsert(event("c", "C")));
+        assertEquals(2, index.upsert(event("c", "C renamed")));
+
+        assertEquals(3, events.size());
+        assertEquals("B renamed", events.get(1).getName());
+        assertEquals("C renamed", events.get(2).getName());
+    }
+
+    /**
+     * Tests that the index notices the list being cleared and refilled elsewhere,
+     * as the adapter does when filtering, and doesn't add duplicates.
+     */
+    @Test
+    public void listChangedElsewhereTest() {
+        List<Event> events = new ArrayList<>();
+        events.add(event("a", "A"));
+        events.add(event("b", "B"));
+        EventIndex index = new EventIndex(events);
+
+        events.clear();
+        events.add(event("b", "B"));
+        assertEquals(0, index.indexOf("b"));
+        assertEquals(-1, index.indexOf("a"));
+
+        index.upsert(event("b", "B renamed"));
+        assertEquals(1, events.size());
+        assertEquals("B renamed", events.get(0).getName());
+    }
+
+    /**
+     * Tests that removing an event shifts the positions of the ones after it.
+     */
+    @Test
+    public void removeTest() {
+        List<Event> events = new ArrayList<>();
+        events.add(event("a", "A"));
+        events.add(event("b", "B"));
+        events.add(event("c", "C"));
+        EventIndex index = new EventIndex(events);
+
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+        assertEquals(1, index.indexOf("c"));
+        assertEquals(2, events.size());
+    }
+
+    /**
+     * Tests that a query result for some IDs updates, adds and removes only those events.
+     */
+    @Test
+    public void applyResultTest() {
+        List<Event> events = new ArrayList<>();
+        events.add(event("a", "A"));
+        events.add(event("b", "B"));
+        events.add(event("other", "From another query"));
+        EventIndex index = new EventIndex(events);
+
+        Map<String, Event> found = new HashMap<>();
+        found.put("a", event("a", "A renamed"));
+        found.put("c", event("c", "C"));
+        assertTrue(index.applyResult(Arrays.asList("a", "b", "c"), found));
+
+        assertEquals(3, events.size());
+        assertEquals("A renamed", events.get(index.indexOf("a")).getName());
+        assertEquals(-1, index.indexOf("b"));
+        assertEquals(1, index.indexOf("other"));
+        assertEquals("C", events.get(index.indexOf("c")).getName());
+    }
+}
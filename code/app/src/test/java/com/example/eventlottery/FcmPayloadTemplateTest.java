@@ -0,0 +1,82 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.events.FcmPayloadTemplate;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for FcmPayloadTemplate
+ */
+public class FcmPayloadTemplateTest {
+
+    /**
+     * Tests that the rendered message is a data-only FCM V1 message with the recipient fields
+     * spliced in, so the app draws the notification even when it isn't running
+     */
+    @Test
+    public void testRender_MessageShape() {
+        FcmPayloadTemplate template = new FcmPayloadTemplate("Title", "Body", "invitation",
+                "Winter Concert", "event123");
+
+        String expected = "{\"message\":{\"token\":\"token123\","
+                + "\"data\":{\"title\":\"Title\",\"body\":\"Body\",\"type\":\"invitation\","
+                + "\"eventName\":\"Winter Concert\",\"eventId\":\"event123\",\"userName\":\"Test User\"},"
+                + "\"android\":{\"priority\":\"high\"}}}";
+        assertEquals(expected, template.render("token123", "Test User"));
+    }
+
+    /**
+     * Tests that the event id is left out of the data payload when there is none
+     */
+    @Test
+    public void testRender_NoEventId() {
+        FcmPayloadTemplate template = new FcmPayloadTemplate("Title", "Body", "winner",
+                "Winter Concert", null);
+        assertFalse(template.render("token123", "Test User").contains("eventId"));
+    }
+
+    /**
+     * Tests that a missing event name is sent as an empty string, FCM data values must be strings
+     */
+    @Test
+    public void testRender_NullEventName() {
+        FcmPayloadTemplate template = new FcmPayloadTemplate("Title", "Body", "winner", null, null);
+        String json = template.render("token123", "Test User");
+        assertTrue(json.contains("\"eventName\":\"\""));
+        assertFalse(json.contains("null"));
+    }
+
+    /**
+     * Tests that the same template can be reused for different recipients
+     */
+    @Test
+    public void testRender_ReusedAcrossRecipients() {
+        FcmPayloadTemplate template = new FcmPayloadTemplate("Title", "Body", "waitlist",
+                "Winter Concert", "event123");
+        String first = template.render("tokenA", "Alice");
+        String second = template.render("tokenB", "Bob");
+
+        assertFalse(first.contains("\"notification\""));
+        assertTrue(first.contains("\"token\":\"tokenA\"") && first.contains("\"userName\":\"Alice\""));
+        assertTrue(second.contains("\"token\":\"tokenB\"") && second.contains("\"userName\":\"Bob\""));
+    }
+
+    /**
+     * Tests that quotes, backslashes, control characters and non-ASCII text are escaped correctly
+     */
+    @Test
+    public void testRender_Escaping() {
+        FcmPayloadTemplate template = new FcmPayloadTemplate("You're Invited! 🎉", "Line 1\n\"Line 2\"",
+                "invitation", "C:\\Events", "event123");
+        String rendered = template.render("token123", "Zoë \u0001 😀");
+
+        assertTrue(rendered.contains("\"title\":\"You're Invited! 🎉\""));
+        assertTrue(rendered.contains("\"body\":\"Line 1\\n\\\"Line 2\\\"\""));
+        assertTrue(rendered.contains("\"eventName\":\"C:\\\\Events\""));
+        assertTrue(rendered.contains("\"userName\":\"Zoë \\u0001 😀\""));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.model.InMemoryEventRepository;
+import com.example.eventlottery.model.InMemoryUserRepository;
+import com.example.eventlottery.users.User;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the in-memory repositories.
+ */
+public class InMemoryRepositoryTest {
+
+    private static Event event(String id, long start) {
+        return new Event(id, "Event " + id, "", "", "", "", new Date(start), new Date(start + 1000));
+    }
+
+    /**
+     * Tests saving, getting, listing by start time and deleting events.
+     */
+    @Test
+    public void eventRepositoryTest() {
+        InMemoryEventRepository repository = new InMemoryEventRepository();
+        Event later = event("later", 2000);
+        Event earlier = event("earlier", 1000);
+        repository.saveEvent(later).join();
+        repository.saveEvent(earlier).join();
+
+        assertSame(later, repository.getEvent("later").join());
+        assertNull(repository.getEvent("missing").join());
+        assertEquals(Arrays.asList(earlier, later), repository.getAllEvents().join());
+
+        Map<String, Event> found = repository.getEvents(Arrays.asList("later", "missing")).join();
+        assertEquals(1, found.size());
+        assertSame(later, found.get("later"));
+
+        repository.deleteEvent("later").join();
+        assertNull(repository.getEvent("later").join());
+    }
+
+    /**
+     * Tests saving, batch getting and deleting users.
+     */
+    @Test
+    public void userRepositoryTest() {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        User alice = new User("alice", "Alice", "alice@example.com");
+        User bob = new User("bob", "Bob", "bob@example.com");
+        repository.saveUser(alice).join();
+        repository.saveUser(bob).join();
+
+        Map<String, User> found = repository.getUsers(Arrays.asList("bob", "carol", "alice")).join();
+        assertEquals(Arrays.asList("bob", "alice"), Arrays.asList(found.keySet().toArray()));
+
+        repository.deleteUser("alice").join();
+        List<User> remaining = repository.getAllUsers().join();
+        assertEquals(1, remaining.size());
+        assertSame(bob, remaining.get(0));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.events.NotificationLogWriter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the recipient chunking used by NotificationLogWriter.
+ */
+public class NotificationLogWriterTest {
+
+    private List<Integer> generateItems(int amount) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    /**
+     * Tests that an empty recipient list produces no chunks
+     */
+    @Test
+    public void testPartition_Empty() {
+        assertTrue(NotificationLogWriter.partition(new ArrayList<Integer>(), 500).isEmpty());
+    }
+
+    /**
+     * Tests that a list smaller than the chunk size stays in one chunk
+     */
+    @Test
+    public void testPartition_SingleChunk() {
+        List<List<Integer>> chunks = NotificationLogWriter.partition(generateItems(3), 500);
+        assertEquals(1, chunks.size());
+        assertEquals(3, chunks.get(0).size());
+    }
+
+    /**
+     * Tests that a large list is split into bounded chunks that keep every item in order
+     */
+    @Test
+    public void testPartition_ManyChunks() {
+        List<List<Integer>> chunks = NotificationLogWriter.partition(generateItems(10001), 500);
+        assertEquals(21, chunks.size());
+        assertEquals(500, chunks.get(0).size());
+        assertEquals(1, chunks.get(20).size());
+
+        int expected = 0;
+        for (List<Integer> chunk : chunks) {
+            for (Integer item : chunk) {
+                assertEquals(expected++, (int) item);
+            }
+        }
+    }
+
+    /**
+     * Tests that a non-positive chunk size is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartition_InvalidSize() {
+        NotificationLogWriter.partition(generateItems(3), 0);
+    }
+}
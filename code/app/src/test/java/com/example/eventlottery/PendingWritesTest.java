@@ -0,0 +1,105 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.eventlottery.model.PendingWrites;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Unit tests for {@link PendingWrites}, which backs the pending/committed state of offline writes.
+ */
+public class PendingWritesTest {
+
+    /**
+     * Tests that a write is pending until the server has it, and listeners see both states.
+     */
+    @Test
+    public void pendingUntilCommittedTest() {
+        PendingWrites writes = new PendingWrites();
+        List<PendingWrites.State> seen = new ArrayList<>();
+        writes.addListener((key, state, error) -> seen.add(state));
+        assertEquals(PendingWrites.State.COMMITTED, writes.getState("waitlist/a"));
+
+        CompletableFuture<Void> write = new CompletableFuture<>();
+        writes.submit("waitlist/a", write);
+        assertEquals(PendingWrites.State.PENDING, writes.getState("waitlist/a"));
+        assertEquals(Collections.singletonList("waitlist/a"), writes.getPendingKeys());
+
+        write.complete(null);
+        assertEquals(PendingWrites.State.COMMITTED, writes.getState("waitlist/a"));
+        assertEquals(Arrays.asList(PendingWrites.State.PENDING, PendingWrites.State.COMMITTED), seen);
+        assertEquals(0, writes.getPendingKeys().size());
+    }
+
+    /**
+     * Tests that the latest write to a key decides its state: the outcome of an older,
+     * superseded write is ignored.
+     */
+    @Test
+    public void latestWriteWinsTest() {
+        PendingWrites writes = new PendingWrites();
+        CompletableFuture<Void> join = new CompletableFuture<>();
+        CompletableFuture<Void> leave = new CompletableFuture<>();
+        writes.submit("waitlist/a", join);
+        writes.submit("waitlist/a", leave);
+        assertEquals(1, writes.getSupersededCount());
+
+        join.completeExceptionally(new IllegalStateException("rejected"));
+        assertEquals(PendingWrites.State.PENDING, writes.getState("waitlist/a"));
+
+        leave.complete(null);
+        assertEquals(PendingWrites.State.COMMITTED, writes.getState("waitlist/a"));
+    }
+
+    /**
+     * Tests that a key is dropped once its write is committed, after the listeners saw it, while
+     * a failed write stays tracked.
+     */
+    @Test
+    public void committedKeyDroppedTest() {
+        PendingWrites writes = new PendingWrites();
+        List<PendingWrites.State> seenInListener = new ArrayList<>();
+        writes.addListener((key, state, error) -> seenInListener.add(writes.getState(key)));
+
+        CompletableFuture<Void> join = new CompletableFuture<>();
+        CompletableFuture<Void> accept = new CompletableFuture<>();
+        writes.submit("waitlist/a", join);
+        writes.submit("invitation/a", accept);
+        assertEquals(2, writes.getTrackedCount());
+
+        join.complete(null);
+        accept.completeExceptionally(new IllegalStateException("permission denied"));
+        assertEquals(Arrays.asList(PendingWrites.State.PENDING, PendingWrites.State.PENDING,
+                PendingWrites.State.COMMITTED, PendingWrites.State.FAILED), seenInListener);
+        assertEquals(1, writes.getTrackedCount());
+        assertEquals(PendingWrites.State.COMMITTED, writes.getState("waitlist/a"));
+        assertEquals(PendingWrites.State.FAILED, writes.getState("invitation/a"));
+    }
+
+    /**
+     * Tests that a rejected write is reported with its error.
+     */
+    @Test
+    public void failedWriteTest() {
+        PendingWrites writes = new PendingWrites();
+        List<Throwable> errors = new ArrayList<>();
+        writes.addListener((key, state, error) -> {
+            if (state == PendingWrites.State.FAILED) errors.add(error);
+        });
+
+        CompletableFuture<Void> write = new CompletableFuture<>();
+        writes.submit("invitation/a", write);
+        Exception denied = new IllegalStateException("permission denied");
+        write.completeExceptionally(denied);
+
+        assertEquals(PendingWrites.State.FAILED, writes.getState("invitation/a"));
+        assertEquals(Collections.singletonList(denied), errors);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.eventlottery.model.PosterColors;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PosterColors}, the colour shown while a poster loads.
+ */
+public class PosterColorsTest {
+
+    /**
+     * Tests that the colour covering most of the poster wins over a mix of all its colours.
+     */
+    @Test
+    public void dominantTest() {
+        int[] pixels = new int[10];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = i < 7 ? 0xFF1020F0 : 0xFFF01010;
+        }
+        assertEquals(0xFF1020F0, PosterColors.dominant(pixels));
+    }
+
+    /**
+     * Tests that similar shades are averaged and see-through pixels are left out.
+     */
+    @Test
+    public void averageTest() {
+        int[] pixels = {0xFF202020, 0xFF242424, 0x00FFFFFF, 0x10FFFFFF, 0x40FFFFFF};
+        assertEquals(0xFF222222, PosterColors.dominant(pixels));
+        assertEquals(PosterColors.NONE, PosterColors.dominant(new int[] {0x00FFFFFF}));
+        assertEquals(PosterColors.NONE, PosterColors.dominant(new int[0]));
+    }
+}
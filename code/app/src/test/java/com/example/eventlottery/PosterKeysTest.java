@@ -0,0 +1,38 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.eventlottery.model.PosterKeys;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PosterKeys}, which decides what posters are cached under.
+ */
+public class PosterKeysTest {
+    private static final String URL = "https://firebasestorage.googleapis.com/v0/b/eventlottery.appspot.com"
+            + "/o/images%2F1b9d6bcd-bbfd?alt=media&token=";
+
+    /**
+     * Tests that the storage path is the key, and download URLs of the same file with different
+     * tokens share it.
+     */
+    @Test
+    public void storagePathKeyTest() {
+        assertEquals("images/1b9d6bcd-bbfd", PosterKeys.cacheKey(URL + "aaa", "images/1b9d6bcd-bbfd"));
+        assertEquals("images/1b9d6bcd-bbfd", PosterKeys.cacheKey(URL + "aaa", null));
+        assertEquals(PosterKeys.cacheKey(URL + "aaa", ""), PosterKeys.cacheKey(URL + "bbb", ""));
+    }
+
+    /**
+     * Tests that other URLs are cached by URL, and a missing poster has no key.
+     */
+    @Test
+    public void otherUrlsTest() {
+        assertEquals("https://example.com/poster.png", PosterKeys.cacheKey("https://example.com/poster.png", null));
+        assertNull(PosterKeys.storagePathOf("not a url"));
+        assertNull(PosterKeys.cacheKey(null, null));
+        assertNull(PosterKeys.cacheKey("", ""));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.model.PosterVariants;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link PosterVariants}, the sizes posters are uploaded in.
+ */
+public class PosterVariantsTest {
+
+    /**
+     * Tests that photos are subsampled by powers of two, never below the width needed.
+     */
+    @Test
+    public void sampleSizeTest() {
+        assertEquals(1, PosterVariants.sampleSize(1000, 1280));
+        assertEquals(1, PosterVariants.sampleSize(2559, 1280));
+        assertEquals(2, PosterVariants.sampleSize(2560, 1280));
+        assertEquals(4, PosterVariants.sampleSize(6000, 1280));
+    }
+
+    /**
+     * Tests that every size of a poster is found from the path of one, and an older poster is
+     * just its own path.
+     */
+    @Test
+    public void pathsTest() {
+        String full = PosterVariants.pathFor("images/1234", PosterVariants.Variant.FULL);
+        assertEquals("images/1234_1280.webp", full);
+        assertEquals(Arrays.asList("images/1234_320.webp", "images/1234_720.webp", "images/1234_1280.webp"),
+                PosterVariants.allPaths(full));
+        assertEquals(Collections.singletonList("images/5678"), PosterVariants.allPaths("images/5678"));
+        assertTrue(PosterVariants.allPaths("").isEmpty());
+    }
+
+    /**
+     * Tests that the smallest size wide enough is picked, else the largest there is, else the
+     * poster's own URL.
+     */
+    @Test
+    public void pickTest() {
+        Map<String, String> urls = new HashMap<>();
+        urls.put("thumbnail", "t");
+        urls.put("card", "c");
+        urls.put("full", "f");
+        assertEquals("t", PosterVariants.pick(urls, "image", 200));
+        assertEquals("c", PosterVariants.pick(urls, "image", 700));
+        assertEquals("f", PosterVariants.pick(urls, "image", 2000));
+
+        urls.remove("full");
+        assertEquals("c", PosterVariants.pick(urls, "image", 2000));
+        assertEquals("image", PosterVariants.pick(null, "image", 700));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.model.QrExporter;
+import com.google.zxing.common.BitMatrix;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Unit tests for {@link QrExporter}, which streams the QR codes organizers download.
+ */
+public class QrExporterTest {
+
+    /** A 3x3 "code" with a dark diagonal. */
+    private static BitMatrix diagonal() {
+        BitMatrix modules = new BitMatrix(3, 3);
+        modules.set(0, 0);
+        modules.set(1, 1);
+        modules.set(2, 2);
+        return modules;
+    }
+
+    /**
+     * Tests that the streamed PNG is a valid image at the requested size, with each module scaled
+     * by a whole number and centred.
+     */
+    @Test
+    public void pngScaledTest() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QrExporter.writePng(diagonal(), 11, out);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(11, image.getWidth());
+        assertEquals(11, image.getHeight());
+        // Scale 3, offset 1: module (0, 0) covers pixels 1..3
+        assertEquals(0x000000, image.getRGB(1, 1) & 0xFFFFFF);
+        assertEquals(0x000000, image.getRGB(3, 3) & 0xFFFFFF);
+        assertEquals(0xFFFFFF, image.getRGB(4, 1) & 0xFFFFFF);
+        assertEquals(0xFFFFFF, image.getRGB(0, 0) & 0xFFFFFF);
+        assertEquals(0x000000, image.getRGB(9, 9) & 0xFFFFFF);
+        assertEquals(0xFFFFFF, image.getRGB(10, 10) & 0xFFFFFF);
+    }
+
+    /**
+     * Tests that the SVG is one square per module, in module units.
+     */
+    @Test
+    public void svgTest() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QrExporter.writeSvg(diagonal(), out);
+
+        String svg = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(svg.contains("viewBox=\"0 0 3 3\""));
+        assertTrue(svg.contains("d=\"M0 0h1v1h-1zM1 1h1v1h-1zM2 2h1v1h-1z\""));
+    }
+
+    /**
+     * Tests that a batch export has one file per event, named after it, without overwriting
+     * events with the same name.
+     */
+    @Test
+    public void zipTest() throws Exception {
+        Map<String, String> namesById = new LinkedHashMap<>();
+        namesById.put("a", "Swim Lessons");
+        namesById.put("b", "Swim Lessons");
+        namesById.put("c", "Piano 1/2");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QrExporter.writeZip(namesById, QrExporter.Format.SVG, 0, out);
+
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                names.add(entry.getName());
+            }
+        }
+        assertEquals(3, names.size());
+        assertEquals("Swim Lessons QR Code.svg", names.get(0));
+        assertEquals("Swim Lessons QR Code (2).svg", names.get(1));
+        assertEquals("Piano 1_2 QR Code.svg", names.get(2));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.model.ScannedEvent;
+import com.example.eventlottery.users.User;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Unit tests for {@link ScannedEvent}, which resolves a scanned QR code from the cache or the network.
+ */
+public class ScannedEventTest {
+
+    private static Event event(String id) {
+        return new Event(id, id, "", "", "", "", new Date(0), new Date(1));
+    }
+
+    /**
+     * Tests that a cached event is used straight away, before the network answers,
+     * and the waitlist size comes from the network.
+     */
+    @Test
+    public void cacheHitFirstTest() {
+        Event cached = event("a");
+        CompletableFuture<Event> network = new CompletableFuture<>();
+        ScannedEvent scanned = new ScannedEvent("a", CompletableFuture.completedFuture(cached), network);
+
+        assertSame(cached, scanned.getEvent().join());
+        assertFalse(scanned.getWaitlistSize().isDone());
+
+        Event fresh = event("a");
+        fresh.addToWaitlist(new User("u1", "Una", "u1@example.com"));
+        fresh.addToWaitlist(new User("u2", "Ugo", "u2@example.com"));
+        network.complete(fresh);
+        assertEquals(Integer.valueOf(2), scanned.getWaitlistSize().join());
+        assertSame(cached, scanned.getEvent().join());
+    }
+
+    /**
+     * Tests that a cache miss waits for the network, and a code that isn't an event resolves to null.
+     */
+    @Test
+    public void cacheMissTest() {
+        CompletableFuture<Event> network = new CompletableFuture<>();
+        ScannedEvent scanned = new ScannedEvent("a", CompletableFuture.completedFuture(null), network);
+        assertFalse(scanned.getEvent().isDone());
+        Event fresh = event("a");
+        network.complete(fresh);
+        assertSame(fresh, scanned.getEvent().join());
+
+        ScannedEvent unknown = new ScannedEvent("nope", CompletableFuture.completedFuture(null),
+                CompletableFuture.completedFuture(null));
+        assertNull(unknown.getEvent().join());
+        assertEquals(Integer.valueOf(-1), unknown.getWaitlistSize().join());
+    }
+
+    /**
+     * Tests that a failed network lookup is reported only if the event isn't cached either.
+     */
+    @Test
+    public void networkFailureTest() {
+        CompletableFuture<Event> offline = new CompletableFuture<>();
+        offline.completeExceptionally(new IllegalStateException("offline"));
+        ScannedEvent missing = new ScannedEvent("a", CompletableFuture.completedFuture(null), offline);
+        assertTrue(missing.getEvent().isCompletedExceptionally());
+
+        Event cached = event("b");
+        ScannedEvent stillCached = new ScannedEvent("b", CompletableFuture.completedFuture(cached), offline);
+        assertSame(cached, stillCached.getEvent().join());
+    }
+}
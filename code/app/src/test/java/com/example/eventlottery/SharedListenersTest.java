@@ -0,0 +1,100 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.eventlottery.model.SharedListeners;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link SharedListeners}, the reference counting behind the listener hub.
+ * Values are delivered on the calling thread.
+ */
+public class SharedListenersTest {
+
+    /** Stands in for a Firestore listener; counts attaches and detaches. */
+    private static class FakeSource implements SharedListeners.Source<String> {
+        int attached;
+        int detached;
+        SharedListeners.Listener<String> sink;
+
+        @Override
+        public Runnable attach(SharedListeners.Listener<String> sink) {
+            attached++;
+            this.sink = sink;
+            return () -> detached++;
+        }
+    }
+
+    /**
+     * Tests that subscribers to the same key share one underlying listener,
+     * which is detached only when the last subscriber leaves.
+     */
+    @Test
+    public void refCountingTest() {
+        SharedListeners<String, String> listeners = new SharedListeners<>(Runnable::run);
+        FakeSource source = new FakeSource();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        SharedListeners.Subscription a = listeners.subscribe("events", source, (value, error) -> first.add(value));
+        SharedListeners.Subscription b = listeners.subscribe("events", source, (value, error) -> second.add(value));
+        assertEquals(1, source.attached);
+        assertEquals(2, listeners.subscriberCount("events"));
+
+        source.sink.onEvent("v1", null);
+        assertEquals(List.of("v1"), first);
+        assertEquals(List.of("v1"), second);
+
+        a.remove();
+        a.remove(); // removing twice must not drop the other subscriber
+        assertEquals(0, source.detached);
+        source.sink.onEvent("v2", null);
+        assertEquals(List.of("v1"), first);
+        assertEquals(List.of("v1", "v2"), second);
+
+        b.remove();
+        assertEquals(1, source.detached);
+        assertEquals(0, listeners.size());
+    }
+
+    /**
+     * Tests that a late subscriber gets the latest value straight away.
+     */
+    @Test
+    public void lateSubscriberGetsLatestValueTest() {
+        SharedListeners<String, String> listeners = new SharedListeners<>(Runnable::run);
+        FakeSource source = new FakeSource();
+        listeners.subscribe("doc", source, (value, error) -> { });
+        source.sink.onEvent("current", null);
+
+        List<String> late = new ArrayList<>();
+        listeners.subscribe("doc", source, (value, error) -> late.add(value));
+        assertEquals(List.of("current"), late);
+        assertEquals(1, source.attached);
+    }
+
+    /**
+     * Tests that an error is passed on and the next subscriber attaches a new listener.
+     */
+    @Test
+    public void errorEndsSharedListenerTest() {
+        SharedListeners<String, String> listeners = new SharedListeners<>(Runnable::run);
+        FakeSource source = new FakeSource();
+        List<Exception> errors = new ArrayList<>();
+        listeners.subscribe("events", source, (value, error) -> errors.add(error));
+
+        Exception denied = new IllegalStateException("permission denied");
+        source.sink.onEvent(null, denied);
+        assertEquals(List.of(denied), errors);
+        assertEquals(0, listeners.size());
+
+        List<String> values = new ArrayList<>();
+        listeners.subscribe("events", source, (value, error) -> values.add(value));
+        assertEquals(2, source.attached);
+        assertEquals(0, values.size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.model.StartupTasks;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link StartupTasks}, which decides when the splash screen can hand over to MainActivity.
+ */
+public class StartupTasksTest {
+
+    /**
+     * Tests that the app is ready once the required tasks are done, without waiting for optional ones.
+     */
+    @Test
+    public void readyWithoutOptionalTasksTest() {
+        AtomicLong now = new AtomicLong();
+        StartupTasks tasks = new StartupTasks(now::get);
+        CompletableFuture<String> user = new CompletableFuture<>();
+        CompletableFuture<String> events = new CompletableFuture<>();
+        CompletableFuture<String> token = new CompletableFuture<>();
+
+        tasks.run("user", true, () -> user);
+        tasks.run("events", true, () -> events);
+        tasks.run("token", false, () -> token);
+        CompletableFuture<Void> ready = tasks.whenReady();
+
+        now.set(120);
+        user.complete("alice");
+        assertFalse(ready.isDone());
+
+        now.set(300);
+        events.complete("page");
+        assertTrue(ready.isDone());
+        assertEquals(Long.valueOf(120), tasks.getDurations().get("user"));
+        assertEquals(Long.valueOf(300), tasks.getDurations().get("events"));
+        assertFalse(tasks.getDurations().containsKey("token"));
+    }
+
+    /**
+     * Tests that a failed required task, including one that throws straight away,
+     * doesn't keep the app from being ready.
+     */
+    @Test
+    public void failedTaskStillReadyTest() {
+        StartupTasks tasks = new StartupTasks(() -> 0L);
+        CompletableFuture<String> events = new CompletableFuture<>();
+        tasks.run("events", true, () -> events);
+        CompletableFuture<String> user = tasks.run("user", true, () -> {
+            throw new IllegalStateException("no network");
+        });
+
+        events.completeExceptionally(new IllegalStateException("offline"));
+        assertTrue(tasks.whenReady().isDone());
+        assertTrue(user.isCompletedExceptionally());
+        assertEquals(2, tasks.getFailures().size());
+        assertTrue(tasks.summary().contains("user 0 ms failed"));
+    }
+}
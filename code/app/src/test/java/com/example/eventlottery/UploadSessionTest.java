@@ -0,0 +1,72 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.eventlottery.model.UploadSession;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Unit tests for {@link UploadSession}, the saved state of a queued poster upload.
+ */
+public class UploadSessionTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests that a saved session is read back as it was, so an upload resumes where it stopped.
+     */
+    @Test
+    public void resumeTest() throws IOException {
+        File file = new File(folder.getRoot(), "session.properties");
+        UploadSession session = UploadSession.create(file, "event1");
+        session.setBasePath("images/1234");
+        session.setSessionUri("card", "https://upload/session");
+        session.setProgress("card", 256, 1024);
+        session.setProgress("full", 0, 1024);
+        session.save();
+
+        UploadSession loaded = UploadSession.load(file);
+        assertEquals("event1", loaded.getEventId());
+        assertEquals("images/1234", loaded.getBasePath());
+        assertEquals("https://upload/session", loaded.getSessionUri("card"));
+        assertNull(loaded.getSessionUri("full"));
+        assertEquals(12, loaded.getProgressPercent());
+    }
+
+    /**
+     * Tests that an uploaded size keeps its URL and counts as fully sent, and a session that
+     * can't be resumed starts that size over.
+     */
+    @Test
+    public void progressTest() {
+        UploadSession session = UploadSession.create(new File(folder.getRoot(), "session"), "event1");
+        session.setSessionUri("card", "https://upload/card");
+        session.setProgress("card", 512, 1000);
+        session.setSessionUri("full", "https://upload/full");
+        session.setProgress("full", 500, 1000);
+
+        session.setUrl("card", "https://download/card");
+        assertNull(session.getSessionUri("card"));
+        assertEquals("https://download/card", session.getUrls().get("card"));
+        assertEquals(75, session.getProgressPercent());
+
+        session.setSessionUri("full", null);
+        assertEquals(50, session.getProgressPercent());
+    }
+
+    /**
+     * Tests that a missing or unrelated file isn't taken for a session.
+     */
+    @Test
+    public void missingTest() throws IOException {
+        assertNull(UploadSession.load(new File(folder.getRoot(), "none")));
+        assertNull(UploadSession.load(folder.newFile("empty")));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.example.eventlottery.model.CachingUserRepository;
+import com.example.eventlottery.model.InMemoryUserRepository;
+import com.example.eventlottery.model.UserCache;
+import com.example.eventlottery.users.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link UserCache} and {@link CachingUserRepository}.
+ */
+public class UserCacheTest {
+    private static final long TTL = 1000;
+
+    /** Fetches that only complete when the test completes them. */
+    private static class PendingFetches {
+        final Map<String, CompletableFuture<User>> pending = new HashMap<>();
+        final List<String> requested = new ArrayList<>();
+
+        CompletableFuture<User> fetch(String userId) {
+            requested.add(userId);
+            return pending.computeIfAbsent(userId, id -> new CompletableFuture<>());
+        }
+
+        void complete(User user) {
+            pending.get(user.getId()).complete(user);
+        }
+    }
+
+    private static User user(String id, String name) {
+        return new User(id, name, id + "@example.com");
+    }
+
+    /**
+     * Tests that concurrent requests for the same user share one fetch, and later ones hit the cache.
+     */
+    @Test
+    public void coalescesConcurrentRequestsTest() throws Exception {
+        UserCache cache = new UserCache(10, TTL, () -> 0L);
+        PendingFetches fetches = new PendingFetches();
+
+        CompletableFuture<User> first = cache.getOrFetch("a", fetches::fetch);
+        CompletableFuture<User> second = cache.getOrFetch("a", fetches::fetch);
+        assertFalse(first.isDone());
+        fetches.complete(user("a", "Alice"));
+
+        assertSame(first.get(), second.get());
+        assertEquals(Arrays.asList("a"), fetches.requested);
+        assertEquals("Alice", cache.getOrFetch("a", fetches::fetch).get().getName());
+        assertEquals(1, fetches.requested.size());
+        assertEquals(1, cache.getCoalescedCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    /**
+     * Tests that a user is fetched again once their entry is older than the time to live.
+     */
+    @Test
+    public void expiresAfterTtlTest() throws Exception {
+        AtomicLong now = new AtomicLong();
+        UserCache cache = new UserCache(10, TTL, now::get);
+        cache.refresh(user("a", "Alice"));
+
+        now.set(TTL);
+        assertEquals("Alice", cache.get("a").getName());
+        now.set(TTL + 1);
+        assertNull(cache.get("a"));
+    }
+
+    /**
+     * Tests that a snapshot arriving during a fetch wins over the fetched, older user.
+     */
+    @Test
+    public void snapshotWinsOverSlowFetchTest() throws Exception {
+        UserCache cache = new UserCache(10, TTL, () -> 0L);
+        PendingFetches fetches = new PendingFetches();
+
+        CompletableFuture<User> fetch = cache.getOrFetch("a", fetches::fetch);
+        cache.refresh(user("a", "From snapshot"));
+        fetches.complete(user("a", "From slow fetch"));
+
+        assertEquals("From snapshot", fetch.get().getName());
+        assertEquals("From snapshot", cache.get("a").getName());
+    }
+
+    /**
+     * Tests that the least recently used user is evicted.
+     */
+    @Test
+    public void lruEvictionTest() {
+        UserCache cache = new UserCache(2, TTL, () -> 0L);
+        cache.refresh(user("a", "A"));
+        cache.refresh(user("b", "B"));
+        cache.get("a");
+        cache.refresh(user("c", "C"));
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a").getName());
+    }
+
+    /**
+     * Tests that batched reads only ask the wrapped repository for users that aren't cached,
+     * and keep the order the ids were asked for.
+     */
+    @Test
+    public void cachingRepositoryBatchTest() throws Exception {
+        InMemoryUserRepository store = new InMemoryUserRepository();
+        store.saveUser(user("a", "A")).get();
+        store.saveUser(user("b", "B")).get();
+        UserCache cache = new UserCache(10, TTL, () -> 0L);
+        CachingUserRepository repository = new CachingUserRepository(store, cache);
+
+        repository.getUser("b").get();
+        store.deleteUser("b").get(); // only a cache hit can still find them
+
+        Map<String, User> users = repository.getUsers(Arrays.asList("b", "a", "missing")).get();
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<>(users.keySet()));
+
+        repository.deleteUser("a").get();
+        assertNull(repository.getUser("a").get());
+    }
+
+    /**
+     * Tests that a copy of a cached user can be changed without changing the shared instance.
+     */
+    @Test
+    public void copyLeavesCachedUserTest() throws Exception {
+        InMemoryUserRepository store = new InMemoryUserRepository();
+        User stored = user("a", "A");
+        stored.setRegisteredEvents(new HashMap<>());
+        store.saveUser(stored).get();
+        CachingUserRepository repository = new CachingUserRepository(store, new UserCache(10, TTL, () -> 0L));
+
+        User copy = new User(repository.getUser("a").get());
+        copy.getRegisteredEvents().put("event", "Accepted");
+
+        assertFalse(repository.getUser("a").get().getRegisteredEvents().containsKey("event"));
+    }
+}
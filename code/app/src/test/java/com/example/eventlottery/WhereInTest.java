@@ -0,0 +1,46 @@
+package com.example.eventlottery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.eventlottery.model.WhereIn;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link WhereIn}.
+ */
+public class WhereInTest {
+
+    /**
+     * Tests that IDs are split into chunks within Firestore's whereIn limit, keeping their order
+     */
+    @Test
+    public void testChunks_WithinLimit() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 65; i++) {
+            ids.add("id" + i);
+        }
+
+        List<List<String>> chunks = WhereIn.chunks(ids);
+        assertEquals(3, chunks.size());
+        assertEquals(WhereIn.MAX_VALUES, chunks.get(0).size());
+        assertEquals(5, chunks.get(2).size());
+        assertEquals("id30", chunks.get(1).get(0));
+    }
+
+    /**
+     * Tests that a duplicated ID is queried once and no IDs give no chunks
+     */
+    @Test
+    public void testChunks_DuplicatesAndEmpty() {
+        List<List<String>> chunks = WhereIn.chunks(Arrays.asList("a", "b", "a"));
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b")), chunks);
+        assertTrue(WhereIn.chunks(Collections.emptyList()).isEmpty());
+    }
+}
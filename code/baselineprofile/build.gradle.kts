@@ -0,0 +1,40 @@
+// Generates the app's baseline profile: the classes and methods that startup and scrolling
+// the event list run, which are then compiled ahead of time on install instead of being
+// interpreted and JIT-compiled on every cold start.
+// Needs a connected device or emulator on API 33+ (or a rooted one on API 28+).
+// Run with:
+//   ./gradlew :app:generateBaselineProfile
+// The profile is written to app/src/release/generated/baselineProfiles/ and should be committed.
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.androidx.baselineprofile)
+}
+
+android {
+    namespace = "com.example.eventlottery.baselineprofile"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    targetProjectPath = ":app"
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation("androidx.test.ext:junit:1.1.5")
+    implementation("androidx.test.uiautomator:uiautomator:2.3.0")
+    implementation("androidx.benchmark:benchmark-macro-junit4:1.4.1")
+}
@@ -0,0 +1,52 @@
+package com.example.eventlottery.baselineprofile;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Records the code run by the app's critical user journey into its baseline profile:
+ * launching through the splash screen, MainActivity listing the events (Firestore
+ * deserialization and MyAdapter binding), and scrolling the list.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+    private static final String PACKAGE = "com.example.eventlottery";
+    /** How long to wait for MainActivity's list to appear. */
+    private static final long LIST_TIMEOUT_MILLIS = 10_000;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    /** Startup and scrolling the event list. */
+    @Test
+    public void startupAndScroll() {
+        baselineProfileRule.collect(PACKAGE, scope -> {
+            scope.pressHome();
+            scope.startActivityAndWait();
+
+            UiDevice device = scope.getDevice();
+            device.wait(Until.hasObject(By.res(PACKAGE, "recycler_view")), LIST_TIMEOUT_MILLIS);
+            UiObject2 list = device.findObject(By.res(PACKAGE, "recycler_view"));
+            if (list != null) {
+                // Keep the gestures clear of the system navigation
+                list.setGestureMargin(device.getDisplayWidth() / 5);
+                list.fling(Direction.DOWN);
+                device.waitForIdle();
+                list.fling(Direction.UP);
+                device.waitForIdle();
+            }
+            return Unit.INSTANCE;
+        });
+    }
+}
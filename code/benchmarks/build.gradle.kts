@@ -0,0 +1,58 @@
+// JVM-only JMH benchmarks for the pure-Java parts of the app.
+// Run with: ./gradlew :benchmarks:jmh
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// The app sources contain emoji, match the Android build's encoding
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// Compile the benchmarked classes straight from the app sources, so the benchmarks always
+// measure the shipped code. Only classes that run without the Android framework can be listed
+// here; User only touches it in its Context constructor, which the benchmarks never call.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/eventlottery/events/FcmPayloadTemplate.java",
+                "com/example/eventlottery/events/Event.java",
+                "com/example/eventlottery/events/EventFilter.java",
+                "com/example/eventlottery/events/FinalizedList.java",
+                "com/example/eventlottery/events/LotterySystem.java",
+                "com/example/eventlottery/events/Waitlist.java",
+                "com/example/eventlottery/model/EventRepository.java",
+                "com/example/eventlottery/model/InMemoryEventRepository.java",
+                "com/example/eventlottery/model/InMemoryUserRepository.java",
+                "com/example/eventlottery/model/UserRepository.java",
+                "com/example/eventlottery/users/User.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    // Android API stubs and annotations, only needed to compile the app sources above
+    compileOnly(libs.android.stubs)
+    compileOnly(libs.androidx.annotation)
+
+    // Stand-in for Android's bundled org.json, used by the baseline payload builder
+    jmh(libs.org.json)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // Report allocation rate (gc.alloc.rate.norm = bytes allocated per operation)
+    profilers.add("gc")
+}
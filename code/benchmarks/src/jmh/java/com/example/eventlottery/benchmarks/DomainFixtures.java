@@ -0,0 +1,73 @@
+package com.example.eventlottery.benchmarks;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.users.User;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic test data shared by the domain benchmarks.
+ */
+final class DomainFixtures {
+    /** Tags events are labelled with, a few per event. */
+    static final String[] TAGS = {
+            "Music", "Sports", "Art", "Food", "Tech", "Outdoors", "Family", "Education", "Charity", "Gaming"
+    };
+    /** Midnight of the first day events are spread over. */
+    static final long FIRST_DAY = 1_764_547_200_000L; // 2025-12-01T00:00:00Z
+    static final long HOUR_MILLIS = 60L * 60 * 1000;
+    static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    /** Number of days events are spread over. */
+    static final int DAYS = 365;
+
+    private DomainFixtures() {}
+
+    /**
+     * @param count the number of users
+     * @return users with unique ids, names and emails
+     */
+    static ArrayList<User> users(int count) {
+        ArrayList<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User("user-" + i, "User " + i, "user" + i + "@example.com", "780-555-0000"));
+        }
+        return users;
+    }
+
+    /**
+     * @param count the number of events
+     * @param seed the random seed
+     * @return events spread over {@link #DAYS} days, each lasting 1-4 hours with 1-3 tags
+     */
+    static ArrayList<Event> events(int count, long seed) {
+        Random random = new Random(seed);
+        ArrayList<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = FIRST_DAY + random.nextInt(DAYS) * DAY_MILLIS + random.nextInt(20) * HOUR_MILLIS;
+            long end = start + (1 + random.nextInt(4)) * HOUR_MILLIS;
+            Event event = new Event("event-" + i, "Event " + i, "Description " + i, "Edmonton",
+                    "organizer-" + (i % 50), "", new Date(start), new Date(end));
+            int tagCount = 1 + random.nextInt(3);
+            for (int t = 0; t < tagCount; t++) {
+                event.addFilterTag(TAGS[random.nextInt(TAGS.length)]);
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * @param count the number of ids
+     * @return the ids of the first {@code count} users of {@link #users(int)}
+     */
+    static List<String> userIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("user-" + i);
+        }
+        return ids;
+    }
+}
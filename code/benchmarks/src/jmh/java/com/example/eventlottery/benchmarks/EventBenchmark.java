@@ -0,0 +1,71 @@
+package com.example.eventlottery.benchmarks;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.users.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link Event} operations whose cost grows with the number of events or entrants:
+ * {@link Event#getLosers()} on a waitlist of {@code size} users with {@code selected} winners,
+ * and {@link Event#findEventById(ArrayList, String)} over {@code size} events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"100"})
+    public int selected;
+
+    private Event drawnEvent;
+    private ArrayList<Event> events;
+    private String lastEventId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        drawnEvent = new Event("drawn", "Drawn event", "", "", "", "",
+                new Date(DomainFixtures.FIRST_DAY), new Date(DomainFixtures.FIRST_DAY + DomainFixtures.HOUR_MILLIS));
+        for (User user : DomainFixtures.users(size)) {
+            drawnEvent.addToWaitlist(user);
+        }
+        drawnEvent.setSelectedIds(DomainFixtures.userIds(Math.min(selected, size)));
+
+        events = DomainFixtures.events(size, 42);
+        lastEventId = events.get(size - 1).getId().toUpperCase();
+    }
+
+    @Benchmark
+    public List<User> getLosers() {
+        return drawnEvent.getLosers();
+    }
+
+    /**
+     * Worst case: the event is the last one, and its id differs in case.
+     */
+    @Benchmark
+    public int findEventByIdLast() {
+        return Event.findEventById(events, lastEventId);
+    }
+
+    @Benchmark
+    public int findEventByIdMissing() {
+        return Event.findEventById(events, "missing-event");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.eventlottery.benchmarks;
+
+import com.example.eventlottery.events.Event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures constructing {@code count} events, which formats their dates (see {@code Event.formatDates}),
+ * as done when a page of events is loaded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventConstructionBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int count;
+
+    private Date[] starts;
+    private Date[] ends;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        starts = new Date[count];
+        ends = new Date[count];
+        for (int i = 0; i < count; i++) {
+            long start = DomainFixtures.FIRST_DAY + (i % DomainFixtures.DAYS) * DomainFixtures.DAY_MILLIS;
+            starts[i] = new Date(start);
+            ends[i] = new Date(start + 2 * DomainFixtures.HOUR_MILLIS);
+        }
+    }
+
+    @Benchmark
+    public void construct(Blackhole bh) {
+        for (int i = 0; i < count; i++) {
+            bh.consume(new Event("event-" + i, "Event", "Description", "Edmonton", "organizer", "",
+                    starts[i], ends[i]));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.eventlottery.benchmarks;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.EventFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filtering {@code size} events on the home screen with {@link EventFilter}:
+ * by two tags, by {@code selectedDays} days, and by both.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventFilterBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    @Param({"1", "30"})
+    public int selectedDays;
+
+    private ArrayList<Event> events;
+    private List<String> tags;
+    private Set<Long> datesMidnight;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = DomainFixtures.events(size, 7);
+        tags = Arrays.asList("Music", "Tech");
+        datesMidnight = new HashSet<>();
+        for (int d = 0; d < selectedDays; d++) {
+            datesMidnight.add(DomainFixtures.FIRST_DAY + d * 7 * DomainFixtures.DAY_MILLIS);
+        }
+    }
+
+    @Benchmark
+    public List<Event> byTags() {
+        return EventFilter.apply(events, tags, null);
+    }
+
+    @Benchmark
+    public List<Event> byDates() {
+        return EventFilter.apply(events, null, datesMidnight);
+    }
+
+    @Benchmark
+    public List<Event> byTagsAndDates() {
+        return EventFilter.apply(events, tags, datesMidnight);
+    }
+
+    @Benchmark
+    public void occursOnAnySelectedDate(Blackhole bh) {
+        for (int i = 0; i < events.size(); i++) {
+            bh.consume(EventFilter.occursOnAnySelectedDate(events.get(i), datesMidnight));
+        }
+    }
+}
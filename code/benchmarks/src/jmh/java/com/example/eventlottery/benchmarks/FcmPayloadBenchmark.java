@@ -0,0 +1,105 @@
+package com.example.eventlottery.benchmarks;
+
+import com.example.eventlottery.events.FcmPayloadTemplate;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building one FCM message per recipient with {@code JSONObject} trees (the previous
+ * path in NotificationSystem) against splicing recipients into a {@link FcmPayloadTemplate}.
+ * <p>
+ * Each invocation serializes the payloads of a whole batch of {@code recipients}, including the
+ * one-off cost of compiling the template. Run with the {@code gc} profiler to compare
+ * {@code gc.alloc.rate.norm}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FcmPayloadBenchmark {
+    @Param({"1", "100", "10000"})
+    public int recipients;
+
+    private String[] tokens;
+    private String[] userNames;
+    private ByteArrayOutputStream out;
+
+    private final String title = "You're Invited! 🎉";
+    private final String body = "You have been selected for the Winter Concert. Please accept your invitation in the app.";
+    private final String type = "invitation";
+    private final String eventName = "Winter Concert";
+    private final String eventId = "3f1c2a9e-8b7d-4e21-9c55-0d6f4a7b1e90";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokens = new String[recipients];
+        userNames = new String[recipients];
+        for (int i = 0; i < recipients; i++) {
+            // FCM tokens are ~160 characters
+            tokens[i] = "fGq3" + i + ":APA91bH" + "x".repeat(150);
+            userNames[i] = "Entrant " + i;
+        }
+        out = new ByteArrayOutputStream(1024);
+    }
+
+    /**
+     * The previous path, building the same data-only message: four JSONObjects per recipient,
+     * serialized to a String then encoded.
+     */
+    @Benchmark
+    public void jsonObjectPerRecipient(Blackhole bh) throws JSONException {
+        for (int i = 0; i < recipients; i++) {
+            JSONObject message = new JSONObject();
+            JSONObject messageContent = new JSONObject();
+            JSONObject data = new JSONObject();
+            JSONObject android = new JSONObject();
+
+            data.put("title", title);
+            data.put("body", body);
+            data.put("type", type);
+            data.put("eventName", eventName);
+            data.put("eventId", eventId);
+            data.put("userName", userNames[i]);
+
+            android.put("priority", "high");
+
+            messageContent.put("token", tokens[i]);
+            messageContent.put("data", data);
+            messageContent.put("android", android);
+
+            message.put("message", messageContent);
+
+            // RequestBody.create(String, ...) encodes the string to UTF-8 bytes
+            bh.consume(message.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * The template path: compile once per batch, stream each recipient into a reused buffer.
+     */
+    @Benchmark
+    public void templatePerBatch(Blackhole bh) throws IOException {
+        FcmPayloadTemplate template = new FcmPayloadTemplate(title, body, type, eventName, eventId);
+        for (int i = 0; i < recipients; i++) {
+            out.reset();
+            template.writeTo(out, tokens[i], userNames[i]);
+            bh.consume(out);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.eventlottery.benchmarks;
+
+import com.example.eventlottery.events.LotterySystem;
+import com.example.eventlottery.users.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LotterySystem#selectWinners(int)} drawing {@code winners} users from a
+ * waitlist of {@code waitlistSize}.
+ * <p>
+ * A draw removes the winners from the waitlist, so every invocation draws from a fresh copy.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LotterySystemBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int waitlistSize;
+
+    @Param({"10", "100"})
+    public int winners;
+
+    private ArrayList<User> users;
+    private LotterySystem lottery;
+
+    @Setup(Level.Trial)
+    public void createUsers() {
+        users = DomainFixtures.users(waitlistSize);
+    }
+
+    @Setup(Level.Invocation)
+    public void createLottery() {
+        lottery = new LotterySystem(new ArrayList<>(users));
+    }
+
+    @Benchmark
+    public List<User> selectWinners() {
+        return lottery.selectWinners(Math.min(winners, waitlistSize));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.eventlottery.benchmarks;
+
+import com.example.eventlottery.events.Waitlist;
+import com.example.eventlottery.users.User;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding and removing users on a {@link Waitlist} of {@code size} users.
+ * <p>
+ * Each benchmark restores the waitlist to {@code size} users, so the size stays constant
+ * across invocations.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WaitlistBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int size;
+
+    private Waitlist waitlist;
+    private User newcomer;
+
+    @Setup(Level.Trial)
+    public void createWaitlist() {
+        waitlist = new Waitlist(DomainFixtures.users(size));
+        newcomer = new User("newcomer", "Newcomer", "newcomer@example.com", "780-555-0000");
+    }
+
+    /**
+     * Adds a user to the end of the waitlist (then drops it again directly from the list).
+     */
+    @Benchmark
+    public Waitlist addUser() {
+        waitlist.addUser(newcomer);
+        ArrayList<User> users = waitlist.getWaitlistedUsers();
+        users.remove(users.size() - 1);
+        return waitlist;
+    }
+
+    /**
+     * Removes the user in the middle of the waitlist (then re-adds it at the end).
+     */
+    @Benchmark
+    public Waitlist removeUser() {
+        ArrayList<User> users = waitlist.getWaitlistedUsers();
+        User middle = users.get(users.size() / 2);
+        waitlist.removeUser(middle);
+        users.add(middle);
+        return waitlist;
+    }
+}
@@ -1,6 +1,9 @@
 // Top-level build file where you can add configuration options common to all sub-projects/modules.
 plugins {
     alias(libs.plugins.android.application) apply false
+    alias(libs.plugins.android.test) apply false
+    alias(libs.plugins.jmh) apply false
+    alias(libs.plugins.androidx.baselineprofile) apply false
     id("com.google.gms.google-services") version "4.4.4" apply false
     id("org.jetbrains.kotlin.android") version "1.9.22" apply false
     id("com.google.android.libraries.mapsplatform.secrets-gradle-plugin") version "2.0.1" apply false
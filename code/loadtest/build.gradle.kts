@@ -0,0 +1,40 @@
+// Load tests of the join/draw/notify flows, run against the Firestore emulator on a
+// connected device or Android emulator. Nothing is sent to the live Firebase project.
+// Run with:
+//   firebase emulators:exec --only firestore --project demo-eventlottery \
+//       "./gradlew :loadtest:connectedCheck"
+// Sizes can be overridden with instrumentation arguments, e.g.
+//   -Pandroid.testInstrumentationRunnerArguments.joiners=2000
+// (events, waitlistSize, joiners, leavers, concurrency, drawCapacity, emulatorHost, emulatorPort)
+plugins {
+    alias(libs.plugins.android.test)
+}
+
+android {
+    namespace = "com.example.eventlottery.loadtest"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 26
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    // Runs in the app's process, against the app's own classes
+    targetProjectPath = ":app"
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    implementation(platform("com.google.firebase:firebase-bom:34.4.0"))
+    implementation("com.google.firebase:firebase-firestore")
+
+    implementation("junit:junit:4.13.2")
+    implementation("androidx.test:runner:1.5.2")
+    implementation("androidx.test.ext:junit:1.1.5")
+}
@@ -0,0 +1,142 @@
+package com.example.eventlottery.loadtest;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.WaitlistService;
+import com.example.eventlottery.users.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds the Firestore emulator with the events and users of a load test run.
+ * <p>
+ * Documents are written in the same shape as the app writes them: events and users as POJOs,
+ * waitlist entries as the maps written when joining. Every id is prefixed with the run id,
+ * so repeated runs against the same emulator don't interfere with each other.
+ * </p>
+ */
+public class EmulatorSeeder {
+    /** Firestore limit on the number of operations in a single batch. */
+    private static final int MAX_BATCH_OPERATIONS = 500;
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private final FirebaseFirestore db;
+    private final String runId;
+
+    private final List<Event> events = new ArrayList<>();
+    private final List<List<User>> waitlists = new ArrayList<>();
+    private final List<User> joiners = new ArrayList<>();
+
+    /**
+     * Constructor for EmulatorSeeder.
+     * @param db the Firestore instance connected to the emulator
+     * @param runId the prefix of every seeded document id
+     */
+    public EmulatorSeeder(FirebaseFirestore db, String runId) {
+        this.db = db;
+        this.runId = runId;
+    }
+
+    /**
+     * Writes the events, their initial waitlists and the users who will join during the run.
+     * Blocks until every batch has been committed, so it must not be called on the main thread.
+     * @param config the sizes of the run
+     * @throws Exception if a batch fails or times out
+     */
+    public void seed(LoadTestConfig config) throws Exception {
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int operations = 0;
+
+        long now = System.currentTimeMillis();
+        Date start = new Date(now + TimeUnit.DAYS.toMillis(30));
+        Date end = new Date(start.getTime() + TimeUnit.HOURS.toMillis(2));
+
+        int userIndex = 0;
+        for (int e = 0; e < config.events; e++) {
+            Event event = new Event(runId + "-event-" + e, "Load test event " + e, "Seeded for load testing",
+                    "Emulator", runId + "-organizer", "", start, end);
+            List<User> waitlist = new ArrayList<>();
+            List<Map<String, Object>> entries = new ArrayList<>();
+
+            for (int w = 0; w < config.waitlistSize; w++) {
+                User user = newUser(userIndex++);
+                user.AddJoinedWaitlist(event.getId());
+                waitlist.add(user);
+                entries.add(WaitlistService.toWaitlistEntry(user));
+
+                batch.set(userRef(user), user);
+                if (++operations == MAX_BATCH_OPERATIONS) {
+                    commits.add(batch.commit());
+                    batch = db.batch();
+                    operations = 0;
+                }
+            }
+
+            // The event and its waitlist go in the same batch
+            if (operations + 2 > MAX_BATCH_OPERATIONS) {
+                commits.add(batch.commit());
+                batch = db.batch();
+                operations = 0;
+            }
+            DocumentReference eventRef = db.collection(WaitlistService.EVENTS_COLLECTION).document(event.getId());
+            batch.set(eventRef, event);
+            batch.update(eventRef, "waitlist.waitlistedUsers", entries);
+            operations += 2;
+
+            events.add(event);
+            waitlists.add(waitlist);
+        }
+
+        for (int j = 0; j < config.joiners; j++) {
+            User user = newUser(userIndex++);
+            joiners.add(user);
+            batch.set(userRef(user), user);
+            if (++operations == MAX_BATCH_OPERATIONS) {
+                commits.add(batch.commit());
+                batch = db.batch();
+                operations = 0;
+            }
+        }
+
+        if (operations > 0) {
+            commits.add(batch.commit());
+        }
+        Tasks.await(Tasks.whenAll(commits), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private User newUser(int index) {
+        String id = runId + "-user-" + index;
+        return new User(id, "Load Test User " + index, "user" + index + "@loadtest.example");
+    }
+
+    private DocumentReference userRef(User user) {
+        return db.collection(WaitlistService.USERS_COLLECTION).document(user.getId());
+    }
+
+    /** @return the seeded events */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * @param eventIndex the index of an event in {@link #getEvents()}
+     * @return the users seeded on that event's waitlist
+     */
+    public List<User> getWaitlist(int eventIndex) {
+        return waitlists.get(eventIndex);
+    }
+
+    /** @return the users who are not on any waitlist yet */
+    public List<User> getJoiners() {
+        return joiners;
+    }
+}
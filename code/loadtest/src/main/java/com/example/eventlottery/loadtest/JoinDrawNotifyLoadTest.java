@@ -0,0 +1,212 @@
+package com.example.eventlottery.loadtest;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.eventlottery.events.Event;
+import com.example.eventlottery.events.NotificationLogWriter;
+import com.example.eventlottery.events.WaitlistService;
+import com.example.eventlottery.users.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.MemoryCacheSettings;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the join, leave, draw and notify flows against the Firestore emulator.
+ * <p>
+ * Seeds the emulator with {@link LoadTestConfig#events} events, each with a waitlist of
+ * {@link LoadTestConfig#waitlistSize} users, then runs through the same code paths as the app:
+ * <ul>
+ *     <li>join: {@link LoadTestConfig#joiners} users join a waitlist through {@link WaitlistService#join},
+ *     as {@code EventJoinAndLeave} does,</li>
+ *     <li>leave: {@link LoadTestConfig#leavers} of them leave again through {@link WaitlistService#leave},</li>
+ *     <li>draw: every event is read, drawn with {@link Event#drawLotteryWinners(int)} and recorded
+ *     through {@link WaitlistService}, as {@code EditEventDialog} does,</li>
+ *     <li>notify: the winners' notification log is written through {@link NotificationLogWriter}.
+ *     FCM itself can't be reached offline, so only the Firestore side of notifying is measured.</li>
+ * </ul>
+ * Up to {@link LoadTestConfig#concurrency} operations are in flight at once. The p50/p95/p99
+ * latencies and throughput of each operation are logged under the {@code LoadTest} tag.
+ * </p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class JoinDrawNotifyLoadTest {
+    private static final String TAG = "LoadTest";
+    /** Emulator-only project; "demo-" projects never reach production. */
+    private static final String PROJECT_ID = "demo-eventlottery";
+    private static final long OPERATION_TIMEOUT_SECONDS = 60;
+
+    private static FirebaseFirestore db;
+    private static LoadTestConfig config;
+
+    /**
+     * Connects a dedicated Firebase app to the emulator, so the run can't touch the live project.
+     */
+    @BeforeClass
+    public static void connectToEmulator() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        config = new LoadTestConfig(InstrumentationRegistry.getArguments());
+
+        FirebaseOptions options = new FirebaseOptions.Builder()
+                .setProjectId(PROJECT_ID)
+                .setApplicationId("1:000000000000:android:0000000000000000")
+                .setApiKey("demo-api-key")
+                .build();
+        FirebaseApp app = FirebaseApp.initializeApp(context, options, TAG);
+
+        db = FirebaseFirestore.getInstance(app);
+        db.useEmulator(config.emulatorHost, config.emulatorPort);
+        // No local cache, so every latency is a round trip to the emulator
+        db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(MemoryCacheSettings.newBuilder().build())
+                .build());
+    }
+
+    /**
+     * Seeds the emulator, runs every phase and reports the latencies of each operation.
+     */
+    @Test
+    public void joinDrawNotify() throws Exception {
+        Log.i(TAG, "Starting load test: " + config);
+        String runId = "loadtest-" + System.currentTimeMillis();
+        LatencyRecorder recorder = new LatencyRecorder();
+        WaitlistService waitlistService = new WaitlistService(db);
+        NotificationLogWriter logWriter = new NotificationLogWriter(db);
+
+        long seedStart = System.nanoTime();
+        EmulatorSeeder seeder = new EmulatorSeeder(db, runId);
+        seeder.seed(config);
+        Log.i(TAG, "Seeded " + config.events + " events and " + config.users() + " users in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart) + " ms");
+
+        List<Event> events = seeder.getEvents();
+        List<User> joiners = seeder.getJoiners();
+
+        // Join: joiners are spread evenly over the events
+        List<Callable<Task<?>>> joins = new ArrayList<>();
+        for (int j = 0; j < joiners.size(); j++) {
+            User user = joiners.get(j);
+            String eventId = events.get(j % events.size()).getId();
+            joins.add(() -> waitlistService.join(eventId, user, null));
+        }
+        runPhase("join", joins, recorder);
+
+        // Leave
+        List<Callable<Task<?>>> leaves = new ArrayList<>();
+        for (int j = 0; j < Math.min(config.leavers, joiners.size()); j++) {
+            User user = joiners.get(j);
+            String eventId = events.get(j % events.size()).getId();
+            leaves.add(() -> waitlistService.leave(eventId, user, false));
+        }
+        runPhase("leave", leaves, recorder);
+
+        // Draw, then notify the winners of each event
+        List<List<User>> winnersPerEvent = new ArrayList<>();
+        List<Callable<Task<?>>> draws = new ArrayList<>();
+        for (Event seeded : events) {
+            List<User> winners = new ArrayList<>();
+            winnersPerEvent.add(winners);
+            draws.add(() -> draw(waitlistService, seeded.getId(), winners));
+        }
+        runPhase("draw", draws, recorder);
+
+        List<Callable<Task<?>>> notifies = new ArrayList<>();
+        for (int e = 0; e < events.size(); e++) {
+            Event event = events.get(e);
+            List<User> winners = winnersPerEvent.get(e);
+            notifies.add(() -> logWriter.write(event.getOrganizer(), "Load Test Organizer", winners,
+                    "You have been selected for " + event.getName(), event.getName(), "selected"));
+        }
+        runPhase("notify", notifies, recorder);
+
+        Log.i(TAG, "Load test results (" + config + "):\n" + recorder.report());
+
+        for (String operation : new String[]{"join", "leave", "draw", "notify"}) {
+            assertEquals(operation + " failures", 0, recorder.getFailures(operation));
+        }
+    }
+
+    /**
+     * Reads an event, draws its winners and records the draw, as the organizer's lottery does.
+     * @param waitlistService the service writing the draw
+     * @param eventId the event to draw
+     * @param winnersOut receives the drawn winners
+     * @return a task completing once the event and every winner have been updated
+     */
+    private static Task<Void> draw(WaitlistService waitlistService, String eventId, List<User> winnersOut) {
+        return db.collection(WaitlistService.EVENTS_COLLECTION).document(eventId).get()
+                .onSuccessTask(snapshot -> {
+                    Event event = toEvent(snapshot);
+                    int capacity = Math.min(config.drawCapacity, event.getWaitlist().getWaitlistedUsers().size());
+                    winnersOut.addAll(event.drawLotteryWinners(capacity));
+
+                    List<String> winnerIds = event.getSelectedIds();
+                    List<Task<Void>> writes = new ArrayList<>();
+                    writes.add(waitlistService.recordDraw(event, winnerIds));
+                    writes.addAll(waitlistService.updateWinnerUserDocuments(eventId, winnerIds));
+                    return Tasks.whenAll(writes);
+                });
+    }
+
+    private static Event toEvent(DocumentSnapshot snapshot) {
+        Event event = snapshot.toObject(Event.class);
+        if (event == null) {
+            throw new IllegalStateException("Seeded event is missing: " + snapshot.getId());
+        }
+        event.setId(snapshot.getId());
+        return event;
+    }
+
+    /**
+     * Runs the operations of a phase with at most {@link LoadTestConfig#concurrency} in flight,
+     * recording the latency of each and the wall time of the whole phase.
+     * @param operation the name the phase is reported under
+     * @param operations the operations; each starts its Firestore work when called
+     * @param recorder the recorder to report to
+     */
+    private static void runPhase(String operation, List<Callable<Task<?>>> operations,
+                                 LatencyRecorder recorder) throws InterruptedException {
+        if (operations.isEmpty()) return;
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency);
+        long phaseStart = System.nanoTime();
+        for (Callable<Task<?>> op : operations) {
+            workers.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    Tasks.await(op.call(), OPERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    recorder.record(operation, System.nanoTime() - start);
+                } catch (Exception e) {
+                    Log.e(TAG, "✗ " + operation + " failed", e);
+                    recorder.recordFailure(operation);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(operations.size() * OPERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        recorder.recordWallTime(operation, System.nanoTime() - phaseStart);
+        Log.i(TAG, "✓ " + operation + ": " + recorder.getCount(operation) + " done, "
+                + recorder.getFailures(operation) + " failed");
+    }
+}
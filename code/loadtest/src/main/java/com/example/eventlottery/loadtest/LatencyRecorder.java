@@ -0,0 +1,138 @@
+package com.example.eventlottery.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects the latencies of the operations run by a load test and summarizes them
+ * as percentiles and throughput per operation.
+ * <p>
+ * Recording is thread-safe, since operations are run from a pool of worker threads.
+ * </p>
+ */
+public class LatencyRecorder {
+
+    /** Latencies and failures of one operation. */
+    private static class Samples {
+        final List<Long> latenciesNanos = new ArrayList<>();
+        int failures;
+        long wallNanos;
+    }
+
+    private final Map<String, Samples> samples = new LinkedHashMap<>();
+
+    /**
+     * Records a completed operation.
+     * @param operation the name of the operation (join, leave, draw, notify...)
+     * @param latencyNanos the time the operation took
+     */
+    public synchronized void record(String operation, long latencyNanos) {
+        samplesFor(operation).latenciesNanos.add(latencyNanos);
+    }
+
+    /**
+     * Records a failed operation. Failures are counted but not included in the percentiles.
+     * @param operation the name of the operation
+     */
+    public synchronized void recordFailure(String operation) {
+        samplesFor(operation).failures++;
+    }
+
+    /**
+     * Records the wall-clock time a phase of operations took, used for throughput.
+     * @param operation the name of the operation
+     * @param wallNanos the time from starting the first operation to finishing the last
+     */
+    public synchronized void recordWallTime(String operation, long wallNanos) {
+        samplesFor(operation).wallNanos += wallNanos;
+    }
+
+    private Samples samplesFor(String operation) {
+        Samples s = samples.get(operation);
+        if (s == null) {
+            s = new Samples();
+            samples.put(operation, s);
+        }
+        return s;
+    }
+
+    /**
+     * @param operation the name of the operation
+     * @return the number of failed operations
+     */
+    public synchronized int getFailures(String operation) {
+        Samples s = samples.get(operation);
+        return s == null ? 0 : s.failures;
+    }
+
+    /**
+     * @param operation the name of the operation
+     * @return the number of successful operations
+     */
+    public synchronized int getCount(String operation) {
+        Samples s = samples.get(operation);
+        return s == null ? 0 : s.latenciesNanos.size();
+    }
+
+    /**
+     * Computes a percentile of the recorded latencies with the nearest-rank method.
+     * @param operation the name of the operation
+     * @param percentile the percentile, between 0 (exclusive) and 100 (inclusive)
+     * @return the latency in milliseconds, or 0 if nothing was recorded
+     */
+    public synchronized double percentileMillis(String operation, double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        Samples s = samples.get(operation);
+        if (s == null || s.latenciesNanos.isEmpty()) return 0;
+
+        long[] sorted = sorted(s.latenciesNanos);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[rank - 1] / 1_000_000.0;
+    }
+
+    /**
+     * @param operation the name of the operation
+     * @return the number of successful operations per second of wall time, or 0 if unknown
+     */
+    public synchronized double throughputPerSecond(String operation) {
+        Samples s = samples.get(operation);
+        if (s == null || s.wallNanos <= 0) return 0;
+        return s.latenciesNanos.size() / (s.wallNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * @return a table with one row per operation: count, failures, p50, p95, p99, max and throughput
+     */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-10s %8s %8s %10s %10s %10s %10s %12s%n",
+                "operation", "count", "failed", "p50 ms", "p95 ms", "p99 ms", "max ms", "ops/s"));
+        for (String operation : samples.keySet()) {
+            sb.append(String.format(Locale.ROOT, "%-10s %8d %8d %10.1f %10.1f %10.1f %10.1f %12.1f%n",
+                    operation,
+                    getCount(operation),
+                    getFailures(operation),
+                    percentileMillis(operation, 50),
+                    percentileMillis(operation, 95),
+                    percentileMillis(operation, 99),
+                    percentileMillis(operation, 100),
+                    throughputPerSecond(operation)));
+        }
+        return sb.toString();
+    }
+
+    private static long[] sorted(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+}
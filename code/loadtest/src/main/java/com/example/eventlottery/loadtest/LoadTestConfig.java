@@ -0,0 +1,60 @@
+package com.example.eventlottery.loadtest;
+
+import android.os.Bundle;
+
+/**
+ * Sizes of a load test run, read from the instrumentation arguments so they can be set
+ * from the command line, e.g.
+ * {@code ./gradlew :loadtest:connectedCheck -Pandroid.testInstrumentationRunnerArguments.joiners=2000}
+ */
+public class LoadTestConfig {
+    /** Number of events seeded. */
+    public final int events;
+    /** Number of users seeded on each event's waitlist before the run. */
+    public final int waitlistSize;
+    /** Number of additional users joining a waitlist during the run. */
+    public final int joiners;
+    /** Number of joiners leaving their waitlist again. */
+    public final int leavers;
+    /** Number of operations in flight at the same time. */
+    public final int concurrency;
+    /** Number of winners drawn per event. */
+    public final int drawCapacity;
+    /** Host of the Firestore emulator, as seen from the device. */
+    public final String emulatorHost;
+    /** Port of the Firestore emulator. */
+    public final int emulatorPort;
+
+    /**
+     * Reads the configuration, falling back to defaults for missing arguments.
+     * @param args the instrumentation arguments
+     */
+    public LoadTestConfig(Bundle args) {
+        events = intArg(args, "events", 10);
+        waitlistSize = intArg(args, "waitlistSize", 100);
+        joiners = intArg(args, "joiners", 500);
+        leavers = intArg(args, "leavers", joiners / 10);
+        concurrency = intArg(args, "concurrency", 32);
+        drawCapacity = intArg(args, "drawCapacity", 20);
+        // 10.0.2.2 is the host machine as seen from the Android emulator
+        emulatorHost = args.getString("emulatorHost", "10.0.2.2");
+        emulatorPort = intArg(args, "emulatorPort", 8080);
+    }
+
+    /** @return the number of users seeded: the initial waitlists plus the joiners */
+    public int users() {
+        return events * waitlistSize + joiners;
+    }
+
+    private static int intArg(Bundle args, String key, int defaultValue) {
+        String value = args.getString(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    @Override
+    public String toString() {
+        return "events=" + events + ", waitlistSize=" + waitlistSize + ", joiners=" + joiners
+                + ", leavers=" + leavers + ", concurrency=" + concurrency
+                + ", drawCapacity=" + drawCapacity;
+    }
+}
@@ -0,0 +1,53 @@
+// Macrobenchmarks of app startup, run on a connected device or Android emulator.
+// They install and measure the app's "benchmark" build type: release code, debug-signed,
+// profileable from the shell.
+// Run with:
+//   ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest
+// Results (timeToInitialDisplayMs, timeToFullDisplayMs) are written to
+// macrobenchmark/build/outputs/connected_android_test_additional_output/.
+plugins {
+    alias(libs.plugins.android.test)
+}
+
+android {
+    namespace = "com.example.eventlottery.macrobenchmark"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 26
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    buildTypes {
+        // Matches the app's benchmark build type
+        create("benchmark") {
+            isDebuggable = true
+            signingConfig = getByName("debug").signingConfig
+            matchingFallbacks += listOf("release")
+        }
+    }
+
+    // Measures the app in its own process
+    targetProjectPath = ":app"
+    experimentalProperties["android.experimental.self-instrumenting"] = true
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    implementation("androidx.test.ext:junit:1.1.5")
+    implementation("androidx.test.uiautomator:uiautomator:2.3.0")
+    implementation("androidx.benchmark:benchmark-macro-junit4:1.4.1")
+}
+
+// Only the benchmark build type is meaningful to measure
+androidComponents {
+    beforeVariants(selector().all()) {
+        it.enable = it.buildType == "benchmark"
+    }
+}
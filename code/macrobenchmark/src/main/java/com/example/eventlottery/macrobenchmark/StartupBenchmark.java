@@ -0,0 +1,120 @@
+package com.example.eventlottery.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Measures how long the app takes to start, from launch until MainActivity lists events.
+ * <p>
+ * MainActivity calls reportFullyDrawn once the first page of events is bound to its list,
+ * whether it came from {@code AppStartup} or the first snapshot, so timeToFullDisplayMs is the
+ * time until events are listed; timeToInitialDisplayMs is the time until the splash screen's
+ * first frame.
+ * </p>
+ * <ul>
+ *     <li>cold: the process is killed before each launch, so every startup task runs</li>
+ *     <li>warm: the process stays alive, so the startup of the first launch is reused</li>
+ *     <li>cold without compilation / with the baseline profile: the same cold start with the app
+ *     interpreted and JIT-compiled, and with the baseline profile compiled ahead of time. The
+ *     difference between the two is what the profile saves on a fresh install.</li>
+ * </ul>
+ * <p>
+ * The startup trace sections ("AppStartup.*", "MainActivity.onCreate", "Events.applySnapshot",
+ * "MyAdapter.bind") are reported alongside, to see which phase a change moved.
+ * </p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+    private static final String PACKAGE = "com.example.eventlottery";
+    private static final int ITERATIONS = 10;
+    /** How long to wait for MainActivity's list to appear. */
+    private static final long LIST_TIMEOUT_MILLIS = 10_000;
+    /** The trace sections added around the startup phases. */
+    private static final String[] TRACE_SECTIONS = {
+            "AppStartup.ready",
+            "AppStartup.firebase",
+            "AppStartup.user",
+            "AppStartup.firstPage",
+            "MainActivity.onCreate",
+            "Events.applySnapshot",
+            "MyAdapter.bind"
+    };
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    /** Startup with a fresh process. */
+    @Test
+    public void coldStartup() {
+        measureStartup(StartupMode.COLD);
+    }
+
+    /** Startup with the process still alive, the activities recreated. */
+    @Test
+    public void warmStartup() {
+        measureStartup(StartupMode.WARM);
+    }
+
+    /** Cold startup with no ahead-of-time compilation, the baseline to compare the profile against. */
+    @Test
+    public void coldStartupNoCompilation() {
+        measureStartup(StartupMode.COLD, new CompilationMode.None());
+    }
+
+    /** Cold startup with the baseline profile compiled; fails if the app has no profile. */
+    @Test
+    public void coldStartupBaselineProfile() {
+        measureStartup(StartupMode.COLD, new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void measureStartup(StartupMode mode) {
+        measureStartup(mode, CompilationMode.DEFAULT);
+    }
+
+    private void measureStartup(StartupMode mode, CompilationMode compilationMode) {
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(new StartupTimingMetric());
+        for (String section : TRACE_SECTIONS) {
+            metrics.add(new TraceSectionMetric(section));
+        }
+
+        benchmarkRule.measureRepeated(
+                PACKAGE,
+                metrics,
+                compilationMode,
+                mode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    waitForEventList(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    /** Waits until MainActivity has replaced the splash screen. */
+    private static void waitForEventList(MacrobenchmarkScope scope) {
+        scope.getDevice().wait(Until.hasObject(By.res(PACKAGE, "recycler_view")), LIST_TIMEOUT_MILLIS);
+    }
+}
@@ -21,3 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "EventLottery"
 include(":app")
+include(":benchmarks")
+include(":loadtest")
+include(":macrobenchmark")
+include(":baselineprofile")